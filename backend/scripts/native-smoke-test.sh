@@ -0,0 +1,40 @@
+#!/bin/bash
+#
+# Builds the native image and runs NativeImageSmokeTest against the binary.
+#
+# Needs GraalVM 21 as JAVA_HOME and a running PostgreSQL (SPRING_DATASOURCE_URL/
+# USERNAME/PASSWORD as for the application):
+#   ./scripts/native-smoke-test.sh [--skip-build]
+
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+PORT=${NATIVE_PORT:-18080}
+LOG=target/native-smoke-test.log
+
+if [ "${1:-}" != "--skip-build" ]; then
+    echo "Building (mvn -Pnative native:compile)..."
+    mvn -B -q clean native:compile -Pnative -DskipTests
+fi
+
+target/hansal-backend --server.port="$PORT" > "$LOG" 2>&1 &
+PID=$!
+trap 'kill "$PID" 2> /dev/null || true' EXIT
+
+for _ in $(seq 1 300); do
+    if grep -q 'Application ready' "$LOG"; then
+        break
+    fi
+    if ! kill -0 "$PID" 2> /dev/null; then
+        echo "Binary exited, log:" >&2
+        tail -40 "$LOG" >&2
+        exit 1
+    fi
+    sleep 0.1
+done
+grep -o 'Application ready: .*' "$LOG"
+
+# The test classes run on the JVM; only the application under test is native
+mvn -B -q surefire:test -Dtest=NativeImageSmokeTest -Dnative.url="http://localhost:$PORT" \
+    -Dsurefire.failIfNoSpecifiedTests=false
@@ -0,0 +1,71 @@
+#!/bin/bash
+#
+# Measures the time to ready and the resident memory of the backend in each
+# startup mode:
+#   default         executable jar, eager beans
+#   fast-start      executable jar, lazy beans (profile fast-start)
+#   cds             thin jar with the AppCDS archive
+#   cds+fast-start  both
+#   native          GraalVM native image (only with native-image on the PATH)
+#
+# Needs a running PostgreSQL (SPRING_DATASOURCE_URL/USERNAME/PASSWORD as for the
+# application) and builds the jars and the binary first:
+#   ./scripts/startup-benchmark.sh [runs per mode, default 5]
+#
+# The time to ready is read from the "Application ready" log line, i.e. until
+# the ApplicationReadyEvent; deferred startup tasks run after it. The memory is
+# the RSS at that moment, before the first request.
+
+set -euo pipefail
+
+RUNS=${1:-5}
+cd "$(dirname "$0")/.."
+
+LOG=$(mktemp)
+trap 'rm -f "$LOG"' EXIT
+
+measure() {
+    local mode=$1
+    shift
+    local total=0 total_rss=0 run ready rss
+    for run in $(seq 1 "$RUNS"); do
+        "$@" --server.port=0 > "$LOG" 2>&1 &
+        local pid=$!
+        ready=""
+        for _ in $(seq 1 600); do
+            ready=$(grep -o 'Application ready: startup=[0-9]*' "$LOG" | grep -o '[0-9]*$' || true)
+            if [ -n "$ready" ] || ! kill -0 "$pid" 2> /dev/null; then
+                break
+            fi
+            sleep 0.1
+        done
+        rss=$(awk '/^VmRSS:/ {print $2}' "/proc/$pid/status" 2> /dev/null || echo 0)
+        kill "$pid" 2> /dev/null || true
+        wait "$pid" 2> /dev/null || true
+        if [ -z "$ready" ]; then
+            echo "$mode: application did not become ready, log:" >&2
+            tail -20 "$LOG" >&2
+            exit 1
+        fi
+        total=$((total + ready))
+        total_rss=$((total_rss + rss))
+    done
+    printf "%-16s %6d ms %6d MB RSS (average of %d)\n" "$mode" $((total / RUNS)) $((total_rss / RUNS / 1024)) "$RUNS"
+}
+
+echo "Building (mvn -Pcds package)..."
+mvn -B -q clean package -Pcds -DskipTests
+
+measure "default"        java -jar target/application-exec.jar
+measure "fast-start"     java -jar target/application-exec.jar --spring.profiles.active=fast-start
+measure "cds"            java -XX:SharedArchiveFile=target/application.jsa -jar target/application.jar
+measure "cds+fast-start" java -XX:SharedArchiveFile=target/application.jsa -jar target/application.jar \
+                         --spring.profiles.active=fast-start
+
+if command -v native-image > /dev/null; then
+    echo "Building (mvn -Pnative native:compile)..."
+    mvn -B -q clean native:compile -Pnative -DskipTests
+    measure "native"     target/hansal-backend
+else
+    echo "native           skipped, native-image not found (GraalVM 21 as JAVA_HOME)"
+fi
@@ -0,0 +1,41 @@
+package com.hansal.verrechnungsprogramm.config;
+
+import com.hansal.verrechnungsprogramm.service.TableVersionService;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registers the {@link ConditionalGetFilter} for the lists the client loads
+ * whenever a view opens. Each entry names every table the responses below the
+ * path are built from, including the ones reached through associations.
+ */
+@Configuration
+public class ConditionalGetConfig {
+
+    @Bean
+    public FilterRegistrationBean<ConditionalGetFilter> conditionalGetFilter(TableVersionService tableVersionService) {
+        Map<String, List<String>> tablesByPattern = new LinkedHashMap<>();
+        tablesByPattern.put("/api/products/**", List.of("products", "meat_cuts"));
+        tablesByPattern.put("/api/slaughters/**", List.of("slaughters", "meat_cuts", "products"));
+        tablesByPattern.put("/api/orders/**",
+                List.of("orders", "order_items", "products", "meat_cuts", "meat_cut_allocations", "slaughters"));
+        tablesByPattern.put("/api/invoices/**", List.of("invoices", "orders", "order_items", "products", "meat_cuts"));
+        tablesByPattern.put("/api/dashboard/counts", List.of("products", "orders", "invoices"));
+
+        List<String> excludedPatterns = List.of(
+                "/api/slaughters/yields",
+                "/api/slaughters/*/yield",
+                "/api/invoices/batch/**");
+
+        FilterRegistrationBean<ConditionalGetFilter> registration = new FilterRegistrationBean<>(
+                new ConditionalGetFilter(tableVersionService, tablesByPattern, excludedPatterns));
+        registration.addUrlPatterns("/api/products", "/api/products/*", "/api/slaughters", "/api/slaughters/*",
+                "/api/orders", "/api/orders/*", "/api/invoices", "/api/invoices/*", "/api/dashboard/counts");
+        return registration;
+    }
+}
@@ -0,0 +1,85 @@
+package com.hansal.verrechnungsprogramm.config;
+
+import com.hansal.verrechnungsprogramm.service.TableVersionService;
+import com.hansal.verrechnungsprogramm.service.TableVersionService.Snapshot;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Conditional GET for read endpoints whose responses only depend on a few tables.
+ * <p>
+ * The ETag is built from the change counters of those tables and the
+ * Last-Modified date from their last change, so a request with a matching
+ * {@code If-None-Match} or {@code If-Modified-Since} is answered with 304 after
+ * a single small query, before the controller loads any entity. Responses are
+ * marked {@code no-cache}: clients keep them but revalidate every time.
+ */
+@Slf4j
+public class ConditionalGetFilter extends OncePerRequestFilter {
+
+    private final TableVersionService tableVersionService;
+    private final Map<String, List<String>> tablesByPattern;
+    private final List<String> excludedPatterns;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    /**
+     * @param tablesByPattern  path patterns and the tables their responses are read from, first match wins
+     * @param excludedPatterns paths served from derived data that is refreshed asynchronously
+     */
+    public ConditionalGetFilter(TableVersionService tableVersionService,
+                                Map<String, List<String>> tablesByPattern,
+                                List<String> excludedPatterns) {
+        this.tableVersionService = tableVersionService;
+        this.tablesByPattern = tablesByPattern;
+        this.excludedPatterns = excludedPatterns;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !("GET".equals(method) || "HEAD".equals(method)) || tablesFor(request.getRequestURI()) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Snapshot snapshot = tableVersionService.snapshot(tablesFor(request.getRequestURI()));
+        String etag = "W/\"" + snapshot.tag() + "\"";
+        long lastModified = snapshot.lastModified() != null
+                ? snapshot.lastModified().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : -1;
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            log.debug("Not modified: path={}, etag={}", request.getRequestURI(), etag);
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    private List<String> tablesFor(String path) {
+        for (String excluded : excludedPatterns) {
+            if (pathMatcher.match(excluded, path)) {
+                return null;
+            }
+        }
+        for (Map.Entry<String, List<String>> entry : tablesByPattern.entrySet()) {
+            if (pathMatcher.match(entry.getKey(), path)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,24 @@
+package com.hansal.verrechnungsprogramm.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hansal.verrechnungsprogramm.service.IdempotencyService;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the {@link IdempotencyFilter} for the create requests the client
+ * retries on flaky connections.
+ */
+@Configuration
+public class IdempotencyConfig {
+
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(IdempotencyService idempotencyService,
+                                                                       ObjectMapper objectMapper) {
+        FilterRegistrationBean<IdempotencyFilter> registration =
+                new FilterRegistrationBean<>(new IdempotencyFilter(idempotencyService, objectMapper));
+        registration.addUrlPatterns("/api/orders", "/api/invoices/from-order/*");
+        return registration;
+    }
+}
@@ -0,0 +1,199 @@
+package com.hansal.verrechnungsprogramm.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hansal.verrechnungsprogramm.service.IdempotencyService;
+import com.hansal.verrechnungsprogramm.service.IdempotencyService.StoredResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Deduplicates retried POST requests carrying an {@code Idempotency-Key} header.
+ * <p>
+ * The first successful response for a key is stored; a retry with the same key
+ * gets that response again, marked with {@code Idempotent-Replayed: true},
+ * without the request reaching the controller. Failed requests are not stored,
+ * so they can be retried with the same key.
+ * <p>
+ * A key belongs to one request: a retry must have the same method, path, query
+ * and body (compared by SHA-256 hash), otherwise it is rejected with 422. The
+ * body is read up front for the hash and handed on from memory.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyService idempotencyService;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || request.getHeader(KEY_HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = request.getHeader(KEY_HEADER).trim();
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST,
+                    KEY_HEADER + " muss zwischen 1 und " + MAX_KEY_LENGTH + " Zeichen lang sein");
+            return;
+        }
+        String method = request.getMethod();
+        String path = request.getRequestURI();
+        byte[] body = request.getInputStream().readAllBytes();
+        String requestHash = hash(request.getQueryString(), body);
+
+        Lock lock = idempotencyService.lockFor(key);
+        lock.lock();
+        try {
+            Optional<StoredResponse> stored = idempotencyService.find(key);
+            if (stored.isPresent()) {
+                replay(stored.get(), method, path, requestHash, key, response);
+                return;
+            }
+
+            ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+            chain.doFilter(new CachedBodyRequest(request, body), wrapper);
+            int status = wrapper.getStatus();
+            if (status >= 200 && status < 300) {
+                idempotencyService.store(key, method, path, requestHash, status, wrapper.getContentType(),
+                        new String(wrapper.getContentAsByteArray(), StandardCharsets.UTF_8));
+            }
+            wrapper.copyBodyToResponse();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void replay(StoredResponse stored, String method, String path, String requestHash, String key,
+                        HttpServletResponse response) throws IOException {
+        // Records stored before the hash was recorded have none; those compare by method and path only
+        if (!stored.method().equals(method) || !stored.path().equals(path)
+                || (stored.requestHash() != null && !stored.requestHash().equals(requestHash))) {
+            log.warn("Idempotency key reused for another request: key={}, storedPath={}, path={}",
+                    key, stored.path(), path);
+            writeError(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                    KEY_HEADER + " wurde bereits für eine andere Anfrage verwendet");
+            return;
+        }
+        log.info("Replaying idempotent response: key={}, path={}, status={}", key, path, stored.status());
+        response.setStatus(stored.status());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        if (stored.body() != null) {
+            byte[] body = stored.body().getBytes(StandardCharsets.UTF_8);
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+        }
+    }
+
+    private static String hash(String queryString, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            if (queryString != null) {
+                digest.update(queryString.getBytes(StandardCharsets.UTF_8));
+            }
+            // Separates the query from the body, so moving characters between them changes the hash
+            digest.update((byte) 0);
+            return HexFormat.of().formatHex(digest.digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", LocalDateTime.now().toString());
+        body.put("status", status.value());
+        body.put("error", status.getReasonPhrase());
+        body.put("message", message);
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    /**
+     * Request whose body was already read, served again from memory.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            Charset charset = getCharacterEncoding() != null ? Charset.forName(getCharacterEncoding()) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.hansal.verrechnungsprogramm.config;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ReflectionUtils;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps beans eager that must exist from the start when
+ * {@code spring.main.lazy-initialization} is on (profile {@code fast-start}).
+ * <p>
+ * Lazily, a bean is created when it is first used. Beans with a
+ * {@code @PostConstruct} method register themselves somewhere, e.g. the
+ * Hibernate listeners, and beans with {@code @Scheduled} methods are only
+ * scheduled once they exist, so neither may wait for a first use. Everything
+ * else, e.g. the controllers and the PDF and export services, is created on the
+ * first request that needs it.
+ */
+@Configuration
+public class LazyInitializationConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter eagerSideEffectBeans() {
+        return (beanName, beanDefinition, beanType) ->
+                beanType != null && (hasMethodAnnotated(beanType, PostConstruct.class)
+                        || hasMethodAnnotated(beanType, Scheduled.class));
+    }
+
+    private static boolean hasMethodAnnotated(Class<?> type, Class<? extends java.lang.annotation.Annotation> annotation) {
+        AtomicBoolean found = new AtomicBoolean();
+        ReflectionUtils.doWithMethods(type,
+                method -> found.set(true),
+                method -> !found.get() && AnnotatedElementUtils.hasAnnotation(method, annotation));
+        return found.get();
+    }
+}
@@ -0,0 +1,14 @@
+package com.hansal.verrechnungsprogramm.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Registers the reachability metadata for the GraalVM native image (Maven
+ * profile {@code native}); Spring AOT writes it next to the generated code. On
+ * the JVM nothing changes.
+ */
+@Configuration
+@ImportRuntimeHints(NativeImageRuntimeHints.class)
+public class NativeImageConfig {
+}
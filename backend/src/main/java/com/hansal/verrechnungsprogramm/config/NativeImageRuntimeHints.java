@@ -0,0 +1,85 @@
+package com.hansal.verrechnungsprogramm.config;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+import java.util.List;
+
+/**
+ * Reachability metadata for the native image that neither Spring AOT nor the
+ * GraalVM metadata repository provides.
+ * <ul>
+ *   <li>iText: the metrics of the 14 standard fonts, the glyph list and the CJK
+ *   registry read when the font cache starts (the CMaps themselves are left out,
+ *   the PDFs only use standard fonts), the DI container of the forms module it
+ *   loads by name, and the logo the letterhead decodes with {@code ImageDataFactory}.</li>
+ *   <li>Liquibase: the included changesets; Spring Boot only registers the
+ *   master changelog.</li>
+ *   <li>The default products loaded by the database reset.</li>
+ *   <li>jjwt 0.12: the implementation classes the API instantiates by name (the
+ *   repository only has metadata for 0.11).</li>
+ *   <li>Second-level cache: the JCache provider looked up by name, the
+ *   defaults of Caffeine's JCache module and its statistics MBean.</li>
+ * </ul>
+ * Hibernate proxies cannot be generated at runtime at all; the {@code native}
+ * Maven profile enhances the entities at build time, so lazy associations are
+ * loaded through the enhanced entities instead of proxies.
+ */
+public class NativeImageRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final List<String> JJWT_IMPLEMENTATIONS = List.of(
+            "io.jsonwebtoken.impl.DefaultClaimsBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtHeaderBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.io.StandardCompressionAlgorithms",
+            "io.jsonwebtoken.impl.security.DefaultDynamicJwkBuilder",
+            "io.jsonwebtoken.impl.security.DefaultJwkParserBuilder",
+            "io.jsonwebtoken.impl.security.DefaultJwkSetBuilder",
+            "io.jsonwebtoken.impl.security.DefaultJwkSetParserBuilder",
+            "io.jsonwebtoken.impl.security.DefaultKeyOperationBuilder",
+            "io.jsonwebtoken.impl.security.DefaultKeyOperationPolicyBuilder",
+            "io.jsonwebtoken.impl.security.JwksBridge",
+            "io.jsonwebtoken.impl.security.KeysBridge",
+            "io.jsonwebtoken.impl.security.StandardCurves",
+            "io.jsonwebtoken.impl.security.StandardEncryptionAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardHashAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyOperations",
+            "io.jsonwebtoken.impl.security.StandardSecureDigestAlgorithms",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer");
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        // iText
+        hints.resources()
+                .registerPattern("com/itextpdf/io/font/afm/*.afm")
+                .registerPattern("com/itextpdf/io/font/AdobeGlyphList.txt")
+                .registerPattern("com/itextpdf/io/font/cmap/*.properties")
+                .registerPattern("static/logo.jpg");
+        hints.reflection().registerType(TypeReference.of("com.itextpdf.forms.util.RegisterDefaultDiContainer"),
+                MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+
+        // Liquibase and the seed data
+        hints.resources().registerPattern("db/changelog/changes/*.yaml");
+        hints.resources().registerPattern("seed/*.json");
+
+        // jjwt
+        JJWT_IMPLEMENTATIONS.forEach(type -> hints.reflection().registerType(TypeReference.of(type),
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS));
+
+        // Second-level cache
+        hints.reflection().registerType(
+                TypeReference.of("com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider"),
+                MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        hints.resources().registerPattern("reference.conf");
+        // Region statistics are published as MBeans, which are introspected reflectively
+        List.of("com.github.benmanes.caffeine.jcache.management.JCacheStatisticsMXBean",
+                "javax.cache.management.CacheStatisticsMXBean")
+                .forEach(type -> hints.reflection().registerType(TypeReference.of(type),
+                        MemberCategory.INVOKE_PUBLIC_METHODS));
+    }
+}
@@ -0,0 +1,28 @@
+package com.hansal.verrechnungsprogramm.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Worker pool for background PDF jobs. The pool and its queue are bounded so
+ * a burst of batch requests cannot starve the database pool or the heap;
+ * submissions beyond the queue capacity are rejected.
+ */
+@Configuration
+public class PdfJobConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor pdfJobExecutor(
+            @Value("${app.pdf-jobs.concurrency:2}") int concurrency,
+            @Value("${app.pdf-jobs.queue-capacity:20}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("pdf-job-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+}
@@ -0,0 +1,85 @@
+package com.hansal.verrechnungsprogramm.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hibernate second-level cache for reference data, backed by Caffeine through
+ * JCache.
+ * <p>
+ * Every region is created here with its own size and TTL from
+ * {@code app.l2-cache.<region>.max-size} and {@code .ttl-minutes}; Hibernate
+ * refuses to start if an entity names a region that is missing. Hibernate keeps
+ * the regions consistent with its own writes, including bulk JPQL updates.
+ * <p>
+ * Meat cuts are not cached: every order reserves or releases weight with a bulk
+ * JPQL update, after which Hibernate drops the whole region of the entity and of
+ * every collection and query reading {@code meat_cuts}, so such a cache would be
+ * emptied several times a minute. The slaughter's meat cut collection is not
+ * cached either, since without cached cuts it would load them one by one.
+ * <p>
+ * For the same reason the query cache is switched off: the query asked to be
+ * cached, the available meat cuts, would be invalidated by every allocation,
+ * and no other query is worth caching. With it off, writes also save the
+ * bookkeeping of the update timestamps region.
+ * <p>
+ * Plain JDBC writes bypass the cache. The bulk product insert only adds rows
+ * and cannot make an entry stale. The {@link com.hansal.verrechnungsprogramm.service.ProductSeeder}
+ * updates products with a {@code MERGE} and evicts the updated ones itself.
+ * The {@link com.hansal.verrechnungsprogramm.service.DatabaseResetService}
+ * truncates the tables and evicts all regions after its commit. Region
+ * statistics are published as {@code hibernate.second.level.cache.*} metrics.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    private static final String PRODUCT = "product";
+    private static final String USER = "user";
+    private static final String SLAUGHTER = "slaughter";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(Environment environment) {
+        // One manager per application context, so test contexts never share cached rows
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("hansal-l2-" + UUID.randomUUID()), getClass().getClassLoader());
+        createRegion(cacheManager, environment, PRODUCT, 1000, 60);
+        createRegion(cacheManager, environment, USER, 100, 60);
+        createRegion(cacheManager, environment, SLAUGHTER, 2000, 60);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+        };
+    }
+
+    private static void createRegion(CacheManager cacheManager, Environment environment, String region,
+                                     long defaultMaxSize, long defaultTtlMinutes) {
+        long maxSize = environment.getProperty("app.l2-cache." + region + ".max-size", Long.class, defaultMaxSize);
+        long ttlMinutes = environment.getProperty("app.l2-cache." + region + ".ttl-minutes", Long.class, defaultTtlMinutes);
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.MINUTES.toNanos(ttlMinutes)));
+        configuration.setStatisticsEnabled(true);
+        cacheManager.createCache(region, configuration);
+    }
+}
@@ -0,0 +1,87 @@
+package com.hansal.verrechnungsprogramm.config;
+
+import com.hansal.verrechnungsprogramm.model.*;
+import com.hansal.verrechnungsprogramm.service.SyncService;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports entity writes flushed by Hibernate to the {@link SyncService}. Meat
+ * cuts and order items are part of their slaughter's and order's payload, so
+ * their changes are reported as changes of the owner.
+ */
+@Component
+@RequiredArgsConstructor
+public class SyncChangeListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final SyncService syncService;
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        changed(event.getEntity(), event.getPersister(), event.getState());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        changed(event.getEntity(), event.getPersister(), event.getState());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        Object entity = event.getEntity();
+        if (entity instanceof Product product) {
+            syncService.markDeleted(SyncEntityType.PRODUCT, product.getId());
+        } else if (entity instanceof Slaughter slaughter) {
+            syncService.markDeleted(SyncEntityType.SLAUGHTER, slaughter.getId());
+        } else if (entity instanceof Order order) {
+            syncService.markDeleted(SyncEntityType.ORDER, order.getId());
+        } else if (entity instanceof Invoice invoice) {
+            syncService.markDeleted(SyncEntityType.INVOICE, invoice.getId());
+        } else {
+            // The loaded state still references the owner when the child was detached from it
+            changed(entity, event.getPersister(), event.getDeletedState());
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void changed(Object entity, EntityPersister persister, Object[] state) {
+        if (entity instanceof Product product) {
+            syncService.markChanged(SyncEntityType.PRODUCT, product.getId());
+        } else if (entity instanceof Slaughter slaughter) {
+            syncService.markChanged(SyncEntityType.SLAUGHTER, slaughter.getId());
+        } else if (entity instanceof Order order) {
+            syncService.markChanged(SyncEntityType.ORDER, order.getId());
+        } else if (entity instanceof Invoice invoice) {
+            syncService.markChanged(SyncEntityType.INVOICE, invoice.getId());
+        } else if (entity instanceof MeatCut && owner(persister, state, "slaughter") instanceof Slaughter slaughter) {
+            syncService.markChanged(SyncEntityType.SLAUGHTER, slaughter.getId());
+        } else if (entity instanceof OrderItem && owner(persister, state, "order") instanceof Order order) {
+            syncService.markChanged(SyncEntityType.ORDER, order.getId());
+        }
+    }
+
+    private static Object owner(EntityPersister persister, Object[] state, String property) {
+        return state != null ? state[persister.getPropertyIndex(property)] : null;
+    }
+}
@@ -27,6 +27,7 @@ public class AdminController {
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("message", "Database reset successfully");
+            response.put("tablesCleared", result.get("tablesCleared"));
             response.put("productsLoaded", result.get("productsLoaded"));
 
             log.info("Database reset completed successfully - {} products loaded", result.get("productsLoaded"));
@@ -0,0 +1,47 @@
+package com.hansal.verrechnungsprogramm.controller;
+
+import com.hansal.verrechnungsprogramm.dto.SalesAnalyticsRowDTO;
+import com.hansal.verrechnungsprogramm.service.SalesAnalyticsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Revenue reporting from the precomputed daily sales rollups.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/analytics")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class AnalyticsController {
+
+    private final SalesAnalyticsService salesAnalyticsService;
+
+    @GetMapping("/sales")
+    public ResponseEntity<List<SalesAnalyticsRowDTO>> getSales(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) List<SalesAnalyticsService.Dimension> groupBy,
+            @RequestParam(required = false) Long productId,
+            @RequestParam(required = false) String meatCutType,
+            @RequestParam(required = false) String customer) {
+        log.debug("GET /api/analytics/sales?from={}&to={}&groupBy={}", from, to, groupBy);
+        if (from != null && to != null && from.isAfter(to)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(salesAnalyticsService.querySales(from, to, groupBy, productId, meatCutType, customer));
+    }
+
+    @PostMapping("/sales/rebuild")
+    public ResponseEntity<Map<String, Integer>> rebuildSales() {
+        log.debug("POST /api/analytics/sales/rebuild");
+        return ResponseEntity.ok(Map.of("rows", salesAnalyticsService.rebuildAll()));
+    }
+}
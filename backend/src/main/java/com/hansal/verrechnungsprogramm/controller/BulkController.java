@@ -0,0 +1,51 @@
+package com.hansal.verrechnungsprogramm.controller;
+
+import com.hansal.verrechnungsprogramm.dto.BulkOrderStatusRequestDTO;
+import com.hansal.verrechnungsprogramm.dto.BulkResultDTO;
+import com.hansal.verrechnungsprogramm.model.Order;
+import com.hansal.verrechnungsprogramm.model.Product;
+import com.hansal.verrechnungsprogramm.service.BulkMutationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Bulk mutations with one result per element. Elements are validated one by
+ * one, so a response can mix created and failed elements; the response status
+ * is 200 whenever the request itself could be processed.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/bulk")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class BulkController {
+
+    private final BulkMutationService bulkMutationService;
+
+    @PostMapping("/products")
+    public ResponseEntity<BulkResultDTO> createProducts(@RequestBody List<Product> products) {
+        log.debug("POST /api/bulk/products - {} products", products.size());
+        return ResponseEntity.ok(bulkMutationService.createProducts(products));
+    }
+
+    @PostMapping("/orders")
+    public ResponseEntity<BulkResultDTO> createOrders(@RequestBody List<Order> orders) {
+        log.debug("POST /api/bulk/orders - {} orders", orders.size());
+        return ResponseEntity.ok(bulkMutationService.createOrders(orders));
+    }
+
+    @PostMapping("/orders/status")
+    public ResponseEntity<BulkResultDTO> updateOrderStatuses(@RequestBody BulkOrderStatusRequestDTO request) {
+        log.debug("POST /api/bulk/orders/status - orderIds={}, status={}",
+                request.getOrderIds() != null ? request.getOrderIds().size() : null, request.getStatus());
+        if (request.getOrderIds() == null || request.getStatus() == null) {
+            log.warn("Bulk status request without order ids or status");
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(bulkMutationService.updateOrderStatuses(request.getOrderIds(), request.getStatus()));
+    }
+}
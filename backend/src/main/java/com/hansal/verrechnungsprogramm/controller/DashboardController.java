@@ -0,0 +1,24 @@
+package com.hansal.verrechnungsprogramm.controller;
+
+import com.hansal.verrechnungsprogramm.dto.DashboardCountsDTO;
+import com.hansal.verrechnungsprogramm.service.DashboardService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/dashboard")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class DashboardController {
+
+    private final DashboardService dashboardService;
+
+    @GetMapping("/counts")
+    public ResponseEntity<DashboardCountsDTO> getCounts() {
+        log.debug("GET /api/dashboard/counts");
+        return ResponseEntity.ok(dashboardService.getCounts());
+    }
+}
@@ -0,0 +1,90 @@
+package com.hansal.verrechnungsprogramm.controller;
+
+import com.hansal.verrechnungsprogramm.service.InvoiceExportService;
+import com.hansal.verrechnungsprogramm.service.SpreadsheetExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * File exports. Exports are written straight into the response instead of being
+ * built in memory first.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/export")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class ExportController {
+
+    private static final String XLSX = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+
+    private final InvoiceExportService invoiceExportService;
+    private final SpreadsheetExportService spreadsheetExportService;
+
+    @GetMapping("/invoices")
+    public void exportInvoices(
+            @RequestParam(defaultValue = "CSV") InvoiceExportService.Format format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            HttpServletResponse response) throws IOException {
+        log.debug("GET /api/export/invoices?format={}&from={}&to={}", format, from, to);
+        // Before the headers, so a rejected range still gets a JSON error response
+        invoiceExportService.checkRange(format, from, to);
+
+        String filename = (format == InvoiceExportService.Format.DATEV ? "EXTF_Buchungsstapel_" : "rechnungen_")
+                + LocalDate.now().format(DateTimeFormatter.BASIC_ISO_DATE) + "." + format.getExtension();
+        response.setContentType("text/csv");
+        response.setCharacterEncoding(format.getCharset().name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(filename).build().toString());
+
+        Writer writer = new OutputStreamWriter(response.getOutputStream(), format.getCharset());
+        invoiceExportService.exportInvoices(format, from, to, writer);
+        writer.flush();
+    }
+
+    @GetMapping("/orders")
+    public void exportOrders(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            HttpServletResponse response) throws IOException {
+        log.debug("GET /api/export/orders?from={}&to={}", from, to);
+        prepareSpreadsheet(response, "bestellungen_");
+        spreadsheetExportService.exportOrders(from, to, response.getOutputStream());
+    }
+
+    @GetMapping("/slaughters")
+    public void exportSlaughters(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            HttpServletResponse response) throws IOException {
+        log.debug("GET /api/export/slaughters?from={}&to={}", from, to);
+        prepareSpreadsheet(response, "schlachtungen_");
+        spreadsheetExportService.exportSlaughterYields(from, to, response.getOutputStream());
+    }
+
+    @GetMapping("/stock")
+    public void exportStock(HttpServletResponse response) throws IOException {
+        log.debug("GET /api/export/stock");
+        prepareSpreadsheet(response, "lagerstand_");
+        spreadsheetExportService.exportStock(response.getOutputStream());
+    }
+
+    private void prepareSpreadsheet(HttpServletResponse response, String filenamePrefix) {
+        String filename = filenamePrefix + LocalDate.now().format(DateTimeFormatter.BASIC_ISO_DATE) + ".xlsx";
+        response.setContentType(XLSX);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(filename).build().toString());
+    }
+}
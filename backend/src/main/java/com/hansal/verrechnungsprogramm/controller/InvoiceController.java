@@ -1,17 +1,27 @@
 package com.hansal.verrechnungsprogramm.controller;
 
+import com.hansal.verrechnungsprogramm.dto.BulkInvoiceRequestDTO;
+import com.hansal.verrechnungsprogramm.dto.BulkInvoiceResultDTO;
+import com.hansal.verrechnungsprogramm.dto.PdfJobStatusDTO;
 import com.hansal.verrechnungsprogramm.model.Invoice;
+import com.hansal.verrechnungsprogramm.service.BulkInvoiceService;
 import com.hansal.verrechnungsprogramm.service.InvoiceService;
+import com.hansal.verrechnungsprogramm.service.PdfJobService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
 import java.util.List;
+import java.util.Optional;
 
 @Slf4j
 @RestController
@@ -21,6 +31,8 @@ import java.util.List;
 public class InvoiceController {
 
     private final InvoiceService invoiceService;
+    private final BulkInvoiceService bulkInvoiceService;
+    private final PdfJobService pdfJobService;
 
     @GetMapping
     public ResponseEntity<List<Invoice>> getAllInvoices() {
@@ -28,6 +40,14 @@ public class InvoiceController {
         return ResponseEntity.ok(invoiceService.getAllInvoices());
     }
 
+    @GetMapping(params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamAllInvoices() {
+        log.debug("GET /api/invoices?stream=true");
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(invoiceService.streamAllInvoices());
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Invoice> getInvoiceById(@PathVariable Long id) {
         log.debug("GET /api/invoices/{}", id);
@@ -55,6 +75,28 @@ public class InvoiceController {
                 .body(invoiceService.createInvoiceFromOrder(orderId));
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkInvoiceResultDTO> createInvoicesInBulk(@RequestBody BulkInvoiceRequestDTO request) {
+        log.debug("POST /api/invoices/bulk - orderIds={}, status={}, from={}, to={}",
+                request.getOrderIds() != null ? request.getOrderIds().size() : null,
+                request.getStatus(), request.getFromDate(), request.getToDate());
+        if (!request.hasSelection()) {
+            log.warn("Bulk invoice request without order ids or filter");
+            return ResponseEntity.badRequest().build();
+        }
+
+        // The invoices are committed at this point, so the PDF job can see them
+        BulkInvoiceResultDTO result = bulkInvoiceService.createInvoices(request);
+        if (request.isRenderPdf() && !result.getInvoiceIds().isEmpty()) {
+            try {
+                result.setPdfJobId(pdfJobService.submit(result.getInvoiceIds()).getJobId());
+            } catch (TaskRejectedException e) {
+                log.warn("Bulk invoices created but PDF job rejected: invoices={}", result.getInvoiceIds().size());
+            }
+        }
+        return ResponseEntity.ok(result);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Invoice> updateInvoice(
             @PathVariable Long id,
@@ -111,4 +153,56 @@ public class InvoiceController {
                 .headers(headers)
                 .body(pdfBytes);
     }
+
+    @PostMapping("/batch/pdf/jobs")
+    public ResponseEntity<PdfJobStatusDTO> submitCombinedPdfJob(@RequestBody List<Long> invoiceIds) {
+        log.debug("POST /api/invoices/batch/pdf/jobs - {} invoices", invoiceIds != null ? invoiceIds.size() : 0);
+        if (invoiceIds == null || invoiceIds.isEmpty()) {
+            log.warn("Batch PDF job request with empty invoice list");
+            return ResponseEntity.badRequest().build();
+        }
+
+        try {
+            PdfJobStatusDTO status = pdfJobService.submit(invoiceIds);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/invoices/batch/pdf/jobs/" + status.getJobId()))
+                    .body(status);
+        } catch (TaskRejectedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .build();
+        }
+    }
+
+    @GetMapping("/batch/pdf/jobs/{jobId}")
+    public ResponseEntity<PdfJobStatusDTO> getCombinedPdfJob(@PathVariable String jobId) {
+        log.debug("GET /api/invoices/batch/pdf/jobs/{}", jobId);
+        return pdfJobService.getStatus(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/batch/pdf/jobs/{jobId}/download")
+    public ResponseEntity<Resource> downloadCombinedPdfJob(@PathVariable String jobId) {
+        log.debug("GET /api/invoices/batch/pdf/jobs/{}/download", jobId);
+        Optional<PdfJobStatusDTO> status = pdfJobService.getStatus(jobId);
+        if (status.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Optional<Resource> pdf = pdfJobService.getResult(jobId);
+        if (pdf.isEmpty()) {
+            // Still rendering, failed, or the file has expired
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_PDF);
+        String timestamp = status.get().getSubmittedAt().format(java.time.format.DateTimeFormatter.ofPattern("yyyyMMdd"));
+        headers.setContentDispositionFormData("attachment",
+                "belege_sammel_" + timestamp + ".pdf");
+
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(pdf.get());
+    }
 }
@@ -1,15 +1,19 @@
 package com.hansal.verrechnungsprogramm.controller;
 
 import com.hansal.verrechnungsprogramm.dto.CustomerDTO;
+import com.hansal.verrechnungsprogramm.dto.MeatCutAllocationDTO;
 import com.hansal.verrechnungsprogramm.model.Order;
 import com.hansal.verrechnungsprogramm.model.OrderStatus;
+import com.hansal.verrechnungsprogramm.service.MeatCutAllocationService;
 import com.hansal.verrechnungsprogramm.service.OrderService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -21,6 +25,7 @@ import java.util.List;
 public class OrderController {
 
     private final OrderService orderService;
+    private final MeatCutAllocationService meatCutAllocationService;
 
     @GetMapping
     public ResponseEntity<List<Order>> getAllOrders() {
@@ -28,6 +33,14 @@ public class OrderController {
         return ResponseEntity.ok(orderService.getAllOrders());
     }
 
+    @GetMapping(params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamAllOrders() {
+        log.debug("GET /api/orders?stream=true");
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(orderService.streamAllOrders());
+    }
+
     @GetMapping("/customers")
     public ResponseEntity<List<CustomerDTO>> getUniqueCustomers() {
         log.debug("GET /api/orders/customers");
@@ -40,6 +53,12 @@ public class OrderController {
         return ResponseEntity.ok(orderService.getOrderById(id));
     }
 
+    @GetMapping("/{id}/allocations")
+    public ResponseEntity<List<MeatCutAllocationDTO>> getOrderAllocations(@PathVariable Long id) {
+        log.debug("GET /api/orders/{}/allocations", id);
+        return ResponseEntity.ok(meatCutAllocationService.getAllocationsByOrder(id));
+    }
+
     @GetMapping("/search")
     public ResponseEntity<List<Order>> searchOrders(@RequestParam String customerName) {
         log.debug("GET /api/orders/search?customerName={}", customerName);
@@ -12,7 +12,6 @@ import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Slf4j
 @RestController
@@ -51,10 +50,7 @@ public class ProductController {
     @PostMapping("/bulk")
     public ResponseEntity<List<Product>> createProducts(@Valid @RequestBody List<Product> products) {
         log.debug("POST /api/products/bulk - {} products", products.size());
-        List<Product> createdProducts = products.stream()
-                .map(productService::createProduct)
-                .collect(Collectors.toList());
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdProducts);
+        return ResponseEntity.status(HttpStatus.CREATED).body(productService.createProducts(products));
     }
 
     @PutMapping("/{id}")
@@ -75,14 +71,7 @@ public class ProductController {
     @GetMapping("/with-stock")
     public ResponseEntity<List<ProductWithStockDTO>> getAllProductsWithStock() {
         log.debug("GET /api/products/with-stock");
-        List<Product> products = productService.getAllProducts();
-        List<ProductWithStockDTO> productsWithStock = products.stream()
-                .map(product -> {
-                    BigDecimal stock = productService.getAvailableStock(product);
-                    return ProductWithStockDTO.fromProduct(product, stock);
-                })
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(productsWithStock);
+        return ResponseEntity.ok(productService.getAllProductsWithStock());
     }
 
     @GetMapping("/{id}/with-stock")
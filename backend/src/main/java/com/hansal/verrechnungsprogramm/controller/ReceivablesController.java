@@ -0,0 +1,76 @@
+package com.hansal.verrechnungsprogramm.controller;
+
+import com.hansal.verrechnungsprogramm.dto.ReceivablesAgingDTO;
+import com.hansal.verrechnungsprogramm.model.OverdueInvoice;
+import com.hansal.verrechnungsprogramm.service.ReceivablesService;
+import com.hansal.verrechnungsprogramm.service.StatementPdfService;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Open items: aging report, the precomputed dunning list and customer statements.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/receivables")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class ReceivablesController {
+
+    private final ReceivablesService receivablesService;
+    private final StatementPdfService statementPdfService;
+
+    @GetMapping("/aging")
+    public ResponseEntity<ReceivablesAgingDTO> getAgingReport(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        log.debug("GET /api/receivables/aging?asOf={}", asOf);
+        return ResponseEntity.ok(receivablesService.getAgingReport(asOf != null ? asOf : LocalDate.now()));
+    }
+
+    @GetMapping("/overdue")
+    public ResponseEntity<List<OverdueInvoice>> getOverdueInvoices(
+            @RequestParam(defaultValue = "1") int minDaysOverdue) {
+        log.debug("GET /api/receivables/overdue?minDaysOverdue={}", minDaysOverdue);
+        return ResponseEntity.ok(receivablesService.getOverdueInvoices(minDaysOverdue));
+    }
+
+    @PostMapping("/overdue/refresh")
+    public ResponseEntity<Map<String, Integer>> refreshOverdueInvoices() {
+        log.debug("POST /api/receivables/overdue/refresh");
+        return ResponseEntity.ok(Map.of("count", receivablesService.refreshOverdueInvoices()));
+    }
+
+    @GetMapping("/statement")
+    public void getStatement(
+            @RequestParam String customer,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            HttpServletResponse response) throws IOException {
+        log.debug("GET /api/receivables/statement?customer={}&from={}&to={}", customer, from, to);
+
+        if (customer.isBlank() || statementPdfService.countInvoices(customer, from, to) == 0) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        String filename = "Kontoauszug_" + customer.trim().replaceAll("[^A-Za-z0-9]+", "_") + "_"
+                + LocalDate.now().format(DateTimeFormatter.BASIC_ISO_DATE) + ".pdf";
+        response.setContentType(MediaType.APPLICATION_PDF_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(filename).build().toString());
+        statementPdfService.writeStatement(customer, from, to, response.getOutputStream());
+    }
+}
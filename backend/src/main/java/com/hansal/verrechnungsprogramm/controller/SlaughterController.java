@@ -1,7 +1,9 @@
 package com.hansal.verrechnungsprogramm.controller;
 
 import com.hansal.verrechnungsprogramm.model.Slaughter;
+import com.hansal.verrechnungsprogramm.model.SlaughterYield;
 import com.hansal.verrechnungsprogramm.service.SlaughterService;
+import com.hansal.verrechnungsprogramm.service.SlaughterYieldService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -20,7 +22,10 @@ import java.util.List;
 @CrossOrigin(origins = "*")
 public class SlaughterController {
 
+    private static final int MAX_RANKING_SIZE = 500;
+
     private final SlaughterService slaughterService;
+    private final SlaughterYieldService slaughterYieldService;
 
     @GetMapping
     public ResponseEntity<List<Slaughter>> getAllSlaughters() {
@@ -34,6 +39,27 @@ public class SlaughterController {
         return ResponseEntity.ok(slaughterService.getSlaughterById(id));
     }
 
+    @GetMapping("/{id}/yield")
+    public ResponseEntity<SlaughterYield> getSlaughterYield(@PathVariable Long id) {
+        log.debug("GET /api/slaughters/{}/yield", id);
+        return slaughterYieldService.getYield(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/yields")
+    public ResponseEntity<List<SlaughterYield>> getSlaughterYieldRanking(
+            @RequestParam(defaultValue = "SELL_THROUGH") SlaughterYieldService.Ranking rankBy,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "20") int limit) {
+        log.debug("GET /api/slaughters/yields?rankBy={}&from={}&to={}&limit={}", rankBy, from, to, limit);
+        if (limit < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(slaughterYieldService.getRanking(rankBy, from, to, Math.min(limit, MAX_RANKING_SIZE)));
+    }
+
     @GetMapping("/search")
     public ResponseEntity<List<Slaughter>> searchSlaughters(@RequestParam String cowTag) {
         log.debug("GET /api/slaughters/search?cowTag={}", cowTag);
@@ -0,0 +1,28 @@
+package com.hansal.verrechnungsprogramm.controller;
+
+import com.hansal.verrechnungsprogramm.dto.SyncDTO;
+import com.hansal.verrechnungsprogramm.service.SyncService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Incremental refresh of the client's local cache of products, slaughters,
+ * orders and invoices.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/sync")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class SyncController {
+
+    private final SyncService syncService;
+
+    @GetMapping
+    public ResponseEntity<SyncDTO> getChanges(@RequestParam(defaultValue = "0") long since) {
+        log.debug("GET /api/sync?since={}", since);
+        return ResponseEntity.ok(syncService.getChangesSince(since));
+    }
+}
@@ -0,0 +1,29 @@
+package com.hansal.verrechnungsprogramm.dto;
+
+import com.hansal.verrechnungsprogramm.model.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Selects the orders to invoice, either by id or by a filter on status and
+ * order date (both dates inclusive).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkInvoiceRequestDTO {
+    private List<Long> orderIds;
+    private OrderStatus status;
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    /** Queue a combined PDF of the created invoices. */
+    private boolean renderPdf;
+
+    public boolean hasSelection() {
+        return (orderIds != null && !orderIds.isEmpty()) || status != null || fromDate != null || toDate != null;
+    }
+}
@@ -0,0 +1,20 @@
+package com.hansal.verrechnungsprogramm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkInvoiceResultDTO {
+    private int matchedOrders;
+    private List<Long> invoiceIds;
+    /** Orders that already had an invoice. */
+    private List<Long> skippedOrderIds;
+    /** Requested order ids that do not exist. */
+    private List<Long> missingOrderIds;
+    private String pdfJobId;
+}
@@ -0,0 +1,24 @@
+package com.hansal.verrechnungsprogramm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one element of a bulk request, at the element's position in the
+ * request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkItemResultDTO {
+    private int index;
+    /** Id of the created or updated entity, null if the element failed before it had one. */
+    private Long id;
+    private Status status;
+    private String error;
+
+    public enum Status {
+        CREATED, UPDATED, FAILED
+    }
+}
@@ -0,0 +1,16 @@
+package com.hansal.verrechnungsprogramm.dto;
+
+import com.hansal.verrechnungsprogramm.model.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOrderStatusRequestDTO {
+    private List<Long> orderIds;
+    private OrderStatus status;
+}
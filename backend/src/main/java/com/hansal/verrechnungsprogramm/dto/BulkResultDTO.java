@@ -0,0 +1,18 @@
+package com.hansal.verrechnungsprogramm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkResultDTO {
+    private int total;
+    private int succeeded;
+    private int failed;
+    /** One result per request element, in request order. */
+    private List<BulkItemResultDTO> items;
+}
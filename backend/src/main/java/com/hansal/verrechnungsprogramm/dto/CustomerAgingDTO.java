@@ -0,0 +1,26 @@
+package com.hansal.verrechnungsprogramm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Outstanding gross amounts of one customer, split by how long they are overdue.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerAgingDTO {
+    private String customer;
+    private long invoiceCount;
+    /** Not yet due. */
+    private BigDecimal current;
+    private BigDecimal overdue1To30;
+    private BigDecimal overdue31To60;
+    private BigDecimal overdueOver60;
+    private BigDecimal total;
+    private LocalDate oldestDueDate;
+}
@@ -0,0 +1,14 @@
+package com.hansal.verrechnungsprogramm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardCountsDTO {
+    private long products;
+    private long orders;
+    private long invoices;
+}
@@ -0,0 +1,24 @@
+package com.hansal.verrechnungsprogramm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MeatCutAllocationDTO {
+    private Long allocationId;
+    private Long orderItemId;
+    private Long meatCutId;
+    private String productName;
+    private String cowTag;
+    private String cowId;
+    private LocalDate slaughterDate;
+    private BigDecimal weight;
+    private LocalDateTime allocatedAt;
+}
@@ -19,4 +19,5 @@ public class MeatCutAvailabilityDTO {
     private BigDecimal totalWeight;
     private BigDecimal pricePerKg;
     private String productName;
+    private Long productId;
 }
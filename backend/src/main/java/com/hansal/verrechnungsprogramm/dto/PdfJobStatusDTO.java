@@ -0,0 +1,26 @@
+package com.hansal.verrechnungsprogramm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PdfJobStatusDTO {
+    private String jobId;
+    private State state;
+    private int completed;
+    private int total;
+    /** Estimated seconds until the PDF is ready, null while unknown. */
+    private Long estimatedSecondsRemaining;
+    private LocalDateTime submittedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+
+    public enum State {
+        QUEUED, RUNNING, DONE, FAILED
+    }
+}
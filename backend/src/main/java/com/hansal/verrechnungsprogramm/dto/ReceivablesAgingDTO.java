@@ -0,0 +1,18 @@
+package com.hansal.verrechnungsprogramm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReceivablesAgingDTO {
+    private LocalDate asOf;
+    /** Customers with open invoices, largest outstanding total first. */
+    private List<CustomerAgingDTO> customers;
+    private CustomerAgingDTO total;
+}
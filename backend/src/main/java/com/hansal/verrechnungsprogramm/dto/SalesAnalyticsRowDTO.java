@@ -0,0 +1,23 @@
+package com.hansal.verrechnungsprogramm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * One group of an analytics query: the values of the requested dimensions
+ * (e.g. {@code month}, {@code productName}) and the summed figures.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesAnalyticsRowDTO {
+    private Map<String, Object> group;
+    private Long itemCount;
+    private BigDecimal weight;
+    private BigDecimal revenue;
+    private BigDecimal invoicedRevenue;
+}
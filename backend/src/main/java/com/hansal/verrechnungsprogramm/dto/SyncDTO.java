@@ -0,0 +1,38 @@
+package com.hansal.verrechnungsprogramm.dto;
+
+import com.hansal.verrechnungsprogramm.model.Invoice;
+import com.hansal.verrechnungsprogramm.model.Order;
+import com.hansal.verrechnungsprogramm.model.Product;
+import com.hansal.verrechnungsprogramm.model.Slaughter;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncDTO {
+    /** Version the client passes as {@code since} on its next request. */
+    private long version;
+    /** True if this is a complete snapshot; the client replaces its cache instead of merging. */
+    private boolean full;
+    /** Entities inserted or updated since the requested version. */
+    private List<Product> products;
+    private List<Slaughter> slaughters;
+    private List<Order> orders;
+    private List<Invoice> invoices;
+    /** Ids of entities deleted since the requested version, empty for a full snapshot. */
+    private Deleted deleted;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Deleted {
+        private List<Long> products;
+        private List<Long> slaughters;
+        private List<Long> orders;
+        private List<Long> invoices;
+    }
+}
@@ -0,0 +1,20 @@
+package com.hansal.verrechnungsprogramm.event;
+
+import java.util.Set;
+
+/**
+ * Published when the available meat-cut weight of one or more products changed.
+ * Listeners should react after commit so they only ever see committed stock.
+ *
+ * @param productIds products whose meat cuts were added, removed or re-weighed
+ * @param source     what caused the change
+ */
+public record InventoryChangedEvent(Set<Long> productIds, Source source) {
+
+    public enum Source {
+        /** Meat cuts were created, changed or removed through a slaughter. */
+        SLAUGHTER,
+        /** Weight was reserved or released by order allocations. */
+        ALLOCATION
+    }
+}
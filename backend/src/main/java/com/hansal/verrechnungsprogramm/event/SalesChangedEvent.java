@@ -0,0 +1,13 @@
+package com.hansal.verrechnungsprogramm.event;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * Published when orders or invoices of one or more days were created, changed or
+ * removed. The daily sales rollups of these days are recomputed after commit.
+ *
+ * @param dates order days whose sales figures may have changed
+ */
+public record SalesChangedEvent(Set<LocalDate> dates) {
+}
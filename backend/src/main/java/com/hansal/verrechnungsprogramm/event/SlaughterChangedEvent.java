@@ -0,0 +1,9 @@
+package com.hansal.verrechnungsprogramm.event;
+
+/**
+ * Published when a slaughter or its meat cuts were created, changed or removed.
+ *
+ * @param slaughterId the slaughter; it no longer exists if it was deleted
+ */
+public record SlaughterChangedEvent(Long slaughterId) {
+}
@@ -0,0 +1,12 @@
+package com.hansal.verrechnungsprogramm.exception;
+
+/**
+ * A request the client can fix, e.g. an export range that cannot be exported.
+ * The message is shown to the user and answered with 400 Bad Request.
+ */
+public class InvalidRequestException extends RuntimeException {
+
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
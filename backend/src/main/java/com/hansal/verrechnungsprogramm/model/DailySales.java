@@ -0,0 +1,40 @@
+package com.hansal.verrechnungsprogramm.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Sales of one product to one customer on one day, aggregated from the order
+ * items of all non-cancelled orders. Rows are derived data: they are rebuilt per
+ * day whenever orders or invoices of that day change and reconciled nightly.
+ */
+@Entity
+@Table(name = "daily_sales")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailySales {
+
+    @EmbeddedId
+    private DailySalesId id;
+
+    @Column(name = "customer_name", nullable = false)
+    private String customerName;
+
+    @Column(name = "item_count", nullable = false)
+    private Integer itemCount;
+
+    @Column(name = "weight", nullable = false, precision = 14, scale = 3)
+    private BigDecimal weight;
+
+    @Column(name = "revenue", nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue;
+
+    // Part of the revenue whose order already has an invoice
+    @Column(name = "invoiced_revenue", nullable = false, precision = 14, scale = 2)
+    private BigDecimal invoicedRevenue;
+}
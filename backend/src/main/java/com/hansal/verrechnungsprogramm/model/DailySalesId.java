@@ -0,0 +1,27 @@
+package com.hansal.verrechnungsprogramm.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailySalesId implements Serializable {
+
+    @Column(name = "sales_date", nullable = false)
+    private LocalDate salesDate;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    // Customer name lower-cased and trimmed, the same key as the customer list uses
+    @Column(name = "customer_key", nullable = false)
+    private String customerKey;
+}
@@ -0,0 +1,50 @@
+package com.hansal.verrechnungsprogramm.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Response of a create request sent with an {@code Idempotency-Key} header.
+ * Retries with the same key are answered with this response instead of being
+ * executed again, until the record expires.
+ */
+@Entity
+@Table(name = "idempotency_keys")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+
+    @Id
+    @Column(name = "idempotency_key")
+    private String key;
+
+    @Column(name = "request_method", nullable = false, length = 10)
+    private String requestMethod;
+
+    @Column(name = "request_path", nullable = false)
+    private String requestPath;
+
+    // SHA-256 of query and body; null for records stored before it was recorded
+    @Column(name = "request_hash", length = 64)
+    private String requestHash;
+
+    @Column(name = "status_code", nullable = false)
+    private Integer statusCode;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    @Column(name = "response_body", columnDefinition = "TEXT")
+    private String responseBody;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
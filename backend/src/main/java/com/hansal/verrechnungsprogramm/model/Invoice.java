@@ -12,6 +12,18 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "invoices")
+@NamedEntityGraph(
+        name = "Invoice.pdf",
+        attributeNodes = @NamedAttributeNode(value = "order", subgraph = "order"),
+        subgraphs = {
+                @NamedSubgraph(name = "order", attributeNodes = @NamedAttributeNode(value = "items", subgraph = "item")),
+                @NamedSubgraph(name = "item", attributeNodes = {
+                        @NamedAttributeNode("product"),
+                        @NamedAttributeNode(value = "meatCut", subgraph = "meatCut")
+                }),
+                @NamedSubgraph(name = "meatCut", attributeNodes = @NamedAttributeNode("product"))
+        }
+)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -25,7 +37,7 @@ public class Invoice {
     private String invoiceNumber;
 
     @OneToOne
-    @JoinColumn(name = "order_id", nullable = false)
+    @JoinColumn(name = "order_id", unique = true, nullable = false)
     @NotNull(message = "Order is required")
     private Order order;
 
@@ -70,9 +82,6 @@ public class Invoice {
         if (issueDate == null) {
             issueDate = LocalDate.now();
         }
-        if (invoiceNumber == null) {
-            generateInvoiceNumber();
-        }
         calculateTotals();
     }
 
@@ -82,10 +91,6 @@ public class Invoice {
         calculateTotals();
     }
 
-    private void generateInvoiceNumber() {
-        invoiceNumber = "INV-" + LocalDate.now().getYear() + "-" + String.format("%06d", System.currentTimeMillis() % 1000000);
-    }
-
     public void calculateTotals() {
         if (order != null && totalAmount == null) {
             totalAmount = order.getTotalAmount();
@@ -0,0 +1,25 @@
+package com.hansal.verrechnungsprogramm.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Next free invoice number per year. Instances reserve blocks of numbers by
+ * locking and advancing this row with JDBC (see {@code InvoiceNumberAllocator}).
+ */
+@Entity
+@Table(name = "invoice_number_counters")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InvoiceNumberCounter {
+
+    @Id
+    @Column(name = "counter_year")
+    private Integer year;
+
+    @Column(name = "next_value", nullable = false)
+    private Long nextValue;
+}
@@ -0,0 +1,52 @@
+package com.hansal.verrechnungsprogramm.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Records which meat cut (and therefore which carcass) supplied a portion
+ * of a product-based order item. One order item can be split across
+ * several meat cuts when a single cut does not cover the ordered weight.
+ */
+@Entity
+@Table(name = "meat_cut_allocations")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MeatCutAllocation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "order_item_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JsonIgnore
+    private OrderItem orderItem;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "meat_cut_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JsonIgnore
+    private MeatCut meatCut;
+
+    @Column(name = "weight", nullable = false, precision = 10, scale = 3)
+    private BigDecimal weight;
+
+    @Column(name = "allocated_at", nullable = false, updatable = false)
+    private LocalDateTime allocatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        allocatedAt = LocalDateTime.now();
+    }
+}
@@ -13,6 +13,17 @@ import java.util.List;
 
 @Entity
 @Table(name = "orders")
+@NamedEntityGraph(
+        name = "Order.detail",
+        attributeNodes = @NamedAttributeNode(value = "items", subgraph = "item"),
+        subgraphs = {
+                @NamedSubgraph(name = "item", attributeNodes = {
+                        @NamedAttributeNode("product"),
+                        @NamedAttributeNode(value = "meatCut", subgraph = "meatCut")
+                }),
+                @NamedSubgraph(name = "meatCut", attributeNodes = @NamedAttributeNode("product"))
+        }
+)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,54 @@
+package com.hansal.verrechnungsprogramm.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Entry of the dunning list: an open invoice that was past its due date when the
+ * list was computed. The list is recomputed every night and read as is by the
+ * morning dunning run.
+ */
+@Entity
+@Table(name = "overdue_invoices")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OverdueInvoice {
+
+    @Id
+    @Column(name = "invoice_id")
+    private Long invoiceId;
+
+    @Column(name = "invoice_number", nullable = false)
+    private String invoiceNumber;
+
+    @Column(name = "customer_name", nullable = false)
+    private String customerName;
+
+    @Column(name = "customer_phone")
+    private String customerPhone;
+
+    @Column(name = "customer_address", length = 500)
+    private String customerAddress;
+
+    @Column(name = "issue_date", nullable = false)
+    private LocalDate issueDate;
+
+    // Due date, or the issue date for invoices without one
+    @Column(name = "due_date", nullable = false)
+    private LocalDate dueDate;
+
+    @Column(name = "amount", nullable = false, precision = 10, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "days_overdue", nullable = false)
+    private Integer daysOverdue;
+
+    @Column(name = "computed_on", nullable = false)
+    private LocalDate computedOn;
+}
@@ -6,6 +6,8 @@ import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -15,6 +17,13 @@ import java.util.List;
 
 @Entity
 @Table(name = "slaughters")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "slaughter")
+@NamedEntityGraph(
+        name = "Slaughter.detail",
+        attributeNodes = @NamedAttributeNode(value = "meatCuts", subgraph = "meatCut"),
+        subgraphs = @NamedSubgraph(name = "meatCut", attributeNodes = @NamedAttributeNode("product"))
+)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -38,7 +47,7 @@ public class Slaughter {
     @Column(name = "total_weight", precision = 10, scale = 2)
     private BigDecimal totalWeight;
 
-    @OneToMany(mappedBy = "slaughter", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "slaughter", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<MeatCut> meatCuts = new ArrayList<>();
 
     @Column(length = 2000)
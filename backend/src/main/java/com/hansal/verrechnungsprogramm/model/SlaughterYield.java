@@ -0,0 +1,72 @@
+package com.hansal.verrechnungsprogramm.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * How much of a carcass was sold, for how much, and how fast. Derived from the
+ * order items sold from the slaughter's meat cuts (directly or through FIFO
+ * allocations) and recomputed whenever those change.
+ */
+@Entity
+@Table(name = "slaughter_yields")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlaughterYield {
+
+    @Id
+    @Column(name = "slaughter_id")
+    private Long slaughterId;
+
+    @Column(name = "cow_tag", nullable = false)
+    private String cowTag;
+
+    @Column(name = "slaughter_date", nullable = false)
+    private LocalDate slaughterDate;
+
+    @Column(name = "carcass_weight", nullable = false, precision = 12, scale = 3)
+    private BigDecimal carcassWeight;
+
+    @Column(name = "sold_weight", nullable = false, precision = 12, scale = 3)
+    private BigDecimal soldWeight;
+
+    @Column(name = "remaining_weight", nullable = false, precision = 12, scale = 3)
+    private BigDecimal remainingWeight;
+
+    // Sold weight / carcass weight, between 0 and 1
+    @Column(name = "sell_through", nullable = false, precision = 7, scale = 4)
+    private BigDecimal sellThrough;
+
+    @Column(name = "revenue", nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue;
+
+    // What the whole carcass is worth at the cuts' list prices
+    @Column(name = "list_value", nullable = false, precision = 14, scale = 2)
+    private BigDecimal listValue;
+
+    @Column(name = "realized_price_per_kg", precision = 10, scale = 2)
+    private BigDecimal realizedPricePerKg;
+
+    @Column(name = "first_sale_date")
+    private LocalDate firstSaleDate;
+
+    @Column(name = "last_sale_date")
+    private LocalDate lastSaleDate;
+
+    // Day on which the sold weight reached the carcass weight
+    @Column(name = "sold_out_date")
+    private LocalDate soldOutDate;
+
+    @Column(name = "days_to_sell_out")
+    private Integer daysToSellOut;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
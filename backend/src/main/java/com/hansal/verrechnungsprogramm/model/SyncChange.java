@@ -0,0 +1,33 @@
+package com.hansal.verrechnungsprogramm.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Last change of one entity in the change feed. Each write overwrites the row
+ * with the version of its transaction; a deletion leaves the row behind as a
+ * tombstone until it is pruned.
+ */
+@Entity
+@Table(name = "sync_changes")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncChange {
+
+    @EmbeddedId
+    private SyncChangeId id;
+
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @Column(name = "deleted", nullable = false)
+    private Boolean deleted;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,11 @@
+package com.hansal.verrechnungsprogramm.model;
+
+/**
+ * Entities delivered by the change feed ({@code /api/sync}).
+ */
+public enum SyncEntityType {
+    PRODUCT,
+    SLAUGHTER,
+    ORDER,
+    INVOICE
+}
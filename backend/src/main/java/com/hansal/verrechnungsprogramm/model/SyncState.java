@@ -0,0 +1,29 @@
+package com.hansal.verrechnungsprogramm.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The single row holding the state of the change feed. The versions themselves
+ * come from {@code sync_version_seq}; {@code current_version} is the counter
+ * they were taken from before, which the migration continues the sequence at.
+ */
+@Entity
+@Table(name = "sync_state")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncState {
+
+    @Id
+    private Integer id;
+
+    @Column(name = "current_version", nullable = false)
+    private Long currentVersion;
+
+    // Highest version of a pruned tombstone; clients behind it need a full sync
+    @Column(name = "pruned_version", nullable = false)
+    private Long prunedVersion;
+}
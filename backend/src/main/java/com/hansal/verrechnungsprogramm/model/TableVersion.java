@@ -0,0 +1,31 @@
+package com.hansal.verrechnungsprogramm.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Change counter of one table. Every transaction that writes the table
+ * increments the version once; read endpoints derive their ETag from it.
+ */
+@Entity
+@Table(name = "table_versions")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TableVersion {
+
+    @Id
+    @Column(name = "table_name", length = 100)
+    private String tableName;
+
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    // Time of the last change, including deletes
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
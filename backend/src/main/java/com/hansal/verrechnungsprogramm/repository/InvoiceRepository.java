@@ -2,19 +2,62 @@ package com.hansal.verrechnungsprogramm.repository;
 
 import com.hansal.verrechnungsprogramm.model.Invoice;
 import com.hansal.verrechnungsprogramm.model.InvoiceStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
+
+    @Override
+    @EntityGraph("Invoice.pdf")
+    List<Invoice> findAll();
+
+    /**
+     * All invoices with their order as a read-only cursor for streaming; order
+     * items are left to batch fetching.
+     */
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "100"),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT i FROM Invoice i JOIN FETCH i.order ORDER BY i.id")
+    Stream<Invoice> streamAll();
+
+    @Override
+    @EntityGraph("Invoice.pdf")
+    Optional<Invoice> findById(Long id);
+
+    @EntityGraph("Invoice.pdf")
     Optional<Invoice> findByInvoiceNumber(String invoiceNumber);
+
+    /**
+     * Loads the invoices with everything the PDF renders (order, items, products
+     * and meat cuts) in a single query, in no particular order.
+     */
+    @Query("SELECT DISTINCT i FROM Invoice i JOIN FETCH i.order o LEFT JOIN FETCH o.items it " +
+            "LEFT JOIN FETCH it.product LEFT JOIN FETCH it.meatCut m LEFT JOIN FETCH m.product " +
+            "WHERE i.id IN :ids")
+    List<Invoice> findAllForPdfByIdIn(Collection<Long> ids);
+
+    @EntityGraph("Invoice.pdf")
+    List<Invoice> findByIdIn(Collection<Long> ids);
+
     List<Invoice> findByStatus(InvoiceStatus status);
     Optional<Invoice> findByOrderId(Long orderId);
 
+    @Query("SELECT i.order.id FROM Invoice i WHERE i.order.id IN :orderIds")
+    List<Long> findInvoicedOrderIds(Collection<Long> orderIds);
+
     @Query("SELECT COALESCE(MAX(i.id), 0) FROM Invoice i")
     Long findMaxId();
 }
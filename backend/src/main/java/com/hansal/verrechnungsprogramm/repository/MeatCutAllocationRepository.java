@@ -0,0 +1,23 @@
+package com.hansal.verrechnungsprogramm.repository;
+
+import com.hansal.verrechnungsprogramm.dto.MeatCutAllocationDTO;
+import com.hansal.verrechnungsprogramm.model.MeatCutAllocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface MeatCutAllocationRepository extends JpaRepository<MeatCutAllocation, Long> {
+
+    @Query("SELECT a FROM MeatCutAllocation a JOIN FETCH a.meatCut m JOIN FETCH m.product WHERE a.orderItem.id IN :orderItemIds")
+    List<MeatCutAllocation> findByOrderItemIdIn(Collection<Long> orderItemIds);
+
+    @Query("SELECT new com.hansal.verrechnungsprogramm.dto.MeatCutAllocationDTO(" +
+            "a.id, a.orderItem.id, m.id, p.name, s.cowTag, s.cowId, s.slaughterDate, a.weight, a.allocatedAt) " +
+            "FROM MeatCutAllocation a JOIN a.meatCut m JOIN m.product p JOIN m.slaughter s " +
+            "WHERE a.orderItem.order.id = :orderId ORDER BY a.orderItem.id, s.slaughterDate, m.id")
+    List<MeatCutAllocationDTO> findTraceByOrderId(Long orderId);
+}
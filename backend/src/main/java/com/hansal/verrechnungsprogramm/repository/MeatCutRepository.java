@@ -1,25 +1,79 @@
 package com.hansal.verrechnungsprogramm.repository;
 
+import com.hansal.verrechnungsprogramm.dto.MeatCutAvailabilityDTO;
 import com.hansal.verrechnungsprogramm.model.MeatCut;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface MeatCutRepository extends JpaRepository<MeatCut, Long> {
+
+    @Override
+    @EntityGraph(attributePaths = "product")
+    List<MeatCut> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = "product")
+    Optional<MeatCut> findById(Long id);
+
+    @EntityGraph(attributePaths = "product")
     List<MeatCut> findBySlaughterId(Long slaughterId);
 
+    @EntityGraph(attributePaths = "product")
     @Query("SELECT m FROM MeatCut m WHERE m.availableWeight > 0 ORDER BY m.slaughter.slaughterDate DESC")
     List<MeatCut> findAllAvailable();
 
+    @EntityGraph(attributePaths = "product")
     @Query("SELECT m FROM MeatCut m WHERE m.product.id = :productId AND m.availableWeight >= :minWeight")
     List<MeatCut> findByProductIdAndMinWeight(Long productId, BigDecimal minWeight);
 
     List<MeatCut> findByProductId(Long productId);
 
+    /**
+     * Available weight per product id, summed over all its meat cuts; products
+     * without meat cuts are missing.
+     */
+    @Query("SELECT m.product.id, SUM(m.availableWeight) FROM MeatCut m WHERE m.product IS NOT NULL GROUP BY m.product.id")
+    List<Object[]> sumAvailableWeightByProduct();
+
     @Query("SELECT m FROM MeatCut m WHERE m.product.id = :productId AND m.availableWeight > 0 ORDER BY m.slaughter.slaughterDate DESC")
     List<MeatCut> findAvailableByProductId(Long productId);
+
+    @Query("SELECT new com.hansal.verrechnungsprogramm.dto.MeatCutAvailabilityDTO(" +
+            "m.id, s.cowTag, s.cowId, s.slaughterDate, m.availableWeight, m.totalWeight, m.pricePerKg, p.name, p.id) " +
+            "FROM MeatCut m JOIN m.slaughter s JOIN m.product p " +
+            "WHERE p.id = :productId AND m.availableWeight > 0 ORDER BY s.slaughterDate DESC, m.id ASC")
+    List<MeatCutAvailabilityDTO> findAvailabilityByProductId(Long productId);
+
+    @Query("SELECT new com.hansal.verrechnungsprogramm.dto.MeatCutAvailabilityDTO(" +
+            "m.id, s.cowTag, s.cowId, s.slaughterDate, m.availableWeight, m.totalWeight, m.pricePerKg, p.name, p.id) " +
+            "FROM MeatCut m JOIN m.slaughter s JOIN m.product p " +
+            "WHERE m.availableWeight > 0 ORDER BY s.slaughterDate DESC, m.id ASC")
+    List<MeatCutAvailabilityDTO> findAllAvailability();
+
+    @Query("SELECT m FROM MeatCut m JOIN FETCH m.slaughter s WHERE m.product.id = :productId AND m.availableWeight > 0 ORDER BY s.slaughterDate ASC, m.id ASC")
+    List<MeatCut> findAvailableByProductIdOldestFirst(Long productId);
+
+    /**
+     * Reserves weight only if the cut still has enough available, so concurrent
+     * reservations can never drive the available weight below zero. The product
+     * is matched as well, so a stale id never takes stock of another product.
+     *
+     * @return 1 if the weight was reserved, 0 if not enough was available
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE MeatCut m SET m.availableWeight = m.availableWeight - :weight " +
+            "WHERE m.id = :id AND m.product.id = :productId AND m.availableWeight >= :weight")
+    int reserveWeight(Long id, Long productId, BigDecimal weight);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE MeatCut m SET m.availableWeight = CASE WHEN m.availableWeight + :weight > m.totalWeight THEN m.totalWeight ELSE m.availableWeight + :weight END WHERE m.id = :id")
+    int releaseWeight(Long id, BigDecimal weight);
 }
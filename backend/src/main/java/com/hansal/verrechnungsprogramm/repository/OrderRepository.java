@@ -2,14 +2,64 @@ package com.hansal.verrechnungsprogramm.repository;
 
 import com.hansal.verrechnungsprogramm.model.Order;
 import com.hansal.verrechnungsprogramm.model.OrderStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
+
+    /**
+     * All orders with their items in one query. Plain {@link #findAll()} stays
+     * without items for callers that only need the order header (e.g. customers).
+     */
+    @EntityGraph("Order.detail")
+    @Query("SELECT o FROM Order o")
+    List<Order> findAllWithItems();
+
+    /**
+     * All orders as a read-only cursor for streaming. Items are left to batch
+     * fetching, since a collection fetch would repeat every order per item.
+     */
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "100"),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT o FROM Order o ORDER BY o.id")
+    Stream<Order> streamAll();
+
+    @Override
+    @EntityGraph("Order.detail")
+    Optional<Order> findById(Long id);
+
+    @EntityGraph("Order.detail")
     List<Order> findByCustomerNameContainingIgnoreCase(String customerName);
+
+    @EntityGraph("Order.detail")
     List<Order> findByStatus(OrderStatus status);
+
+    @EntityGraph("Order.detail")
+    List<Order> findByIdIn(Collection<Long> ids);
+
     List<Order> findByCustomerPhone(String phone);
+
+    /**
+     * Locks the orders until the end of the transaction, in id order so
+     * concurrent callers cannot deadlock. Returns the ids that exist.
+     */
+    @Query(value = "SELECT id FROM orders WHERE id IN :ids ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockByIdIn(Collection<Long> ids);
+
+    @Query("SELECT o FROM Order o WHERE o.status IN :statuses AND o.orderDate >= :from AND o.orderDate < :to ORDER BY o.orderDate, o.id")
+    List<Order> findForInvoicing(Collection<OrderStatus> statuses, LocalDateTime from, LocalDateTime to);
 }
@@ -0,0 +1,27 @@
+package com.hansal.verrechnungsprogramm.repository;
+
+import com.hansal.verrechnungsprogramm.model.InvoiceStatus;
+import com.hansal.verrechnungsprogramm.model.OverdueInvoice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OverdueInvoiceRepository extends JpaRepository<OverdueInvoice, Long> {
+
+    /**
+     * The precomputed list without invoices that were paid or cancelled since it
+     * was computed, most overdue first.
+     */
+    @Query("SELECT d FROM OverdueInvoice d, Invoice i " +
+            "WHERE i.id = d.invoiceId AND i.status IN :openStatuses AND d.daysOverdue >= :minDaysOverdue " +
+            "ORDER BY d.daysOverdue DESC, d.invoiceId")
+    List<OverdueInvoice> findStillOpen(Collection<InvoiceStatus> openStatuses, int minDaysOverdue);
+
+    @Query("SELECT MAX(d.computedOn) FROM OverdueInvoice d")
+    LocalDate findLastComputedOn();
+}
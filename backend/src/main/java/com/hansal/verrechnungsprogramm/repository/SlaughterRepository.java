@@ -1,15 +1,34 @@
 package com.hansal.verrechnungsprogramm.repository;
 
 import com.hansal.verrechnungsprogramm.model.Slaughter;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface SlaughterRepository extends JpaRepository<Slaughter, Long> {
+
+    @Override
+    @EntityGraph("Slaughter.detail")
+    List<Slaughter> findAll();
+
+    @Override
+    @EntityGraph("Slaughter.detail")
+    Optional<Slaughter> findById(Long id);
+
+    @EntityGraph("Slaughter.detail")
     List<Slaughter> findByCowTagContainingIgnoreCase(String cowTag);
+
+    @EntityGraph("Slaughter.detail")
     List<Slaughter> findBySlaughterDateBetween(LocalDate startDate, LocalDate endDate);
+
+    @EntityGraph("Slaughter.detail")
+    List<Slaughter> findByIdIn(Collection<Long> ids);
+
     List<Slaughter> findByCowId(String cowId);
 }
@@ -0,0 +1,23 @@
+package com.hansal.verrechnungsprogramm.repository;
+
+import com.hansal.verrechnungsprogramm.model.SlaughterYield;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface SlaughterYieldRepository extends JpaRepository<SlaughterYield, Long> {
+
+    List<SlaughterYield> findBySlaughterDateBetween(LocalDate startDate, LocalDate endDate, Pageable pageable);
+
+    /**
+     * Slaughters that had sales on the given day according to their current
+     * summary, i.e. whose summary may include a sale that has since been removed.
+     */
+    @Query("SELECT y.slaughterId FROM SlaughterYield y WHERE y.firstSaleDate <= :date AND y.lastSaleDate >= :date")
+    List<Long> findIdsWithSalesAround(LocalDate date);
+}
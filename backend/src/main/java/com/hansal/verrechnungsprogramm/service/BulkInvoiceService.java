@@ -0,0 +1,177 @@
+package com.hansal.verrechnungsprogramm.service;
+
+import com.hansal.verrechnungsprogramm.dto.BulkInvoiceRequestDTO;
+import com.hansal.verrechnungsprogramm.dto.BulkInvoiceResultDTO;
+import com.hansal.verrechnungsprogramm.event.SalesChangedEvent;
+import com.hansal.verrechnungsprogramm.model.Invoice;
+import com.hansal.verrechnungsprogramm.model.Order;
+import com.hansal.verrechnungsprogramm.model.OrderStatus;
+import com.hansal.verrechnungsprogramm.model.SyncEntityType;
+import com.hansal.verrechnungsprogramm.repository.InvoiceRepository;
+import com.hansal.verrechnungsprogramm.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Creates invoices for many orders at once, e.g. at the end of a market day.
+ * <p>
+ * Without explicit ids or a status, orders of every status except CANCELLED are
+ * invoiced. The orders are loaded with one query and locked, orders that already have an
+ * invoice are skipped with a second one, the invoice numbers are reserved as a block and
+ * the invoices are written with a single JDBC batch. The lock keeps overlapping runs and
+ * single invoices from billing an order twice; the unique index on
+ * {@code invoices.order_id} backs it up.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class BulkInvoiceService {
+
+    private static final String INSERT_INVOICE = "INSERT INTO invoices " +
+            "(invoice_number, order_id, issue_date, due_date, total_amount, tax_rate, tax_amount, grand_total, status, created_by, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final LocalDate EARLIEST_ORDER_DATE = LocalDate.of(2000, 1, 1);
+    private static final LocalDate LATEST_ORDER_DATE = LocalDate.of(9999, 12, 30);
+
+    private final OrderRepository orderRepository;
+    private final InvoiceRepository invoiceRepository;
+    private final InvoiceNumberAllocator invoiceNumberAllocator;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TableVersionService tableVersionService;
+    private final SyncService syncService;
+    private final PaymentTerms paymentTerms;
+
+    public BulkInvoiceResultDTO createInvoices(BulkInvoiceRequestDTO request) {
+        List<Order> orders = findOrders(request);
+        List<Long> missingOrderIds = missingOrderIds(request.getOrderIds(), orders);
+
+        Set<Long> invoicedOrderIds = new HashSet<>();
+        if (!orders.isEmpty()) {
+            List<Long> orderIds = orders.stream().map(Order::getId).toList();
+            // Locked first, so an invoice created meanwhile is seen by the check
+            orderRepository.lockByIdIn(orderIds);
+            invoicedOrderIds.addAll(invoiceRepository.findInvoicedOrderIds(orderIds));
+        }
+        List<Order> toInvoice = orders.stream()
+                .filter(order -> !invoicedOrderIds.contains(order.getId()))
+                .toList();
+
+        List<Long> invoiceIds = insertInvoices(toInvoice);
+        if (!toInvoice.isEmpty()) {
+            eventPublisher.publishEvent(new SalesChangedEvent(toInvoice.stream()
+                    .map(order -> order.getOrderDate().toLocalDate())
+                    .collect(Collectors.toSet())));
+        }
+        List<Long> skippedOrderIds = orders.stream()
+                .map(Order::getId)
+                .filter(invoicedOrderIds::contains)
+                .toList();
+
+        log.info("Created invoices in bulk: matched={}, created={}, skipped={}, missing={}",
+                orders.size(), invoiceIds.size(), skippedOrderIds.size(), missingOrderIds.size());
+        return new BulkInvoiceResultDTO(orders.size(), invoiceIds, skippedOrderIds, missingOrderIds, null);
+    }
+
+    private List<Order> findOrders(BulkInvoiceRequestDTO request) {
+        if (request.getOrderIds() != null && !request.getOrderIds().isEmpty()) {
+            return orderRepository.findAllById(new LinkedHashSet<>(request.getOrderIds()));
+        }
+        Collection<OrderStatus> statuses = request.getStatus() != null
+                ? EnumSet.of(request.getStatus())
+                : EnumSet.complementOf(EnumSet.of(OrderStatus.CANCELLED));
+        LocalDate from = request.getFromDate() != null ? request.getFromDate() : EARLIEST_ORDER_DATE;
+        LocalDate to = request.getToDate() != null ? request.getToDate() : LATEST_ORDER_DATE;
+        return orderRepository.findForInvoicing(statuses, from.atStartOfDay(), to.plusDays(1).atStartOfDay());
+    }
+
+    private List<Long> missingOrderIds(List<Long> requestedIds, List<Order> orders) {
+        if (requestedIds == null) {
+            return List.of();
+        }
+        Set<Long> found = new HashSet<>();
+        orders.forEach(order -> found.add(order.getId()));
+        return requestedIds.stream()
+                .filter(id -> !found.contains(id))
+                .distinct()
+                .toList();
+    }
+
+    private List<Long> insertInvoices(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return List.of();
+        }
+        LocalDate issueDate = LocalDate.now();
+        LocalDateTime now = LocalDateTime.now();
+        List<String> numbers = invoiceNumberAllocator.next(issueDate.getYear(), orders.size());
+
+        List<Invoice> invoices = new ArrayList<>(orders.size());
+        for (int i = 0; i < orders.size(); i++) {
+            Order order = orders.get(i);
+            Invoice invoice = new Invoice();
+            invoice.setOrder(order);
+            invoice.setInvoiceNumber(numbers.get(i));
+            invoice.setIssueDate(issueDate);
+            invoice.setDueDate(paymentTerms.dueDate(issueDate));
+            invoice.setTotalAmount(order.getTotalAmount() != null ? order.getTotalAmount() : BigDecimal.ZERO);
+            invoice.setTaxRate(BigDecimal.valueOf(10)); // 10% USt for agricultural products
+            invoice.setCreatedBy("Administrator");
+            invoice.calculateTotals();
+            invoices.add(invoice);
+        }
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_INVOICE, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Invoice invoice = invoices.get(i);
+                        ps.setString(1, invoice.getInvoiceNumber());
+                        ps.setLong(2, invoice.getOrder().getId());
+                        ps.setDate(3, Date.valueOf(invoice.getIssueDate()));
+                        ps.setDate(4, Date.valueOf(invoice.getDueDate()));
+                        ps.setBigDecimal(5, invoice.getTotalAmount());
+                        ps.setBigDecimal(6, invoice.getTaxRate());
+                        ps.setBigDecimal(7, invoice.getTaxAmount());
+                        ps.setBigDecimal(8, invoice.getGrandTotal());
+                        ps.setString(9, invoice.getStatus().name());
+                        ps.setString(10, invoice.getCreatedBy());
+                        ps.setTimestamp(11, Timestamp.valueOf(now));
+                        ps.setTimestamp(12, Timestamp.valueOf(now));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return invoices.size();
+                    }
+                },
+                keyHolder);
+
+        tableVersionService.markChanged("invoices");
+        List<Long> ids = keyHolder.getKeyList().stream()
+                .map(keys -> ((Number) keys.values().iterator().next()).longValue())
+                .toList();
+        syncService.markChanged(SyncEntityType.INVOICE, ids);
+        return ids;
+    }
+}
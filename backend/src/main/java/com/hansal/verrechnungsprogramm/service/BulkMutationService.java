@@ -0,0 +1,468 @@
+package com.hansal.verrechnungsprogramm.service;
+
+import com.hansal.verrechnungsprogramm.dto.BulkItemResultDTO;
+import com.hansal.verrechnungsprogramm.dto.BulkItemResultDTO.Status;
+import com.hansal.verrechnungsprogramm.dto.BulkResultDTO;
+import com.hansal.verrechnungsprogramm.event.SalesChangedEvent;
+import com.hansal.verrechnungsprogramm.model.*;
+import com.hansal.verrechnungsprogramm.repository.MeatCutRepository;
+import com.hansal.verrechnungsprogramm.repository.OrderRepository;
+import com.hansal.verrechnungsprogramm.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Creates and updates many entities per request, e.g. a product catalogue import
+ * or marking all orders of a market day as completed.
+ * <p>
+ * The input is processed in chunks of {@code app.bulk.chunk-size} elements. Each
+ * chunk is written with JDBC batches in its own transaction, so a failing chunk
+ * only rolls back its own elements and the memory held per transaction stays
+ * bounded. Every element gets a result: elements that fail validation are
+ * reported individually, elements of a rolled back chunk are reported with the
+ * error of the chunk.
+ */
+@Slf4j
+@Service
+public class BulkMutationService {
+
+    private static final String INSERT_PRODUCT = "INSERT INTO products " +
+            "(name, description, price, image_url, meat_cut_type, stock_quantity, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_ORDER = "INSERT INTO orders " +
+            "(customer_name, customer_phone, customer_address, total_amount, status, order_date, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_ORDER_ITEM = "INSERT INTO order_items " +
+            "(order_id, product_id, meat_cut_id, quantity, weight, unit_price, subtotal) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_ORDER_STATUS = "UPDATE orders SET status = ?, updated_at = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ProductRepository productRepository;
+    private final MeatCutRepository meatCutRepository;
+    private final OrderRepository orderRepository;
+    private final MeatCutAllocationService meatCutAllocationService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TableVersionService tableVersionService;
+    private final SyncService syncService;
+    private final ProductCatalogCache productCatalogCache;
+    private final int chunkSize;
+
+    public BulkMutationService(JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               ProductRepository productRepository,
+                               MeatCutRepository meatCutRepository,
+                               OrderRepository orderRepository,
+                               MeatCutAllocationService meatCutAllocationService,
+                               ApplicationEventPublisher eventPublisher,
+                               TableVersionService tableVersionService,
+                               SyncService syncService,
+                               ProductCatalogCache productCatalogCache,
+                               @Value("${app.bulk.chunk-size:100}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.productRepository = productRepository;
+        this.meatCutRepository = meatCutRepository;
+        this.orderRepository = orderRepository;
+        this.meatCutAllocationService = meatCutAllocationService;
+        this.eventPublisher = eventPublisher;
+        this.tableVersionService = tableVersionService;
+        this.syncService = syncService;
+        this.productCatalogCache = productCatalogCache;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Creates products with a stock of 0, like {@link ProductService#createProduct}.
+     */
+    public BulkResultDTO createProducts(List<Product> products) {
+        BulkItemResultDTO[] results = new BulkItemResultDTO[products.size()];
+        processInChunks(products, results, this::insertProducts);
+        return summarize("products", results);
+    }
+
+    /**
+     * Creates orders like {@link OrderService#createOrder}: prices come from the
+     * meat cut or product, and product-based items of orders that are not
+     * cancelled are allocated to carcasses.
+     */
+    public BulkResultDTO createOrders(List<Order> orders) {
+        BulkItemResultDTO[] results = new BulkItemResultDTO[orders.size()];
+        processInChunks(orders, results, this::insertOrders);
+        return summarize("orders", results);
+    }
+
+    /**
+     * Sets the status of the given orders. Like {@link OrderService#updateOrderStatus},
+     * cancelled orders release their allocations and reopened ones are allocated again.
+     */
+    public BulkResultDTO updateOrderStatuses(List<Long> orderIds, OrderStatus status) {
+        BulkItemResultDTO[] results = new BulkItemResultDTO[orderIds.size()];
+        processInChunks(orderIds, results, (chunk, offset, chunkResults) ->
+                updateOrderStatuses(chunk, offset, chunkResults, status));
+        return summarize("order statuses", results);
+    }
+
+    private <T> void processInChunks(List<T> elements, BulkItemResultDTO[] results, ChunkWriter<T> writer) {
+        for (int offset = 0; offset < elements.size(); offset += chunkSize) {
+            List<T> chunk = elements.subList(offset, Math.min(offset + chunkSize, elements.size()));
+            int chunkOffset = offset;
+            try {
+                transactionTemplate.executeWithoutResult(status -> writer.write(chunk, chunkOffset, results));
+            } catch (RuntimeException e) {
+                log.warn("Bulk chunk rolled back: offset={}, size={}, error={}", chunkOffset, chunk.size(), e.getMessage());
+                for (int i = chunkOffset; i < chunkOffset + chunk.size(); i++) {
+                    if (results[i] == null || results[i].getStatus() != Status.FAILED) {
+                        results[i] = failed(i, "Chunk rolled back: " + e.getMessage());
+                    }
+                }
+            }
+        }
+    }
+
+    private void insertProducts(List<Product> chunk, int offset, BulkItemResultDTO[] results) {
+        List<Integer> indexes = new ArrayList<>();
+        List<Product> valid = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            String error = validateProduct(chunk.get(i));
+            if (error != null) {
+                results[offset + i] = failed(offset + i, error);
+            } else {
+                indexes.add(offset + i);
+                valid.add(chunk.get(i));
+            }
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Long> ids = batchInsert(INSERT_PRODUCT, valid, (ps, product) -> {
+            ps.setString(1, product.getName().trim());
+            ps.setString(2, product.getDescription());
+            ps.setBigDecimal(3, product.getPrice());
+            ps.setString(4, product.getImageUrl());
+            ps.setString(5, product.getMeatCutType());
+            // Stock is only changed through slaughters
+            ps.setBigDecimal(6, BigDecimal.ZERO);
+            ps.setTimestamp(7, now);
+            ps.setTimestamp(8, now);
+        });
+        if (!ids.isEmpty()) {
+            tableVersionService.markChanged("products");
+            syncService.markChanged(SyncEntityType.PRODUCT, ids);
+            productCatalogCache.evict(ids);
+        }
+        for (int i = 0; i < ids.size(); i++) {
+            results[indexes.get(i)] = new BulkItemResultDTO(indexes.get(i), ids.get(i), Status.CREATED, null);
+        }
+    }
+
+    private void insertOrders(List<Order> chunk, int offset, BulkItemResultDTO[] results) {
+        Map<Long, Product> products = findById(chunk, item -> item.getProduct() != null ? item.getProduct().getId() : null,
+                productRepository::findAllById, Product::getId);
+        Map<Long, MeatCut> meatCuts = findById(chunk, item -> item.getMeatCut() != null ? item.getMeatCut().getId() : null,
+                meatCutRepository::findAllById, MeatCut::getId);
+
+        List<Integer> indexes = new ArrayList<>();
+        List<Order> valid = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            Order order = chunk.get(i);
+            String error = prepareOrder(order, products, meatCuts);
+            if (error != null) {
+                results[offset + i] = failed(offset + i, error);
+            } else {
+                indexes.add(offset + i);
+                valid.add(order);
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> orderIds = batchInsert(INSERT_ORDER, valid, (ps, order) -> {
+            ps.setString(1, order.getCustomerName().trim());
+            ps.setString(2, order.getCustomerPhone());
+            ps.setString(3, order.getCustomerAddress());
+            ps.setBigDecimal(4, order.getTotalAmount());
+            ps.setString(5, (order.getStatus() != null ? order.getStatus() : OrderStatus.PENDING).name());
+            ps.setTimestamp(6, Timestamp.valueOf(order.getOrderDate() != null ? order.getOrderDate() : now));
+            ps.setTimestamp(7, Timestamp.valueOf(now));
+            ps.setTimestamp(8, Timestamp.valueOf(now));
+        });
+
+        List<OrderItem> items = new ArrayList<>();
+        for (int i = 0; i < valid.size(); i++) {
+            Order order = valid.get(i);
+            order.setId(orderIds.get(i));
+            items.addAll(order.getItems());
+        }
+        List<Long> itemIds = batchInsert(INSERT_ORDER_ITEM, items, (ps, item) -> {
+            ps.setLong(1, item.getOrder().getId());
+            setNullableLong(ps, 2, item.getProduct() != null ? item.getProduct().getId() : null);
+            setNullableLong(ps, 3, item.getMeatCut() != null ? item.getMeatCut().getId() : null);
+            if (item.getQuantity() != null) {
+                ps.setInt(4, item.getQuantity());
+            } else {
+                ps.setNull(4, Types.INTEGER);
+            }
+            ps.setBigDecimal(5, item.getWeight());
+            ps.setBigDecimal(6, item.getUnitPrice());
+            ps.setBigDecimal(7, item.getSubtotal());
+        });
+
+        tableVersionService.markChanged("orders");
+        tableVersionService.markChanged("order_items");
+        syncService.markChanged(SyncEntityType.ORDER, orderIds);
+
+        for (int i = 0; i < items.size(); i++) {
+            OrderItem item = items.get(i);
+            item.setId(itemIds.get(i));
+            if (item.getMeatCut() == null && item.getProduct() != null
+                    && item.getOrder().getStatus() != OrderStatus.CANCELLED) {
+                meatCutAllocationService.allocate(item);
+            }
+        }
+
+        Set<LocalDate> dates = new HashSet<>();
+        for (int i = 0; i < valid.size(); i++) {
+            Order order = valid.get(i);
+            dates.add(order.getOrderDate() != null ? order.getOrderDate().toLocalDate() : now.toLocalDate());
+            results[indexes.get(i)] = new BulkItemResultDTO(indexes.get(i), order.getId(), Status.CREATED, null);
+        }
+        eventPublisher.publishEvent(new SalesChangedEvent(dates));
+    }
+
+    private void updateOrderStatuses(List<Long> chunk, int offset, BulkItemResultDTO[] results, OrderStatus status) {
+        Set<Long> requested = new HashSet<>(chunk);
+        requested.remove(null);
+        Map<Long, LocalDate> orderDates = new HashMap<>();
+        Set<Long> switched = new HashSet<>();
+        if (!requested.isEmpty()) {
+            jdbcTemplate.query("SELECT id, order_date, status FROM orders WHERE id IN ("
+                            + String.join(", ", Collections.nCopies(requested.size(), "?")) + ")",
+                    rs -> {
+                        orderDates.put(rs.getLong("id"), rs.getTimestamp("order_date").toLocalDateTime().toLocalDate());
+                        boolean cancelled = OrderStatus.CANCELLED.name().equals(rs.getString("status"));
+                        if (cancelled != (status == OrderStatus.CANCELLED)) {
+                            switched.add(rs.getLong("id"));
+                        }
+                    },
+                    requested.toArray());
+        }
+
+        List<Integer> indexes = new ArrayList<>();
+        List<Long> found = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            Long id = chunk.get(i);
+            if (id == null || !orderDates.containsKey(id)) {
+                results[offset + i] = failed(offset + i, "Order not found with id: " + id);
+            } else {
+                indexes.add(offset + i);
+                found.add(id);
+            }
+        }
+        if (found.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(UPDATE_ORDER_STATUS, found, found.size(), (ps, id) -> {
+            ps.setString(1, status.name());
+            ps.setTimestamp(2, now);
+            ps.setLong(3, id);
+        });
+        tableVersionService.markChanged("orders");
+        syncService.markChanged(SyncEntityType.ORDER, found);
+        if (!switched.isEmpty()) {
+            updateAllocations(switched, status);
+        }
+        for (int i = 0; i < found.size(); i++) {
+            results[indexes.get(i)] = new BulkItemResultDTO(indexes.get(i), found.get(i), Status.UPDATED, null);
+        }
+        eventPublisher.publishEvent(new SalesChangedEvent(new HashSet<>(orderDates.values())));
+    }
+
+    /**
+     * Releases the allocations of orders that were cancelled, or allocates the
+     * product items of orders that are no longer cancelled.
+     */
+    private void updateAllocations(Set<Long> orderIds, OrderStatus status) {
+        List<OrderItem> items = orderRepository.findByIdIn(orderIds).stream()
+                .flatMap(order -> order.getItems().stream())
+                .toList();
+        if (status == OrderStatus.CANCELLED) {
+            meatCutAllocationService.release(items);
+            return;
+        }
+        for (OrderItem item : items) {
+            if (item.getMeatCut() == null && item.getProduct() != null) {
+                meatCutAllocationService.allocate(item);
+            }
+        }
+    }
+
+    private static String validateProduct(Product product) {
+        if (product == null) {
+            return "Product is missing";
+        }
+        if (product.getName() == null || product.getName().isBlank()) {
+            return "Product name is required";
+        }
+        if (product.getPrice() == null) {
+            return "Price is required";
+        }
+        if (product.getPrice().signum() <= 0) {
+            return "Price must be positive";
+        }
+        return null;
+    }
+
+    /**
+     * Validates an order and resolves its items' references and prices.
+     *
+     * @return the validation error, or null if the order can be inserted
+     */
+    private static String prepareOrder(Order order, Map<Long, Product> products, Map<Long, MeatCut> meatCuts) {
+        if (order == null) {
+            return "Order is missing";
+        }
+        if (order.getCustomerName() == null || order.getCustomerName().isBlank()) {
+            return "Customer name is required";
+        }
+        if (order.getItems() == null || order.getItems().isEmpty()) {
+            return "Order has no items";
+        }
+        for (OrderItem item : order.getItems()) {
+            if (item.getWeight() == null || item.getWeight().signum() <= 0) {
+                return "Weight must be positive";
+            }
+            if (item.getMeatCut() != null && item.getMeatCut().getId() != null) {
+                MeatCut meatCut = meatCuts.get(item.getMeatCut().getId());
+                if (meatCut == null) {
+                    return "Meat cut not found with id: " + item.getMeatCut().getId();
+                }
+                item.setMeatCut(meatCut);
+                item.setProduct(null);
+                item.setUnitPrice(meatCut.getPricePerKg());
+            } else if (item.getProduct() != null && item.getProduct().getId() != null) {
+                Product product = products.get(item.getProduct().getId());
+                if (product == null) {
+                    return "Product not found with id: " + item.getProduct().getId();
+                }
+                item.setProduct(product);
+                item.setMeatCut(null);
+                item.setUnitPrice(product.getPrice());
+            } else {
+                return "Item needs a product or meat cut";
+            }
+            if (item.getUnitPrice() == null) {
+                return "Unit price is required";
+            }
+            item.setSubtotal(item.getUnitPrice().multiply(item.getWeight()).setScale(2, RoundingMode.HALF_UP));
+            item.setOrder(order);
+        }
+        order.calculateTotal();
+        return null;
+    }
+
+    /**
+     * Loads the entities referenced by the items of all orders of a chunk with one query.
+     */
+    private static <E> Map<Long, E> findById(List<Order> orders, Function<OrderItem, Long> reference,
+                                             Function<Set<Long>, List<E>> loader, Function<E, Long> idOf) {
+        Set<Long> ids = new HashSet<>();
+        for (Order order : orders) {
+            if (order != null && order.getItems() != null) {
+                for (OrderItem item : order.getItems()) {
+                    Long id = reference.apply(item);
+                    if (id != null) {
+                        ids.add(id);
+                    }
+                }
+            }
+        }
+        Map<Long, E> entities = new HashMap<>();
+        if (!ids.isEmpty()) {
+            loader.apply(ids).forEach(entity -> entities.put(idOf.apply(entity), entity));
+        }
+        return entities;
+    }
+
+    /**
+     * Inserts all rows with one JDBC batch and returns their generated ids in row order.
+     */
+    private <T> List<Long> batchInsert(String sql, List<T> rows, RowSetter<T> setter) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(sql, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        setter.setValues(ps, rows.get(i));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return rows.size();
+                    }
+                },
+                keyHolder);
+        return keyHolder.getKeyList().stream()
+                .map(keys -> ((Number) keys.values().iterator().next()).longValue())
+                .toList();
+    }
+
+    private static void setNullableLong(PreparedStatement ps, int index, Long value) throws SQLException {
+        if (value != null) {
+            ps.setLong(index, value);
+        } else {
+            ps.setNull(index, Types.BIGINT);
+        }
+    }
+
+    private static BulkItemResultDTO failed(int index, String error) {
+        return new BulkItemResultDTO(index, null, Status.FAILED, error);
+    }
+
+    private BulkResultDTO summarize(String what, BulkItemResultDTO[] results) {
+        int failed = (int) Arrays.stream(results).filter(result -> result.getStatus() == Status.FAILED).count();
+        log.info("Processed bulk {}: total={}, succeeded={}, failed={}, chunkSize={}",
+                what, results.length, results.length - failed, failed, chunkSize);
+        return new BulkResultDTO(results.length, results.length - failed, failed, List.of(results));
+    }
+
+    @FunctionalInterface
+    private interface ChunkWriter<T> {
+        void write(List<T> chunk, int offset, BulkItemResultDTO[] results);
+    }
+
+    @FunctionalInterface
+    private interface RowSetter<T> {
+        void setValues(PreparedStatement ps, T row) throws SQLException;
+    }
+}
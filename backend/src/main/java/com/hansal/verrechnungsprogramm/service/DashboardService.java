@@ -0,0 +1,38 @@
+package com.hansal.verrechnungsprogramm.service;
+
+import com.hansal.verrechnungsprogramm.dto.DashboardCountsDTO;
+import com.hansal.verrechnungsprogramm.repository.InvoiceRepository;
+import com.hansal.verrechnungsprogramm.repository.OrderRepository;
+import com.hansal.verrechnungsprogramm.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.function.Supplier;
+
+/**
+ * Key figures of the start page, counted in the database instead of loading
+ * every list into the client.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DashboardService {
+
+    private final ProductRepository productRepository;
+    private final OrderRepository orderRepository;
+    private final InvoiceRepository invoiceRepository;
+    private final QueryFanOut queryFanOut;
+
+    public DashboardCountsDTO getCounts() {
+        try (QueryFanOut.Scope scope = queryFanOut.open()) {
+            Supplier<Long> products = scope.fork(productRepository::count);
+            Supplier<Long> orders = scope.fork(orderRepository::count);
+            Supplier<Long> invoices = scope.fork(invoiceRepository::count);
+            scope.join();
+            DashboardCountsDTO counts = new DashboardCountsDTO(products.get(), orders.get(), invoices.get());
+            log.debug("Counted dashboard figures: {}", counts);
+            return counts;
+        }
+    }
+}
@@ -1,238 +1,129 @@
 package com.hansal.verrechnungsprogramm.service;
 
-import com.hansal.verrechnungsprogramm.model.Product;
-import com.hansal.verrechnungsprogramm.repository.*;
-import lombok.RequiredArgsConstructor;
+import jakarta.persistence.EntityManagerFactory;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.math.BigDecimal;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+/**
+ * Empties the business tables and loads the {@link SeedCatalog} products.
+ * <p>
+ * On PostgreSQL all tables go with one {@code TRUNCATE ... RESTART IDENTITY
+ * CASCADE} and the products come back with one batch of the
+ * {@link ProductSeeder}, all in one transaction. H2 has no cascading truncate; there the tables are truncated one
+ * by one, children first, with referential integrity switched off, and every
+ * truncate commits on its own. Users, the invoice number counters (the allocator
+ * holds reserved blocks in memory) and the table and sync versions are kept.
+ * <p>
+ * Nothing goes through Hibernate, so the ETag counters are incremented, sync
+ * clients are sent to a full snapshot, and the second-level cache and the
+ * in-memory caches are cleared after the commit.
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class DatabaseResetService {
 
-    private final ProductRepository productRepository;
-    private final OrderRepository orderRepository;
-    private final InvoiceRepository invoiceRepository;
-    private final MeatCutRepository meatCutRepository;
+    /** Tables emptied by the reset, children first. */
+    static final List<String> RESET_TABLES = List.of(
+            "meat_cut_allocations", "overdue_invoices", "invoices", "order_items", "orders", "daily_sales",
+            "slaughter_yields", "meat_cuts", "slaughters", "products", "idempotency_keys", "sync_changes");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SeedCatalog seedCatalog;
+    private final ProductSeeder productSeeder;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TableVersionService tableVersionService;
+    private final SyncService syncService;
+    private final ProductCatalogCache productCatalogCache;
+    private final MeatCutAvailabilityCache meatCutAvailabilityCache;
+    private final MeatCutAllocationService meatCutAllocationService;
+    private final IdempotencyService idempotencyService;
+
+    public DatabaseResetService(JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                SeedCatalog seedCatalog,
+                                ProductSeeder productSeeder,
+                                EntityManagerFactory entityManagerFactory,
+                                TableVersionService tableVersionService,
+                                SyncService syncService,
+                                ProductCatalogCache productCatalogCache,
+                                MeatCutAvailabilityCache meatCutAvailabilityCache,
+                                MeatCutAllocationService meatCutAllocationService,
+                                IdempotencyService idempotencyService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.seedCatalog = seedCatalog;
+        this.productSeeder = productSeeder;
+        this.entityManagerFactory = entityManagerFactory;
+        this.tableVersionService = tableVersionService;
+        this.syncService = syncService;
+        this.productCatalogCache = productCatalogCache;
+        this.meatCutAvailabilityCache = meatCutAvailabilityCache;
+        this.meatCutAllocationService = meatCutAllocationService;
+        this.idempotencyService = idempotencyService;
+    }
 
-    @Transactional
     public Map<String, Integer> resetDatabase() {
-        // Delete all data in correct order (respecting foreign keys)
-        invoiceRepository.deleteAll();
-        orderRepository.deleteAll();
-        meatCutRepository.deleteAll();
-        productRepository.deleteAll();
-
-        // Reload default products
-        int productsLoaded = loadDefaultProducts();
+        // Read before truncating, so a broken file leaves the database alone
+        seedCatalog.products();
+        boolean postgres = isPostgres();
+
+        int productsLoaded = transactionTemplate.execute(status -> {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    clearCaches();
+                }
+            });
+            truncate(postgres);
+            TableVersionService.TRACKED_TABLES.forEach(tableVersionService::markChanged);
+            syncService.requireSnapshot();
+            return productSeeder.seed(false).insertedIds().size();
+        });
 
         Map<String, Integer> result = new HashMap<>();
+        result.put("tablesCleared", RESET_TABLES.size());
         result.put("productsLoaded", productsLoaded);
-        log.info("Reset database: cleared all data, loaded {} products", productsLoaded);
+        log.info("Reset database: cleared {} tables, loaded {} products", RESET_TABLES.size(), productsLoaded);
         return result;
     }
 
-    private int loadDefaultProducts() {
-        int count = 0;
-
-        // Beef Products
-        productRepository.save(createProduct(
-            "Bio-Rindfleisch - Filet",
-            "Zartes Rinderfilet aus biologischer Aufzucht, erstklassige Qualität",
-            new BigDecimal("45.00"),
-            "Rind"
-        ));
-        count++;
-
-        productRepository.save(createProduct(
-            "Bio-Rindfleisch - Entrecôte",
-            "Saftiges Entrecôte mit feiner Marmorierung",
-            new BigDecimal("38.00"),
-            "Rind"
-        ));
-        count++;
-
-        productRepository.save(createProduct(
-            "Bio-Rindfleisch - Tafelspitz",
-            "Klassischer Tafelspitz für traditionelle Gerichte",
-            new BigDecimal("28.00"),
-            "Rind"
-        ));
-        count++;
-
-        productRepository.save(createProduct(
-            "Bio-Rindfleisch - Gulasch",
-            "Hochwertiges Gulaschfleisch, perfekt für Eintöpfe",
-            new BigDecimal("22.00"),
-            "Rind"
-        ));
-        count++;
-
-        productRepository.save(createProduct(
-            "Bio-Rindfleisch - Hackfleisch",
-            "Frisch faschiertes Rindfleisch",
-            new BigDecimal("18.00"),
-            "Rind"
-        ));
-        count++;
-
-        // Pork Products
-        productRepository.save(createProduct(
-            "Bio-Schweinefleisch - Schnitzel",
-            "Zartes Schweineschnitzel aus artgerechter Haltung",
-            new BigDecimal("16.00"),
-            "Schwein"
-        ));
-        count++;
-
-        productRepository.save(createProduct(
-            "Bio-Schweinefleisch - Karree",
-            "Saftiges Schweinekarree mit Fettrand",
-            new BigDecimal("18.00"),
-            "Schwein"
-        ));
-        count++;
-
-        productRepository.save(createProduct(
-            "Bio-Schweinefleisch - Bauchfleisch",
-            "Aromatisches Bauchfleisch für Braten und Grill",
-            new BigDecimal("14.00"),
-            "Schwein"
-        ));
-        count++;
-
-        productRepository.save(createProduct(
-            "Bio-Schweinefleisch - Bratenstück",
-            "Perfekt für Schweinsbraten",
-            new BigDecimal("15.00"),
-            "Schwein"
-        ));
-        count++;
-
-        // Lamb Products
-        productRepository.save(createProduct(
-            "Bio-Lammfleisch - Keule",
-            "Zarte Lammkeule aus Weidehaltung",
-            new BigDecimal("32.00"),
-            "Lamm"
-        ));
-        count++;
-
-        productRepository.save(createProduct(
-            "Bio-Lammfleisch - Koteletts",
-            "Saftige Lammkoteletts",
-            new BigDecimal("35.00"),
-            "Lamm"
-        ));
-        count++;
-
-        productRepository.save(createProduct(
-            "Bio-Lammfleisch - Schulter",
-            "Aromatische Lammschulter",
-            new BigDecimal("28.00"),
-            "Lamm"
-        ));
-        count++;
-
-        // Poultry Products
-        productRepository.save(createProduct(
-            "Bio-Hendl - Ganzes Huhn",
-            "Ganzes Bio-Hendl aus Freilandhaltung (ca. 1.5 kg)",
-            new BigDecimal("14.00"),
-            "Geflügel"
-        ));
-        count++;
-
-        productRepository.save(createProduct(
-            "Bio-Hendl - Brust",
-            "Zarte Hühnerbrust ohne Haut",
-            new BigDecimal("22.00"),
-            "Geflügel"
-        ));
-        count++;
-
-        productRepository.save(createProduct(
-            "Bio-Hendl - Schenkel",
-            "Saftige Hühnerschenkel",
-            new BigDecimal("12.00"),
-            "Geflügel"
-        ));
-        count++;
-
-        // Sausages and Processed Meat
-        productRepository.save(createProduct(
-            "Bio-Bratwurst",
-            "Würzige Bratwurst aus eigenem Fleisch",
-            new BigDecimal("16.00"),
-            "Wurst"
-        ));
-        count++;
-
-        productRepository.save(createProduct(
-            "Bio-Leberkäse",
-            "Hausgemachter Leberkäse nach traditionellem Rezept",
-            new BigDecimal("12.00"),
-            "Wurst"
-        ));
-        count++;
-
-        productRepository.save(createProduct(
-            "Bio-Speck",
-            "Geräucherter Speck aus eigener Produktion",
-            new BigDecimal("24.00"),
-            "Speck"
-        ));
-        count++;
-
-        productRepository.save(createProduct(
-            "Bio-Selchwurst",
-            "Traditionelle geselchte Wurst",
-            new BigDecimal("18.00"),
-            "Wurst"
-        ));
-        count++;
-
-        // Specialty Products
-        productRepository.save(createProduct(
-            "Bio-Eier",
-            "Frische Eier aus Freilandhaltung (10 Stück pro kg)",
-            new BigDecimal("4.50"),
-            "Eier"
-        ));
-        count++;
-
-        productRepository.save(createProduct(
-            "Bio-Honig",
-            "Blütenhonig aus eigener Imkerei",
-            new BigDecimal("15.00"),
-            "Honig"
-        ));
-        count++;
-
-        productRepository.save(createProduct(
-            "Bio-Schmalz",
-            "Reines Schweineschmalz",
-            new BigDecimal("8.00"),
-            "Fett"
-        ));
-        count++;
+    private void truncate(boolean postgres) {
+        if (postgres) {
+            jdbcTemplate.execute("TRUNCATE TABLE " + String.join(", ", RESET_TABLES) + " RESTART IDENTITY CASCADE");
+            return;
+        }
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        try {
+            RESET_TABLES.forEach(table -> jdbcTemplate.execute("TRUNCATE TABLE " + table + " RESTART IDENTITY"));
+        } finally {
+            jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY TRUE");
+        }
+    }
 
-        return count;
+    private void clearCaches() {
+        // The restarted ids would otherwise hit entries of the deleted rows
+        entityManagerFactory.getCache().unwrap(Cache.class).evictAllRegions();
+        productCatalogCache.evictAll();
+        meatCutAvailabilityCache.clear();
+        meatCutAllocationService.invalidateAll();
+        idempotencyService.clear();
     }
 
-    private Product createProduct(String name, String description, BigDecimal pricePerKg, String meatCutType) {
-        Product product = new Product();
-        product.setName(name);
-        product.setDescription(description);
-        product.setPrice(pricePerKg);
-        product.setMeatCutType(meatCutType);
-        product.setStockQuantity(BigDecimal.ZERO);
-        return product;
+    private boolean isPostgres() {
+        String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        return "PostgreSQL".equals(product);
     }
 }
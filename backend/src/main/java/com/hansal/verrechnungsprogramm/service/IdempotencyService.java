@@ -0,0 +1,151 @@
+package com.hansal.verrechnungsprogramm.service;
+
+import com.hansal.verrechnungsprogramm.model.IdempotencyRecord;
+import com.hansal.verrechnungsprogramm.repository.IdempotencyRecordRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Store of responses to create requests sent with an {@code Idempotency-Key}.
+ * <p>
+ * Responses are kept in the {@code idempotency_keys} table for a TTL, so retries
+ * are recognized across restarts and instances. They are written with a plain
+ * {@code INSERT}, so the primary key keeps the first response for a key. The most recently used keys are
+ * also held in a small in-memory LRU, which answers the common case of a retry
+ * a few seconds after the original request without a database round trip.
+ * <p>
+ * Requests with the same key are serialized with a fixed set of striped locks:
+ * concurrent duplicates wait for the first request and then see its response,
+ * while requests with different keys rarely share a lock.
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    /** A stored response and the request it belongs to. */
+    public record StoredResponse(String method, String path, String requestHash, int status, String contentType,
+                                 String body, LocalDateTime expiresAt) {
+
+        boolean isExpired() {
+            return expiresAt.isBefore(LocalDateTime.now());
+        }
+    }
+
+    private static final String INSERT_RECORD = "INSERT INTO idempotency_keys (idempotency_key, request_method, " +
+            "request_path, request_hash, status_code, content_type, response_body, created_at, expires_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // An expired record may still be in the table; it is taken over instead of blocking the key
+    private static final String REPLACE_EXPIRED_RECORD = "UPDATE idempotency_keys SET request_method = ?, " +
+            "request_path = ?, request_hash = ?, status_code = ?, content_type = ?, response_body = ?, " +
+            "created_at = ?, expires_at = ? WHERE idempotency_key = ? AND expires_at < ?";
+
+    private final IdempotencyRecordRepository repository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration ttl;
+    private final Map<String, StoredResponse> recent;
+    private final Lock[] locks;
+
+    public IdempotencyService(IdempotencyRecordRepository repository,
+                              JdbcTemplate jdbcTemplate,
+                              @Value("${app.idempotency.ttl-hours:24}") long ttlHours,
+                              @Value("${app.idempotency.cache-size:1000}") int cacheSize,
+                              @Value("${app.idempotency.lock-stripes:64}") int lockStripes) {
+        this.repository = repository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.recent = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+                return size() > cacheSize;
+            }
+        });
+        this.locks = new Lock[lockStripes];
+        for (int i = 0; i < lockStripes; i++) {
+            this.locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Lock guarding all requests with the given key. Only serializes requests
+     * within this instance; across instances the primary key of the table keeps
+     * the first stored response.
+     */
+    public Lock lockFor(String key) {
+        return locks[Math.floorMod(key.hashCode(), locks.length)];
+    }
+
+    public Optional<StoredResponse> find(String key) {
+        StoredResponse response = recent.get(key);
+        if (response == null) {
+            response = repository.findById(key).map(IdempotencyService::toResponse).orElse(null);
+            if (response != null) {
+                recent.put(key, response);
+            }
+        }
+        if (response == null || response.isExpired()) {
+            return Optional.empty();
+        }
+        return Optional.of(response);
+    }
+
+    public void store(String key, String method, String path, String requestHash, int status, String contentType,
+                      String body) {
+        LocalDateTime now = LocalDateTime.now();
+        StoredResponse response = new StoredResponse(method, path, requestHash, status, contentType, body, now.plus(ttl));
+        Timestamp createdAt = Timestamp.valueOf(now);
+        Timestamp expiresAt = Timestamp.valueOf(response.expiresAt());
+        try {
+            jdbcTemplate.update(INSERT_RECORD, key, method, path, requestHash, status, contentType, body, createdAt, expiresAt);
+        } catch (DataIntegrityViolationException e) {
+            if (jdbcTemplate.update(REPLACE_EXPIRED_RECORD, method, path, requestHash, status, contentType, body,
+                    createdAt, expiresAt, key, createdAt) == 0) {
+                // Another instance stored a response for this key first; retries get that one
+                log.debug("Idempotency key already stored: key={}", key);
+                recent.remove(key);
+                return;
+            }
+        }
+        recent.put(key, response);
+        log.debug("Stored idempotent response: key={}, path={}, status={}", key, path, status);
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.cleanup-interval-ms:3600000}")
+    @Transactional
+    public void removeExpired() {
+        int removed = repository.deleteExpired(LocalDateTime.now());
+        synchronized (recent) {
+            recent.values().removeIf(StoredResponse::isExpired);
+        }
+        if (removed > 0) {
+            log.info("Removed expired idempotency keys: count={}", removed);
+        }
+    }
+
+    /**
+     * Forgets the responses held in memory, after the table was emptied.
+     */
+    public void clear() {
+        recent.clear();
+    }
+
+    private static StoredResponse toResponse(IdempotencyRecord record) {
+        return new StoredResponse(record.getRequestMethod(), record.getRequestPath(), record.getRequestHash(),
+                record.getStatusCode(), record.getContentType(), record.getResponseBody(), record.getExpiresAt());
+    }
+}
@@ -0,0 +1,302 @@
+package com.hansal.verrechnungsprogramm.service;
+
+import com.hansal.verrechnungsprogramm.exception.InvalidRequestException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Accounting export of invoices for the tax accountant.
+ * <p>
+ * Rows are read with a forward-only JDBC cursor ({@code fetchSize}) and written to
+ * the given writer one at a time, so memory use does not depend on how many
+ * invoices are exported. PostgreSQL only streams inside a transaction, hence the
+ * read-only transaction.
+ * <p>
+ * A DATEV Buchungsstapel belongs to one fiscal year (the calendar year) and its
+ * Belegdatum has no year, so DATEV ranges must lie within one year; cancelled
+ * invoices are not booked. An invoice is booked gross with the BU-Schlüssel
+ * configured for its tax rate in {@code app.export.datev.tax-keys}, so DATEV
+ * books the tax itself. Rates without a key are booked as two rows: the net
+ * amount to the revenue account and the tax to {@code app.export.datev.tax-account}.
+ */
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+public class InvoiceExportService {
+
+    public enum Format {
+        CSV(StandardCharsets.UTF_8, "csv"),
+        // DATEV expects ANSI (Windows-1252) encoded files
+        DATEV(Charset.forName("windows-1252"), "csv");
+
+        private final Charset charset;
+        private final String extension;
+
+        Format(Charset charset, String extension) {
+            this.charset = charset;
+            this.extension = extension;
+        }
+
+        public Charset getCharset() {
+            return charset;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    private static final LocalDate EARLIEST = LocalDate.of(1900, 1, 1);
+    private static final LocalDate LATEST = LocalDate.of(9999, 12, 31);
+    private static final char SEPARATOR = ';';
+
+    private static final String CSV_QUERY =
+            "SELECT i.invoice_number, i.issue_date, i.due_date, i.status, o.customer_name, " +
+            "COALESCE(mp.name, p.name) AS item_name, oi.weight, oi.unit_price, oi.subtotal, " +
+            "i.tax_rate, i.total_amount, i.tax_amount, i.grand_total " +
+            "FROM invoices i " +
+            "JOIN orders o ON o.id = i.order_id " +
+            "LEFT JOIN order_items oi ON oi.order_id = o.id " +
+            "LEFT JOIN products p ON p.id = oi.product_id " +
+            "LEFT JOIN meat_cuts m ON m.id = oi.meat_cut_id " +
+            "LEFT JOIN products mp ON mp.id = m.product_id " +
+            "WHERE i.issue_date >= ? AND i.issue_date <= ? " +
+            "ORDER BY i.issue_date, i.id, oi.id";
+
+    private static final String DATEV_QUERY =
+            "SELECT i.invoice_number, i.issue_date, o.customer_name, i.tax_rate, i.total_amount, i.tax_amount, i.grand_total " +
+            "FROM invoices i JOIN orders o ON o.id = i.order_id " +
+            "WHERE i.issue_date >= ? AND i.issue_date <= ? AND i.status <> 'CANCELLED' " +
+            "ORDER BY i.issue_date, i.id";
+
+    private static final String CSV_HEADER = String.join(String.valueOf(SEPARATOR),
+            "Rechnungsnummer", "Rechnungsdatum", "Fälligkeitsdatum", "Status", "Kunde",
+            "Artikel", "Gewicht (kg)", "Preis/kg", "Positionsbetrag",
+            "USt-Satz", "Netto", "USt", "Brutto");
+
+    private static final String DATEV_COLUMNS = String.join(String.valueOf(SEPARATOR),
+            "Umsatz (ohne Soll/Haben-Kz)", "Soll/Haben-Kennzeichen", "WKZ Umsatz", "Konto",
+            "Gegenkonto (ohne BU-Schlüssel)", "BU-Schlüssel", "Belegdatum", "Belegfeld 1", "Buchungstext");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String datevAccount;
+    private final String datevRevenueAccount;
+    private final String datevTaxAccount;
+    private final Map<BigDecimal, String> datevTaxKeys;
+    private final String datevConsultantNumber;
+    private final String datevClientNumber;
+
+    public InvoiceExportService(DataSource dataSource,
+                                @Value("${app.export.fetch-size:500}") int fetchSize,
+                                @Value("${app.export.datev.account:1200}") String datevAccount,
+                                @Value("${app.export.datev.revenue-account:4000}") String datevRevenueAccount,
+                                @Value("${app.export.datev.tax-account:3800}") String datevTaxAccount,
+                                @Value("${app.export.datev.tax-keys:}") String datevTaxKeys,
+                                @Value("${app.export.datev.consultant-number:0}") String datevConsultantNumber,
+                                @Value("${app.export.datev.client-number:0}") String datevClientNumber) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.datevAccount = datevAccount;
+        this.datevRevenueAccount = datevRevenueAccount;
+        this.datevTaxAccount = datevTaxAccount;
+        this.datevTaxKeys = parseTaxKeys(datevTaxKeys);
+        this.datevConsultantNumber = datevConsultantNumber;
+        this.datevClientNumber = datevClientNumber;
+    }
+
+    /**
+     * Writes all invoices issued between {@code from} and {@code to} (inclusive,
+     * both optional) to {@code out}. For DATEV an open bound ends at the fiscal
+     * year of the other one; without bounds the current year is exported.
+     *
+     * @return number of data rows written
+     */
+    public int exportInvoices(Format format, LocalDate from, LocalDate to, Writer out) {
+        LocalDate start = from != null ? from : EARLIEST;
+        LocalDate end = to != null ? to : LATEST;
+        if (format == Format.DATEV) {
+            // Open bounds stop at the fiscal year of the other bound
+            Year year = datevYear(from, to);
+            start = from != null ? from : year.atDay(1);
+            end = to != null ? to : year.atMonth(12).atEndOfMonth();
+        }
+        checkRange(format, start, end);
+        int[] rows = {0};
+        try {
+            if (format == Format.DATEV) {
+                writeDatevHeader(out, start, end);
+                jdbcTemplate.query(DATEV_QUERY, rs -> {
+                    rows[0] += writeDatevRows(out, rs);
+                }, Date.valueOf(start), Date.valueOf(end));
+            } else {
+                writeLine(out, CSV_HEADER);
+                jdbcTemplate.query(CSV_QUERY, rs -> {
+                    writeCsvRow(out, rs);
+                    rows[0]++;
+                }, Date.valueOf(start), Date.valueOf(end));
+            }
+            out.flush();
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Invoice export aborted: format={}, rows={}, error={}", format, rows[0], e.getMessage());
+            throw new RuntimeException("Error writing invoice export: " + e.getMessage(), e);
+        }
+        log.info("Exported invoices: format={}, from={}, to={}, rows={}", format, from, to, rows[0]);
+        return rows[0];
+    }
+
+    /**
+     * Rejects ranges that cannot be exported in the given format: an inverted
+     * range, or for DATEV one that spans more than one fiscal year.
+     *
+     * @throws InvalidRequestException with a message for the user
+     */
+    public void checkRange(Format format, LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new InvalidRequestException("Das Startdatum liegt nach dem Enddatum");
+        }
+        if (format == Format.DATEV && from != null && to != null && from.getYear() != to.getYear()) {
+            throw new InvalidRequestException(
+                    "Ein DATEV-Buchungsstapel umfasst nur ein Wirtschaftsjahr, bitte einen Zeitraum innerhalb eines Jahres wählen");
+        }
+    }
+
+    /** Fiscal year of a DATEV export: the year of the given bound, or the current one. */
+    private static Year datevYear(LocalDate from, LocalDate to) {
+        return Year.from(from != null ? from : to != null ? to : LocalDate.now());
+    }
+
+    private void writeCsvRow(Writer out, ResultSet rs) throws SQLException {
+        writeLine(out, String.join(String.valueOf(SEPARATOR),
+                escape(rs.getString("invoice_number")),
+                formatDate(rs.getDate("issue_date"), DateTimeFormatter.ofPattern("dd.MM.yyyy")),
+                formatDate(rs.getDate("due_date"), DateTimeFormatter.ofPattern("dd.MM.yyyy")),
+                escape(rs.getString("status")),
+                escape(rs.getString("customer_name")),
+                escape(rs.getString("item_name")),
+                formatDecimal(rs.getBigDecimal("weight"), 3),
+                formatDecimal(rs.getBigDecimal("unit_price"), 2),
+                formatDecimal(rs.getBigDecimal("subtotal"), 2),
+                formatDecimal(rs.getBigDecimal("tax_rate"), 2),
+                formatDecimal(rs.getBigDecimal("total_amount"), 2),
+                formatDecimal(rs.getBigDecimal("tax_amount"), 2),
+                formatDecimal(rs.getBigDecimal("grand_total"), 2)));
+    }
+
+    /**
+     * DATEV "Buchungsstapel": the EXTF header line describing the batch, followed by
+     * the column names.
+     */
+    private void writeDatevHeader(Writer out, LocalDate start, LocalDate end) {
+        DateTimeFormatter day = DateTimeFormatter.BASIC_ISO_DATE;
+        LocalDate fiscalYearStart = start.withDayOfYear(1);
+        String created = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSS"));
+        writeLine(out, String.join(String.valueOf(SEPARATOR),
+                "\"EXTF\"", "700", "21", "\"Buchungsstapel\"", "13", created, "", "", "", "",
+                datevConsultantNumber, datevClientNumber, fiscalYearStart.format(day), String.valueOf(datevAccount.length()),
+                start.format(day), end.format(day),
+                "\"Rechnungen\"", "", "1", "0", "0", "\"EUR\""));
+        writeLine(out, DATEV_COLUMNS);
+    }
+
+    /**
+     * Writes the booking rows of one invoice.
+     *
+     * @return number of rows written
+     */
+    private int writeDatevRows(Writer out, ResultSet rs) throws SQLException {
+        BigDecimal taxRate = rs.getBigDecimal("tax_rate");
+        String taxKey = taxRate != null ? datevTaxKeys.get(taxRate.stripTrailingZeros()) : null;
+        if (taxKey != null) {
+            writeDatevRow(out, rs, rs.getBigDecimal("grand_total"), datevRevenueAccount, taxKey);
+            return 1;
+        }
+        writeDatevRow(out, rs, rs.getBigDecimal("total_amount"), datevRevenueAccount, "");
+        BigDecimal taxAmount = rs.getBigDecimal("tax_amount");
+        if (taxAmount == null || taxAmount.signum() == 0) {
+            return 1;
+        }
+        writeDatevRow(out, rs, taxAmount, datevTaxAccount, "");
+        return 2;
+    }
+
+    private void writeDatevRow(Writer out, ResultSet rs, BigDecimal amount, String contraAccount, String taxKey)
+            throws SQLException {
+        writeLine(out, String.join(String.valueOf(SEPARATOR),
+                formatDecimal(amount, 2),
+                "\"S\"",
+                "\"EUR\"",
+                datevAccount,
+                contraAccount,
+                taxKey,
+                formatDate(rs.getDate("issue_date"), DateTimeFormatter.ofPattern("ddMM")),
+                escape(truncate(rs.getString("invoice_number"), 36)),
+                escape(truncate(rs.getString("customer_name"), 60))));
+    }
+
+    /**
+     * Parses {@code rate:key} pairs separated by commas, e.g. {@code 10:9,20:3}.
+     */
+    private static Map<BigDecimal, String> parseTaxKeys(String value) {
+        Map<BigDecimal, String> keys = new HashMap<>();
+        for (String pair : value.split(",")) {
+            if (pair.isBlank()) {
+                continue;
+            }
+            String[] parts = pair.split(":");
+            if (parts.length != 2) {
+                throw new IllegalStateException("Invalid DATEV tax key, expected rate:key: " + pair);
+            }
+            keys.put(new BigDecimal(parts[0].trim()).stripTrailingZeros(), parts[1].trim());
+        }
+        return keys;
+    }
+
+    private static void writeLine(Writer out, String line) {
+        try {
+            out.write(line);
+            out.write("\r\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+
+    private static String formatDate(Date date, DateTimeFormatter formatter) {
+        return date != null ? date.toLocalDate().format(formatter) : "";
+    }
+
+    private static String formatDecimal(BigDecimal value, int scale) {
+        return value != null ? value.setScale(scale, RoundingMode.HALF_UP).toPlainString().replace('.', ',') : "";
+    }
+}
@@ -0,0 +1,172 @@
+package com.hansal.verrechnungsprogramm.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hands out invoice numbers in the format {@code INV-yyyy-000001}, counting per year.
+ * <p>
+ * Numbers are reserved from the {@code invoice_number_counters} row of the year in
+ * blocks: the row is advanced by the block size (which locks it) and committed in
+ * its own transaction, and the block is then handed out from memory. Several instances
+ * therefore never hand out the same number. Numbers of a block that is not used
+ * up (restart, rolled back invoice) are skipped, so the sequence may have gaps.
+ * <p>
+ * Callers usually hold a pooled connection for their own transaction while they
+ * wait for a block. Reservations therefore use a dedicated one-connection pool:
+ * if they borrowed from the main pool, callers waiting for a refill could hold
+ * every connection the refill needs. The pool takes its settings (URL,
+ * credentials, timeouts, validation, driver properties) from the main pool.
+ */
+@Slf4j
+@Service
+public class InvoiceNumberAllocator {
+
+    private static final String PREFIX = "INV-";
+    private static final int MAX_ATTEMPTS = 2;
+
+    private final HikariDataSource counterDataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate counterTransaction;
+    private final int blockSize;
+
+    private final Map<Integer, Block> blocks = new ConcurrentHashMap<>();
+    // Held while reserving a block; taking numbers from a block does not wait for it
+    private final Object refillLock = new Object();
+
+    public InvoiceNumberAllocator(DataSource dataSource,
+                                  @Value("${app.invoices.number-block-size:20}") int blockSize) {
+        // Configured like a builder-made pool, so it only connects when first used
+        this.counterDataSource = new HikariDataSource();
+        mainPool(dataSource).copyStateTo(counterDataSource);
+        this.counterDataSource.setPoolName("invoice-numbers");
+        this.counterDataSource.setMaximumPoolSize(1);
+        this.counterDataSource.setMinimumIdle(0);
+        this.jdbcTemplate = new JdbcTemplate(counterDataSource);
+        this.counterTransaction = new TransactionTemplate(new DataSourceTransactionManager(counterDataSource));
+        this.blockSize = blockSize;
+    }
+
+    private static HikariDataSource mainPool(DataSource dataSource) {
+        try {
+            return dataSource.unwrap(HikariDataSource.class);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Invoice numbers need a Hikari connection pool", e);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        counterDataSource.close();
+    }
+
+    public String next(int year) {
+        return next(year, 1).get(0);
+    }
+
+    /**
+     * Allocates {@code count} numbers for the year. Requests larger than the block
+     * size reserve a matching block, so a bulk run needs a single round trip.
+     */
+    public List<String> next(int year, int count) {
+        List<String> numbers = new ArrayList<>(count);
+        while (numbers.size() < count) {
+            Block block = blocks.get(year);
+            if (block != null && block.take(year, count - numbers.size(), numbers)) {
+                continue;
+            }
+            synchronized (refillLock) {
+                // Another thread may have refilled while this one waited
+                if (blocks.get(year) == block) {
+                    blocks.put(year, reserveBlock(year, Math.max(blockSize, count - numbers.size())));
+                }
+            }
+        }
+        return numbers;
+    }
+
+    private Block reserveBlock(int year, int size) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                long first = counterTransaction.execute(status -> {
+                    if (jdbcTemplate.update("UPDATE invoice_number_counters SET next_value = next_value + ? "
+                            + "WHERE counter_year = ?", size, year) == 0) {
+                        long start = highestIssuedNumber(year) + 1;
+                        jdbcTemplate.update("INSERT INTO invoice_number_counters (counter_year, next_value) VALUES (?, ?)",
+                                year, start + size);
+                        return start;
+                    }
+                    return jdbcTemplate.queryForObject("SELECT next_value FROM invoice_number_counters "
+                            + "WHERE counter_year = ?", Long.class, year) - size;
+                });
+                log.info("Reserved invoice numbers: year={}, from={}, count={}", year, first, size);
+                return new Block(first, first + size);
+            } catch (DataIntegrityViolationException e) {
+                // Another instance created the counter row for this year first
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw e;
+                }
+                log.debug("Invoice number counter created concurrently, retrying: year={}", year);
+            }
+        }
+    }
+
+    /**
+     * Highest number already issued for the year, so the counter continues after
+     * invoices created before it existed.
+     */
+    private long highestIssuedNumber(int year) {
+        String prefix = PREFIX + year + "-";
+        String highest = jdbcTemplate.queryForObject(
+                "SELECT MAX(invoice_number) FROM invoices WHERE invoice_number LIKE ?", String.class, prefix + "%");
+        if (highest == null) {
+            return 0;
+        }
+        String suffix = highest.substring(prefix.length());
+        return !suffix.isEmpty() && suffix.chars().allMatch(Character::isDigit) ? Long.parseLong(suffix) : 0;
+    }
+
+    private static String format(int year, long value) {
+        return String.format("%s%d-%06d", PREFIX, year, value);
+    }
+
+    private static final class Block {
+        private long next;
+        private final long end;
+
+        private Block(long next, long end) {
+            this.next = next;
+            this.end = end;
+        }
+
+        /**
+         * Adds up to {@code count} numbers of the block to {@code numbers}.
+         *
+         * @return false if the block is used up
+         */
+        private synchronized boolean take(int year, int count, List<String> numbers) {
+            if (next >= end) {
+                return false;
+            }
+            long last = Math.min(end, next + count);
+            while (next < last) {
+                numbers.add(format(year, next++));
+            }
+            return true;
+        }
+    }
+}
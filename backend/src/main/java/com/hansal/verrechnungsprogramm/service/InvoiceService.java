@@ -1,8 +1,9 @@
 package com.hansal.verrechnungsprogramm.service;
 
+import com.hansal.verrechnungsprogramm.event.SalesChangedEvent;
 import com.hansal.verrechnungsprogramm.model.*;
 import com.hansal.verrechnungsprogramm.repository.InvoiceRepository;
-import com.itextpdf.io.image.ImageDataFactory;
+import com.hansal.verrechnungsprogramm.repository.OrderRepository;
 import com.itextpdf.kernel.colors.ColorConstants;
 import com.itextpdf.kernel.colors.DeviceRgb;
 import com.itextpdf.kernel.pdf.PdfDocument;
@@ -11,27 +12,35 @@ import com.itextpdf.layout.Document;
 import com.itextpdf.layout.borders.Border;
 import com.itextpdf.layout.borders.SolidBorder;
 import com.itextpdf.layout.element.Cell;
-import com.itextpdf.layout.element.Image;
 import com.itextpdf.layout.element.LineSeparator;
 import com.itextpdf.layout.element.Paragraph;
 import com.itextpdf.layout.element.Table;
 import com.itextpdf.layout.properties.TextAlignment;
 import com.itextpdf.layout.properties.UnitValue;
-import com.itextpdf.layout.properties.VerticalAlignment;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.itextpdf.layout.element.AreaBreak;
 import com.itextpdf.layout.properties.AreaBreakType;
 
 import java.io.ByteArrayOutputStream;
-import java.io.InputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -41,6 +50,12 @@ public class InvoiceService {
 
     private final InvoiceRepository invoiceRepository;
     private final OrderService orderService;
+    private final OrderRepository orderRepository;
+    private final InvoiceNumberAllocator invoiceNumberAllocator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PdfLetterhead letterhead;
+    private final JsonListStreamer jsonListStreamer;
+    private final PaymentTerms paymentTerms;
 
     public List<Invoice> getAllInvoices() {
         List<Invoice> invoices = invoiceRepository.findAll();
@@ -48,6 +63,13 @@ public class InvoiceService {
         return invoices;
     }
 
+    /**
+     * All invoices with their orders, serialized while they are read.
+     */
+    public StreamingResponseBody streamAllInvoices() {
+        return jsonListStreamer.stream("invoices", invoiceRepository::streamAll);
+    }
+
     public Invoice getInvoiceById(Long id) {
         Invoice invoice = invoiceRepository.findById(id)
                 .orElseThrow(() -> {
@@ -76,15 +98,24 @@ public class InvoiceService {
 
     public Invoice createInvoiceFromOrder(Long orderId) {
         Order order = orderService.getOrderById(orderId);
+        // Serializes with bulk invoicing of the same order
+        orderRepository.lockByIdIn(List.of(orderId));
+        if (invoiceRepository.findByOrderId(orderId).isPresent()) {
+            throw new RuntimeException("Invoice already exists for order with id: " + orderId);
+        }
 
         Invoice invoice = new Invoice();
         invoice.setOrder(order);
+        invoice.setIssueDate(LocalDate.now());
+        invoice.setInvoiceNumber(invoiceNumberAllocator.next(invoice.getIssueDate().getYear()));
+        invoice.setDueDate(paymentTerms.dueDate(invoice.getIssueDate()));
         invoice.setTotalAmount(order.getTotalAmount());
         invoice.setTaxRate(BigDecimal.valueOf(10)); // 10% USt for agricultural products
         invoice.setCreatedBy("Administrator"); // TODO: Get from authenticated user context
         invoice.calculateTotals();
 
         Invoice savedInvoice = invoiceRepository.save(invoice);
+        publishSalesChanged(order);
         log.info("Created invoice: id={}, orderId={}, customer={}, total={}", savedInvoice.getId(), orderId, order.getCustomerName(), savedInvoice.getTotalAmount());
         return savedInvoice;
     }
@@ -92,7 +123,9 @@ public class InvoiceService {
     public Invoice updateInvoice(Long id, Invoice invoiceDetails) {
         Invoice invoice = getInvoiceById(id);
         invoice.setIssueDate(invoiceDetails.getIssueDate());
-        invoice.setDueDate(invoiceDetails.getDueDate());
+        invoice.setDueDate(invoiceDetails.getDueDate() != null
+                ? invoiceDetails.getDueDate()
+                : paymentTerms.dueDate(invoiceDetails.getIssueDate()));
         invoice.setTaxRate(invoiceDetails.getTaxRate());
         invoice.setNotes(invoiceDetails.getNotes());
         invoice.setStatus(invoiceDetails.getStatus());
@@ -106,9 +139,17 @@ public class InvoiceService {
         Invoice invoice = getInvoiceById(id);
         String customer = invoice.getOrder().getCustomerName();
         invoiceRepository.delete(invoice);
+        publishSalesChanged(invoice.getOrder());
         log.info("Deleted invoice: id={}, customer={}", id, customer);
     }
 
+    /**
+     * Invoiced revenue is part of the daily sales rollups of the order's day.
+     */
+    private void publishSalesChanged(Order order) {
+        eventPublisher.publishEvent(new SalesChangedEvent(Set.of(order.getOrderDate().toLocalDate())));
+    }
+
     public byte[] generateInvoicePdf(Long invoiceId) {
         Invoice invoice = getInvoiceById(invoiceId);
 
@@ -124,61 +165,7 @@ public class InvoiceService {
             DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd.MM.yyyy");
 
             // Header with logo on left and company info on right
-            Table headerTable = new Table(new float[]{1, 1.5f});
-            headerTable.setWidth(UnitValue.createPercentValue(100));
-            headerTable.setBorder(Border.NO_BORDER);
-
-            // Logo cell
-            Cell logoCell = new Cell();
-            logoCell.setBorder(Border.NO_BORDER);
-            logoCell.setVerticalAlignment(VerticalAlignment.MIDDLE);
-            try {
-                InputStream logoStream = getClass().getResourceAsStream("/static/logo.jpg");
-                if (logoStream != null) {
-                    byte[] logoBytes = logoStream.readAllBytes();
-                    logoStream.close();
-                    Image logo = new Image(ImageDataFactory.create(logoBytes));
-                    logo.scaleToFit(120, 120);
-                    logoCell.add(logo);
-                }
-            } catch (Exception e) {
-                log.warn("Could not load logo: {}", e.getMessage());
-            }
-            headerTable.addCell(logoCell);
-
-            // Company info cell (italic style)
-            Cell companyCell = new Cell();
-            companyCell.setBorder(Border.NO_BORDER);
-            companyCell.setTextAlignment(TextAlignment.LEFT);
-            companyCell.setPaddingLeft(20);
-            companyCell.setVerticalAlignment(VerticalAlignment.MIDDLE);
-            companyCell.add(new Paragraph("Biohof Hansal")
-                    .setFontSize(14)
-                    .setBold()
-                    .setItalic()
-                    .setMarginBottom(2));
-            companyCell.add(new Paragraph("Tanja und Andreas Kienegger")
-                    .setFontSize(10)
-                    .setItalic()
-                    .setMarginBottom(1));
-            companyCell.add(new Paragraph("Hohenau 17/2")
-                    .setFontSize(10)
-                    .setItalic()
-                    .setMarginBottom(1));
-            companyCell.add(new Paragraph("A-8241 Dechantskirchen")
-                    .setFontSize(10)
-                    .setItalic()
-                    .setMarginBottom(6));
-            companyCell.add(new Paragraph("\u260E 0650 8831093")
-                    .setFontSize(10)
-                    .setItalic()
-                    .setMarginBottom(1));
-            companyCell.add(new Paragraph("\u2709 info@biohofhansal.at")
-                    .setFontSize(10)
-                    .setItalic());
-            headerTable.addCell(companyCell);
-
-            document.add(headerTable);
+            document.add(letterhead.header());
 
             // Separator line (single line)
             document.add(new Paragraph("_".repeat(85))
@@ -298,27 +285,7 @@ public class InvoiceService {
 
 
             // Footer with bank details
-            Table footerTable = new Table(1);
-            footerTable.setWidth(UnitValue.createPercentValue(100));
-            footerTable.setBorder(Border.NO_BORDER);
-            footerTable.setFixedPosition(50, 40, pdf.getDefaultPageSize().getWidth() - 100);
-
-            Cell footerCell = new Cell();
-            footerCell.setBorder(Border.NO_BORDER);
-            footerCell.add(new Paragraph("Andreas und Tanja Kienegger")
-                    .setFontSize(9)
-                    .setMarginBottom(1));
-            footerCell.add(new Paragraph("Raiffeisenbank Wechselland")
-                    .setFontSize(9)
-                    .setMarginBottom(1));
-            footerCell.add(new Paragraph("IBAN: AT24 3802 3000 0120 0369")
-                    .setFontSize(9)
-                    .setMarginBottom(1));
-            footerCell.add(new Paragraph("Betriebsnummer: 3139310")
-                    .setFontSize(9));
-            footerTable.addCell(footerCell);
-
-            document.add(footerTable);
+            document.add(letterhead.bankDetails(pdf));
 
             // Page number
             int totalPages = pdf.getNumberOfPages();
@@ -343,9 +310,19 @@ public class InvoiceService {
     }
 
     public byte[] generateCombinedPdf(List<Long> invoiceIds) {
-        List<Invoice> invoices = invoiceIds.stream()
-                .map(this::getInvoiceById)
-                .toList();
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        writeCombinedPdf(invoiceIds, baos, rendered -> { });
+        return baos.toByteArray();
+    }
+
+    /**
+     * Renders the given invoices into one PDF, one Beleg per page break, in the
+     * requested order. {@code onInvoiceRendered} receives the number of invoices
+     * rendered so far after each one, so background jobs can report progress.
+     */
+    @Transactional(readOnly = true)
+    public void writeCombinedPdf(List<Long> invoiceIds, OutputStream out, IntConsumer onInvoiceRendered) {
+        List<Invoice> invoices = getInvoicesForPdf(invoiceIds);
 
         if (invoices.isEmpty()) {
             log.warn("Combined PDF failed: no invoices found for ids={}", invoiceIds);
@@ -353,8 +330,7 @@ public class InvoiceService {
         }
 
         try {
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            PdfWriter writer = new PdfWriter(baos);
+            PdfWriter writer = new PdfWriter(out);
             PdfDocument pdf = new PdfDocument(writer);
             Document document = new Document(pdf);
             document.setMargins(40, 50, 40, 50);
@@ -371,11 +347,11 @@ public class InvoiceService {
 
                 // Generate invoice content (same as single PDF)
                 addInvoiceContent(document, pdf, invoice, dateFormatter);
+                onInvoiceRendered.accept(i + 1);
             }
 
             document.close();
             log.info("Generated combined PDF: count={}", invoices.size());
-            return baos.toByteArray();
 
         } catch (Exception e) {
             log.error("Combined PDF generation failed: count={}, error={}", invoiceIds.size(), e.getMessage(), e);
@@ -383,63 +359,29 @@ public class InvoiceService {
         }
     }
 
-    private void addInvoiceContent(Document document, PdfDocument pdf, Invoice invoice, DateTimeFormatter dateFormatter) {
-        // Header with logo on left and company info on right
-        Table headerTable = new Table(new float[]{1, 1.5f});
-        headerTable.setWidth(UnitValue.createPercentValue(100));
-        headerTable.setBorder(Border.NO_BORDER);
-
-        // Logo cell
-        Cell logoCell = new Cell();
-        logoCell.setBorder(Border.NO_BORDER);
-        logoCell.setVerticalAlignment(VerticalAlignment.MIDDLE);
-        try {
-            InputStream logoStream = getClass().getResourceAsStream("/static/logo.jpg");
-            if (logoStream != null) {
-                byte[] logoBytes = logoStream.readAllBytes();
-                logoStream.close();
-                Image logo = new Image(ImageDataFactory.create(logoBytes));
-                logo.scaleToFit(120, 120);
-                logoCell.add(logo);
+    /**
+     * Hydrates all invoices of a combined PDF with one query and returns them in
+     * the requested order.
+     */
+    private List<Invoice> getInvoicesForPdf(List<Long> invoiceIds) {
+        Map<Long, Invoice> invoicesById = invoiceRepository.findAllForPdfByIdIn(new HashSet<>(invoiceIds)).stream()
+                .collect(Collectors.toMap(Invoice::getId, Function.identity()));
+
+        List<Invoice> invoices = new ArrayList<>(invoiceIds.size());
+        for (Long id : invoiceIds) {
+            Invoice invoice = invoicesById.get(id);
+            if (invoice == null) {
+                log.warn("Invoice not found: id={}", id);
+                throw new RuntimeException("Invoice not found with id: " + id);
             }
-        } catch (Exception e) {
-            log.warn("Could not load logo: {}", e.getMessage());
+            invoices.add(invoice);
         }
-        headerTable.addCell(logoCell);
-
-        // Company info cell (italic style)
-        Cell companyCell = new Cell();
-        companyCell.setBorder(Border.NO_BORDER);
-        companyCell.setTextAlignment(TextAlignment.LEFT);
-        companyCell.setPaddingLeft(20);
-        companyCell.setVerticalAlignment(VerticalAlignment.MIDDLE);
-        companyCell.add(new Paragraph("Biohof Hansal")
-                .setFontSize(14)
-                .setBold()
-                .setItalic()
-                .setMarginBottom(2));
-        companyCell.add(new Paragraph("Tanja und Andreas Kienegger")
-                .setFontSize(10)
-                .setItalic()
-                .setMarginBottom(1));
-        companyCell.add(new Paragraph("Hohenau 17/2")
-                .setFontSize(10)
-                .setItalic()
-                .setMarginBottom(1));
-        companyCell.add(new Paragraph("A-8241 Dechantskirchen")
-                .setFontSize(10)
-                .setItalic()
-                .setMarginBottom(6));
-        companyCell.add(new Paragraph("\u260E 0650 8831093")
-                .setFontSize(10)
-                .setItalic()
-                .setMarginBottom(1));
-        companyCell.add(new Paragraph("\u2709 info@biohofhansal.at")
-                .setFontSize(10)
-                .setItalic());
-        headerTable.addCell(companyCell);
+        return invoices;
+    }
 
-        document.add(headerTable);
+    private void addInvoiceContent(Document document, PdfDocument pdf, Invoice invoice, DateTimeFormatter dateFormatter) {
+        // Header with logo on left and company info on right
+        document.add(letterhead.header());
 
         // Separator line
         document.add(new Paragraph("_".repeat(85))
@@ -552,27 +494,7 @@ public class InvoiceService {
 
 
         // Footer with bank details
-        Table footerTable = new Table(1);
-        footerTable.setWidth(UnitValue.createPercentValue(100));
-        footerTable.setBorder(Border.NO_BORDER);
-        footerTable.setFixedPosition(50, 40, pdf.getDefaultPageSize().getWidth() - 100);
-
-        Cell footerCell = new Cell();
-        footerCell.setBorder(Border.NO_BORDER);
-        footerCell.add(new Paragraph("Andreas und Tanja Kienegger")
-                .setFontSize(9)
-                .setMarginBottom(1));
-        footerCell.add(new Paragraph("Raiffeisenbank Wechselland")
-                .setFontSize(9)
-                .setMarginBottom(1));
-        footerCell.add(new Paragraph("IBAN: AT24 3802 3000 0120 0369")
-                .setFontSize(9)
-                .setMarginBottom(1));
-        footerCell.add(new Paragraph("Betriebsnummer: 3139310")
-                .setFontSize(9));
-        footerTable.addCell(footerCell);
-
-        document.add(footerTable);
+        document.add(letterhead.bankDetails(pdf));
     }
 
     private String generateBelegnummer(Invoice invoice) {
@@ -0,0 +1,86 @@
+package com.hansal.verrechnungsprogramm.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Writes a query result as a JSON array while it is read from the database.
+ * <p>
+ * The rows come from a repository {@link Stream}, which Hibernate backs with a
+ * scrollable cursor, in a read-only transaction. They are serialized in chunks
+ * of {@code app.lists.stream.chunk-size}: lazy associations of a chunk are
+ * loaded together by batch fetching, the chunk is flushed to the client and the
+ * persistence context is cleared. Neither the first byte nor the heap used
+ * depends on the number of rows.
+ */
+@Slf4j
+@Component
+public class JsonListStreamer {
+
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnly;
+    private final int chunkSize;
+
+    public JsonListStreamer(ObjectMapper objectMapper,
+                            EntityManager entityManager,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${app.lists.stream.chunk-size:50}") int chunkSize) {
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * @param query opens the stream; called inside the transaction when the response is written
+     */
+    public <T> StreamingResponseBody stream(String name, Supplier<Stream<T>> query) {
+        return out -> readOnly.executeWithoutResult(status -> {
+            int count = 0;
+            try (Stream<T> rows = query.get();
+                 JsonGenerator generator = objectMapper.createGenerator(StreamUtils.nonClosing(out))) {
+                generator.writeStartArray();
+                List<T> chunk = new ArrayList<>(chunkSize);
+                for (T row : (Iterable<T>) rows::iterator) {
+                    chunk.add(row);
+                    if (chunk.size() == chunkSize) {
+                        count += writeChunk(generator, chunk);
+                    }
+                }
+                count += writeChunk(generator, chunk);
+                generator.writeEndArray();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            log.info("Streamed {}: count={}", name, count);
+        });
+    }
+
+    private <T> int writeChunk(JsonGenerator generator, List<T> chunk) throws IOException {
+        int size = chunk.size();
+        for (T row : chunk) {
+            generator.writeObject(row);
+        }
+        generator.flush();
+        chunk.clear();
+        entityManager.clear();
+        return size;
+    }
+}
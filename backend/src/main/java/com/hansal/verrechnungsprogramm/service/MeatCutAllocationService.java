@@ -0,0 +1,241 @@
+package com.hansal.verrechnungsprogramm.service;
+
+import com.hansal.verrechnungsprogramm.dto.MeatCutAllocationDTO;
+import com.hansal.verrechnungsprogramm.event.InventoryChangedEvent;
+import com.hansal.verrechnungsprogramm.model.MeatCut;
+import com.hansal.verrechnungsprogramm.model.MeatCutAllocation;
+import com.hansal.verrechnungsprogramm.model.OrderItem;
+import com.hansal.verrechnungsprogramm.repository.MeatCutAllocationRepository;
+import com.hansal.verrechnungsprogramm.repository.MeatCutRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Decides which carcass the kilos of a product-based order item come from.
+ * <p>
+ * Demand is split across the available meat cuts of the product, oldest
+ * slaughter date first (FIFO). Candidate cuts are kept in memory per product
+ * so an allocation does not need a query per item. The list is only a hint:
+ * the database decides through the conditional updates in
+ * {@link MeatCutRepository#reserveWeight}, and whenever one of them fails, or
+ * a transaction rolls back, the list is read again. No lock is held while the
+ * database is called, so a reservation waiting for a row lock of another
+ * transaction can only wait in the database, which detects deadlocks.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MeatCutAllocationService {
+
+    private static final int MAX_RELOADS = 3;
+
+    private final MeatCutRepository meatCutRepository;
+    private final MeatCutAllocationRepository allocationRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TableVersionService tableVersionService;
+    private final SyncService syncService;
+
+    // Candidate cuts per product id, oldest slaughter first; replaced, never modified
+    private final ConcurrentMap<Long, List<AvailableCut>> candidates = new ConcurrentHashMap<>();
+
+    /**
+     * Allocates the weight of a product-based order item to available meat cuts.
+     * If less is available than ordered, the available weight is allocated and
+     * the shortfall is logged; items for products without meat cuts (e.g. honey)
+     * simply get no allocation.
+     */
+    @Transactional
+    public List<MeatCutAllocation> allocate(OrderItem item) {
+        if (item.getProduct() == null || item.getProduct().getId() == null
+                || item.getWeight() == null || item.getWeight().signum() <= 0) {
+            return List.of();
+        }
+        Long productId = item.getProduct().getId();
+        BigDecimal remaining = item.getWeight();
+        List<MeatCutAllocation> allocations = new ArrayList<>();
+
+        evictOnRollback(productId);
+        List<AvailableCut> cuts = candidates.get(productId);
+        boolean loaded = false;
+        int reloads = 0;
+        while (remaining.signum() > 0) {
+            if (cuts == null) {
+                cuts = reload(productId);
+                loaded = true;
+            }
+
+            boolean stale = false;
+            for (AvailableCut cut : cuts) {
+                BigDecimal portion = remaining.min(cut.availableWeight());
+                if (meatCutRepository.reserveWeight(cut.meatCutId(), productId, portion) == 0) {
+                    // Read the cut again rather than skip it, so older slaughters still go first
+                    log.debug("Allocation candidates stale: productId={}, meatCutId={}", productId, cut.meatCutId());
+                    stale = true;
+                    break;
+                }
+                reserved(productId, cut.meatCutId(), portion);
+                remaining = remaining.subtract(portion);
+
+                MeatCutAllocation allocation = new MeatCutAllocation();
+                allocation.setOrderItem(item);
+                allocation.setMeatCut(meatCutRepository.getReferenceById(cut.meatCutId()));
+                allocation.setWeight(portion);
+                allocations.add(allocation);
+                if (remaining.signum() <= 0) {
+                    break;
+                }
+            }
+
+            // A fresh list without failed reservations is all the database has
+            if (remaining.signum() <= 0 || (loaded && !stale) || reloads++ >= MAX_RELOADS) {
+                break;
+            }
+            // Cuts from slaughters recorded since the list was loaded may be missing
+            cuts = null;
+        }
+
+        List<MeatCutAllocation> saved = allocationRepository.saveAll(allocations);
+        if (!saved.isEmpty()) {
+            // reserveWeight is a bulk update, which Hibernate does not report as an entity change
+            tableVersionService.markChanged("meat_cuts");
+            syncService.markMeatCutsChanged(saved.stream().map(allocation -> allocation.getMeatCut().getId()).toList());
+            eventPublisher.publishEvent(new InventoryChangedEvent(Set.of(productId), InventoryChangedEvent.Source.ALLOCATION));
+        }
+        if (remaining.signum() > 0 && !saved.isEmpty()) {
+            log.warn("Partial allocation: productId={}, ordered={} kg, missing={} kg", productId, item.getWeight(), remaining);
+        }
+        log.info("Allocated order item: productId={}, weight={} kg, meatCuts={}", productId, item.getWeight().subtract(remaining), saved.size());
+        return saved;
+    }
+
+    /**
+     * Releases all allocations of the given order items back to their meat cuts.
+     * Must be called before the items are removed.
+     */
+    @Transactional
+    public void release(Collection<OrderItem> items) {
+        List<Long> itemIds = items.stream()
+                .map(OrderItem::getId)
+                .filter(Objects::nonNull)
+                .toList();
+        if (itemIds.isEmpty()) {
+            return;
+        }
+
+        List<MeatCutAllocation> allocations = allocationRepository.findByOrderItemIdIn(itemIds);
+        if (allocations.isEmpty()) {
+            return;
+        }
+
+        Set<Long> productIds = new HashSet<>();
+        for (MeatCutAllocation allocation : allocations) {
+            MeatCut meatCut = allocation.getMeatCut();
+            meatCutRepository.releaseWeight(meatCut.getId(), allocation.getWeight());
+            productIds.add(meatCut.getProduct().getId());
+        }
+        allocationRepository.deleteAll(allocations);
+        tableVersionService.markChanged("meat_cuts");
+        syncService.markMeatCutsChanged(allocations.stream().map(allocation -> allocation.getMeatCut().getId()).toList());
+        productIds.forEach(this::evictAfterCompletion);
+        eventPublisher.publishEvent(new InventoryChangedEvent(productIds, InventoryChangedEvent.Source.ALLOCATION));
+        log.info("Released allocations: orderItems={}, allocations={}", itemIds.size(), allocations.size());
+    }
+
+    @Transactional(readOnly = true)
+    public List<MeatCutAllocationDTO> getAllocationsByOrder(Long orderId) {
+        List<MeatCutAllocationDTO> allocations = allocationRepository.findTraceByOrderId(orderId);
+        log.info("Listed allocations for order: orderId={}, count={}", orderId, allocations.size());
+        return allocations;
+    }
+
+    /**
+     * Drops the cached candidates of a product so the next allocation reloads them.
+     */
+    public void invalidate(Long productId) {
+        candidates.remove(productId);
+    }
+
+    /**
+     * Drops the cached candidates of all products, e.g. after the meat cuts were
+     * deleted behind Hibernate's back.
+     */
+    public void invalidateAll() {
+        candidates.clear();
+    }
+
+    /**
+     * Cuts added or re-weighed through a slaughter are not among the candidates yet.
+     * Allocation events are ignored because the candidates already reflect them.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        if (event.source() == InventoryChangedEvent.Source.SLAUGHTER) {
+            event.productIds().forEach(this::invalidate);
+        }
+    }
+
+    private List<AvailableCut> reload(Long productId) {
+        List<AvailableCut> cuts = meatCutRepository.findAvailableByProductIdOldestFirst(productId).stream()
+                .map(meatCut -> new AvailableCut(meatCut.getId(), meatCut.getAvailableWeight()))
+                .toList();
+        candidates.put(productId, cuts);
+        log.debug("Loaded allocation candidates: productId={}, meatCuts={}", productId, cuts.size());
+        return cuts;
+    }
+
+    /**
+     * Lowers the weight of a reserved cut in the candidates, dropping it when used up.
+     */
+    private void reserved(Long productId, Long meatCutId, BigDecimal weight) {
+        candidates.computeIfPresent(productId, (id, cuts) -> cuts.stream()
+                .map(cut -> cut.meatCutId().equals(meatCutId)
+                        ? new AvailableCut(meatCutId, cut.availableWeight().subtract(weight))
+                        : cut)
+                .filter(cut -> cut.availableWeight().signum() > 0)
+                .toList());
+    }
+
+    private void evictOnRollback(Long productId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        invalidate(productId);
+                    }
+                }
+            });
+        }
+    }
+
+    private void evictAfterCompletion(Long productId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidate(productId);
+                }
+            });
+        } else {
+            invalidate(productId);
+        }
+    }
+
+    /**
+     * Candidate cut with the weight last known to be available.
+     */
+    private record AvailableCut(Long meatCutId, BigDecimal availableWeight) {
+    }
+}
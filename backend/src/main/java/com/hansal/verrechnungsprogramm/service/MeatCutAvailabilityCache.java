@@ -0,0 +1,111 @@
+package com.hansal.verrechnungsprogramm.service;
+
+import com.hansal.verrechnungsprogramm.dto.MeatCutAvailabilityDTO;
+import com.hansal.verrechnungsprogramm.event.InventoryChangedEvent;
+import com.hansal.verrechnungsprogramm.repository.MeatCutRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory view of the available meat cuts per product, newest slaughter first.
+ * <p>
+ * Each product maps to an immutable list that is replaced as a whole, so readers
+ * always get a consistent snapshot. Products are loaded on first access, reloaded
+ * when an {@link InventoryChangedEvent} is committed, and the whole view is
+ * reconciled against the database periodically to pick up changes made by other
+ * instances.
+ * <p>
+ * Every load takes a generation from a counter before it queries, and an entry
+ * is only replaced by a load that started later. A slow reconcile therefore
+ * cannot overwrite a product refreshed after a commit while it was running.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MeatCutAvailabilityCache {
+
+    private final MeatCutRepository meatCutRepository;
+
+    private final ConcurrentMap<Long, Entry> availabilityByProduct = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    // Loads that started before the last clear() are discarded
+    private volatile long clearedAt;
+
+    public List<MeatCutAvailabilityDTO> getAvailability(Long productId) {
+        return availabilityByProduct.computeIfAbsent(productId, id -> {
+            long started = generation.incrementAndGet();
+            return new Entry(load(id), started);
+        }).cuts();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        for (Long productId : event.productIds()) {
+            long started = generation.incrementAndGet();
+            try {
+                store(productId, load(productId), started);
+            } catch (RuntimeException e) {
+                // Fall back to loading on next access rather than serving a stale list
+                availabilityByProduct.computeIfPresent(productId, (id, old) -> old.generation() > started ? old : null);
+                log.warn("Could not refresh availability: productId={}, error={}", productId, e.getMessage());
+            }
+        }
+        log.debug("Refreshed availability: products={}, source={}", event.productIds(), event.source());
+    }
+
+    @Scheduled(fixedDelayString = "${app.meat-cuts.availability.reconcile-interval-ms:300000}",
+            initialDelayString = "${app.meat-cuts.availability.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        long started = generation.incrementAndGet();
+        Map<Long, List<MeatCutAvailabilityDTO>> current = meatCutRepository.findAllAvailability().stream()
+                .collect(Collectors.groupingBy(MeatCutAvailabilityDTO::getProductId, Collectors.toUnmodifiableList()));
+
+        int changed = 0;
+        Set<Long> productIds = new HashSet<>(availabilityByProduct.keySet());
+        productIds.addAll(current.keySet());
+        for (Long productId : productIds) {
+            List<MeatCutAvailabilityDTO> fresh = current.getOrDefault(productId, List.of());
+            Entry previous = availabilityByProduct.get(productId);
+            Entry stored = store(productId, fresh, started);
+            if (stored != previous && (previous == null || !fresh.equals(previous.cuts()))) {
+                changed++;
+            }
+        }
+        log.info("Reconciled meat cut availability: products={}, changed={}", productIds.size(), changed);
+    }
+
+    /**
+     * Drops the whole view; products are loaded again on next access.
+     */
+    public void clear() {
+        clearedAt = generation.incrementAndGet();
+        availabilityByProduct.clear();
+        log.debug("Cleared meat cut availability");
+    }
+
+    /**
+     * Stores a list loaded from the given generation, unless a later load has
+     * already stored one or the view was cleared since.
+     */
+    private Entry store(Long productId, List<MeatCutAvailabilityDTO> cuts, long started) {
+        return availabilityByProduct.compute(productId, (id, old) ->
+                started < clearedAt || (old != null && old.generation() > started) ? old : new Entry(cuts, started));
+    }
+
+    private List<MeatCutAvailabilityDTO> load(Long productId) {
+        return List.copyOf(meatCutRepository.findAvailabilityByProductId(productId));
+    }
+
+    private record Entry(List<MeatCutAvailabilityDTO> cuts, long generation) {
+    }
+}
@@ -10,7 +10,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -19,6 +18,7 @@ import java.util.stream.Collectors;
 public class MeatCutService {
 
     private final MeatCutRepository meatCutRepository;
+    private final MeatCutAvailabilityCache meatCutAvailabilityCache;
 
     public List<MeatCut> getAllMeatCuts() {
         List<MeatCut> meatCuts = meatCutRepository.findAll();
@@ -54,22 +54,13 @@ public class MeatCutService {
         return meatCuts;
     }
 
+    /**
+     * Served from the in-memory availability snapshot, which is kept current by
+     * inventory events instead of querying through the slaughters on every call.
+     */
     public List<MeatCutAvailabilityDTO> getAvailabilityByProduct(Long productId) {
-        List<MeatCut> availableMeatCuts = meatCutRepository.findAvailableByProductId(productId);
-
-        List<MeatCutAvailabilityDTO> result = availableMeatCuts.stream()
-                .map(meatCut -> new MeatCutAvailabilityDTO(
-                        meatCut.getId(),
-                        meatCut.getSlaughter().getCowTag(),
-                        meatCut.getSlaughter().getCowId(),
-                        meatCut.getSlaughter().getSlaughterDate(),
-                        meatCut.getAvailableWeight(),
-                        meatCut.getTotalWeight(),
-                        meatCut.getPricePerKg(),
-                        meatCut.getProduct().getName()
-                ))
-                .collect(Collectors.toList());
-        log.info("Fetched availability for product: productId={}, count={}", productId, result.size());
+        List<MeatCutAvailabilityDTO> result = meatCutAvailabilityCache.getAvailability(productId);
+        log.debug("Fetched availability for product: productId={}, count={}", productId, result.size());
         return result;
     }
 }
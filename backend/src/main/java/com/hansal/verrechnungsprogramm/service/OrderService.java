@@ -1,13 +1,16 @@
 package com.hansal.verrechnungsprogramm.service;
 
 import com.hansal.verrechnungsprogramm.dto.CustomerDTO;
+import com.hansal.verrechnungsprogramm.event.SalesChangedEvent;
 import com.hansal.verrechnungsprogramm.model.*;
 import com.hansal.verrechnungsprogramm.repository.MeatCutRepository;
 import com.hansal.verrechnungsprogramm.repository.OrderRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
 import java.util.*;
@@ -22,13 +25,23 @@ public class OrderService {
     private final OrderRepository orderRepository;
     private final ProductService productService;
     private final MeatCutRepository meatCutRepository;
+    private final MeatCutAllocationService meatCutAllocationService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JsonListStreamer jsonListStreamer;
 
     public List<Order> getAllOrders() {
-        List<Order> orders = orderRepository.findAll();
+        List<Order> orders = orderRepository.findAllWithItems();
         log.info("Listed orders: count={}", orders.size());
         return orders;
     }
 
+    /**
+     * All orders with their items, serialized while they are read.
+     */
+    public StreamingResponseBody streamAllOrders() {
+        return jsonListStreamer.stream("orders", orderRepository::streamAll);
+    }
+
     public Order getOrderById(Long id) {
         Order order = orderRepository.findById(id)
                 .orElseThrow(() -> {
@@ -73,6 +86,10 @@ public class OrderService {
 
         order.calculateTotal();
         Order savedOrder = orderRepository.save(order);
+        if (savedOrder.getStatus() != OrderStatus.CANCELLED) {
+            allocateProductItems(savedOrder);
+        }
+        publishSalesChanged(savedOrder);
         log.info("Created order: id={}, customer={}, total={}", savedOrder.getId(), savedOrder.getCustomerName(), savedOrder.getTotalAmount());
         return savedOrder;
     }
@@ -86,6 +103,7 @@ public class OrderService {
         order.setStatus(orderDetails.getStatus());
 
         // Update items
+        meatCutAllocationService.release(order.getItems());
         order.getItems().clear();
         for (OrderItem item : orderDetails.getItems()) {
             // Keep the unitPrice and weight from the request (allow full editing)
@@ -118,6 +136,11 @@ public class OrderService {
         }
 
         Order savedOrder = orderRepository.save(order);
+        // A cancelled order keeps no weight on the carcasses
+        if (savedOrder.getStatus() != OrderStatus.CANCELLED) {
+            allocateProductItems(savedOrder);
+        }
+        publishSalesChanged(savedOrder);
         log.info("Updated order: id={}, customer={}", savedOrder.getId(), savedOrder.getCustomerName());
         return savedOrder;
     }
@@ -125,19 +148,53 @@ public class OrderService {
     public void deleteOrder(Long id) {
         Order order = getOrderById(id);
         String customerName = order.getCustomerName();
+        meatCutAllocationService.release(order.getItems());
         orderRepository.delete(order);
+        publishSalesChanged(order);
         log.info("Deleted order: id={}, customer={}", id, customerName);
     }
 
+    /**
+     * Sets the order status. Cancelling gives the allocated weight back to the
+     * meat cuts; reopening a cancelled order allocates its product items again.
+     */
     public Order updateOrderStatus(Long id, OrderStatus status) {
         Order order = getOrderById(id);
         OrderStatus oldStatus = order.getStatus();
+        if (status == OrderStatus.CANCELLED && oldStatus != OrderStatus.CANCELLED) {
+            meatCutAllocationService.release(order.getItems());
+        }
         order.setStatus(status);
         Order savedOrder = orderRepository.save(order);
+        if (oldStatus == OrderStatus.CANCELLED && status != OrderStatus.CANCELLED) {
+            allocateProductItems(savedOrder);
+        }
+        publishSalesChanged(savedOrder);
         log.info("Updated order status: id={}, status={} -> {}", id, oldStatus, status);
         return savedOrder;
     }
 
+    /**
+     * Assigns product-based items (sold by product rather than by a specific
+     * meat cut) to carcasses, oldest slaughter first.
+     */
+    private void allocateProductItems(Order order) {
+        for (OrderItem item : order.getItems()) {
+            if (item.getMeatCut() == null && item.getProduct() != null) {
+                meatCutAllocationService.allocate(item);
+            }
+        }
+    }
+
+    /**
+     * Lets the daily sales rollups of the order's day be rebuilt after commit.
+     */
+    private void publishSalesChanged(Order order) {
+        if (order.getOrderDate() != null) {
+            eventPublisher.publishEvent(new SalesChangedEvent(Set.of(order.getOrderDate().toLocalDate())));
+        }
+    }
+
     /**
      * Get unique customers from all orders.
      * Returns the most recent contact information for each customer.
@@ -0,0 +1,24 @@
+package com.hansal.verrechnungsprogramm.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Payment term of new invoices: due {@code app.invoices.payment-term-days} after
+ * the issue date. The dunning list and the aging report go by the due date.
+ */
+@Component
+public class PaymentTerms {
+
+    private final int days;
+
+    public PaymentTerms(@Value("${app.invoices.payment-term-days:14}") int days) {
+        this.days = days;
+    }
+
+    public LocalDate dueDate(LocalDate issueDate) {
+        return issueDate != null ? issueDate.plusDays(days) : null;
+    }
+}
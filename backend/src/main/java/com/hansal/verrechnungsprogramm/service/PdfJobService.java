@@ -0,0 +1,213 @@
+package com.hansal.verrechnungsprogramm.service;
+
+import com.hansal.verrechnungsprogramm.dto.PdfJobStatusDTO;
+import com.hansal.verrechnungsprogramm.dto.PdfJobStatusDTO.State;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Renders combined invoice PDFs in the background so large batches do not hold
+ * an HTTP request open for the whole render.
+ * <p>
+ * Jobs run on the bounded {@code pdfJobExecutor} and write to a temporary file.
+ * Callers poll the job status and download the file once it is done. Finished
+ * jobs and their files are removed after a TTL. Job files older than the TTL
+ * that belong to no known job, e.g. left behind by a restart, are swept too.
+ */
+@Slf4j
+@Service
+public class PdfJobService {
+
+    private final InvoiceService invoiceService;
+    private final ThreadPoolTaskExecutor executor;
+    private final Path directory;
+    private final Duration ttl;
+
+    private static final String FILE_PREFIX = "belege-";
+
+    private final ConcurrentMap<String, PdfJob> jobs = new ConcurrentHashMap<>();
+
+    public PdfJobService(InvoiceService invoiceService,
+                         @Qualifier("pdfJobExecutor") ThreadPoolTaskExecutor executor,
+                         @Value("${app.pdf-jobs.directory:${java.io.tmpdir}/hansal-pdf-jobs}") Path directory,
+                         @Value("${app.pdf-jobs.ttl-minutes:30}") long ttlMinutes) throws IOException {
+        this.invoiceService = invoiceService;
+        this.executor = executor;
+        this.directory = Files.createDirectories(directory);
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+    }
+
+    /**
+     * Queues a combined PDF of the given invoices.
+     *
+     * @throws TaskRejectedException if the job queue is full
+     */
+    public PdfJobStatusDTO submit(List<Long> invoiceIds) {
+        PdfJob job = new PdfJob(UUID.randomUUID().toString(), List.copyOf(invoiceIds));
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.id);
+            log.warn("PDF job rejected, queue full: invoices={}", invoiceIds.size());
+            throw e;
+        }
+        log.info("Submitted PDF job: jobId={}, invoices={}", job.id, invoiceIds.size());
+        return job.toStatus();
+    }
+
+    public Optional<PdfJobStatusDTO> getStatus(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(PdfJob::toStatus);
+    }
+
+    /**
+     * Returns the rendered PDF of a finished job, or empty if the job is unknown,
+     * expired or not done yet.
+     */
+    public Optional<Resource> getResult(String jobId) {
+        PdfJob job = jobs.get(jobId);
+        if (job == null || job.state != State.DONE || !Files.exists(job.file)) {
+            return Optional.empty();
+        }
+        return Optional.of(new FileSystemResource(job.file));
+    }
+
+    @Scheduled(fixedDelayString = "${app.pdf-jobs.cleanup-interval-ms:60000}")
+    public void removeExpiredJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(ttl);
+        int removed = 0;
+        for (PdfJob job : jobs.values()) {
+            if (job.finishedAt != null && job.finishedAt.isBefore(cutoff)) {
+                jobs.remove(job.id);
+                deleteFile(job);
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            log.info("Removed expired PDF jobs: count={}, remaining={}", removed, jobs.size());
+        }
+        removeOrphanedFiles(cutoff);
+    }
+
+    /**
+     * Deletes job files older than the cutoff that no job refers to. The first
+     * run after startup removes what earlier runs of the application left behind.
+     */
+    private void removeOrphanedFiles(LocalDateTime cutoff) {
+        Set<Path> known = jobs.values().stream()
+                .map(job -> job.file)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        FileTime cutoffTime = FileTime.from(cutoff.atZone(ZoneId.systemDefault()).toInstant());
+        int removed = 0;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (file.getFileName().toString().startsWith(FILE_PREFIX) && !known.contains(file)
+                        && Files.getLastModifiedTime(file).compareTo(cutoffTime) < 0) {
+                    Files.deleteIfExists(file);
+                    removed++;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not sweep PDF job files: directory={}, error={}", directory, e.getMessage());
+        }
+        if (removed > 0) {
+            log.info("Removed orphaned PDF job files: count={}", removed);
+        }
+    }
+
+    private void run(PdfJob job) {
+        job.startedAt = LocalDateTime.now();
+        job.state = State.RUNNING;
+        try {
+            job.file = Files.createTempFile(directory, FILE_PREFIX + job.id + "-", ".pdf");
+            try (OutputStream out = Files.newOutputStream(job.file)) {
+                invoiceService.writeCombinedPdf(job.invoiceIds, out, rendered -> job.completed = rendered);
+            }
+            job.finishedAt = LocalDateTime.now();
+            job.state = State.DONE;
+            log.info("Finished PDF job: jobId={}, invoices={}, duration={} ms",
+                    job.id, job.invoiceIds.size(), Duration.between(job.startedAt, LocalDateTime.now()).toMillis());
+        } catch (Exception e) {
+            deleteFile(job);
+            job.error = e.getMessage();
+            job.finishedAt = LocalDateTime.now();
+            job.state = State.FAILED;
+            log.error("PDF job failed: jobId={}, error={}", job.id, e.getMessage(), e);
+        }
+    }
+
+    private void deleteFile(PdfJob job) {
+        if (job.file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(job.file);
+        } catch (IOException e) {
+            log.warn("Could not delete PDF job file: jobId={}, file={}, error={}", job.id, job.file, e.getMessage());
+        }
+    }
+
+    /**
+     * Mutable job state. Fields are written by the worker thread and read by
+     * status requests, hence volatile.
+     */
+    private static final class PdfJob {
+        private final String id;
+        private final List<Long> invoiceIds;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private volatile State state = State.QUEUED;
+        private volatile int completed;
+        private volatile Path file;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile String error;
+
+        private PdfJob(String id, List<Long> invoiceIds) {
+            this.id = id;
+            this.invoiceIds = invoiceIds;
+        }
+
+        private PdfJobStatusDTO toStatus() {
+            return new PdfJobStatusDTO(id, state, completed, invoiceIds.size(),
+                    estimateSecondsRemaining(), submittedAt, finishedAt, error);
+        }
+
+        private Long estimateSecondsRemaining() {
+            if (state == State.DONE) {
+                return 0L;
+            }
+            int done = completed;
+            if (state != State.RUNNING || done == 0) {
+                return null;
+            }
+            long elapsedMillis = Duration.between(startedAt, LocalDateTime.now()).toMillis();
+            return elapsedMillis * (invoiceIds.size() - done) / done / 1000;
+        }
+    }
+}
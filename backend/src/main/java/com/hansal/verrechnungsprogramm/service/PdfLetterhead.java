@@ -0,0 +1,129 @@
+package com.hansal.verrechnungsprogramm.service;
+
+import com.itextpdf.io.image.ImageData;
+import com.itextpdf.io.image.ImageDataFactory;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.layout.borders.Border;
+import com.itextpdf.layout.element.Cell;
+import com.itextpdf.layout.element.Image;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.element.Table;
+import com.itextpdf.layout.properties.TextAlignment;
+import com.itextpdf.layout.properties.UnitValue;
+import com.itextpdf.layout.properties.VerticalAlignment;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+
+/**
+ * Farm letterhead shared by all PDFs (Belege, statements).
+ * <p>
+ * The logo is read and decoded once at startup; iText only has to embed the
+ * already parsed image into each document instead of re-reading the resource
+ * for every page.
+ */
+@Slf4j
+@Component
+public class PdfLetterhead {
+
+    private static final String LOGO_RESOURCE = "/static/logo.jpg";
+
+    private final ImageData logo;
+
+    public PdfLetterhead() {
+        this.logo = loadLogo();
+    }
+
+    /**
+     * Logo on the left, company name and contact details on the right.
+     */
+    public Table header() {
+        Table headerTable = new Table(new float[]{1, 1.5f});
+        headerTable.setWidth(UnitValue.createPercentValue(100));
+        headerTable.setBorder(Border.NO_BORDER);
+
+        // Logo cell
+        Cell logoCell = new Cell();
+        logoCell.setBorder(Border.NO_BORDER);
+        logoCell.setVerticalAlignment(VerticalAlignment.MIDDLE);
+        if (logo != null) {
+            Image image = new Image(logo);
+            image.scaleToFit(120, 120);
+            logoCell.add(image);
+        }
+        headerTable.addCell(logoCell);
+
+        // Company info cell (italic style)
+        Cell companyCell = new Cell();
+        companyCell.setBorder(Border.NO_BORDER);
+        companyCell.setTextAlignment(TextAlignment.LEFT);
+        companyCell.setPaddingLeft(20);
+        companyCell.setVerticalAlignment(VerticalAlignment.MIDDLE);
+        companyCell.add(new Paragraph("Biohof Hansal")
+                .setFontSize(14)
+                .setBold()
+                .setItalic()
+                .setMarginBottom(2));
+        companyCell.add(new Paragraph("Tanja und Andreas Kienegger")
+                .setFontSize(10)
+                .setItalic()
+                .setMarginBottom(1));
+        companyCell.add(new Paragraph("Hohenau 17/2")
+                .setFontSize(10)
+                .setItalic()
+                .setMarginBottom(1));
+        companyCell.add(new Paragraph("A-8241 Dechantskirchen")
+                .setFontSize(10)
+                .setItalic()
+                .setMarginBottom(6));
+        companyCell.add(new Paragraph("\u260E 0650 8831093")
+                .setFontSize(10)
+                .setItalic()
+                .setMarginBottom(1));
+        companyCell.add(new Paragraph("\u2709 info@biohofhansal.at")
+                .setFontSize(10)
+                .setItalic());
+        headerTable.addCell(companyCell);
+        return headerTable;
+    }
+
+    /**
+     * Bank details, fixed at the bottom of the current page.
+     */
+    public Table bankDetails(PdfDocument pdf) {
+        Table footerTable = new Table(1);
+        footerTable.setWidth(UnitValue.createPercentValue(100));
+        footerTable.setBorder(Border.NO_BORDER);
+        footerTable.setFixedPosition(50, 40, pdf.getDefaultPageSize().getWidth() - 100);
+
+        Cell footerCell = new Cell();
+        footerCell.setBorder(Border.NO_BORDER);
+        footerCell.add(new Paragraph("Andreas und Tanja Kienegger")
+                .setFontSize(9)
+                .setMarginBottom(1));
+        footerCell.add(new Paragraph("Raiffeisenbank Wechselland")
+                .setFontSize(9)
+                .setMarginBottom(1));
+        footerCell.add(new Paragraph("IBAN: AT24 3802 3000 0120 0369")
+                .setFontSize(9)
+                .setMarginBottom(1));
+        footerCell.add(new Paragraph("Betriebsnummer: 3139310")
+                .setFontSize(9));
+        footerTable.addCell(footerCell);
+        return footerTable;
+    }
+
+    private static ImageData loadLogo() {
+        try (InputStream logoStream = PdfLetterhead.class.getResourceAsStream(LOGO_RESOURCE)) {
+            if (logoStream == null) {
+                log.warn("Logo not found: resource={}", LOGO_RESOURCE);
+                return null;
+            }
+            return ImageDataFactory.create(logoStream.readAllBytes());
+        } catch (Exception e) {
+            log.warn("Could not load logo: {}", e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.hansal.verrechnungsprogramm.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hansal.verrechnungsprogramm.model.Product;
+import com.hansal.verrechnungsprogramm.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Read-through cache of the product catalog, by id and as the full list.
+ * <p>
+ * Entries are detached copies and every read returns a fresh copy, so callers
+ * may modify what they get without touching the cache or a persistence
+ * context. Writes evict immediately and again after the transaction completes,
+ * which drops values reloaded by concurrent readers before the commit. Entries
+ * expire after {@code app.products.cache.ttl-minutes} to pick up changes made by
+ * other instances. Hit and miss counts are published as {@code cache.*} metrics.
+ */
+@Slf4j
+@Component
+public class ProductCatalogCache {
+
+    private static final String ALL = "all";
+
+    private final ProductRepository productRepository;
+    private final Cache<Long, Optional<Product>> byId;
+    private final Cache<String, List<Product>> all;
+
+    public ProductCatalogCache(ProductRepository productRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.products.cache.max-size:1000}") long maxSize,
+                               @Value("${app.products.cache.ttl-minutes:10}") long ttlMinutes) {
+        this.productRepository = productRepository;
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+        this.all = Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "products.byId");
+        CaffeineCacheMetrics.monitor(meterRegistry, all, "products.all");
+    }
+
+    public Optional<Product> get(Long id) {
+        return byId.get(id, key -> productRepository.findById(key).map(ProductCatalogCache::copyOf))
+                .map(ProductCatalogCache::copyOf);
+    }
+
+    public List<Product> getAll() {
+        return all.get(ALL, key -> productRepository.findAll().stream().map(ProductCatalogCache::copyOf).toList())
+                .stream()
+                .map(ProductCatalogCache::copyOf)
+                .toList();
+    }
+
+    /**
+     * Evicts the given products and the list, now and after the current transaction.
+     */
+    public void evict(Collection<Long> ids) {
+        evictNow(ids);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictNow(ids);
+                }
+            });
+        }
+    }
+
+    public void evict(Long id) {
+        evict(List.of(id));
+    }
+
+    /**
+     * Evicts everything, now and after the current transaction.
+     */
+    public void evictAll() {
+        evictAllNow();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictAllNow();
+                }
+            });
+        }
+    }
+
+    private void evictAllNow() {
+        byId.invalidateAll();
+        all.invalidateAll();
+        log.debug("Evicted product cache");
+    }
+
+    private void evictNow(Collection<Long> ids) {
+        byId.invalidateAll(ids);
+        all.invalidateAll();
+        log.debug("Evicted product cache: ids={}", ids);
+    }
+
+    private static Product copyOf(Product product) {
+        return new Product(product.getId(), product.getName(), product.getDescription(), product.getPrice(),
+                product.getImageUrl(), product.getMeatCutType(), product.getStockQuantity(),
+                product.getCreatedAt(), product.getUpdatedAt());
+    }
+}
@@ -0,0 +1,152 @@
+package com.hansal.verrechnungsprogramm.service;
+
+import com.hansal.verrechnungsprogramm.model.Product;
+import com.hansal.verrechnungsprogramm.model.SyncEntityType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Brings the products in line with the {@link SeedCatalog}.
+ * <p>
+ * The existing products are read with one query into a map by name (ignoring
+ * case); catalog entries without a match are inserted, and with
+ * {@code overwrite} those whose description, price or cut differ are updated.
+ * Both go to the database as one batched {@code MERGE} on the id, so a seeding
+ * costs three round trips however long the catalog is. Stock quantities are
+ * left alone; they follow the slaughters.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductSeeder {
+
+    // A null id never matches and inserts; the casts type the parameters for PostgreSQL
+    private static final String MERGE_PRODUCT = "MERGE INTO products p USING (SELECT " +
+            "CAST(? AS BIGINT) AS id, CAST(? AS VARCHAR(255)) AS name, CAST(? AS VARCHAR(1000)) AS description, " +
+            "CAST(? AS NUMERIC(10, 2)) AS price, CAST(? AS VARCHAR(255)) AS meat_cut_type, " +
+            "CAST(? AS TIMESTAMP) AS changed_at) s ON p.id = s.id " +
+            "WHEN MATCHED THEN UPDATE SET description = s.description, price = s.price, " +
+            "meat_cut_type = s.meat_cut_type, updated_at = s.changed_at " +
+            "WHEN NOT MATCHED THEN INSERT " +
+            "(name, description, price, meat_cut_type, stock_quantity, created_at, updated_at) " +
+            "VALUES (s.name, s.description, s.price, s.meat_cut_type, 0, s.changed_at, s.changed_at)";
+
+    /** Outcome of a seeding: the catalog version and the ids it wrote. */
+    public record Result(int catalogVersion, List<Long> insertedIds, List<Long> updatedIds) {
+
+        public List<Long> changedIds() {
+            List<Long> ids = new ArrayList<>(insertedIds);
+            ids.addAll(updatedIds);
+            return ids;
+        }
+    }
+
+    private record Existing(Long id, String description, BigDecimal price, String meatCutType) {
+
+        boolean matches(SeedCatalog.Entry entry) {
+            return Objects.equals(description, entry.description())
+                    && price != null && price.compareTo(entry.price()) == 0
+                    && Objects.equals(meatCutType, entry.meatCutType());
+        }
+    }
+
+    private final SeedCatalog seedCatalog;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TableVersionService tableVersionService;
+    private final SyncService syncService;
+    private final ProductCatalogCache productCatalogCache;
+
+    /**
+     * Inserts the missing catalog products and, with {@code overwrite}, updates
+     * the ones that differ from the catalog.
+     */
+    @Transactional
+    public Result seed(boolean overwrite) {
+        // The diff reads with JDBC, so pending entity changes (e.g. deletions) must reach the database first
+        entityManager.flush();
+
+        Map<String, Existing> existing = new HashMap<>();
+        jdbcTemplate.query("SELECT id, name, description, price, meat_cut_type FROM products ORDER BY id", rs -> {
+            existing.putIfAbsent(SeedCatalog.key(rs.getString("name")), new Existing(rs.getLong("id"),
+                    rs.getString("description"), rs.getBigDecimal("price"), rs.getString("meat_cut_type")));
+        });
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>();
+        Set<String> insertedKeys = new HashSet<>();
+        List<Long> updatedIds = new ArrayList<>();
+        for (SeedCatalog.Entry entry : seedCatalog.products()) {
+            Existing current = existing.get(entry.key());
+            if (current == null) {
+                insertedKeys.add(entry.key());
+                rows.add(row(null, entry, now));
+            } else if (overwrite && !current.matches(entry)) {
+                updatedIds.add(current.id());
+                rows.add(row(current.id(), entry, now));
+            }
+        }
+
+        if (rows.isEmpty()) {
+            log.info("Seeded products: catalogVersion={}, nothing to change", seedCatalog.version());
+            return new Result(seedCatalog.version(), List.of(), List.of());
+        }
+        jdbcTemplate.batchUpdate(MERGE_PRODUCT, rows);
+
+        Set<Long> existingIds = new HashSet<>();
+        existing.values().forEach(product -> existingIds.add(product.id()));
+        List<Long> insertedIds = new ArrayList<>();
+        jdbcTemplate.query("SELECT id, name FROM products ORDER BY id", rs -> {
+            long id = rs.getLong("id");
+            if (!existingIds.contains(id) && insertedKeys.contains(SeedCatalog.key(rs.getString("name")))) {
+                insertedIds.add(id);
+            }
+        });
+
+        Result result = new Result(seedCatalog.version(), insertedIds, updatedIds);
+        tableVersionService.markChanged("products");
+        syncService.markChanged(SyncEntityType.PRODUCT, result.changedIds());
+        productCatalogCache.evict(result.changedIds());
+        evictSecondLevel(updatedIds);
+        log.info("Seeded products: catalogVersion={}, inserted={}, updated={}, overwrite={}",
+                result.catalogVersion(), insertedIds.size(), updatedIds.size(), overwrite);
+        return result;
+    }
+
+    private static Object[] row(Long id, SeedCatalog.Entry entry, Timestamp now) {
+        return new Object[]{new SqlParameterValue(Types.BIGINT, id), entry.name(), entry.description(),
+                entry.price(), entry.meatCutType(), now};
+    }
+
+    /** Updated rows bypassed Hibernate; drops them from the second-level cache now and after the commit. */
+    private void evictSecondLevel(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        Runnable evict = () -> ids.forEach(id -> entityManagerFactory.getCache().evict(Product.class, id));
+        evict.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict.run();
+                }
+            });
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.hansal.verrechnungsprogramm.service;
 
+import com.hansal.verrechnungsprogramm.dto.ProductWithStockDTO;
 import com.hansal.verrechnungsprogramm.model.MeatCut;
 import com.hansal.verrechnungsprogramm.model.Product;
 import com.hansal.verrechnungsprogramm.repository.MeatCutRepository;
@@ -7,11 +8,14 @@ import com.hansal.verrechnungsprogramm.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 
 @Slf4j
 @Service
@@ -21,20 +25,27 @@ public class ProductService {
 
     private final ProductRepository productRepository;
     private final MeatCutRepository meatCutRepository;
+    private final ProductCatalogCache productCatalogCache;
+    private final QueryFanOut queryFanOut;
+    private final ProductSeeder productSeeder;
 
+    /**
+     * All products from the {@link ProductCatalogCache}; the returned instances are detached copies.
+     */
     public List<Product> getAllProducts() {
-        List<Product> products = productRepository.findAll();
-        log.info("Listed products: count={}", products.size());
+        List<Product> products = productCatalogCache.getAll();
+        log.debug("Listed products: count={}", products.size());
         return products;
     }
 
+    /**
+     * A product from the {@link ProductCatalogCache}. The returned instance is a
+     * detached copy; to change a product use the update methods of this service.
+     */
     public Product getProductById(Long id) {
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> {
-                    log.warn("Product not found: id={}", id);
-                    return new RuntimeException("Product not found with id: " + id);
-                });
-        log.info("Fetched product: id={}, name={}", id, product.getName());
+        Product product = productCatalogCache.get(id)
+                .orElseThrow(() -> notFound(id));
+        log.debug("Fetched product: id={}, name={}", id, product.getName());
         return product;
     }
 
@@ -52,8 +63,19 @@ public class ProductService {
         return savedProduct;
     }
 
+    /**
+     * Creates all products in one transaction with a single flush. For large
+     * imports with per-product results use {@link BulkMutationService#createProducts}.
+     */
+    public List<Product> createProducts(List<Product> products) {
+        products.forEach(product -> product.setStockQuantity(BigDecimal.ZERO));
+        List<Product> savedProducts = productRepository.saveAll(products);
+        log.info("Created products: count={}", savedProducts.size());
+        return savedProducts;
+    }
+
     public Product updateProduct(Long id, Product productDetails) {
-        Product product = getProductById(id);
+        Product product = findProduct(id);
         product.setName(productDetails.getName());
         product.setDescription(productDetails.getDescription());
         product.setPrice(productDetails.getPrice());
@@ -71,7 +93,7 @@ public class ProductService {
      * This method should ONLY be called from slaughter operations.
      */
     public Product updateProductStock(Long id, BigDecimal newStockQuantity) {
-        Product product = getProductById(id);
+        Product product = findProduct(id);
         BigDecimal oldStock = product.getStockQuantity();
         product.setStockQuantity(newStockQuantity);
         Product saved = productRepository.save(product);
@@ -80,7 +102,7 @@ public class ProductService {
     }
 
     public void deleteProduct(Long id) {
-        Product product = getProductById(id);
+        Product product = findProduct(id);
         String name = product.getName();
         productRepository.delete(product);
         log.info("Deleted product: id={}, name={}", id, name);
@@ -99,6 +121,33 @@ public class ProductService {
         }
     }
 
+    /**
+     * All products with their available stock. The catalog and the stock totals
+     * of all products are loaded in parallel; no transaction is held meanwhile,
+     * so the caller does not keep a connection busy while it waits.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<ProductWithStockDTO> getAllProductsWithStock() {
+        try (QueryFanOut.Scope scope = queryFanOut.open()) {
+            Supplier<List<Product>> products = scope.fork(productCatalogCache::getAll);
+            Supplier<Map<Long, BigDecimal>> stock = scope.fork(this::getAvailableStockByProduct);
+            scope.join();
+            log.debug("Listed products with stock: count={}", products.get().size());
+            return products.get().stream()
+                    .map(product -> ProductWithStockDTO.fromProduct(product,
+                            stock.get().getOrDefault(product.getId(), BigDecimal.ZERO)))
+                    .toList();
+        }
+    }
+
+    private Map<Long, BigDecimal> getAvailableStockByProduct() {
+        Map<Long, BigDecimal> stock = new HashMap<>();
+        for (Object[] row : meatCutRepository.sumAvailableWeightByProduct()) {
+            stock.put((Long) row[0], (BigDecimal) row[1]);
+        }
+        return stock;
+    }
+
     public BigDecimal getAvailableStockById(Long id) {
         Product product = getProductById(id);
         return getAvailableStock(product);
@@ -106,7 +155,7 @@ public class ProductService {
 
     /**
      * Resets products to defaults. Deletes unreferenced products safely,
-     * then creates default products (skipping names that already exist).
+     * then creates the {@link SeedCatalog} products (skipping names that already exist).
      */
     public List<Product> initializeDefaultProducts() {
         // Delete products not referenced by orders or meat cuts
@@ -116,63 +165,18 @@ public class ProductService {
             productRepository.deleteAll(unreferenced);
         }
 
-        // Create default products
-        List<Product> defaultProducts = new ArrayList<>();
-
-        // Bio-Rindfleisch
-        defaultProducts.add(createDefaultProduct("Bio-Rindfleisch - Filet", "Zartes Rinderfilet aus biologischer Aufzucht, erstklassige Qualität", new BigDecimal("45.00"), "Rind"));
-        defaultProducts.add(createDefaultProduct("Bio-Rindfleisch - Entrecôte", "Saftiges Entrecôte mit feiner Marmorierung", new BigDecimal("38.00"), "Rind"));
-        defaultProducts.add(createDefaultProduct("Bio-Rindfleisch - Tafelspitz", "Klassischer Tafelspitz für traditionelle Gerichte", new BigDecimal("28.00"), "Rind"));
-        defaultProducts.add(createDefaultProduct("Bio-Rindfleisch - Gulasch", "Hochwertiges Gulaschfleisch, perfekt für Eintöpfe", new BigDecimal("22.00"), "Rind"));
-        defaultProducts.add(createDefaultProduct("Bio-Rindfleisch - Hackfleisch", "Frisch faschiertes Rindfleisch", new BigDecimal("18.00"), "Rind"));
-
-        // Bio-Schweinefleisch
-        defaultProducts.add(createDefaultProduct("Bio-Schweinefleisch - Schnitzel", "Zartes Schweineschnitzel aus artgerechter Haltung", new BigDecimal("16.00"), "Schwein"));
-        defaultProducts.add(createDefaultProduct("Bio-Schweinefleisch - Karree", "Saftiges Schweinekarree mit Fettrand", new BigDecimal("18.00"), "Schwein"));
-        defaultProducts.add(createDefaultProduct("Bio-Schweinefleisch - Bauchfleisch", "Aromatisches Bauchfleisch für Braten und Grill", new BigDecimal("14.00"), "Schwein"));
-        defaultProducts.add(createDefaultProduct("Bio-Schweinefleisch - Bratenstück", "Perfekt für Schweinsbraten", new BigDecimal("15.00"), "Schwein"));
-
-        // Bio-Lammfleisch
-        defaultProducts.add(createDefaultProduct("Bio-Lammfleisch - Keule", "Zarte Lammkeule aus Weidehaltung", new BigDecimal("32.00"), "Lamm"));
-        defaultProducts.add(createDefaultProduct("Bio-Lammfleisch - Koteletts", "Saftige Lammkoteletts", new BigDecimal("35.00"), "Lamm"));
-        defaultProducts.add(createDefaultProduct("Bio-Lammfleisch - Schulter", "Aromatische Lammschulter", new BigDecimal("28.00"), "Lamm"));
-
-        // Bio-Hendl
-        defaultProducts.add(createDefaultProduct("Bio-Hendl - Ganzes Huhn", "Ganzes Bio-Hendl aus Freilandhaltung (ca. 1.5 kg)", new BigDecimal("14.00"), "Geflügel"));
-        defaultProducts.add(createDefaultProduct("Bio-Hendl - Brust", "Zarte Hühnerbrust ohne Haut", new BigDecimal("22.00"), "Geflügel"));
-        defaultProducts.add(createDefaultProduct("Bio-Hendl - Schenkel", "Saftige Hühnerschenkel", new BigDecimal("12.00"), "Geflügel"));
-
-        // Wurst & Speck
-        defaultProducts.add(createDefaultProduct("Bio-Bratwurst", "Würzige Bratwurst aus eigenem Fleisch", new BigDecimal("16.00"), "Wurst"));
-        defaultProducts.add(createDefaultProduct("Bio-Leberkäse", "Hausgemachter Leberkäse nach traditionellem Rezept", new BigDecimal("12.00"), "Wurst"));
-        defaultProducts.add(createDefaultProduct("Bio-Speck", "Geräucherter Speck aus eigener Produktion", new BigDecimal("24.00"), "Speck"));
-        defaultProducts.add(createDefaultProduct("Bio-Selchwurst", "Traditionelle geselchte Wurst", new BigDecimal("18.00"), "Wurst"));
-
-        // Andere Produkte
-        defaultProducts.add(createDefaultProduct("Bio-Eier", "Frische Eier aus Freilandhaltung (10 Stück pro kg)", new BigDecimal("4.50"), "Eier"));
-        defaultProducts.add(createDefaultProduct("Bio-Honig", "Blütenhonig aus eigener Imkerei", new BigDecimal("15.00"), "Honig"));
-        defaultProducts.add(createDefaultProduct("Bio-Schmalz", "Reines Schweineschmalz", new BigDecimal("8.00"), "Fett"));
-
-        // Only add products that don't already exist by name
-        List<String> existingNames = productRepository.findAll().stream()
-                .map(Product::getName)
-                .toList();
-        List<Product> toCreate = defaultProducts.stream()
-                .filter(p -> existingNames.stream().noneMatch(n -> n.equalsIgnoreCase(p.getName())))
-                .toList();
-
-        List<Product> savedProducts = productRepository.saveAll(toCreate);
-        log.info("Initialized {} new default products ({} already existed)", savedProducts.size(), defaultProducts.size() - savedProducts.size());
+        // Create the catalog products whose names don't exist yet
+        productSeeder.seed(false);
         return productRepository.findAll();
     }
 
-    private Product createDefaultProduct(String name, String description, BigDecimal price, String meatCutType) {
-        Product product = new Product();
-        product.setName(name);
-        product.setDescription(description);
-        product.setPrice(price);
-        product.setMeatCutType(meatCutType);
-        product.setStockQuantity(BigDecimal.ZERO);
-        return product;
+    private Product findProduct(Long id) {
+        return productRepository.findById(id)
+                .orElseThrow(() -> notFound(id));
+    }
+
+    private static RuntimeException notFound(Long id) {
+        log.warn("Product not found: id={}", id);
+        return new RuntimeException("Product not found with id: " + id);
     }
 }
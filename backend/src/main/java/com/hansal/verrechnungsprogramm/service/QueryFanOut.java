@@ -0,0 +1,268 @@
+package com.hansal.verrechnungsprogramm.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs the independent queries of one request in parallel.
+ * <p>
+ * Subtasks are forked in a {@link Scope} with the semantics of
+ * {@code StructuredTaskScope.ShutdownOnFailure}: {@link Scope#join()} waits for
+ * all of them, the first failure interrupts the others and is rethrown, and a
+ * closed scope never leaves a subtask running. They run on virtual threads when
+ * {@code spring.threads.virtual.enabled} is set, otherwise on a small platform
+ * pool.
+ * <p>
+ * Every subtask holds a database connection while it runs, so at most
+ * {@code app.fan-out.max-concurrent-queries} run at once across all requests,
+ * by default half of the Hikari pool. Forking waits for a free slot and gives up
+ * with a {@link TaskRejectedException} after {@code app.fan-out.acquire-timeout-ms}.
+ * Subtasks run outside the caller's transaction; callers should not hold one
+ * while they wait, or they keep a connection busy for nothing.
+ */
+@Slf4j
+@Component
+public class QueryFanOut {
+
+    private final TaskExecutor executor;
+    private final Semaphore permits;
+    private final long acquireTimeoutMillis;
+
+    public QueryFanOut(DataSource dataSource,
+                       @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                       @Value("${app.fan-out.max-concurrent-queries:0}") int maxConcurrentQueries,
+                       @Value("${app.fan-out.acquire-timeout-ms:10000}") long acquireTimeoutMillis) {
+        int limit = maxConcurrentQueries > 0 ? maxConcurrentQueries : Math.max(1, poolSize(dataSource) / 2);
+        this.permits = new Semaphore(limit, true);
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.executor = virtualThreads ? virtualThreadExecutor() : platformThreadExecutor(limit);
+        log.info("Query fan-out: maxConcurrentQueries={}, virtualThreads={}", limit, virtualThreads);
+    }
+
+    public Scope open() {
+        return new Scope();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor instanceof ThreadPoolTaskExecutor pool) {
+            pool.shutdown();
+        }
+    }
+
+    private static int poolSize(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            }
+        } catch (SQLException e) {
+            log.warn("Could not read the connection pool size: {}", e.getMessage());
+        }
+        return 10;
+    }
+
+    private static TaskExecutor virtualThreadExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("fan-out-");
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+
+    private static TaskExecutor platformThreadExecutor(int size) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(size);
+        executor.setMaxPoolSize(size);
+        executor.setThreadNamePrefix("fan-out-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * The subtasks of one request. Not thread-safe: fork, join and close from
+     * the thread that opened it.
+     */
+    public final class Scope implements AutoCloseable {
+
+        // One party for the owner, one per running subtask
+        private final Phaser phaser = new Phaser(1);
+        private final List<Subtask<?>> subtasks = new ArrayList<>();
+        private volatile Throwable failure;
+        private volatile boolean shutdown;
+        private boolean joined;
+
+        private Scope() {
+        }
+
+        /**
+         * Starts the task; the returned supplier yields its result after {@link #join()}.
+         *
+         * @throws TaskRejectedException if no query slot frees up in time
+         */
+        public <T> Supplier<T> fork(Callable<T> task) {
+            if (joined) {
+                throw new IllegalStateException("Scope already joined");
+            }
+            acquire();
+            Subtask<T> subtask = new Subtask<>(task);
+            synchronized (this) {
+                subtasks.add(subtask);
+            }
+            phaser.register();
+            try {
+                executor.execute(subtask);
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    subtasks.remove(subtask);
+                }
+                phaser.arriveAndDeregister();
+                permits.release();
+                throw e;
+            }
+            return subtask;
+        }
+
+        /**
+         * Waits for all subtasks and rethrows the first failure.
+         */
+        public void join() {
+            if (!joined) {
+                joined = true;
+                awaitSubtasks();
+            }
+            Throwable cause = failure;
+            if (cause instanceof RuntimeException e) {
+                throw e;
+            }
+            if (cause instanceof Error e) {
+                throw e;
+            }
+            if (cause != null) {
+                throw new IllegalStateException("Parallel query failed: " + cause.getMessage(), cause);
+            }
+        }
+
+        /**
+         * Interrupts subtasks that are still running and waits for them.
+         */
+        @Override
+        public void close() {
+            if (!joined) {
+                joined = true;
+                shutdown(null);
+                awaitSubtasks();
+            }
+        }
+
+        private void acquire() {
+            try {
+                if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                    log.warn("No query slot free after {} ms", acquireTimeoutMillis);
+                    throw new TaskRejectedException("Too many parallel queries, try again later");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TaskRejectedException("Interrupted while waiting for a query slot", e);
+            }
+        }
+
+        private void awaitSubtasks() {
+            int phase = phaser.arrive();
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    phaser.awaitAdvanceInterruptibly(phase);
+                    break;
+                } catch (InterruptedException e) {
+                    // The subtasks hold connections; stop them but do not leave before they have
+                    interrupted = true;
+                    shutdown(e);
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private synchronized void shutdown(Throwable cause) {
+            if (failure == null && cause != null) {
+                failure = cause;
+            }
+            if (!shutdown) {
+                shutdown = true;
+                subtasks.forEach(Subtask::interrupt);
+            }
+        }
+
+        private final class Subtask<T> implements Runnable, Supplier<T> {
+
+            private final Callable<T> task;
+            private Thread thread;
+            private volatile T result;
+            private volatile boolean succeeded;
+
+            private Subtask(Callable<T> task) {
+                this.task = task;
+            }
+
+            @Override
+            public void run() {
+                try {
+                    if (start()) {
+                        result = task.call();
+                        succeeded = true;
+                    }
+                } catch (Throwable e) {
+                    shutdown(e);
+                } finally {
+                    finish();
+                    permits.release();
+                    phaser.arriveAndDeregister();
+                }
+            }
+
+            @Override
+            public T get() {
+                if (!joined || !succeeded) {
+                    throw new IllegalStateException("Subtask has no result");
+                }
+                return result;
+            }
+
+            private synchronized boolean start() {
+                if (shutdown) {
+                    return false;
+                }
+                thread = Thread.currentThread();
+                return true;
+            }
+
+            private synchronized void finish() {
+                thread = null;
+                // Pool threads are reused; do not leak a late interrupt into the next task
+                Thread.interrupted();
+            }
+
+            private synchronized void interrupt() {
+                if (thread != null) {
+                    thread.interrupt();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.hansal.verrechnungsprogramm.service;
+
+import com.hansal.verrechnungsprogramm.dto.CustomerAgingDTO;
+import com.hansal.verrechnungsprogramm.dto.ReceivablesAgingDTO;
+import com.hansal.verrechnungsprogramm.model.InvoiceStatus;
+import com.hansal.verrechnungsprogramm.model.OverdueInvoice;
+import com.hansal.verrechnungsprogramm.repository.OverdueInvoiceRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Open items (UNPAID and OVERDUE invoices) and how long they are overdue.
+ * <p>
+ * New invoices are due after the {@link PaymentTerms}; older invoices got their
+ * due date from changeset 010, the issue date only remains as a fallback for
+ * rows written without one. The aging report
+ * is a single grouped query; its status predicate is written as literals so
+ * PostgreSQL can answer it from the partial index on open invoices.
+ */
+@Slf4j
+@Service
+@Transactional
+public class ReceivablesService {
+
+    private static final Set<InvoiceStatus> OPEN_STATUSES = EnumSet.of(InvoiceStatus.UNPAID, InvoiceStatus.OVERDUE);
+
+    private static final String AGING_QUERY =
+            "SELECT MAX(TRIM(o.customer_name)) AS customer_name, COUNT(*) AS invoice_count, " +
+            "SUM(CASE WHEN COALESCE(i.due_date, i.issue_date) >= ? THEN i.grand_total ELSE 0 END) AS current_amount, " +
+            "SUM(CASE WHEN COALESCE(i.due_date, i.issue_date) < ? AND COALESCE(i.due_date, i.issue_date) >= ? " +
+            "THEN i.grand_total ELSE 0 END) AS overdue_1_30, " +
+            "SUM(CASE WHEN COALESCE(i.due_date, i.issue_date) < ? AND COALESCE(i.due_date, i.issue_date) >= ? " +
+            "THEN i.grand_total ELSE 0 END) AS overdue_31_60, " +
+            "SUM(CASE WHEN COALESCE(i.due_date, i.issue_date) < ? THEN i.grand_total ELSE 0 END) AS overdue_over_60, " +
+            "SUM(i.grand_total) AS total_amount, " +
+            "MIN(COALESCE(i.due_date, i.issue_date)) AS oldest_due_date " +
+            "FROM invoices i JOIN orders o ON o.id = i.order_id " +
+            "WHERE i.status IN ('UNPAID', 'OVERDUE') AND i.grand_total IS NOT NULL " +
+            "GROUP BY LOWER(TRIM(o.customer_name)) " +
+            "ORDER BY total_amount DESC, customer_name";
+
+    private static final String OVERDUE_QUERY =
+            "SELECT i.id, i.invoice_number, i.issue_date, COALESCE(i.due_date, i.issue_date) AS due_date, i.grand_total, " +
+            "o.customer_name, o.customer_phone, o.customer_address " +
+            "FROM invoices i JOIN orders o ON o.id = i.order_id " +
+            "WHERE i.status IN ('UNPAID', 'OVERDUE') AND i.grand_total IS NOT NULL " +
+            "AND COALESCE(i.due_date, i.issue_date) < ?";
+
+    private static final String INSERT_OVERDUE = "INSERT INTO overdue_invoices " +
+            "(invoice_id, invoice_number, customer_name, customer_phone, customer_address, issue_date, due_date, " +
+            "amount, days_overdue, computed_on) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final OverdueInvoiceRepository overdueInvoiceRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final StartupTasks startupTasks;
+    private final TransactionTemplate transactionTemplate;
+
+    public ReceivablesService(OverdueInvoiceRepository overdueInvoiceRepository,
+                              JdbcTemplate jdbcTemplate,
+                              StartupTasks startupTasks,
+                              PlatformTransactionManager transactionManager) {
+        this.overdueInvoiceRepository = overdueInvoiceRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.startupTasks = startupTasks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Transactional(readOnly = true)
+    public ReceivablesAgingDTO getAgingReport(LocalDate asOf) {
+        Date today = Date.valueOf(asOf);
+        Date minus30 = Date.valueOf(asOf.minusDays(30));
+        Date minus60 = Date.valueOf(asOf.minusDays(60));
+
+        List<CustomerAgingDTO> customers = jdbcTemplate.query(AGING_QUERY, (rs, rowNum) -> new CustomerAgingDTO(
+                rs.getString("customer_name"),
+                rs.getLong("invoice_count"),
+                amount(rs, "current_amount"),
+                amount(rs, "overdue_1_30"),
+                amount(rs, "overdue_31_60"),
+                amount(rs, "overdue_over_60"),
+                amount(rs, "total_amount"),
+                rs.getDate("oldest_due_date").toLocalDate()),
+                today, today, minus30, minus30, minus60, minus60);
+
+        BigDecimal zero = BigDecimal.ZERO.setScale(2);
+        CustomerAgingDTO total = new CustomerAgingDTO(null, 0, zero, zero, zero, zero, zero, null);
+        for (CustomerAgingDTO customer : customers) {
+            total.setInvoiceCount(total.getInvoiceCount() + customer.getInvoiceCount());
+            total.setCurrent(total.getCurrent().add(customer.getCurrent()));
+            total.setOverdue1To30(total.getOverdue1To30().add(customer.getOverdue1To30()));
+            total.setOverdue31To60(total.getOverdue31To60().add(customer.getOverdue31To60()));
+            total.setOverdueOver60(total.getOverdueOver60().add(customer.getOverdueOver60()));
+            total.setTotal(total.getTotal().add(customer.getTotal()));
+            if (total.getOldestDueDate() == null || customer.getOldestDueDate().isBefore(total.getOldestDueDate())) {
+                total.setOldestDueDate(customer.getOldestDueDate());
+            }
+        }
+        log.info("Computed receivables aging: asOf={}, customers={}, open={}", asOf, customers.size(), total.getTotal());
+        return new ReceivablesAgingDTO(asOf, customers, total);
+    }
+
+    /**
+     * The dunning list as computed by the last {@link #refreshOverdueInvoices()},
+     * minus invoices that have been paid or cancelled since.
+     */
+    @Transactional(readOnly = true)
+    public List<OverdueInvoice> getOverdueInvoices(int minDaysOverdue) {
+        List<OverdueInvoice> overdue = overdueInvoiceRepository.findStillOpen(OPEN_STATUSES, minDaysOverdue);
+        log.info("Listed overdue invoices: minDaysOverdue={}, count={}", minDaysOverdue, overdue.size());
+        return overdue;
+    }
+
+    /**
+     * Replaces the dunning list with the invoices overdue as of today, in one
+     * transaction so readers never see it empty or partial. Runs every night so
+     * the list is ready before the morning dunning run.
+     */
+    @Scheduled(cron = "${app.receivables.overdue-cron:0 0 4 * * *}")
+    public int refreshOverdueInvoices() {
+        // Also called on this instance from the startup task, which bypasses the proxy
+        return transactionTemplate.execute(status -> replaceOverdueInvoices());
+    }
+
+    private int replaceOverdueInvoices() {
+        LocalDate today = LocalDate.now();
+        List<Object[]> overdue = new ArrayList<>();
+        jdbcTemplate.query(OVERDUE_QUERY, rs -> {
+            Date dueDate = rs.getDate("due_date");
+            overdue.add(new Object[]{
+                    rs.getLong("id"),
+                    rs.getString("invoice_number"),
+                    rs.getString("customer_name"),
+                    rs.getString("customer_phone"),
+                    rs.getString("customer_address"),
+                    rs.getDate("issue_date"),
+                    dueDate,
+                    rs.getBigDecimal("grand_total"),
+                    (int) ChronoUnit.DAYS.between(dueDate.toLocalDate(), today),
+                    Date.valueOf(today)});
+        }, Date.valueOf(today));
+
+        jdbcTemplate.update("DELETE FROM overdue_invoices");
+        jdbcTemplate.batchUpdate(INSERT_OVERDUE, overdue);
+        log.info("Refreshed overdue invoices: count={}", overdue.size());
+        return overdue.size();
+    }
+
+    /**
+     * Computes the list on startup if the last nightly run is missing, e.g. on a
+     * fresh database or after the server was down overnight.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        startupTasks.run("overdue invoices", () -> {
+            LocalDate computedOn = overdueInvoiceRepository.findLastComputedOn();
+            if (!LocalDate.now().equals(computedOn)) {
+                refreshOverdueInvoices();
+            }
+        });
+    }
+
+    private static BigDecimal amount(ResultSet rs, String column) throws SQLException {
+        BigDecimal value = rs.getBigDecimal(column);
+        return value != null ? value.setScale(2, RoundingMode.HALF_UP) : BigDecimal.ZERO.setScale(2);
+    }
+}
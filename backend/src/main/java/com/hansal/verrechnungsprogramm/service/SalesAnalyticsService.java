@@ -0,0 +1,237 @@
+package com.hansal.verrechnungsprogramm.service;
+
+import com.hansal.verrechnungsprogramm.dto.SalesAnalyticsRowDTO;
+import com.hansal.verrechnungsprogramm.event.SalesChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Revenue analytics answered from the {@code daily_sales} rollups instead of the
+ * order items.
+ * <p>
+ * A rollup row holds the sales of one product to one customer on one day. The
+ * rows of a day are rebuilt from its orders whenever a {@link SalesChangedEvent}
+ * for that day is committed, and the whole table is rebuilt nightly to pick up
+ * anything the events missed (other instances, manual SQL, product changes).
+ */
+@Slf4j
+@Service
+public class SalesAnalyticsService {
+
+    /** Ways a query can group the rollups; the keys they add to each row's group. */
+    public enum Dimension {
+        /** {@code day} */
+        DAY(List.of("ds.sales_date"), List.of()),
+        /** {@code month} as {@code yyyy-MM} */
+        MONTH(List.of("EXTRACT(YEAR FROM ds.sales_date)", "EXTRACT(MONTH FROM ds.sales_date)"), List.of()),
+        /** {@code year} */
+        YEAR(List.of("EXTRACT(YEAR FROM ds.sales_date)"), List.of()),
+        /** {@code productId} and {@code productName} */
+        PRODUCT(List.of("p.name", "ds.product_id"), List.of()),
+        /** {@code meatCutType} (Rind, Schwein, ...) */
+        MEAT_CUT_TYPE(List.of("p.meat_cut_type"), List.of()),
+        /** {@code customer}; names differing only in case or spacing are one customer */
+        CUSTOMER(List.of("ds.customer_key"), List.of("MAX(ds.customer_name)"));
+
+        private final List<String> groupExpressions;
+        private final List<String> labelExpressions;
+
+        Dimension(List<String> groupExpressions, List<String> labelExpressions) {
+            this.groupExpressions = groupExpressions;
+            this.labelExpressions = labelExpressions;
+        }
+    }
+
+    private static final LocalDate EARLIEST = LocalDate.of(1900, 1, 1);
+    private static final LocalDate LATEST = LocalDate.of(9999, 12, 30);
+
+    private static final String ROLLUP_QUERY =
+            "INSERT INTO daily_sales (sales_date, product_id, customer_key, customer_name, " +
+            "item_count, weight, revenue, invoiced_revenue) " +
+            "SELECT CAST(o.order_date AS DATE), COALESCE(m.product_id, oi.product_id), LOWER(TRIM(o.customer_name)), " +
+            "MAX(TRIM(o.customer_name)), COUNT(oi.id), COALESCE(SUM(oi.weight), 0), COALESCE(SUM(oi.subtotal), 0), " +
+            "COALESCE(SUM(CASE WHEN i.id IS NOT NULL THEN oi.subtotal ELSE 0 END), 0) " +
+            "FROM orders o " +
+            "JOIN order_items oi ON oi.order_id = o.id " +
+            "LEFT JOIN meat_cuts m ON m.id = oi.meat_cut_id " +
+            "LEFT JOIN invoices i ON i.order_id = o.id " +
+            "WHERE o.status <> 'CANCELLED' AND COALESCE(m.product_id, oi.product_id) IS NOT NULL " +
+            "AND o.order_date >= ? AND o.order_date < ? " +
+            "GROUP BY CAST(o.order_date AS DATE), COALESCE(m.product_id, oi.product_id), LOWER(TRIM(o.customer_name))";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate requiresNew;
+    private final StartupTasks startupTasks;
+
+    public SalesAnalyticsService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                 StartupTasks startupTasks) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.startupTasks = startupTasks;
+        // Listeners run after the publishing transaction committed, so they need their own
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onSalesChanged(SalesChangedEvent event) {
+        try {
+            int rows = recompute(new TreeSet<>(event.dates()));
+            log.debug("Refreshed daily sales: dates={}, rows={}", event.dates(), rows);
+        } catch (RuntimeException e) {
+            // The nightly rebuild repairs the days that could not be refreshed now
+            log.warn("Could not refresh daily sales: dates={}, error={}", event.dates(), e.getMessage());
+        }
+    }
+
+    /**
+     * Rebuilds all rollups from the orders in a single transaction, so readers see
+     * either the old or the new figures.
+     */
+    @Scheduled(cron = "${app.analytics.rebuild-cron:0 30 2 * * *}")
+    public synchronized int rebuildAll() {
+        int rows = requiresNew.execute(status -> {
+            jdbcTemplate.update("DELETE FROM daily_sales");
+            return insertRollups(EARLIEST, LATEST);
+        });
+        log.info("Rebuilt daily sales: rows={}", rows);
+        return rows;
+    }
+
+    /**
+     * Fills the rollups after the table was created, instead of leaving the
+     * analytics empty until the first nightly rebuild.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        startupTasks.run("daily sales", () -> {
+            Integer rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM daily_sales", Integer.class);
+            if (rows != null && rows == 0) {
+                rebuildAll();
+            }
+        });
+    }
+
+    /**
+     * Sums the rollups between {@code from} and {@code to} (inclusive, both
+     * optional), grouped by the given dimensions in the given order. Without
+     * dimensions a single total row is returned.
+     */
+    @Transactional(readOnly = true)
+    public List<SalesAnalyticsRowDTO> querySales(LocalDate from, LocalDate to, List<Dimension> groupBy,
+                                                 Long productId, String meatCutType, String customer) {
+        List<Dimension> dimensions = groupBy != null ? List.copyOf(new LinkedHashSet<>(groupBy)) : List.of();
+
+        List<String> select = new ArrayList<>();
+        List<String> group = new ArrayList<>();
+        for (Dimension dimension : dimensions) {
+            for (int i = 0; i < dimension.groupExpressions.size(); i++) {
+                select.add(dimension.groupExpressions.get(i) + " AS " + alias(dimension, i));
+                group.add(dimension.groupExpressions.get(i));
+            }
+            for (int i = 0; i < dimension.labelExpressions.size(); i++) {
+                select.add(dimension.labelExpressions.get(i) + " AS " + alias(dimension, dimension.groupExpressions.size() + i));
+            }
+        }
+        select.add("COALESCE(SUM(ds.item_count), 0) AS item_count");
+        select.add("COALESCE(SUM(ds.weight), 0) AS weight");
+        select.add("COALESCE(SUM(ds.revenue), 0) AS revenue");
+        select.add("COALESCE(SUM(ds.invoiced_revenue), 0) AS invoiced_revenue");
+
+        StringBuilder sql = new StringBuilder("SELECT ").append(String.join(", ", select))
+                .append(" FROM daily_sales ds LEFT JOIN products p ON p.id = ds.product_id")
+                .append(" WHERE ds.sales_date >= ? AND ds.sales_date <= ?");
+        List<Object> args = new ArrayList<>();
+        args.add(Date.valueOf(from != null ? from : EARLIEST));
+        args.add(Date.valueOf(to != null ? to : LATEST));
+        if (productId != null) {
+            sql.append(" AND ds.product_id = ?");
+            args.add(productId);
+        }
+        if (meatCutType != null && !meatCutType.isBlank()) {
+            sql.append(" AND p.meat_cut_type = ?");
+            args.add(meatCutType);
+        }
+        if (customer != null && !customer.isBlank()) {
+            sql.append(" AND ds.customer_key = ?");
+            args.add(customer.trim().toLowerCase());
+        }
+        if (!group.isEmpty()) {
+            sql.append(" GROUP BY ").append(String.join(", ", group))
+                    .append(" ORDER BY ").append(String.join(", ", group));
+        }
+
+        List<SalesAnalyticsRowDTO> rows = jdbcTemplate.query(sql.toString(), (rs, rowNum) -> {
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (Dimension dimension : dimensions) {
+                readGroup(dimension, rs, values);
+            }
+            return new SalesAnalyticsRowDTO(values, rs.getLong("item_count"), rs.getBigDecimal("weight"),
+                    rs.getBigDecimal("revenue"), rs.getBigDecimal("invoiced_revenue"));
+        }, args.toArray());
+        log.info("Queried sales analytics: from={}, to={}, groupBy={}, rows={}", from, to, dimensions, rows.size());
+        return rows;
+    }
+
+    private synchronized int recompute(SortedSet<LocalDate> dates) {
+        try {
+            return recomputeDays(dates);
+        } catch (DataIntegrityViolationException e) {
+            // Another instance rebuilt the same day concurrently; its rows are gone once it committed
+            log.debug("Retrying daily sales refresh: dates={}, error={}", dates, e.getMessage());
+            return recomputeDays(dates);
+        }
+    }
+
+    private int recomputeDays(SortedSet<LocalDate> dates) {
+        return requiresNew.execute(status -> {
+            int rows = 0;
+            for (LocalDate date : dates) {
+                jdbcTemplate.update("DELETE FROM daily_sales WHERE sales_date = ?", Date.valueOf(date));
+                rows += insertRollups(date, date);
+            }
+            return rows;
+        });
+    }
+
+    private int insertRollups(LocalDate from, LocalDate to) {
+        return jdbcTemplate.update(ROLLUP_QUERY,
+                Timestamp.valueOf(from.atStartOfDay()), Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+    }
+
+    private static void readGroup(Dimension dimension, ResultSet rs, Map<String, Object> values) throws SQLException {
+        switch (dimension) {
+            case DAY -> values.put("day", rs.getDate(alias(dimension, 0)).toLocalDate());
+            case MONTH -> values.put("month", String.format("%04d-%02d",
+                    rs.getInt(alias(dimension, 0)), rs.getInt(alias(dimension, 1))));
+            case YEAR -> values.put("year", rs.getInt(alias(dimension, 0)));
+            case PRODUCT -> {
+                values.put("productId", rs.getLong(alias(dimension, 1)));
+                values.put("productName", rs.getString(alias(dimension, 0)));
+            }
+            case MEAT_CUT_TYPE -> values.put("meatCutType", rs.getString(alias(dimension, 0)));
+            case CUSTOMER -> values.put("customer", rs.getString(alias(dimension, 1)));
+        }
+    }
+
+    private static String alias(Dimension dimension, int index) {
+        return "g_" + dimension.name().toLowerCase() + "_" + index;
+    }
+}
@@ -0,0 +1,111 @@
+package com.hansal.verrechnungsprogramm.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hansal.verrechnungsprogramm.model.Product;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * The default products, read from {@code app.seed.catalog} on first use and kept
+ * for the lifetime of the application.
+ * <p>
+ * The file carries a version that is raised with every change of the list; it
+ * is logged with each seeding. Names identify the products and must be unique
+ * ignoring case.
+ */
+@Slf4j
+@Component
+public class SeedCatalog {
+
+    public record Entry(String name, String description, BigDecimal price, String meatCutType) {
+
+        /** Name as compared against existing products. */
+        public String key() {
+            return SeedCatalog.key(name);
+        }
+
+        public Product toProduct() {
+            Product product = new Product();
+            product.setName(name);
+            product.setDescription(description);
+            product.setPrice(price);
+            product.setMeatCutType(meatCutType);
+            product.setStockQuantity(BigDecimal.ZERO);
+            return product;
+        }
+    }
+
+    record Contents(int version, List<Entry> products) {
+    }
+
+    private final Resource resource;
+    private final ObjectMapper objectMapper;
+
+    private volatile Contents contents;
+
+    public SeedCatalog(@Value("${app.seed.catalog:classpath:seed/default-products.json}") Resource resource,
+                       ObjectMapper objectMapper) {
+        this.resource = resource;
+        this.objectMapper = objectMapper;
+    }
+
+    public int version() {
+        return contents().version();
+    }
+
+    public List<Entry> products() {
+        return contents().products();
+    }
+
+    /** New, unsaved products for every entry. */
+    public List<Product> toProducts() {
+        return products().stream().map(Entry::toProduct).toList();
+    }
+
+    static String key(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private Contents contents() {
+        Contents loaded = contents;
+        if (loaded == null) {
+            synchronized (this) {
+                loaded = contents;
+                if (loaded == null) {
+                    loaded = read();
+                    contents = loaded;
+                }
+            }
+        }
+        return loaded;
+    }
+
+    private Contents read() {
+        Contents read;
+        try (InputStream in = resource.getInputStream()) {
+            read = objectMapper.readValue(in, Contents.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read seed catalog " + resource, e);
+        }
+        Set<String> keys = new HashSet<>();
+        for (Entry entry : read.products()) {
+            if (!keys.add(entry.key())) {
+                throw new IllegalStateException("Duplicate product in seed catalog " + resource + ": " + entry.name());
+            }
+        }
+        Contents contents = new Contents(read.version(), List.copyOf(read.products()));
+        log.info("Read seed catalog: version={}, products={}", contents.version(), contents.products().size());
+        return contents;
+    }
+}
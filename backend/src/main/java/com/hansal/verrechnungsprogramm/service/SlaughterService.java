@@ -1,17 +1,23 @@
 package com.hansal.verrechnungsprogramm.service;
 
+import com.hansal.verrechnungsprogramm.event.InventoryChangedEvent;
+import com.hansal.verrechnungsprogramm.event.SlaughterChangedEvent;
 import com.hansal.verrechnungsprogramm.model.MeatCut;
 import com.hansal.verrechnungsprogramm.model.Product;
 import com.hansal.verrechnungsprogramm.model.Slaughter;
 import com.hansal.verrechnungsprogramm.repository.SlaughterRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 
 @Slf4j
 @Service
@@ -21,6 +27,7 @@ public class SlaughterService {
 
     private final SlaughterRepository slaughterRepository;
     private final ProductService productService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public List<Slaughter> getAllSlaughters() {
         List<Slaughter> slaughters = slaughterRepository.findAll();
@@ -72,6 +79,8 @@ public class SlaughterService {
             });
         }
         Slaughter savedSlaughter = slaughterRepository.save(slaughter);
+        publishInventoryChanged(productIdsOf(savedSlaughter.getMeatCuts()));
+        eventPublisher.publishEvent(new SlaughterChangedEvent(savedSlaughter.getId()));
         int meatCutCount = savedSlaughter.getMeatCuts() != null ? savedSlaughter.getMeatCuts().size() : 0;
         log.info("Created slaughter: id={}, cowTag={}, meatCuts={}", savedSlaughter.getId(), savedSlaughter.getCowTag(), meatCutCount);
         return savedSlaughter;
@@ -79,6 +88,7 @@ public class SlaughterService {
 
     public Slaughter updateSlaughter(Long id, Slaughter slaughterDetails) {
         Slaughter slaughter = getSlaughterById(id);
+        Set<Long> affectedProductIds = productIdsOf(slaughter.getMeatCuts());
 
         // Remove stock from old meat cuts (using BigDecimal for precision)
         if (slaughter.getMeatCuts() != null) {
@@ -125,6 +135,9 @@ public class SlaughterService {
         }
 
         Slaughter savedSlaughter = slaughterRepository.save(slaughter);
+        affectedProductIds.addAll(productIdsOf(savedSlaughter.getMeatCuts()));
+        publishInventoryChanged(affectedProductIds);
+        eventPublisher.publishEvent(new SlaughterChangedEvent(savedSlaughter.getId()));
         int meatCutCount = savedSlaughter.getMeatCuts() != null ? savedSlaughter.getMeatCuts().size() : 0;
         log.info("Updated slaughter: id={}, cowTag={}, meatCuts={}", savedSlaughter.getId(), savedSlaughter.getCowTag(), meatCutCount);
         return savedSlaughter;
@@ -150,7 +163,29 @@ public class SlaughterService {
             });
         }
 
+        Set<Long> affectedProductIds = productIdsOf(slaughter.getMeatCuts());
         slaughterRepository.delete(slaughter);
+        publishInventoryChanged(affectedProductIds);
+        eventPublisher.publishEvent(new SlaughterChangedEvent(id));
         log.info("Deleted slaughter: id={}, cowTag={}", id, cowTag);
     }
+
+    private Set<Long> productIdsOf(List<MeatCut> meatCuts) {
+        Set<Long> productIds = new HashSet<>();
+        if (meatCuts != null) {
+            meatCuts.stream()
+                    .map(MeatCut::getProduct)
+                    .filter(Objects::nonNull)
+                    .map(Product::getId)
+                    .filter(Objects::nonNull)
+                    .forEach(productIds::add);
+        }
+        return productIds;
+    }
+
+    private void publishInventoryChanged(Set<Long> productIds) {
+        if (!productIds.isEmpty()) {
+            eventPublisher.publishEvent(new InventoryChangedEvent(productIds, InventoryChangedEvent.Source.SLAUGHTER));
+        }
+    }
 }
@@ -0,0 +1,255 @@
+package com.hansal.verrechnungsprogramm.service;
+
+import com.hansal.verrechnungsprogramm.event.SalesChangedEvent;
+import com.hansal.verrechnungsprogramm.event.SlaughterChangedEvent;
+import com.hansal.verrechnungsprogramm.model.MeatCut;
+import com.hansal.verrechnungsprogramm.model.Slaughter;
+import com.hansal.verrechnungsprogramm.model.SlaughterYield;
+import com.hansal.verrechnungsprogramm.repository.SlaughterRepository;
+import com.hansal.verrechnungsprogramm.repository.SlaughterYieldRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Yield and margin per carcass, kept in {@code slaughter_yields}.
+ * <p>
+ * A slaughter's summary is recomputed after commit when the slaughter changes or
+ * when orders of a day it sold on change, so reads never join orders, items,
+ * allocations and cuts. Sold weight counts order items that reference one of the
+ * slaughter's cuts directly plus FIFO allocations of product-based items;
+ * cancelled orders do not count.
+ */
+@Slf4j
+@Service
+public class SlaughterYieldService {
+
+    public enum Ranking {
+        SELL_THROUGH(Sort.Order.desc("sellThrough")),
+        REVENUE(Sort.Order.desc("revenue")),
+        REALIZED_PRICE(Sort.Order.desc("realizedPricePerKg").nullsLast()),
+        DAYS_TO_SELL_OUT(Sort.Order.asc("daysToSellOut").nullsLast());
+
+        private final Sort sort;
+
+        Ranking(Sort.Order order) {
+            this.sort = Sort.by(order, Sort.Order.desc("slaughterDate"), Sort.Order.asc("slaughterId"));
+        }
+    }
+
+    private static final LocalDate EARLIEST = LocalDate.of(1900, 1, 1);
+    private static final LocalDate LATEST = LocalDate.of(9999, 12, 31);
+
+    private static final String SALES_BY_DAY_QUERY =
+            "SELECT sale_date, SUM(weight) AS weight, SUM(revenue) AS revenue FROM (" +
+            "SELECT CAST(o.order_date AS DATE) AS sale_date, oi.weight AS weight, oi.subtotal AS revenue " +
+            "FROM meat_cuts m " +
+            "JOIN order_items oi ON oi.meat_cut_id = m.id " +
+            "JOIN orders o ON o.id = oi.order_id " +
+            "WHERE m.slaughter_id = ? AND o.status <> 'CANCELLED' " +
+            "UNION ALL " +
+            "SELECT CAST(o.order_date AS DATE), a.weight, a.weight * oi.unit_price " +
+            "FROM meat_cuts m " +
+            "JOIN meat_cut_allocations a ON a.meat_cut_id = m.id " +
+            "JOIN order_items oi ON oi.id = a.order_item_id " +
+            "JOIN orders o ON o.id = oi.order_id " +
+            "WHERE m.slaughter_id = ? AND o.status <> 'CANCELLED'" +
+            ") sales GROUP BY sale_date ORDER BY sale_date";
+
+    private static final String SLAUGHTERS_SOLD_BETWEEN_QUERY =
+            "SELECT m.slaughter_id FROM meat_cuts m " +
+            "JOIN order_items oi ON oi.meat_cut_id = m.id " +
+            "JOIN orders o ON o.id = oi.order_id " +
+            "WHERE o.order_date >= ? AND o.order_date < ? " +
+            "UNION " +
+            "SELECT m.slaughter_id FROM meat_cuts m " +
+            "JOIN meat_cut_allocations a ON a.meat_cut_id = m.id " +
+            "JOIN order_items oi ON oi.id = a.order_item_id " +
+            "JOIN orders o ON o.id = oi.order_id " +
+            "WHERE o.order_date >= ? AND o.order_date < ?";
+
+    private final SlaughterRepository slaughterRepository;
+    private final SlaughterYieldRepository yieldRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate requiresNew;
+    private final StartupTasks startupTasks;
+
+    public SlaughterYieldService(SlaughterRepository slaughterRepository,
+                                 SlaughterYieldRepository yieldRepository,
+                                 JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 StartupTasks startupTasks) {
+        this.slaughterRepository = slaughterRepository;
+        this.yieldRepository = yieldRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.startupTasks = startupTasks;
+        // Listeners run after the publishing transaction committed, so they need their own
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Yield of a slaughter; computed on the spot if its summary does not exist yet.
+     */
+    public Optional<SlaughterYield> getYield(Long slaughterId) {
+        Optional<SlaughterYield> yield = yieldRepository.findById(slaughterId);
+        if (yield.isEmpty()) {
+            yield = Optional.ofNullable(requiresNew.execute(status -> recompute(slaughterId)));
+        }
+        log.info("Fetched slaughter yield: slaughterId={}, found={}", slaughterId, yield.isPresent());
+        return yield;
+    }
+
+    /**
+     * Slaughters between {@code from} and {@code to} (inclusive, both optional),
+     * best first according to {@code ranking}.
+     */
+    @Transactional(readOnly = true)
+    public List<SlaughterYield> getRanking(Ranking ranking, LocalDate from, LocalDate to, int limit) {
+        List<SlaughterYield> yields = yieldRepository.findBySlaughterDateBetween(
+                from != null ? from : EARLIEST, to != null ? to : LATEST,
+                PageRequest.of(0, limit, ranking.sort));
+        log.info("Ranked slaughter yields: ranking={}, from={}, to={}, count={}", ranking, from, to, yields.size());
+        return yields;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onSlaughterChanged(SlaughterChangedEvent event) {
+        refresh(Set.of(event.slaughterId()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onSalesChanged(SalesChangedEvent event) {
+        Set<Long> slaughterIds = requiresNew.execute(status -> {
+            Set<Long> ids = new TreeSet<>();
+            for (LocalDate date : event.dates()) {
+                Timestamp start = Timestamp.valueOf(date.atStartOfDay());
+                Timestamp end = Timestamp.valueOf(date.plusDays(1).atStartOfDay());
+                ids.addAll(jdbcTemplate.queryForList(SLAUGHTERS_SOLD_BETWEEN_QUERY, Long.class, start, end, start, end));
+                // Sales that were just removed are only visible in the old summaries
+                ids.addAll(yieldRepository.findIdsWithSalesAround(date));
+            }
+            return ids;
+        });
+        refresh(slaughterIds);
+    }
+
+    /**
+     * Recomputes every summary, e.g. to pick up changes made by other instances.
+     */
+    @Scheduled(cron = "${app.slaughter-yields.rebuild-cron:0 45 2 * * *}")
+    public int rebuildAll() {
+        List<Long> slaughterIds = jdbcTemplate.queryForList("SELECT id FROM slaughters ORDER BY id", Long.class);
+        refresh(slaughterIds);
+        int removed = requiresNew.execute(status -> jdbcTemplate.update(
+                "DELETE FROM slaughter_yields WHERE slaughter_id NOT IN (SELECT id FROM slaughters)"));
+        log.info("Rebuilt slaughter yields: slaughters={}, removed={}", slaughterIds.size(), removed);
+        return slaughterIds.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        startupTasks.run("slaughter yields", () -> {
+            if (yieldRepository.count() == 0) {
+                rebuildAll();
+            }
+        });
+    }
+
+    private void refresh(Collection<Long> slaughterIds) {
+        for (Long slaughterId : slaughterIds) {
+            try {
+                requiresNew.executeWithoutResult(status -> recompute(slaughterId));
+            } catch (RuntimeException e) {
+                // The nightly rebuild repairs summaries that could not be refreshed now
+                log.warn("Could not refresh slaughter yield: slaughterId={}, error={}", slaughterId, e.getMessage());
+            }
+        }
+        log.debug("Refreshed slaughter yields: slaughterIds={}", slaughterIds);
+    }
+
+    private SlaughterYield recompute(Long slaughterId) {
+        Optional<Slaughter> found = slaughterRepository.findById(slaughterId);
+        if (found.isEmpty()) {
+            if (yieldRepository.existsById(slaughterId)) {
+                yieldRepository.deleteById(slaughterId);
+            }
+            return null;
+        }
+        Slaughter slaughter = found.get();
+
+        BigDecimal carcassWeight = BigDecimal.ZERO;
+        BigDecimal listValue = BigDecimal.ZERO;
+        for (MeatCut meatCut : slaughter.getMeatCuts()) {
+            if (meatCut.getTotalWeight() != null) {
+                carcassWeight = carcassWeight.add(meatCut.getTotalWeight());
+                if (meatCut.getPricePerKg() != null) {
+                    listValue = listValue.add(meatCut.getTotalWeight().multiply(meatCut.getPricePerKg()));
+                }
+            }
+        }
+
+        SlaughterYield yield = new SlaughterYield();
+        yield.setSlaughterId(slaughterId);
+        yield.setCowTag(slaughter.getCowTag());
+        yield.setSlaughterDate(slaughter.getSlaughterDate());
+        yield.setCarcassWeight(carcassWeight);
+        yield.setListValue(listValue.setScale(2, RoundingMode.HALF_UP));
+        yield.setSoldWeight(BigDecimal.ZERO);
+        yield.setRevenue(BigDecimal.ZERO);
+
+        BigDecimal total = carcassWeight;
+        jdbcTemplate.query(SALES_BY_DAY_QUERY, rs -> {
+            LocalDate day = rs.getDate("sale_date").toLocalDate();
+            BigDecimal sold = yield.getSoldWeight().add(zeroIfNull(rs.getBigDecimal("weight")));
+            yield.setSoldWeight(sold);
+            yield.setRevenue(yield.getRevenue().add(zeroIfNull(rs.getBigDecimal("revenue"))));
+            if (yield.getFirstSaleDate() == null) {
+                yield.setFirstSaleDate(day);
+            }
+            yield.setLastSaleDate(day);
+            if (yield.getSoldOutDate() == null && total.signum() > 0 && sold.compareTo(total) >= 0) {
+                yield.setSoldOutDate(day);
+            }
+        }, slaughterId, slaughterId);
+
+        yield.setRevenue(yield.getRevenue().setScale(2, RoundingMode.HALF_UP));
+        yield.setCarcassWeight(carcassWeight.setScale(3, RoundingMode.HALF_UP));
+        yield.setSoldWeight(yield.getSoldWeight().setScale(3, RoundingMode.HALF_UP));
+        yield.setRemainingWeight(yield.getCarcassWeight().subtract(yield.getSoldWeight()).max(BigDecimal.ZERO));
+        yield.setSellThrough(carcassWeight.signum() > 0
+                ? yield.getSoldWeight().divide(carcassWeight, 4, RoundingMode.HALF_UP).min(BigDecimal.ONE)
+                : BigDecimal.ZERO);
+        if (yield.getSoldWeight().signum() > 0) {
+            yield.setRealizedPricePerKg(yield.getRevenue().divide(yield.getSoldWeight(), 2, RoundingMode.HALF_UP));
+        }
+        if (yield.getSoldOutDate() != null) {
+            yield.setDaysToSellOut((int) ChronoUnit.DAYS.between(slaughter.getSlaughterDate(), yield.getSoldOutDate()));
+        }
+        yield.setUpdatedAt(LocalDateTime.now());
+        return yieldRepository.save(yield);
+    }
+
+    private static BigDecimal zeroIfNull(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+}
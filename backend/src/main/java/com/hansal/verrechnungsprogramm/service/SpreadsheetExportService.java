@@ -0,0 +1,272 @@
+package com.hansal.verrechnungsprogramm.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+
+/**
+ * Excel exports for management (orders, slaughter yields, stock).
+ * <p>
+ * Workbooks are built with POI's streaming {@link SXSSFWorkbook}: only the last
+ * {@code app.export.xlsx.row-window} rows are kept in memory, older rows are
+ * flushed to a compressed temporary file. Rows come from a forward-only JDBC
+ * cursor, so neither the result set nor the sheet is ever fully in memory.
+ * <p>
+ * A sheet holds at most 1,048,576 rows. Longer exports continue on further
+ * sheets ("Bestellungen 2", ...), each with its own header row, so an
+ * unbounded range never fails halfway through.
+ */
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+public class SpreadsheetExportService {
+
+    private static final LocalDate EARLIEST = LocalDate.of(1900, 1, 1);
+    private static final LocalDate LATEST = LocalDate.of(9999, 12, 31);
+
+    private static final String ORDERS_QUERY =
+            "SELECT o.id, o.order_date, o.customer_name, o.customer_phone, o.status, " +
+            "COALESCE(mp.name, p.name) AS item_name, oi.weight, oi.unit_price, oi.subtotal, " +
+            "o.total_amount, i.invoice_number " +
+            "FROM orders o " +
+            "LEFT JOIN order_items oi ON oi.order_id = o.id " +
+            "LEFT JOIN products p ON p.id = oi.product_id " +
+            "LEFT JOIN meat_cuts m ON m.id = oi.meat_cut_id " +
+            "LEFT JOIN products mp ON mp.id = m.product_id " +
+            "LEFT JOIN invoices i ON i.order_id = o.id " +
+            "WHERE o.order_date >= ? AND o.order_date < ? " +
+            "ORDER BY o.order_date, o.id, oi.id";
+
+    private static final String SLAUGHTERS_QUERY =
+            "SELECT s.cow_tag, s.cow_id, s.slaughter_date, s.total_weight AS carcass_weight, " +
+            "p.name AS product_name, m.total_weight, m.available_weight, m.price_per_kg " +
+            "FROM slaughters s " +
+            "JOIN meat_cuts m ON m.slaughter_id = s.id " +
+            "JOIN products p ON p.id = m.product_id " +
+            "WHERE s.slaughter_date >= ? AND s.slaughter_date <= ? " +
+            "ORDER BY s.slaughter_date, s.id, m.id";
+
+    private static final String STOCK_QUERY =
+            "SELECT p.id, p.name, p.meat_cut_type, p.price, p.stock_quantity, " +
+            "COUNT(m.id) AS meat_cuts, COALESCE(SUM(m.available_weight), 0) AS available_weight " +
+            "FROM products p " +
+            "LEFT JOIN meat_cuts m ON m.product_id = p.id AND m.available_weight > 0 " +
+            "GROUP BY p.id, p.name, p.meat_cut_type, p.price, p.stock_quantity " +
+            "ORDER BY p.name";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int rowWindow;
+    private final int rowsPerSheet;
+
+    public SpreadsheetExportService(DataSource dataSource,
+                                    @Value("${app.export.fetch-size:500}") int fetchSize,
+                                    @Value("${app.export.xlsx.row-window:100}") int rowWindow,
+                                    @Value("${app.export.xlsx.rows-per-sheet:1048575}") int rowsPerSheet) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.rowWindow = rowWindow;
+        // Data rows below the header row
+        this.rowsPerSheet = Math.min(rowsPerSheet, SpreadsheetVersion.EXCEL2007.getLastRowIndex());
+    }
+
+    /**
+     * Orders with one row per order line, placed between {@code from} and {@code to}
+     * (inclusive, both optional).
+     */
+    public int exportOrders(LocalDate from, LocalDate to, OutputStream out) {
+        LocalDate start = from != null ? from : EARLIEST;
+        LocalDate end = to != null ? to : LATEST;
+        return export("Bestellungen", out,
+                new String[]{"Bestellung", "Datum", "Kunde", "Telefon", "Status", "Artikel",
+                        "Gewicht (kg)", "Preis/kg", "Positionsbetrag", "Bestellsumme", "Rechnungsnummer"},
+                ORDERS_QUERY,
+                (rs, row, styles) -> {
+                    numeric(row, 0, rs.getLong("id"), null);
+                    date(row, 1, rs.getTimestamp("order_date"), styles.dateTime);
+                    text(row, 2, rs.getString("customer_name"));
+                    text(row, 3, rs.getString("customer_phone"));
+                    text(row, 4, rs.getString("status"));
+                    text(row, 5, rs.getString("item_name"));
+                    decimal(row, 6, rs.getBigDecimal("weight"), styles.weight);
+                    decimal(row, 7, rs.getBigDecimal("unit_price"), styles.amount);
+                    decimal(row, 8, rs.getBigDecimal("subtotal"), styles.amount);
+                    decimal(row, 9, rs.getBigDecimal("total_amount"), styles.amount);
+                    text(row, 10, rs.getString("invoice_number"));
+                },
+                Timestamp.valueOf(start.atStartOfDay()), Timestamp.valueOf(end.plusDays(1).atStartOfDay()));
+    }
+
+    /**
+     * Yield of each cut per slaughter: weight, remaining and sold kilos, and the
+     * cut's share of the carcass.
+     */
+    public int exportSlaughterYields(LocalDate from, LocalDate to, OutputStream out) {
+        LocalDate start = from != null ? from : EARLIEST;
+        LocalDate end = to != null ? to : LATEST;
+        return export("Schlachtungen", out,
+                new String[]{"Ohrmarke", "Tier-ID", "Schlachtdatum", "Schlachtgewicht (kg)", "Teilstück",
+                        "Gewicht (kg)", "Anteil", "Verfügbar (kg)", "Verkauft (kg)", "Preis/kg"},
+                SLAUGHTERS_QUERY,
+                (rs, row, styles) -> {
+                    BigDecimal carcass = rs.getBigDecimal("carcass_weight");
+                    BigDecimal total = rs.getBigDecimal("total_weight");
+                    BigDecimal available = rs.getBigDecimal("available_weight");
+                    text(row, 0, rs.getString("cow_tag"));
+                    text(row, 1, rs.getString("cow_id"));
+                    date(row, 2, rs.getDate("slaughter_date"), styles.date);
+                    decimal(row, 3, carcass, styles.weight);
+                    text(row, 4, rs.getString("product_name"));
+                    decimal(row, 5, total, styles.weight);
+                    if (carcass != null && carcass.signum() > 0 && total != null) {
+                        numeric(row, 6, total.doubleValue() / carcass.doubleValue(), styles.percent);
+                    }
+                    decimal(row, 7, available, styles.weight);
+                    if (total != null && available != null) {
+                        decimal(row, 8, total.subtract(available), styles.weight);
+                    }
+                    decimal(row, 9, rs.getBigDecimal("price_per_kg"), styles.amount);
+                },
+                Date.valueOf(start), Date.valueOf(end));
+    }
+
+    /**
+     * Current stock per product: available kilos from meat cuts and the manually
+     * maintained quantity.
+     */
+    public int exportStock(OutputStream out) {
+        return export("Lagerstand", out,
+                new String[]{"Produkt-ID", "Produkt", "Teilstück-Typ", "Preis/kg", "Teilstücke",
+                        "Verfügbar (kg)", "Manueller Bestand (kg)"},
+                STOCK_QUERY,
+                (rs, row, styles) -> {
+                    numeric(row, 0, rs.getLong("id"), null);
+                    text(row, 1, rs.getString("name"));
+                    text(row, 2, rs.getString("meat_cut_type"));
+                    decimal(row, 3, rs.getBigDecimal("price"), styles.amount);
+                    numeric(row, 4, rs.getLong("meat_cuts"), null);
+                    decimal(row, 5, rs.getBigDecimal("available_weight"), styles.weight);
+                    decimal(row, 6, rs.getBigDecimal("stock_quantity"), styles.weight);
+                });
+    }
+
+    private int export(String sheetName, OutputStream out, String[] headers, String sql, RowWriter rowWriter, Object... args) {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(rowWindow);
+        workbook.setCompressTempFiles(true);
+        try {
+            Styles styles = new Styles(workbook);
+            SXSSFSheet[] sheet = {createSheet(workbook, sheetName, headers, styles)};
+
+            int[] rows = {0};
+            jdbcTemplate.query(sql, rs -> {
+                if (rows[0] > 0 && rows[0] % rowsPerSheet == 0) {
+                    sheet[0] = createSheet(workbook, sheetName + " " + (workbook.getNumberOfSheets() + 1), headers, styles);
+                }
+                rowWriter.write(rs, sheet[0].createRow(rows[0]++ % rowsPerSheet + 1), styles);
+            }, args);
+
+            workbook.write(out);
+            out.flush();
+            log.info("Exported spreadsheet: sheet={}, rows={}, sheets={}", sheetName, rows[0], workbook.getNumberOfSheets());
+            return rows[0];
+        } catch (IOException e) {
+            log.warn("Spreadsheet export aborted: sheet={}, error={}", sheetName, e.getMessage());
+            throw new RuntimeException("Error writing spreadsheet export: " + e.getMessage(), e);
+        } finally {
+            // Deletes the temporary files backing the flushed rows
+            workbook.dispose();
+        }
+    }
+
+    private static SXSSFSheet createSheet(SXSSFWorkbook workbook, String name, String[] headers, Styles styles) {
+        SXSSFSheet sheet = workbook.createSheet(name);
+        Row header = sheet.createRow(0);
+        for (int i = 0; i < headers.length; i++) {
+            Cell cell = header.createCell(i);
+            cell.setCellValue(headers[i]);
+            cell.setCellStyle(styles.header);
+        }
+        sheet.createFreezePane(0, 1);
+        return sheet;
+    }
+
+    private static void text(Row row, int column, String value) {
+        if (value != null) {
+            row.createCell(column).setCellValue(value);
+        }
+    }
+
+    private static void numeric(Row row, int column, double value, CellStyle style) {
+        Cell cell = row.createCell(column);
+        cell.setCellValue(value);
+        if (style != null) {
+            cell.setCellStyle(style);
+        }
+    }
+
+    private static void decimal(Row row, int column, BigDecimal value, CellStyle style) {
+        if (value != null) {
+            numeric(row, column, value.doubleValue(), style);
+        }
+    }
+
+    private static void date(Row row, int column, java.util.Date value, CellStyle style) {
+        if (value != null) {
+            Cell cell = row.createCell(column);
+            cell.setCellValue(value);
+            cell.setCellStyle(style);
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(ResultSet rs, Row row, Styles styles) throws SQLException;
+    }
+
+    /**
+     * Cell styles are workbook-wide and limited in number, so they are created once
+     * per workbook rather than per cell.
+     */
+    private static final class Styles {
+        private final CellStyle header;
+        private final CellStyle date;
+        private final CellStyle dateTime;
+        private final CellStyle amount;
+        private final CellStyle weight;
+        private final CellStyle percent;
+
+        private Styles(Workbook workbook) {
+            DataFormat format = workbook.createDataFormat();
+            Font bold = workbook.createFont();
+            bold.setBold(true);
+            header = workbook.createCellStyle();
+            header.setFont(bold);
+            date = withFormat(workbook, format, "dd.mm.yyyy");
+            dateTime = withFormat(workbook, format, "dd.mm.yyyy hh:mm");
+            amount = withFormat(workbook, format, "#,##0.00");
+            weight = withFormat(workbook, format, "#,##0.000");
+            percent = withFormat(workbook, format, "0.0%");
+        }
+
+        private static CellStyle withFormat(Workbook workbook, DataFormat format, String pattern) {
+            CellStyle style = workbook.createCellStyle();
+            style.setDataFormat(format.getFormat(pattern));
+            return style;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.hansal.verrechnungsprogramm.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Runs the work done once after startup, e.g. seeding an empty database or
+ * filling derived tables, without holding back readiness.
+ * <p>
+ * With {@code app.startup.defer-tasks} the tasks are queued when the
+ * application is ready and run one after another on a single background thread,
+ * so they neither delay the first request nor compete with each other for
+ * connections. Without it they run inline, as before, and a failing task fails
+ * the startup. The time to ready is logged for the startup benchmark.
+ */
+@Slf4j
+@Component
+public class StartupTasks {
+
+    private final boolean deferred;
+    private final ThreadPoolTaskExecutor executor;
+
+    public StartupTasks(@Value("${app.startup.defer-tasks:true}") boolean deferred) {
+        this.deferred = deferred;
+        this.executor = new ThreadPoolTaskExecutor();
+        this.executor.setCorePoolSize(1);
+        this.executor.setMaxPoolSize(1);
+        this.executor.setThreadNamePrefix("startup-");
+        this.executor.setDaemon(true);
+        this.executor.initialize();
+    }
+
+    public void run(String name, Runnable task) {
+        if (deferred) {
+            executor.execute(() -> runNow(name, task));
+        } else {
+            runNow(name, task);
+        }
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void logReady(ApplicationReadyEvent event) {
+        log.info("Application ready: startup={} ms, jvmUptime={} ms, deferredTasks={}",
+                event.getTimeTaken() != null ? event.getTimeTaken().toMillis() : null,
+                ManagementFactory.getRuntimeMXBean().getUptime(), deferred);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    private void runNow(String name, Runnable task) {
+        long start = System.nanoTime();
+        try {
+            task.run();
+            log.info("Startup task done: task={}, duration={} ms", name, (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("Startup task failed: task={}, error={}", name, e.getMessage(), e);
+            if (!deferred) {
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.hansal.verrechnungsprogramm.service;
+
+import com.itextpdf.kernel.colors.ColorConstants;
+import com.itextpdf.kernel.events.Event;
+import com.itextpdf.kernel.events.IEventHandler;
+import com.itextpdf.kernel.events.PdfDocumentEvent;
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfPage;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.layout.Canvas;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.borders.Border;
+import com.itextpdf.layout.borders.SolidBorder;
+import com.itextpdf.layout.element.Cell;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.element.Table;
+import com.itextpdf.layout.properties.HorizontalAlignment;
+import com.itextpdf.layout.properties.TextAlignment;
+import com.itextpdf.layout.properties.UnitValue;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Account statement (Kontoauszug) of one customer: all invoices in date order
+ * with their payment status and the running open balance.
+ * <p>
+ * Invoices are read from a forward-only JDBC cursor and added to an iText
+ * "large table" that is flushed every {@value #FLUSH_INTERVAL} rows, so finished
+ * pages are written to the output stream while the query is still running and
+ * memory use does not grow with the length of the customer's history.
+ */
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+public class StatementPdfService {
+
+    private static final int FLUSH_INTERVAL = 50;
+    private static final LocalDate EARLIEST = LocalDate.of(1900, 1, 1);
+    private static final LocalDate LATEST = LocalDate.of(9999, 12, 31);
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+
+    private static final String CUSTOMER_FILTER =
+            "FROM invoices i JOIN orders o ON o.id = i.order_id " +
+            "WHERE LOWER(TRIM(o.customer_name)) = ? AND i.issue_date >= ? AND i.issue_date <= ? ";
+
+    private static final String COUNT_QUERY = "SELECT COUNT(*) " + CUSTOMER_FILTER;
+
+    private static final String STATEMENT_QUERY =
+            "SELECT i.invoice_number, i.issue_date, COALESCE(i.due_date, i.issue_date) AS due_date, i.status, i.grand_total " +
+            CUSTOMER_FILTER +
+            "ORDER BY i.issue_date, i.id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PdfLetterhead letterhead;
+
+    public StatementPdfService(DataSource dataSource,
+                               PdfLetterhead letterhead,
+                               @Value("${app.export.fetch-size:500}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.letterhead = letterhead;
+    }
+
+    /**
+     * Number of invoices the statement would list; names are matched ignoring
+     * case and surrounding spaces.
+     */
+    public long countInvoices(String customer, LocalDate from, LocalDate to) {
+        Long count = jdbcTemplate.queryForObject(COUNT_QUERY, Long.class, customerArgs(customer, from, to));
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Writes the statement of {@code customer} for invoices issued between
+     * {@code from} and {@code to} (inclusive, both optional) to {@code out}.
+     *
+     * @return number of invoices listed
+     */
+    public int writeStatement(String customer, LocalDate from, LocalDate to, OutputStream out) {
+        LocalDate today = LocalDate.now();
+        int[] rows = {0};
+        BigDecimal[] totals = {BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO};
+
+        try {
+            PdfDocument pdf = new PdfDocument(new PdfWriter(out));
+            pdf.addEventHandler(PdfDocumentEvent.END_PAGE, new PageFooter());
+            Document document = new Document(pdf, PageSize.A4);
+            // Room at the bottom for the bank details and page number of every page
+            document.setMargins(40, 50, 110, 50);
+
+            document.add(letterhead.header());
+            document.add(new Paragraph("_".repeat(85))
+                    .setFontSize(10)
+                    .setMarginTop(10)
+                    .setMarginBottom(20));
+            document.add(new Paragraph("Kontoauszug")
+                    .setFontSize(14)
+                    .setBold()
+                    .setMarginBottom(20));
+            document.add(new Paragraph("Kunde: " + customer.trim())
+                    .setFontSize(11)
+                    .setMarginBottom(2));
+            document.add(new Paragraph("Zeitraum: " + formatPeriod(from, to))
+                    .setFontSize(11)
+                    .setMarginBottom(2));
+            document.add(new Paragraph("Stand: " + today.format(DATE_FORMAT))
+                    .setFontSize(11)
+                    .setMarginBottom(15));
+
+            Table table = new Table(UnitValue.createPercentArray(new float[]{1.2f, 1.8f, 1.2f, 1.2f, 1.3f, 1.3f}), true);
+            table.setWidth(UnitValue.createPercentValue(100));
+            addHeaderCell(table, "Datum", TextAlignment.LEFT);
+            addHeaderCell(table, "Rechnungsnummer", TextAlignment.LEFT);
+            addHeaderCell(table, "Fällig", TextAlignment.LEFT);
+            addHeaderCell(table, "Status", TextAlignment.LEFT);
+            addHeaderCell(table, "Betrag", TextAlignment.RIGHT);
+            addHeaderCell(table, "Offen gesamt", TextAlignment.RIGHT);
+            document.add(table);
+
+            jdbcTemplate.query(STATEMENT_QUERY, rs -> {
+                String status = rs.getString("status");
+                LocalDate dueDate = rs.getDate("due_date").toLocalDate();
+                BigDecimal amount = rs.getBigDecimal("grand_total");
+                amount = amount != null ? amount : BigDecimal.ZERO;
+
+                boolean open = "UNPAID".equals(status) || "OVERDUE".equals(status);
+                boolean overdue = open && ("OVERDUE".equals(status) || dueDate.isBefore(today));
+                if (!"CANCELLED".equals(status)) {
+                    totals[0] = totals[0].add(amount);
+                }
+                if ("PAID".equals(status)) {
+                    totals[1] = totals[1].add(amount);
+                }
+                if (open) {
+                    totals[2] = totals[2].add(amount);
+                }
+                if (overdue) {
+                    totals[3] = totals[3].add(amount);
+                }
+
+                addCell(table, rs.getDate("issue_date").toLocalDate().format(DATE_FORMAT), TextAlignment.LEFT);
+                addCell(table, rs.getString("invoice_number"), TextAlignment.LEFT);
+                addCell(table, dueDate.format(DATE_FORMAT), TextAlignment.LEFT);
+                addCell(table, overdue ? "überfällig" : statusLabel(status), TextAlignment.LEFT);
+                addCell(table, formatEuroAmount(amount), TextAlignment.RIGHT);
+                addCell(table, formatEuroAmount(totals[2]), TextAlignment.RIGHT);
+
+                // Lays out the rows added so far and releases them
+                if (++rows[0] % FLUSH_INTERVAL == 0) {
+                    table.flush();
+                }
+            }, customerArgs(customer, from, to));
+            table.complete();
+
+            Table summary = new Table(UnitValue.createPercentArray(new float[]{3, 1}));
+            summary.setWidth(UnitValue.createPercentValue(50));
+            summary.setHorizontalAlignment(HorizontalAlignment.RIGHT);
+            summary.setMarginTop(20);
+            addSummaryRow(summary, "Summe Rechnungen", totals[0], false);
+            addSummaryRow(summary, "davon bezahlt", totals[1], false);
+            addSummaryRow(summary, "davon überfällig", totals[3], false);
+            addSummaryRow(summary, "Offener Betrag", totals[2], true);
+            document.add(summary);
+
+            document.close();
+        } catch (RuntimeException e) {
+            log.error("Statement generation failed: customer={}, rows={}, error={}", customer, rows[0], e.getMessage(), e);
+            throw new RuntimeException("Error generating statement: " + e.getMessage(), e);
+        }
+
+        log.info("Generated statement: customer={}, from={}, to={}, invoices={}, open={}",
+                customer, from, to, rows[0], totals[2]);
+        return rows[0];
+    }
+
+    private static Object[] customerArgs(String customer, LocalDate from, LocalDate to) {
+        return new Object[]{
+                customer.trim().toLowerCase(),
+                Date.valueOf(from != null ? from : EARLIEST),
+                Date.valueOf(to != null ? to : LATEST)};
+    }
+
+    private static String formatPeriod(LocalDate from, LocalDate to) {
+        if (from == null && to == null) {
+            return "gesamt";
+        }
+        return (from != null ? from.format(DATE_FORMAT) : "Beginn") + " – " + (to != null ? to.format(DATE_FORMAT) : "heute");
+    }
+
+    private static String statusLabel(String status) {
+        return switch (status) {
+            case "PAID" -> "bezahlt";
+            case "CANCELLED" -> "storniert";
+            case "OVERDUE" -> "überfällig";
+            default -> "offen";
+        };
+    }
+
+    private static String formatEuroAmount(BigDecimal amount) {
+        return String.format("%.2f", amount).replace(".", ",") + " €";
+    }
+
+    private static void addHeaderCell(Table table, String text, TextAlignment alignment) {
+        Cell cell = new Cell();
+        cell.add(new Paragraph(text)
+                .setBold()
+                .setFontSize(10)
+                .setTextAlignment(alignment));
+        cell.setBorder(Border.NO_BORDER);
+        cell.setBorderBottom(new SolidBorder(ColorConstants.BLACK, 0.5f));
+        cell.setPaddingBottom(5);
+        table.addHeaderCell(cell);
+    }
+
+    private static void addCell(Table table, String text, TextAlignment alignment) {
+        Cell cell = new Cell();
+        cell.add(new Paragraph(text).setFontSize(10).setTextAlignment(alignment));
+        cell.setBorder(Border.NO_BORDER);
+        cell.setPaddingTop(3);
+        cell.setPaddingBottom(3);
+        table.addCell(cell);
+    }
+
+    private static void addSummaryRow(Table table, String label, BigDecimal amount, boolean bold) {
+        Paragraph labelParagraph = new Paragraph(label).setFontSize(10);
+        Paragraph amountParagraph = new Paragraph(formatEuroAmount(amount)).setFontSize(10).setTextAlignment(TextAlignment.RIGHT);
+        if (bold) {
+            labelParagraph.setBold();
+            amountParagraph.setBold();
+        }
+        table.addCell(new Cell().add(labelParagraph).setBorder(Border.NO_BORDER));
+        table.addCell(new Cell().add(amountParagraph).setBorder(Border.NO_BORDER));
+    }
+
+    /**
+     * Bank details and page number on every page. The total page count is not
+     * known while pages are still being streamed, so only the page number is shown.
+     */
+    private class PageFooter implements IEventHandler {
+
+        @Override
+        public void handleEvent(Event event) {
+            PdfDocumentEvent documentEvent = (PdfDocumentEvent) event;
+            PdfDocument pdf = documentEvent.getDocument();
+            PdfPage page = documentEvent.getPage();
+            Canvas canvas = new Canvas(new PdfCanvas(page), page.getPageSize());
+            canvas.add(letterhead.bankDetails(pdf));
+            canvas.add(new Paragraph("Seite " + pdf.getPageNumber(page))
+                    .setFontSize(9)
+                    .setTextAlignment(TextAlignment.CENTER)
+                    .setFixedPosition((page.getPageSize().getWidth() - 50) / 2, 25, 50));
+            canvas.close();
+        }
+    }
+}
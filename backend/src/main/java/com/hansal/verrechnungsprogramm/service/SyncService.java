@@ -0,0 +1,255 @@
+package com.hansal.verrechnungsprogramm.service;
+
+import com.hansal.verrechnungsprogramm.dto.SyncDTO;
+import com.hansal.verrechnungsprogramm.model.SyncEntityType;
+import com.hansal.verrechnungsprogramm.repository.InvoiceRepository;
+import com.hansal.verrechnungsprogramm.repository.OrderRepository;
+import com.hansal.verrechnungsprogramm.repository.ProductRepository;
+import com.hansal.verrechnungsprogramm.repository.SlaughterRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Change feed behind {@code /api/sync}: the last change of every product,
+ * slaughter, order and invoice in {@code sync_changes}, stamped with the global
+ * version of its transaction.
+ * <p>
+ * Entity writes are reported by {@code SyncChangeListener}; code that writes
+ * with JDBC or bulk JPQL calls {@link #markChanged} itself. Deletions stay as
+ * tombstones for {@code app.sync.tombstone-retention-days}; clients that last
+ * synced before the oldest pruned tombstone get a full snapshot instead.
+ */
+@Slf4j
+@Service
+public class SyncService {
+
+    private static final Object RECORDED_KEY = SyncService.class.getName() + ".recorded";
+
+    // An UPDATE followed by an INSERT would let two transactions both insert
+    private static final String UPSERT_POSTGRES =
+            "INSERT INTO sync_changes (entity_type, entity_id, version, deleted, changed_at) VALUES (?, ?, ?, ?, ?) " +
+            "ON CONFLICT (entity_type, entity_id) DO UPDATE SET " +
+            "version = EXCLUDED.version, deleted = EXCLUDED.deleted, changed_at = EXCLUDED.changed_at";
+    private static final String UPSERT_MERGE =
+            "MERGE INTO sync_changes (entity_type, entity_id, version, deleted, changed_at) " +
+            "KEY (entity_type, entity_id) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TableVersionService tableVersionService;
+    private final ProductRepository productRepository;
+    private final SlaughterRepository slaughterRepository;
+    private final OrderRepository orderRepository;
+    private final InvoiceRepository invoiceRepository;
+    private final int tombstoneRetentionDays;
+    private boolean postgres;
+
+    public SyncService(JdbcTemplate jdbcTemplate,
+                       TableVersionService tableVersionService,
+                       ProductRepository productRepository,
+                       SlaughterRepository slaughterRepository,
+                       OrderRepository orderRepository,
+                       InvoiceRepository invoiceRepository,
+                       @Value("${app.sync.tombstone-retention-days:90}") int tombstoneRetentionDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tableVersionService = tableVersionService;
+        this.productRepository = productRepository;
+        this.slaughterRepository = slaughterRepository;
+        this.orderRepository = orderRepository;
+        this.invoiceRepository = invoiceRepository;
+        this.tombstoneRetentionDays = tombstoneRetentionDays;
+    }
+
+    @PostConstruct
+    public void detectDatabase() {
+        String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        postgres = "PostgreSQL".equals(product);
+    }
+
+    /**
+     * Records that the current transaction inserted or updated the given entities.
+     */
+    public void markChanged(SyncEntityType type, Collection<Long> ids) {
+        ids.forEach(id -> record(type, id, false));
+    }
+
+    public void markChanged(SyncEntityType type, Long id) {
+        record(type, id, false);
+    }
+
+    /**
+     * Records that the current transaction deleted the given entity.
+     */
+    public void markDeleted(SyncEntityType type, Long id) {
+        record(type, id, true);
+    }
+
+    /**
+     * Records a change of the slaughters owning the given meat cuts, for bulk
+     * updates of their available weight.
+     */
+    public void markMeatCutsChanged(Collection<Long> meatCutIds) {
+        if (meatCutIds.isEmpty()) {
+            return;
+        }
+        List<Long> slaughterIds = jdbcTemplate.queryForList("SELECT DISTINCT slaughter_id FROM meat_cuts WHERE id IN ("
+                + String.join(", ", Collections.nCopies(meatCutIds.size(), "?")) + ")", Long.class, meatCutIds.toArray());
+        markChanged(SyncEntityType.SLAUGHTER, slaughterIds);
+    }
+
+    /**
+     * Entities changed after the given version, or all entities if the client
+     * has no version yet or its version is older than the retained tombstones.
+     */
+    @Transactional(readOnly = true)
+    public SyncDTO getChangesSince(long since) {
+        // Later versions may belong to transactions that commit after this read
+        long version = tableVersionService.committedVersion();
+        long prunedVersion = jdbcTemplate.queryForList("SELECT pruned_version FROM sync_state WHERE id = 1", Long.class)
+                .stream()
+                .findFirst()
+                .orElse(0L);
+
+        if (since <= 0 || since < prunedVersion || since > version) {
+            SyncDTO snapshot = new SyncDTO(version, true,
+                    productRepository.findAll(),
+                    slaughterRepository.findAll(),
+                    orderRepository.findAllWithItems(),
+                    invoiceRepository.findAll(),
+                    new SyncDTO.Deleted(List.of(), List.of(), List.of(), List.of()));
+            log.info("Sync snapshot: since={}, version={}", since, version);
+            return snapshot;
+        }
+
+        Map<SyncEntityType, List<Long>> changed = new EnumMap<>(SyncEntityType.class);
+        Map<SyncEntityType, List<Long>> deleted = new EnumMap<>(SyncEntityType.class);
+        for (SyncEntityType type : SyncEntityType.values()) {
+            changed.put(type, new ArrayList<>());
+            deleted.put(type, new ArrayList<>());
+        }
+        jdbcTemplate.query("SELECT entity_type, entity_id, deleted FROM sync_changes "
+                        + "WHERE version > ? AND version <= ? ORDER BY version, entity_id",
+                rs -> {
+                    SyncEntityType type = SyncEntityType.valueOf(rs.getString("entity_type"));
+                    (rs.getBoolean("deleted") ? deleted : changed).get(type).add(rs.getLong("entity_id"));
+                },
+                since, version);
+
+        SyncDTO changes = new SyncDTO(version, false,
+                changed.get(SyncEntityType.PRODUCT).isEmpty() ? List.of()
+                        : productRepository.findAllById(changed.get(SyncEntityType.PRODUCT)),
+                changed.get(SyncEntityType.SLAUGHTER).isEmpty() ? List.of()
+                        : slaughterRepository.findByIdIn(changed.get(SyncEntityType.SLAUGHTER)),
+                changed.get(SyncEntityType.ORDER).isEmpty() ? List.of()
+                        : orderRepository.findByIdIn(changed.get(SyncEntityType.ORDER)),
+                changed.get(SyncEntityType.INVOICE).isEmpty() ? List.of()
+                        : invoiceRepository.findByIdIn(changed.get(SyncEntityType.INVOICE)),
+                new SyncDTO.Deleted(
+                        deleted.get(SyncEntityType.PRODUCT),
+                        deleted.get(SyncEntityType.SLAUGHTER),
+                        deleted.get(SyncEntityType.ORDER),
+                        deleted.get(SyncEntityType.INVOICE)));
+        log.info("Sync changes: since={}, version={}, changed={}, deleted={}", since, version,
+                changed.values().stream().mapToInt(List::size).sum(),
+                deleted.values().stream().mapToInt(List::size).sum());
+        return changes;
+    }
+
+    /**
+     * Removes tombstones past the retention period.
+     */
+    @Scheduled(cron = "${app.sync.prune-cron:0 15 4 * * *}")
+    @Transactional
+    public int pruneTombstones() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusDays(tombstoneRetentionDays));
+        Long prunedVersion = jdbcTemplate.queryForObject(
+                "SELECT MAX(version) FROM sync_changes WHERE deleted = TRUE AND changed_at < ?", Long.class, cutoff);
+        if (prunedVersion == null) {
+            return 0;
+        }
+        int removed = jdbcTemplate.update(
+                "DELETE FROM sync_changes WHERE deleted = TRUE AND version <= ?", prunedVersion);
+        raisePrunedVersion(prunedVersion);
+        log.info("Pruned sync tombstones: count={}, prunedVersion={}", removed, prunedVersion);
+        return removed;
+    }
+
+    /**
+     * Sends every client to a full snapshot on its next sync, for when the
+     * recorded changes were dropped wholesale (database reset).
+     */
+    public void requireSnapshot() {
+        long version = tableVersionService.transactionVersion();
+        raisePrunedVersion(version);
+        log.info("Sync snapshot required: prunedVersion={}", version);
+    }
+
+    private void raisePrunedVersion(long prunedVersion) {
+        int updated = jdbcTemplate.update("UPDATE sync_state SET pruned_version = ? WHERE id = 1 AND pruned_version < ?",
+                prunedVersion, prunedVersion);
+        if (updated == 0 && jdbcTemplate.queryForObject("SELECT COUNT(*) FROM sync_state", Integer.class) == 0) {
+            // Created by the migration; this only happens on schemas created by Hibernate
+            jdbcTemplate.update("INSERT INTO sync_state (id, current_version, pruned_version) VALUES (1, 0, ?)", prunedVersion);
+            log.debug("Created sync state");
+        }
+    }
+
+    private void record(SyncEntityType type, Long id, boolean deleted) {
+        if (id == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // A deletion is final; later changes of the same entity in this transaction come from its children
+            Map<String, Boolean> recorded = recorded();
+            String key = type + ":" + id;
+            Boolean previous = recorded.get(key);
+            if (previous != null && (previous || !deleted)) {
+                return;
+            }
+            recorded.put(key, deleted);
+        }
+
+        long version = tableVersionService.transactionVersion();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        if (postgres) {
+            jdbcTemplate.update(UPSERT_POSTGRES, type.name(), id, version, deleted, now);
+            return;
+        }
+        try {
+            jdbcTemplate.update(UPSERT_MERGE, type.name(), id, version, deleted, now);
+        } catch (DuplicateKeyException e) {
+            // H2 merges without a lock on the missing key; the second attempt updates the row inserted meanwhile
+            jdbcTemplate.update(UPSERT_MERGE, type.name(), id, version, deleted, now);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Boolean> recorded() {
+        Map<String, Boolean> recorded = (Map<String, Boolean>) TransactionSynchronizationManager.getResource(RECORDED_KEY);
+        if (recorded == null) {
+            Map<String, Boolean> newRecorded = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(RECORDED_KEY, newRecorded);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(RECORDED_KEY);
+                }
+            });
+            recorded = newRecorded;
+        }
+        return recorded;
+    }
+}
@@ -0,0 +1,204 @@
+package com.hansal.verrechnungsprogramm.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Per-table change counters in {@code table_versions}, the basis of the ETags of
+ * the read endpoints.
+ * <p>
+ * Entity writes are reported by {@code TableVersionListener}; code that writes
+ * with JDBC or bulk JPQL calls {@link #markChanged} itself. The counter of a
+ * table is incremented once per transaction, in the same transaction as the
+ * change, so a version is never visible without its data and vice versa. The
+ * increments run just before the commit, after Hibernate's last flush, in table
+ * name order: the counter rows stay locked only for the commit, and writers
+ * lock them in the same order, so they cannot deadlock.
+ * <p>
+ * With its first change a transaction also takes a global version for the sync
+ * feed from {@code sync_version_seq} (see {@link #transactionVersion()}), which
+ * takes no lock. Versions can therefore commit out of order, so the feed reads
+ * only up to {@link #committedVersion()}, the version below the oldest one still
+ * in flight. In-flight versions are tracked in memory, which like the other
+ * in-memory caches assumes a single backend instance.
+ */
+@Slf4j
+@Service
+public class TableVersionService {
+
+    /** Tables whose changes are counted; writes to other tables are ignored. */
+    public static final Set<String> TRACKED_TABLES = Set.of(
+            "products", "slaughters", "meat_cuts", "orders", "order_items", "meat_cut_allocations", "invoices");
+
+    private static final Object TRANSACTION_KEY = TableVersionService.class.getName() + ".transaction";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    // Versions of transactions that have not completed yet; guarded by itself
+    private final NavigableSet<Long> inFlight = new TreeSet<>();
+    private long highestVersion;
+
+    public TableVersionService(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @PostConstruct
+    public void createSequence() {
+        // Created by the migration; this only matters on schemas created by Hibernate
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS sync_version_seq");
+    }
+
+    /** Combined version of a set of tables. */
+    public record Snapshot(String tag, LocalDateTime lastModified) {
+    }
+
+    /**
+     * Records that the current transaction changed the given table.
+     */
+    public void markChanged(String table) {
+        if (!TRACKED_TABLES.contains(table)) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            increment(table);
+            return;
+        }
+        TransactionChanges changes = currentTransaction();
+        if (changes.changedTables.add(table) && !changes.incrementAtCommit) {
+            increment(table);
+        }
+    }
+
+    /**
+     * Global version of the current transaction's changes, allocated with its
+     * first change. Outside a transaction every call allocates a new version,
+     * which counts as committed right away.
+     */
+    public long transactionVersion() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            long version = allocateVersion();
+            completeVersion(version);
+            return version;
+        }
+        return currentTransaction().version;
+    }
+
+    /**
+     * Highest version up to which all transactions have completed. Changes
+     * stamped with a higher version may still be uncommitted.
+     */
+    public long committedVersion() {
+        synchronized (inFlight) {
+            if (highestVersion == 0) {
+                // Nothing allocated since the start; all earlier versions are done
+                highestVersion = nextVersion();
+            }
+            return inFlight.isEmpty() ? highestVersion : inFlight.first() - 1;
+        }
+    }
+
+    /**
+     * Reads the versions of the given tables with one query. The tag changes
+     * whenever any of the tables changes.
+     */
+    public Snapshot snapshot(List<String> tables) {
+        Map<String, Long> versions = new HashMap<>();
+        LocalDateTime[] lastModified = {null};
+        jdbcTemplate.query("SELECT table_name, version, updated_at FROM table_versions WHERE table_name IN ("
+                        + String.join(", ", Collections.nCopies(tables.size(), "?")) + ")",
+                rs -> {
+                    versions.put(rs.getString("table_name"), rs.getLong("version"));
+                    LocalDateTime updatedAt = rs.getTimestamp("updated_at").toLocalDateTime();
+                    if (lastModified[0] == null || updatedAt.isAfter(lastModified[0])) {
+                        lastModified[0] = updatedAt;
+                    }
+                },
+                tables.toArray());
+
+        StringJoiner tag = new StringJoiner(".");
+        tables.forEach(table -> tag.add(String.valueOf(versions.getOrDefault(table, 0L))));
+        return new Snapshot(tag.toString(), lastModified[0]);
+    }
+
+    private void increment(String table) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int updated = jdbcTemplate.update(
+                "UPDATE table_versions SET version = version + 1, updated_at = ? WHERE table_name = ?", now, table);
+        if (updated == 0) {
+            // Rows are created by the migration; this only happens on schemas created by Hibernate
+            jdbcTemplate.update("INSERT INTO table_versions (table_name, version, updated_at) VALUES (?, 1, ?)", table, now);
+            log.debug("Created table version: table={}", table);
+        }
+    }
+
+    /**
+     * Takes the next version from the sequence. The statement runs on the
+     * caller's connection and takes no lock, so the monitor is held only briefly.
+     */
+    private long allocateVersion() {
+        synchronized (inFlight) {
+            long version = nextVersion();
+            inFlight.add(version);
+            highestVersion = Math.max(highestVersion, version);
+            return version;
+        }
+    }
+
+    private void completeVersion(long version) {
+        synchronized (inFlight) {
+            inFlight.remove(version);
+        }
+    }
+
+    private long nextVersion() {
+        return jdbcTemplate.queryForObject("SELECT nextval('sync_version_seq')", Long.class);
+    }
+
+    private TransactionChanges currentTransaction() {
+        TransactionChanges changes = (TransactionChanges) TransactionSynchronizationManager.getResource(TRANSACTION_KEY);
+        if (changes == null) {
+            TransactionChanges newChanges = new TransactionChanges(allocateVersion());
+            TransactionSynchronizationManager.bindResource(TRANSACTION_KEY, newChanges);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(TRANSACTION_KEY);
+                    completeVersion(newChanges.version);
+                }
+            });
+            EntityManagerHolder holder = (EntityManagerHolder) TransactionSynchronizationManager.getResource(entityManagerFactory);
+            if (holder != null) {
+                // Runs after the flush at commit, so it also sees the tables of that flush
+                holder.getEntityManager().unwrap(SessionImplementor.class).getActionQueue().registerProcess(session ->
+                        newChanges.changedTables.stream().sorted().forEach(this::increment));
+                newChanges.incrementAtCommit = true;
+            }
+            changes = newChanges;
+        }
+        return changes;
+    }
+
+    private static final class TransactionChanges {
+        private final long version;
+        private final Set<String> changedTables = new HashSet<>();
+        // Without a Hibernate session the counters are incremented with the change
+        private boolean incrementAtCommit;
+
+        private TransactionChanges(long version) {
+            this.version = version;
+        }
+    }
+}
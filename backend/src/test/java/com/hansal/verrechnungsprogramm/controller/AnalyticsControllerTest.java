@@ -0,0 +1,76 @@
+package com.hansal.verrechnungsprogramm.controller;
+
+import com.hansal.verrechnungsprogramm.dto.SalesAnalyticsRowDTO;
+import com.hansal.verrechnungsprogramm.service.SalesAnalyticsService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(AnalyticsController.class)
+@WithMockUser
+class AnalyticsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private SalesAnalyticsService salesAnalyticsService;
+
+    @Test
+    @DisplayName("GET /api/analytics/sales - Should group by the requested dimensions")
+    void getSales_ShouldReturnGroupedRows() throws Exception {
+        SalesAnalyticsRowDTO row = new SalesAnalyticsRowDTO(Map.of("month", "2024-03"), 4L,
+                new BigDecimal("12.500"), new BigDecimal("250.00"), new BigDecimal("100.00"));
+        when(salesAnalyticsService.querySales(any(), any(), any(), any(), any(), any())).thenReturn(List.of(row));
+
+        mockMvc.perform(get("/api/analytics/sales")
+                        .param("from", "2024-01-01")
+                        .param("to", "2024-12-31")
+                        .param("groupBy", "MONTH,PRODUCT")
+                        .param("meatCutType", "Rind"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].group.month", is("2024-03")))
+                .andExpect(jsonPath("$[0].revenue", is(250.00)));
+
+        verify(salesAnalyticsService).querySales(eq(LocalDate.of(2024, 1, 1)), eq(LocalDate.of(2024, 12, 31)),
+                eq(List.of(SalesAnalyticsService.Dimension.MONTH, SalesAnalyticsService.Dimension.PRODUCT)),
+                isNull(), eq("Rind"), isNull());
+    }
+
+    @Test
+    @DisplayName("GET /api/analytics/sales - Should reject a reversed date range")
+    void getSales_ReversedRange_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/analytics/sales")
+                        .param("from", "2024-12-31")
+                        .param("to", "2024-01-01"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("POST /api/analytics/sales/rebuild - Should rebuild the rollups")
+    void rebuildSales_ShouldReturnRowCount() throws Exception {
+        when(salesAnalyticsService.rebuildAll()).thenReturn(7);
+
+        mockMvc.perform(post("/api/analytics/sales/rebuild").with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rows", is(7)));
+    }
+}
@@ -0,0 +1,80 @@
+package com.hansal.verrechnungsprogramm.controller;
+
+import com.hansal.verrechnungsprogramm.dto.BulkItemResultDTO;
+import com.hansal.verrechnungsprogramm.dto.BulkResultDTO;
+import com.hansal.verrechnungsprogramm.model.OrderStatus;
+import com.hansal.verrechnungsprogramm.service.BulkMutationService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(BulkController.class)
+@WithMockUser
+class BulkControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private BulkMutationService bulkMutationService;
+
+    @Test
+    @DisplayName("POST /api/bulk/products - Should return one result per product")
+    void createProducts_ShouldReturnItemResults() throws Exception {
+        when(bulkMutationService.createProducts(anyList())).thenReturn(new BulkResultDTO(2, 1, 1, List.of(
+                new BulkItemResultDTO(0, 7L, BulkItemResultDTO.Status.CREATED, null),
+                new BulkItemResultDTO(1, null, BulkItemResultDTO.Status.FAILED, "Price is required"))));
+
+        mockMvc.perform(post("/api/bulk/products")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"name\": \"Speck\", \"price\": 20.00}, {\"name\": \"Honig\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded", is(1)))
+                .andExpect(jsonPath("$.items[0].id", is(7)))
+                .andExpect(jsonPath("$.items[1].status", is("FAILED")))
+                .andExpect(jsonPath("$.items[1].error", is("Price is required")));
+    }
+
+    @Test
+    @DisplayName("POST /api/bulk/orders/status - Should update the given orders")
+    void updateOrderStatuses_ShouldPassIdsAndStatus() throws Exception {
+        when(bulkMutationService.updateOrderStatuses(List.of(1L, 2L), OrderStatus.COMPLETED))
+                .thenReturn(new BulkResultDTO(2, 2, 0, List.of(
+                        new BulkItemResultDTO(0, 1L, BulkItemResultDTO.Status.UPDATED, null),
+                        new BulkItemResultDTO(1, 2L, BulkItemResultDTO.Status.UPDATED, null))));
+
+        mockMvc.perform(post("/api/bulk/orders/status")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"orderIds\": [1, 2], \"status\": \"COMPLETED\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.failed", is(0)));
+    }
+
+    @Test
+    @DisplayName("POST /api/bulk/orders/status - Should reject requests without status")
+    void updateOrderStatuses_WithoutStatus_ShouldReturn400() throws Exception {
+        mockMvc.perform(post("/api/bulk/orders/status")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"orderIds\": [1, 2]}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(bulkMutationService);
+    }
+}
@@ -0,0 +1,90 @@
+package com.hansal.verrechnungsprogramm.controller;
+
+import com.hansal.verrechnungsprogramm.service.InvoiceExportService;
+import com.hansal.verrechnungsprogramm.service.SpreadsheetExportService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.Writer;
+import java.time.LocalDate;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ExportController.class)
+@WithMockUser
+class ExportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private InvoiceExportService invoiceExportService;
+
+    @MockBean
+    private SpreadsheetExportService spreadsheetExportService;
+
+    @Test
+    @DisplayName("GET /api/export/invoices - Should stream CSV with date range")
+    void exportInvoices_ShouldWriteCsv() throws Exception {
+        when(invoiceExportService.exportInvoices(any(), any(), any(), any())).thenAnswer(invocation -> {
+            Writer writer = invocation.getArgument(3);
+            writer.write("Rechnungsnummer\r\n");
+            return 0;
+        });
+
+        mockMvc.perform(get("/api/export/invoices")
+                        .param("from", "2024-01-01")
+                        .param("to", "2024-12-31"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(header().string("Content-Disposition", containsString("rechnungen_")))
+                .andExpect(content().string(startsWith("Rechnungsnummer")));
+
+        verify(invoiceExportService).exportInvoices(eq(InvoiceExportService.Format.CSV),
+                eq(LocalDate.of(2024, 1, 1)), eq(LocalDate.of(2024, 12, 31)), any());
+    }
+
+    @Test
+    @DisplayName("GET /api/export/invoices?format=DATEV - Should use DATEV file name and encoding")
+    void exportInvoices_Datev_ShouldUseAnsiEncoding() throws Exception {
+        mockMvc.perform(get("/api/export/invoices").param("format", "DATEV"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", containsString("EXTF_Buchungsstapel_")))
+                .andExpect(header().string("Content-Type", containsString("windows-1252")));
+
+        verify(invoiceExportService).exportInvoices(eq(InvoiceExportService.Format.DATEV), isNull(), isNull(), any());
+    }
+
+    @Test
+    @DisplayName("GET /api/export/orders - Should stream an xlsx attachment")
+    void exportOrders_ShouldReturnSpreadsheet() throws Exception {
+        mockMvc.perform(get("/api/export/orders").param("from", "2024-01-01"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
+                .andExpect(header().string("Content-Disposition", containsString("bestellungen_")));
+
+        verify(spreadsheetExportService).exportOrders(eq(LocalDate.of(2024, 1, 1)), isNull(), any());
+    }
+
+    @Test
+    @DisplayName("GET /api/export/stock - Should stream an xlsx attachment")
+    void exportStock_ShouldReturnSpreadsheet() throws Exception {
+        mockMvc.perform(get("/api/export/stock"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", containsString("lagerstand_")));
+
+        verify(spreadsheetExportService).exportStock(any());
+    }
+}
@@ -1,17 +1,24 @@
 package com.hansal.verrechnungsprogramm.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hansal.verrechnungsprogramm.dto.BulkInvoiceRequestDTO;
+import com.hansal.verrechnungsprogramm.dto.BulkInvoiceResultDTO;
+import com.hansal.verrechnungsprogramm.dto.PdfJobStatusDTO;
 import com.hansal.verrechnungsprogramm.model.Invoice;
 import com.hansal.verrechnungsprogramm.model.InvoiceStatus;
 import com.hansal.verrechnungsprogramm.model.Order;
 import com.hansal.verrechnungsprogramm.model.OrderStatus;
+import com.hansal.verrechnungsprogramm.service.BulkInvoiceService;
 import com.hansal.verrechnungsprogramm.service.InvoiceService;
+import com.hansal.verrechnungsprogramm.service.PdfJobService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -44,6 +51,12 @@ class InvoiceControllerTest {
     @MockBean
     private InvoiceService invoiceService;
 
+    @MockBean
+    private BulkInvoiceService bulkInvoiceService;
+
+    @MockBean
+    private PdfJobService pdfJobService;
+
     private Invoice testInvoice;
     private Order testOrder;
     private List<Invoice> testInvoices;
@@ -257,4 +270,110 @@ class InvoiceControllerTest {
 
         verify(invoiceService, times(1)).getAllInvoices();
     }
+
+    @Test
+    @DisplayName("POST /api/invoices/batch/pdf/jobs - Should accept job and return its location")
+    void submitCombinedPdfJob_ShouldReturnAccepted() throws Exception {
+        List<Long> invoiceIds = Arrays.asList(1L, 2L);
+        when(pdfJobService.submit(invoiceIds)).thenReturn(jobStatus(PdfJobStatusDTO.State.QUEUED, 0));
+
+        mockMvc.perform(post("/api/invoices/batch/pdf/jobs")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(invoiceIds)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/invoices/batch/pdf/jobs/job-1"))
+                .andExpect(jsonPath("$.state", is("QUEUED")))
+                .andExpect(jsonPath("$.total", is(2)));
+    }
+
+    @Test
+    @DisplayName("POST /api/invoices/batch/pdf/jobs - Should return 503 when the job queue is full")
+    void submitCombinedPdfJob_WhenQueueFull_ShouldReturnServiceUnavailable() throws Exception {
+        when(pdfJobService.submit(any())).thenThrow(new TaskRejectedException("queue full"));
+
+        mockMvc.perform(post("/api/invoices/batch/pdf/jobs")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(1L))))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().exists("Retry-After"));
+    }
+
+    @Test
+    @DisplayName("GET /api/invoices/batch/pdf/jobs/{id} - Should return progress")
+    void getCombinedPdfJob_ShouldReturnProgress() throws Exception {
+        when(pdfJobService.getStatus("job-1")).thenReturn(Optional.of(jobStatus(PdfJobStatusDTO.State.RUNNING, 1)));
+
+        mockMvc.perform(get("/api/invoices/batch/pdf/jobs/job-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state", is("RUNNING")))
+                .andExpect(jsonPath("$.completed", is(1)))
+                .andExpect(jsonPath("$.total", is(2)));
+    }
+
+    @Test
+    @DisplayName("GET /api/invoices/batch/pdf/jobs/{id}/download - Should return 409 while rendering")
+    void downloadCombinedPdfJob_WhenNotDone_ShouldReturnConflict() throws Exception {
+        when(pdfJobService.getStatus("job-1")).thenReturn(Optional.of(jobStatus(PdfJobStatusDTO.State.RUNNING, 1)));
+        when(pdfJobService.getResult("job-1")).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/invoices/batch/pdf/jobs/job-1/download"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    @DisplayName("GET /api/invoices/batch/pdf/jobs/{id}/download - Should stream finished PDF")
+    void downloadCombinedPdfJob_WhenDone_ShouldReturnPdf() throws Exception {
+        when(pdfJobService.getStatus("job-1")).thenReturn(Optional.of(jobStatus(PdfJobStatusDTO.State.DONE, 2)));
+        when(pdfJobService.getResult("job-1")).thenReturn(Optional.of(new ByteArrayResource("%PDF-1.7".getBytes())));
+
+        mockMvc.perform(get("/api/invoices/batch/pdf/jobs/job-1/download"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_PDF))
+                .andExpect(header().exists("Content-Disposition"));
+    }
+
+    @Test
+    @DisplayName("GET /api/invoices/batch/pdf/jobs/{id} - Should return 404 for unknown job")
+    void getCombinedPdfJob_WhenUnknown_ShouldReturnNotFound() throws Exception {
+        when(pdfJobService.getStatus("missing")).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/invoices/batch/pdf/jobs/missing"))
+                .andExpect(status().isNotFound());
+    }
+
+    private PdfJobStatusDTO jobStatus(PdfJobStatusDTO.State state, int completed) {
+        return new PdfJobStatusDTO("job-1", state, completed, 2, null, LocalDateTime.now(), null, null);
+    }
+
+    @Test
+    @DisplayName("POST /api/invoices/bulk - Should return summary and chain PDF job")
+    void createInvoicesInBulk_ShouldReturnSummary() throws Exception {
+        BulkInvoiceRequestDTO request = new BulkInvoiceRequestDTO(List.of(1L, 2L, 3L), null, null, null, true);
+        when(bulkInvoiceService.createInvoices(any()))
+                .thenReturn(new BulkInvoiceResultDTO(3, List.of(10L, 11L), List.of(3L), List.of(), null));
+        when(pdfJobService.submit(List.of(10L, 11L))).thenReturn(jobStatus(PdfJobStatusDTO.State.QUEUED, 0));
+
+        mockMvc.perform(post("/api/invoices/bulk")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.invoiceIds", hasSize(2)))
+                .andExpect(jsonPath("$.skippedOrderIds[0]", is(3)))
+                .andExpect(jsonPath("$.pdfJobId", is("job-1")));
+    }
+
+    @Test
+    @DisplayName("POST /api/invoices/bulk - Should return bad request without ids or filter")
+    void createInvoicesInBulk_WithoutSelection_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post("/api/invoices/bulk")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+
+        verify(bulkInvoiceService, never()).createInvoices(any());
+    }
 }
@@ -2,8 +2,10 @@ package com.hansal.verrechnungsprogramm.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hansal.verrechnungsprogramm.dto.CustomerDTO;
+import com.hansal.verrechnungsprogramm.dto.MeatCutAllocationDTO;
 import com.hansal.verrechnungsprogramm.model.Order;
 import com.hansal.verrechnungsprogramm.model.OrderStatus;
+import com.hansal.verrechnungsprogramm.service.MeatCutAllocationService;
 import com.hansal.verrechnungsprogramm.service.OrderService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -16,6 +18,7 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
@@ -41,6 +44,9 @@ class OrderControllerTest {
     @MockBean
     private OrderService orderService;
 
+    @MockBean
+    private MeatCutAllocationService meatCutAllocationService;
+
     private Order testOrder;
     private List<Order> testOrders;
     private CustomerDTO testCustomer;
@@ -230,4 +236,22 @@ class OrderControllerTest {
 
         verify(orderService, times(1)).getAllOrders();
     }
+
+    @Test
+    @DisplayName("GET /api/orders/{id}/allocations - Should return carcass allocations of the order")
+    void getOrderAllocations_ShouldReturnAllocations() throws Exception {
+        MeatCutAllocationDTO older = new MeatCutAllocationDTO(1L, 10L, 5L, "Rindfleisch", "AT-1111111", "COW-001",
+                LocalDate.of(2024, 1, 10), new BigDecimal("2.000"), LocalDateTime.now());
+        MeatCutAllocationDTO newer = new MeatCutAllocationDTO(2L, 10L, 7L, "Rindfleisch", "AT-2222222", "COW-002",
+                LocalDate.of(2024, 2, 10), new BigDecimal("1.500"), LocalDateTime.now());
+        when(meatCutAllocationService.getAllocationsByOrder(1L)).thenReturn(List.of(older, newer));
+
+        mockMvc.perform(get("/api/orders/1/allocations"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].cowTag", is("AT-1111111")))
+                .andExpect(jsonPath("$[1].meatCutId", is(7)));
+
+        verify(meatCutAllocationService, times(1)).getAllocationsByOrder(1L);
+    }
 }
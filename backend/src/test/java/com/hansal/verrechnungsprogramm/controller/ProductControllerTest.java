@@ -133,9 +133,7 @@ class ProductControllerTest {
     @Test
     @DisplayName("POST /api/products/bulk - Should create multiple products")
     void createProducts_ShouldReturnCreatedProducts() throws Exception {
-        when(productService.createProduct(any(Product.class)))
-                .thenReturn(testProduct)
-                .thenReturn(testProducts.get(1));
+        when(productService.createProducts(anyList())).thenReturn(testProducts);
 
         mockMvc.perform(post("/api/products/bulk")
                         .with(csrf())
@@ -144,7 +142,7 @@ class ProductControllerTest {
                 .andExpect(status().isCreated())
                 .andExpect(jsonPath("$", hasSize(2)));
 
-        verify(productService, times(2)).createProduct(any(Product.class));
+        verify(productService, times(1)).createProducts(anyList());
     }
 
     @Test
@@ -183,17 +181,16 @@ class ProductControllerTest {
     @Test
     @DisplayName("GET /api/products/with-stock - Should return all products with stock")
     void getAllProductsWithStock_ShouldReturnProductsWithStock() throws Exception {
-        when(productService.getAllProducts()).thenReturn(testProducts);
-        when(productService.getAvailableStock(any(Product.class)))
-                .thenReturn(new BigDecimal("50.00"));
+        when(productService.getAllProductsWithStock()).thenReturn(testProducts.stream()
+                .map(product -> ProductWithStockDTO.fromProduct(product, new BigDecimal("50.00")))
+                .toList());
 
         mockMvc.perform(get("/api/products/with-stock"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(2)))
                 .andExpect(jsonPath("$[0].availableStock", is(50.00)));
 
-        verify(productService, times(1)).getAllProducts();
-        verify(productService, times(2)).getAvailableStock(any(Product.class));
+        verify(productService, times(1)).getAllProductsWithStock();
     }
 
     @Test
@@ -0,0 +1,107 @@
+package com.hansal.verrechnungsprogramm.controller;
+
+import com.hansal.verrechnungsprogramm.dto.CustomerAgingDTO;
+import com.hansal.verrechnungsprogramm.dto.ReceivablesAgingDTO;
+import com.hansal.verrechnungsprogramm.model.OverdueInvoice;
+import com.hansal.verrechnungsprogramm.service.ReceivablesService;
+import com.hansal.verrechnungsprogramm.service.StatementPdfService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ReceivablesController.class)
+@WithMockUser
+class ReceivablesControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ReceivablesService receivablesService;
+
+    @MockBean
+    private StatementPdfService statementPdfService;
+
+    @Test
+    @DisplayName("GET /api/receivables/aging - Should return the report for the given day")
+    void getAgingReport_ShouldUseAsOfDate() throws Exception {
+        LocalDate asOf = LocalDate.of(2024, 6, 30);
+        CustomerAgingDTO customer = new CustomerAgingDTO("Max Mustermann", 2, BigDecimal.ZERO,
+                new BigDecimal("22.00"), BigDecimal.ZERO, new BigDecimal("11.00"), new BigDecimal("33.00"),
+                LocalDate.of(2024, 3, 1));
+        when(receivablesService.getAgingReport(asOf)).thenReturn(new ReceivablesAgingDTO(asOf, List.of(customer), customer));
+
+        mockMvc.perform(get("/api/receivables/aging").param("asOf", "2024-06-30"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customers", hasSize(1)))
+                .andExpect(jsonPath("$.customers[0].overdueOver60", is(11.00)))
+                .andExpect(jsonPath("$.total.total", is(33.00)));
+    }
+
+    @Test
+    @DisplayName("GET /api/receivables/overdue - Should return the dunning list")
+    void getOverdueInvoices_ShouldReturnList() throws Exception {
+        OverdueInvoice overdue = new OverdueInvoice(5L, "INV-2024-000005", "Max Mustermann", null, null,
+                LocalDate.of(2024, 5, 1), LocalDate.of(2024, 5, 15), new BigDecimal("22.00"), 46, LocalDate.of(2024, 6, 30));
+        when(receivablesService.getOverdueInvoices(30)).thenReturn(List.of(overdue));
+
+        mockMvc.perform(get("/api/receivables/overdue").param("minDaysOverdue", "30"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].invoiceNumber", is("INV-2024-000005")))
+                .andExpect(jsonPath("$[0].daysOverdue", is(46)));
+    }
+
+    @Test
+    @DisplayName("POST /api/receivables/overdue/refresh - Should recompute the dunning list")
+    void refreshOverdueInvoices_ShouldReturnCount() throws Exception {
+        when(receivablesService.refreshOverdueInvoices()).thenReturn(4);
+
+        mockMvc.perform(post("/api/receivables/overdue/refresh").with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count", is(4)));
+    }
+
+    @Test
+    @DisplayName("GET /api/receivables/statement - Should stream the statement as PDF")
+    void getStatement_ShouldWritePdf() throws Exception {
+        when(statementPdfService.countInvoices("Max Mustermann", LocalDate.of(2024, 1, 1), null)).thenReturn(3L);
+
+        mockMvc.perform(get("/api/receivables/statement")
+                        .param("customer", "Max Mustermann")
+                        .param("from", "2024-01-01"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/pdf"))
+                .andExpect(header().string("Content-Disposition", containsString("Kontoauszug_Max_Mustermann_")));
+
+        verify(statementPdfService).writeStatement(eq("Max Mustermann"), eq(LocalDate.of(2024, 1, 1)), isNull(), any());
+    }
+
+    @Test
+    @DisplayName("GET /api/receivables/statement - Should return 404 when the customer has no invoices")
+    void getStatement_NoInvoices_ShouldReturn404() throws Exception {
+        when(statementPdfService.countInvoices("Niemand", null, null)).thenReturn(0L);
+
+        mockMvc.perform(get("/api/receivables/statement").param("customer", "Niemand"))
+                .andExpect(status().isNotFound());
+
+        verify(statementPdfService, never()).writeStatement(any(), any(), any(), any());
+    }
+}
@@ -3,7 +3,9 @@ package com.hansal.verrechnungsprogramm.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.hansal.verrechnungsprogramm.model.Slaughter;
+import com.hansal.verrechnungsprogramm.model.SlaughterYield;
 import com.hansal.verrechnungsprogramm.service.SlaughterService;
+import com.hansal.verrechnungsprogramm.service.SlaughterYieldService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -19,9 +21,11 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
@@ -41,6 +45,9 @@ class SlaughterControllerTest {
     @MockBean
     private SlaughterService slaughterService;
 
+    @MockBean
+    private SlaughterYieldService slaughterYieldService;
+
     private Slaughter testSlaughter;
     private List<Slaughter> testSlaughters;
 
@@ -207,4 +214,42 @@ class SlaughterControllerTest {
 
         verify(slaughterService, times(1)).searchByCowTag("NONEXISTENT");
     }
+
+    @Test
+    @DisplayName("GET /api/slaughters/{id}/yield - Should return yield summary")
+    void getSlaughterYield_ShouldReturnYield() throws Exception {
+        SlaughterYield yield = new SlaughterYield();
+        yield.setSlaughterId(1L);
+        yield.setCowTag("AT-1234567");
+        yield.setSoldWeight(new BigDecimal("175.000"));
+        yield.setSellThrough(new BigDecimal("0.5000"));
+        when(slaughterYieldService.getYield(1L)).thenReturn(Optional.of(yield));
+
+        mockMvc.perform(get("/api/slaughters/1/yield"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cowTag", is("AT-1234567")))
+                .andExpect(jsonPath("$.sellThrough", is(0.5)));
+    }
+
+    @Test
+    @DisplayName("GET /api/slaughters/{id}/yield - Should return 404 for unknown slaughter")
+    void getSlaughterYield_NotFound_ShouldReturn404() throws Exception {
+        when(slaughterYieldService.getYield(99L)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/slaughters/99/yield"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("GET /api/slaughters/yields - Should cap the ranking size")
+    void getSlaughterYieldRanking_ShouldCapLimit() throws Exception {
+        when(slaughterYieldService.getRanking(any(), any(), any(), anyInt())).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/slaughters/yields")
+                        .param("rankBy", "REVENUE")
+                        .param("limit", "10000"))
+                .andExpect(status().isOk());
+
+        verify(slaughterYieldService).getRanking(SlaughterYieldService.Ranking.REVENUE, null, null, 500);
+    }
 }
@@ -0,0 +1,219 @@
+package com.hansal.verrechnungsprogramm.integration;
+
+import com.hansal.verrechnungsprogramm.model.Product;
+import com.hansal.verrechnungsprogramm.repository.InvoiceRepository;
+import com.hansal.verrechnungsprogramm.repository.OrderRepository;
+import com.hansal.verrechnungsprogramm.repository.ProductRepository;
+import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Integration tests for creating invoices for many orders in one request.
+ */
+class BulkInvoiceIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    private Product testProduct;
+
+    @BeforeEach
+    void setUp() {
+        super.setUpRestAssured();
+
+        testProduct = new Product();
+        testProduct.setName("Bulk Test Honig");
+        testProduct.setPrice(new BigDecimal("10.00"));
+        testProduct = productRepository.save(testProduct);
+    }
+
+    @AfterEach
+    void tearDown() {
+        invoiceRepository.deleteAll();
+        orderRepository.deleteAll();
+        productRepository.delete(testProduct);
+    }
+
+    @Test
+    @DisplayName("POST /api/invoices/bulk - Should invoice new orders and skip invoiced ones")
+    void createInvoicesInBulk_ShouldSkipAlreadyInvoicedOrders() {
+        long first = createOrder("Bulk Kunde A");
+        long second = createOrder("Bulk Kunde B");
+        long alreadyInvoiced = createOrder("Bulk Kunde C");
+
+        given()
+            .auth().basic("testuser", "testpass")
+        .when()
+            .post("/api/invoices/from-order/" + alreadyInvoiced)
+        .then()
+            .statusCode(201);
+
+        JsonPath result = given()
+            .auth().basic("testuser", "testpass")
+            .contentType(ContentType.JSON)
+            .body("{ \"orderIds\": [%d, %d, %d, 999999] }".formatted(first, second, alreadyInvoiced))
+        .when()
+            .post("/api/invoices/bulk")
+        .then()
+            .statusCode(200)
+            .body("matchedOrders", equalTo(3))
+            .body("invoiceIds", hasSize(2))
+            .body("skippedOrderIds", contains((int) alreadyInvoiced))
+            .body("missingOrderIds", contains(999999))
+            .body("pdfJobId", nullValue())
+            .extract().jsonPath();
+
+        List<Integer> invoiceIds = result.getList("invoiceIds");
+        given()
+            .auth().basic("testuser", "testpass")
+        .when()
+            .get("/api/invoices/" + invoiceIds.get(0))
+        .then()
+            .statusCode(200)
+            .body("order.id", equalTo((int) first))
+            .body("invoiceNumber", matchesPattern("INV-\\d{4}-\\d{6}"))
+            .body("totalAmount", equalTo(20.0f))
+            .body("grandTotal", equalTo(22.0f));
+
+        given()
+            .auth().basic("testuser", "testpass")
+        .when()
+            .get("/api/invoices")
+        .then()
+            .statusCode(200)
+            .body("invoiceNumber", hasSize(3))
+            .body("invoiceNumber.toSet()", hasSize(3));
+    }
+
+    @Test
+    @DisplayName("POST /api/invoices/bulk - Should select orders by status and chain a PDF job")
+    void createInvoicesInBulk_ByStatus_ShouldQueuePdfJob() {
+        long pending = createOrder("Bulk Status Kunde");
+
+        given()
+            .auth().basic("testuser", "testpass")
+            .contentType(ContentType.JSON)
+            .body("{ \"status\": \"PENDING\", \"renderPdf\": true }")
+        .when()
+            .post("/api/invoices/bulk")
+        .then()
+            .statusCode(200)
+            .body("invoiceIds", hasSize(1))
+            .body("pdfJobId", notNullValue());
+
+        given()
+            .auth().basic("testuser", "testpass")
+        .when()
+            .get("/api/invoices/by-order/" + pending)
+        .then()
+            .statusCode(200);
+    }
+
+    @Test
+    @DisplayName("POST /api/invoices/bulk - Should not invoice cancelled orders without a status filter")
+    void createInvoicesInBulk_WithoutStatus_ShouldSkipCancelledOrders() {
+        long open = createOrder("Bulk Offen Kunde");
+        long cancelled = createOrder("Bulk Storno Kunde");
+        given()
+            .auth().basic("testuser", "testpass")
+            .queryParam("status", "CANCELLED")
+        .when()
+            .patch("/api/orders/" + cancelled + "/status")
+        .then()
+            .statusCode(200);
+
+        given()
+            .auth().basic("testuser", "testpass")
+            .contentType(ContentType.JSON)
+            .body("{ \"fromDate\": \"%s\", \"toDate\": \"%s\" }".formatted(LocalDate.now(), LocalDate.now()))
+        .when()
+            .post("/api/invoices/bulk")
+        .then()
+            .statusCode(200);
+
+        assertEquals(List.of(open), invoiceRepository.findInvoicedOrderIds(List.of(open, cancelled)));
+    }
+
+    @Test
+    @DisplayName("POST /api/invoices/bulk - Overlapping runs should invoice every order once")
+    void createInvoicesInBulk_Concurrently_ShouldInvoiceOnce() throws Exception {
+        List<Long> orderIds = List.of(createOrder("Bulk Kunde A"), createOrder("Bulk Kunde B"), createOrder("Bulk Kunde C"));
+        String body = "{ \"orderIds\": [%d, %d, %d] }".formatted(orderIds.get(0), orderIds.get(1), orderIds.get(2));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(executor.submit(() -> given()
+                    .auth().basic("testuser", "testpass")
+                    .contentType(ContentType.JSON)
+                    .body(body)
+                .when()
+                    .post("/api/invoices/bulk")
+                .then()
+                    .statusCode(200)
+                    .extract().jsonPath().getList("invoiceIds").size()));
+            }
+            int created = 0;
+            for (Future<Integer> future : futures) {
+                created += future.get();
+            }
+            assertEquals(3, created);
+        } finally {
+            executor.shutdown();
+        }
+
+        // A single invoice for an order that is already invoiced is refused
+        given()
+            .auth().basic("testuser", "testpass")
+        .when()
+            .post("/api/invoices/from-order/" + orderIds.get(0))
+        .then()
+            .statusCode(500);
+        assertEquals(3, invoiceRepository.count());
+    }
+
+    private long createOrder(String customerName) {
+        String orderJson = """
+            {
+                "customerName": "%s",
+                "items": [
+                    { "product": { "id": %d }, "weight": 2.0, "unitPrice": 10.00 }
+                ]
+            }
+            """.formatted(customerName, testProduct.getId());
+
+        return given()
+            .auth().basic("testuser", "testpass")
+            .contentType(ContentType.JSON)
+            .body(orderJson)
+        .when()
+            .post("/api/orders")
+        .then()
+            .statusCode(201)
+            .extract().jsonPath().getLong("id");
+    }
+}
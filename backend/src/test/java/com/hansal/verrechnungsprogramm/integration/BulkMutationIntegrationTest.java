@@ -0,0 +1,203 @@
+package com.hansal.verrechnungsprogramm.integration;
+
+import com.hansal.verrechnungsprogramm.model.MeatCut;
+import com.hansal.verrechnungsprogramm.model.Order;
+import com.hansal.verrechnungsprogramm.model.OrderStatus;
+import com.hansal.verrechnungsprogramm.model.Product;
+import com.hansal.verrechnungsprogramm.model.Slaughter;
+import com.hansal.verrechnungsprogramm.repository.OrderRepository;
+import com.hansal.verrechnungsprogramm.repository.ProductRepository;
+import com.hansal.verrechnungsprogramm.repository.SlaughterRepository;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the chunked bulk endpoints.
+ */
+class BulkMutationIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private SlaughterRepository slaughterRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private Product testProduct;
+    private final List<Long> createdProductIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        super.setUpRestAssured();
+
+        testProduct = new Product();
+        testProduct.setName("Bulk Test Schnitzel");
+        testProduct.setPrice(new BigDecimal("16.00"));
+        testProduct = productRepository.save(testProduct);
+
+        Slaughter slaughter = new Slaughter();
+        slaughter.setCowTag("AT-BULK-1");
+        slaughter.setSlaughterDate(LocalDate.of(2024, 4, 1));
+        MeatCut meatCut = new MeatCut();
+        meatCut.setProduct(testProduct);
+        meatCut.setTotalWeight(new BigDecimal("10.00"));
+        meatCut.setPricePerKg(new BigDecimal("16.00"));
+        slaughter.addMeatCut(meatCut);
+        slaughterRepository.save(slaughter);
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        slaughterRepository.deleteAll();
+        productRepository.deleteAllById(createdProductIds);
+        productRepository.delete(testProduct);
+    }
+
+    @Test
+    @DisplayName("POST /api/bulk/products - Should create products across several chunks")
+    void createProducts_ShouldCreateAllChunks() {
+        StringJoiner body = new StringJoiner(",", "[", "]");
+        for (int i = 0; i < 250; i++) {
+            body.add("{\"name\": \"Bulk Import %d\", \"price\": 10.00}".formatted(i));
+        }
+        body.add("{\"name\": \"Ohne Preis\"}");
+
+        List<Integer> ids = given()
+            .auth().basic("testuser", "testpass")
+            .contentType(ContentType.JSON)
+            .body(body.toString())
+        .when()
+            .post("/api/bulk/products")
+        .then()
+            .statusCode(200)
+            .body("total", equalTo(251))
+            .body("succeeded", equalTo(250))
+            .body("failed", equalTo(1))
+            .body("items[250].index", equalTo(250))
+            .body("items[250].status", equalTo("FAILED"))
+            .body("items[250].error", equalTo("Price is required"))
+            .extract().jsonPath().getList("items.findAll { it.status == 'CREATED' }.id");
+
+        ids.forEach(id -> createdProductIds.add(id.longValue()));
+        assertEquals(250, ids.size());
+        Product first = productRepository.findById(createdProductIds.get(0)).orElseThrow();
+        assertEquals("Bulk Import 0", first.getName());
+        assertEquals(0, first.getStockQuantity().signum());
+    }
+
+    @Test
+    @DisplayName("POST /api/bulk/products - A database error should roll back its chunk only")
+    void createProducts_DatabaseError_ShouldFailWholeChunk() {
+        given()
+            .auth().basic("testuser", "testpass")
+            .contentType(ContentType.JSON)
+            .body("""
+                [
+                    {"name": "Bulk Rollback 1", "price": 10.00},
+                    {"name": "%s", "price": 10.00}
+                ]
+                """.formatted("x".repeat(300)))
+        .when()
+            .post("/api/bulk/products")
+        .then()
+            .statusCode(200)
+            .body("succeeded", equalTo(0))
+            .body("items.status", everyItem(equalTo("FAILED")))
+            .body("items[0].error", startsWith("Chunk rolled back"));
+
+        assertTrue(productRepository.findByNameContainingIgnoreCase("Bulk Rollback").isEmpty());
+    }
+
+    @Test
+    @DisplayName("POST /api/bulk/orders - Should price and allocate valid orders and report invalid ones")
+    void createOrders_ShouldReportPerOrder() {
+        List<Integer> ids = given()
+            .auth().basic("testuser", "testpass")
+            .contentType(ContentType.JSON)
+            .body("""
+                [
+                    { "customerName": "Bulk Kunde 1", "items": [ { "product": { "id": %d }, "weight": 2.5 } ] },
+                    { "customerName": "Bulk Kunde 2", "items": [ { "product": { "id": 999999 }, "weight": 1.0 } ] },
+                    { "customerName": "", "items": [ { "product": { "id": %d }, "weight": 1.0 } ] },
+                    { "customerName": "Bulk Kunde 3", "items": [ { "product": { "id": %d }, "weight": 1.0 } ] }
+                ]
+                """.formatted(testProduct.getId(), testProduct.getId(), testProduct.getId()))
+        .when()
+            .post("/api/bulk/orders")
+        .then()
+            .statusCode(200)
+            .body("succeeded", equalTo(2))
+            .body("items.status", contains("CREATED", "FAILED", "FAILED", "CREATED"))
+            .body("items[1].error", equalTo("Product not found with id: 999999"))
+            .body("items[2].error", equalTo("Customer name is required"))
+            .extract().jsonPath().getList("items.findAll { it.status == 'CREATED' }.id");
+
+        Order order = orderRepository.findById(ids.get(0).longValue()).orElseThrow();
+        assertEquals("Bulk Kunde 1", order.getCustomerName());
+        assertEquals(OrderStatus.PENDING, order.getStatus());
+        assertEquals(0, new BigDecimal("40.00").compareTo(order.getTotalAmount()));
+
+        given()
+            .auth().basic("testuser", "testpass")
+        .when()
+            .get("/api/orders/" + ids.get(0) + "/allocations")
+        .then()
+            .statusCode(200)
+            .body("$", hasSize(1))
+            .body("[0].cowTag", equalTo("AT-BULK-1"))
+            .body("[0].weight", equalTo(2.5f));
+    }
+
+    @Test
+    @DisplayName("POST /api/bulk/orders/status - Should update existing orders and report missing ones")
+    void updateOrderStatuses_ShouldReportMissingOrders() {
+        List<Integer> ids = given()
+            .auth().basic("testuser", "testpass")
+            .contentType(ContentType.JSON)
+            .body("""
+                [
+                    { "customerName": "Status Kunde 1", "items": [ { "product": { "id": %d }, "weight": 1.0 } ] },
+                    { "customerName": "Status Kunde 2", "items": [ { "product": { "id": %d }, "weight": 1.0 } ] }
+                ]
+                """.formatted(testProduct.getId(), testProduct.getId()))
+        .when()
+            .post("/api/bulk/orders")
+        .then()
+            .statusCode(200)
+            .extract().jsonPath().getList("items.id");
+
+        given()
+            .auth().basic("testuser", "testpass")
+            .contentType(ContentType.JSON)
+            .body("""
+                { "orderIds": [%d, 999999, %d], "status": "COMPLETED" }
+                """.formatted(ids.get(0), ids.get(1)))
+        .when()
+            .post("/api/bulk/orders/status")
+        .then()
+            .statusCode(200)
+            .body("items.status", contains("UPDATED", "FAILED", "UPDATED"))
+            .body("items[1].error", equalTo("Order not found with id: 999999"));
+
+        for (Integer id : ids) {
+            assertEquals(OrderStatus.COMPLETED, orderRepository.findById(id.longValue()).orElseThrow().getStatus());
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.hansal.verrechnungsprogramm.integration;
+
+import com.hansal.verrechnungsprogramm.model.MeatCut;
+import com.hansal.verrechnungsprogramm.model.Product;
+import com.hansal.verrechnungsprogramm.model.Slaughter;
+import com.hansal.verrechnungsprogramm.repository.OrderRepository;
+import com.hansal.verrechnungsprogramm.repository.ProductRepository;
+import com.hansal.verrechnungsprogramm.repository.SlaughterRepository;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for ETag and Last-Modified handling of the read endpoints.
+ */
+class ConditionalGetIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private SlaughterRepository slaughterRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private Product testProduct;
+
+    @BeforeEach
+    void setUp() {
+        super.setUpRestAssured();
+
+        testProduct = new Product();
+        testProduct.setName("ETag Test Karree");
+        testProduct.setPrice(new BigDecimal("18.00"));
+        testProduct = productRepository.save(testProduct);
+
+        Slaughter slaughter = new Slaughter();
+        slaughter.setCowTag("AT-ETAG-1");
+        slaughter.setSlaughterDate(LocalDate.of(2024, 2, 1));
+        MeatCut meatCut = new MeatCut();
+        meatCut.setProduct(testProduct);
+        meatCut.setTotalWeight(new BigDecimal("10.00"));
+        meatCut.setPricePerKg(new BigDecimal("18.00"));
+        slaughter.addMeatCut(meatCut);
+        slaughterRepository.save(slaughter);
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        slaughterRepository.deleteAll();
+        productRepository.deleteAll(productRepository.findByNameContainingIgnoreCase("ETag Test"));
+    }
+
+    @Test
+    @DisplayName("GET /api/products - Should answer a matching If-None-Match with 304")
+    void getProducts_MatchingETag_ShouldReturn304() {
+        Response first = get("/api/products", null);
+        first.then()
+            .statusCode(200)
+            .header("ETag", startsWith("W/\""))
+            .header("Last-Modified", notNullValue())
+            .header("Cache-Control", "no-cache");
+        String etag = first.header("ETag");
+
+        Response second = get("/api/products", etag);
+        second.then()
+            .statusCode(304)
+            .header("ETag", equalTo(etag));
+        assertEquals(0, second.asByteArray().length);
+    }
+
+    @Test
+    @DisplayName("GET /api/products - Should answer a current If-Modified-Since with 304")
+    void getProducts_NotModifiedSince_ShouldReturn304() {
+        String lastModified = get("/api/products", null).header("Last-Modified");
+
+        given()
+            .auth().basic("testuser", "testpass")
+            .header("If-Modified-Since", lastModified)
+        .when()
+            .get("/api/products")
+        .then()
+            .statusCode(304);
+    }
+
+    @Test
+    @DisplayName("GET /api/products - Should change the ETag when a product changes")
+    void getProducts_AfterUpdate_ShouldReturnNewETag() {
+        String etag = get("/api/products", null).header("ETag");
+
+        testProduct.setPrice(new BigDecimal("19.00"));
+        productRepository.save(testProduct);
+
+        get("/api/products", etag).then()
+            .statusCode(200)
+            .header("ETag", not(equalTo(etag)));
+    }
+
+    @Test
+    @DisplayName("GET /api/products/with-stock - Should change the ETag when an order reserves stock")
+    void getProductsWithStock_AfterAllocation_ShouldReturnNewETag() {
+        String productsEtag = get("/api/products/with-stock", null).header("ETag");
+        String slaughtersEtag = get("/api/slaughters", null).header("ETag");
+
+        given()
+            .auth().basic("testuser", "testpass")
+            .contentType(ContentType.JSON)
+            .body("""
+                { "customerName": "ETag Kunde", "items": [ { "product": { "id": %d }, "weight": 2.0 } ] }
+                """.formatted(testProduct.getId()))
+        .when()
+            .post("/api/orders")
+        .then()
+            .statusCode(201);
+
+        get("/api/products/with-stock", productsEtag).then().statusCode(200);
+        get("/api/slaughters", slaughtersEtag).then().statusCode(200);
+    }
+
+    @Test
+    @DisplayName("GET /api/orders - Should change the ETag after a bulk status update")
+    void getOrders_AfterBulkStatusUpdate_ShouldReturnNewETag() {
+        long orderId = given()
+            .auth().basic("testuser", "testpass")
+            .contentType(ContentType.JSON)
+            .body("""
+                { "customerName": "ETag Kunde", "items": [ { "product": { "id": %d }, "weight": 1.0 } ] }
+                """.formatted(testProduct.getId()))
+        .when()
+            .post("/api/orders")
+        .then()
+            .statusCode(201)
+            .extract().jsonPath().getLong("id");
+        String etag = get("/api/orders", null).header("ETag");
+        get("/api/orders", etag).then().statusCode(304);
+
+        given()
+            .auth().basic("testuser", "testpass")
+            .contentType(ContentType.JSON)
+            .body("{ \"orderIds\": [%d], \"status\": \"COMPLETED\" }".formatted(orderId))
+        .when()
+            .post("/api/bulk/orders/status")
+        .then()
+            .statusCode(200);
+
+        get("/api/orders", etag).then()
+            .statusCode(200)
+            .body("find { it.id == %d }.status".formatted(orderId), equalTo("COMPLETED"));
+    }
+
+    @Test
+    @DisplayName("GET /api/slaughters/yields - Derived data should not get an ETag")
+    void getYields_ShouldNotHaveETag() {
+        get("/api/slaughters/yields", null).then()
+            .statusCode(200)
+            .header("ETag", nullValue());
+    }
+
+    private Response get(String path, String ifNoneMatch) {
+        var request = given().auth().basic("testuser", "testpass");
+        if (ifNoneMatch != null) {
+            request.header("If-None-Match", ifNoneMatch);
+        }
+        return request.when().get(path);
+    }
+}
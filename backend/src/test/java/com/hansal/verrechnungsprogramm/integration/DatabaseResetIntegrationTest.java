@@ -0,0 +1,198 @@
+package com.hansal.verrechnungsprogramm.integration;
+
+import com.hansal.verrechnungsprogramm.model.MeatCut;
+import com.hansal.verrechnungsprogramm.model.Order;
+import com.hansal.verrechnungsprogramm.model.Product;
+import com.hansal.verrechnungsprogramm.model.Slaughter;
+import com.hansal.verrechnungsprogramm.repository.MeatCutRepository;
+import com.hansal.verrechnungsprogramm.repository.OrderRepository;
+import com.hansal.verrechnungsprogramm.repository.ProductRepository;
+import com.hansal.verrechnungsprogramm.repository.SlaughterRepository;
+import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the database reset at /api/admin/reset-database.
+ */
+class DatabaseResetIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private SlaughterRepository slaughterRepository;
+
+    @Autowired
+    private MeatCutRepository meatCutRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Test
+    @DisplayName("POST /api/admin/reset-database - Should clear all data and reload the default products")
+    void reset_ShouldClearDataAndReloadDefaultProducts() {
+        Product product = new Product();
+        product.setName("Reset Test Karree");
+        product.setPrice(new BigDecimal("18.00"));
+        product = productRepository.save(product);
+
+        Slaughter slaughter = new Slaughter();
+        slaughter.setCowTag("AT-RESET-1");
+        slaughter.setSlaughterDate(LocalDate.of(2024, 3, 1));
+        MeatCut meatCut = new MeatCut();
+        meatCut.setProduct(product);
+        meatCut.setTotalWeight(new BigDecimal("10.00"));
+        meatCut.setPricePerKg(new BigDecimal("18.00"));
+        slaughter.addMeatCut(meatCut);
+        slaughterRepository.save(slaughter);
+
+        Order order = new Order();
+        order.setCustomerName("Reset Kunde");
+        orderRepository.save(order);
+
+        reset();
+
+        assertEquals(0, slaughterRepository.count());
+        assertEquals(0, orderRepository.count());
+        assertEquals(22, productRepository.count());
+        assertTrue(productRepository.findByNameContainingIgnoreCase("Reset Test").isEmpty());
+        // Identities restart, so the defaults get the same ids after every reset
+        assertEquals(1L, productRepository.findAll().stream().mapToLong(Product::getId).min().orElseThrow());
+    }
+
+    @Test
+    @DisplayName("POST /api/admin/reset-database - Should not serve cached rows of the deleted products")
+    void reset_ShouldEvictCachedProducts() {
+        reset();
+
+        given()
+            .auth().basic("testuser", "testpass")
+            .contentType(ContentType.JSON)
+            .body("""
+                { "name": "Reset Test Umbenannt", "price": 45.00, "meatCutType": "Rind" }
+                """)
+        .when()
+            .put("/api/products/1")
+        .then()
+            .statusCode(200);
+        given()
+            .auth().basic("testuser", "testpass")
+        .when()
+            .get("/api/products/1")
+        .then()
+            .statusCode(200)
+            .body("name", equalTo("Reset Test Umbenannt"));
+
+        reset();
+
+        given()
+            .auth().basic("testuser", "testpass")
+        .when()
+            .get("/api/products/1")
+        .then()
+            .statusCode(200)
+            .body("name", equalTo("Bio-Rindfleisch - Filet"));
+        given()
+            .auth().basic("testuser", "testpass")
+        .when()
+            .get("/api/products")
+        .then()
+            .statusCode(200)
+            .body("$", hasSize(22))
+            .body("name", not(hasItem("Reset Test Umbenannt")));
+    }
+
+    @Test
+    @DisplayName("POST /api/admin/reset-database - Should not allocate from cuts cached before the reset")
+    void reset_ShouldForgetAllocationCandidates() {
+        reset();
+        MeatCut filet = saveSlaughterWithCut("AT-RESET-1", 1L);
+        createOrder(1L);
+        assertEquals(0, new BigDecimal("8.00").compareTo(availableWeight(filet)));
+
+        reset();
+        // Identities restart, so the first new cut gets the id of the filet cut again
+        MeatCut other = saveSlaughterWithCut("AT-RESET-2", 2L);
+        filet = saveSlaughterWithCut("AT-RESET-3", 1L);
+        createOrder(1L);
+
+        assertEquals(0, new BigDecimal("10.00").compareTo(availableWeight(other)));
+        assertEquals(0, new BigDecimal("8.00").compareTo(availableWeight(filet)));
+    }
+
+    @Test
+    @DisplayName("POST /api/admin/reset-database - Should send sync clients to a full snapshot")
+    void reset_ShouldRequireSyncSnapshot() {
+        long version = sync(0).getLong("version");
+
+        reset();
+
+        JsonPath changes = sync(version);
+        assertTrue(changes.getBoolean("full"));
+        assertTrue(changes.getLong("version") > version);
+        assertEquals(22, changes.getList("products").size());
+        assertTrue(changes.getList("slaughters").isEmpty());
+    }
+
+    private void reset() {
+        given()
+            .auth().basic("testuser", "testpass")
+        .when()
+            .post("/api/admin/reset-database")
+        .then()
+            .statusCode(200)
+            .body("success", equalTo(true))
+            .body("tablesCleared", equalTo(12))
+            .body("productsLoaded", equalTo(22));
+    }
+
+    private MeatCut saveSlaughterWithCut(String cowTag, Long productId) {
+        Slaughter slaughter = new Slaughter();
+        slaughter.setCowTag(cowTag);
+        slaughter.setSlaughterDate(LocalDate.of(2024, 3, 1));
+        MeatCut meatCut = new MeatCut();
+        meatCut.setProduct(productRepository.findById(productId).orElseThrow());
+        meatCut.setTotalWeight(new BigDecimal("10.00"));
+        meatCut.setPricePerKg(new BigDecimal("18.00"));
+        slaughter.addMeatCut(meatCut);
+        return slaughterRepository.save(slaughter).getMeatCuts().get(0);
+    }
+
+    private void createOrder(Long productId) {
+        given()
+            .auth().basic("testuser", "testpass")
+            .contentType(ContentType.JSON)
+            .body("""
+                { "customerName": "Reset Kunde", "items": [ { "product": { "id": %d }, "weight": 2.0 } ] }
+                """.formatted(productId))
+        .when()
+            .post("/api/orders")
+        .then()
+            .statusCode(201);
+    }
+
+    private BigDecimal availableWeight(MeatCut meatCut) {
+        return meatCutRepository.findById(meatCut.getId()).orElseThrow().getAvailableWeight();
+    }
+
+    private JsonPath sync(long since) {
+        return given()
+            .auth().basic("testuser", "testpass")
+            .queryParam("since", since)
+        .when()
+            .get("/api/sync")
+        .then()
+            .statusCode(200)
+            .extract().jsonPath();
+    }
+}
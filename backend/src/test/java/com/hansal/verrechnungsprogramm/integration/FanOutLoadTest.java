@@ -0,0 +1,135 @@
+package com.hansal.verrechnungsprogramm.integration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.condition.JRE;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Load test of the fan-out endpoints with platform and with virtual threads.
+ * <p>
+ * Skipped by default. Run it with
+ * {@code mvn test -Dtest=FanOutLoadTest -Dloadtest=true} and compare the
+ * throughput and latencies logged for both modes; {@code -Dloadtest.clients}
+ * and {@code -Dloadtest.requests} (per client) change the load. More clients
+ * than Tomcat's 200 platform threads show the difference between the modes.
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class FanOutLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(FanOutLoadTest.class);
+
+    private static final List<String> PATHS = List.of("/api/dashboard/counts", "/api/products/with-stock");
+
+    @Nested
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+            properties = "spring.threads.virtual.enabled=false")
+    @ActiveProfiles("test")
+    class PlatformThreads extends LoadScenario {
+    }
+
+    @Nested
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+            properties = "spring.threads.virtual.enabled=true")
+    @ActiveProfiles("test")
+    class VirtualThreads extends LoadScenario {
+    }
+
+    abstract static class LoadScenario {
+
+        @LocalServerPort
+        int port;
+
+        @Test
+        @DisplayName("Fan-out endpoints - Should answer every request under load")
+        void fanOutEndpoints_UnderLoad() throws Exception {
+            int clients = Integer.getInteger("loadtest.clients", 400);
+            int requestsPerClient = Integer.getInteger("loadtest.requests", 25);
+            String authorization = "Basic " + Base64.getEncoder()
+                    .encodeToString("testuser:testpass".getBytes(StandardCharsets.UTF_8));
+            HttpClient http = HttpClient.newHttpClient();
+
+            // Warm up JIT, caches and connections
+            run(http, authorization, 20, 10);
+
+            long start = System.nanoTime();
+            Result result = run(http, authorization, clients, requestsPerClient);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            List<Long> latencies = result.latencies.stream().sorted().toList();
+            log.info("{}: clients={}, requests={}, errors={}, throughput={} req/s, p50={} ms, p95={} ms, p99={} ms",
+                    getClass().getSimpleName(), clients, latencies.size(), result.errors,
+                    Math.round(latencies.size() / seconds),
+                    percentile(latencies, 50), percentile(latencies, 95), percentile(latencies, 99));
+            assertEquals(0, result.errors);
+        }
+
+        private Result run(HttpClient http, String authorization, int clients, int requestsPerClient)
+                throws Exception {
+            ExecutorService pool = Executors.newFixedThreadPool(clients);
+            try {
+                List<Future<Result>> futures = new ArrayList<>();
+                for (int c = 0; c < clients; c++) {
+                    int client = c;
+                    futures.add(pool.submit(() -> {
+                        Result result = new Result();
+                        for (int r = 0; r < requestsPerClient; r++) {
+                            HttpRequest request = HttpRequest.newBuilder(
+                                            URI.create("http://localhost:" + port + PATHS.get((client + r) % PATHS.size())))
+                                    .header("Authorization", authorization)
+                                    .GET()
+                                    .build();
+                            long sent = System.nanoTime();
+                            HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                            result.latencies.add((System.nanoTime() - sent) / 1_000_000);
+                            if (response.statusCode() != 200) {
+                                result.errors++;
+                            }
+                        }
+                        return result;
+                    }));
+                }
+                Result total = new Result();
+                for (Future<Result> future : futures) {
+                    Result result = future.get();
+                    total.latencies.addAll(result.latencies);
+                    total.errors += result.errors;
+                }
+                return total;
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+
+        private static long percentile(List<Long> sorted, int percentile) {
+            return sorted.isEmpty() ? 0 : sorted.get(Math.min(sorted.size() - 1, sorted.size() * percentile / 100));
+        }
+    }
+
+    private static final class Result {
+        private final List<Long> latencies = new ArrayList<>();
+        private int errors;
+    }
+}
@@ -0,0 +1,208 @@
+package com.hansal.verrechnungsprogramm.integration;
+
+import com.hansal.verrechnungsprogramm.model.Product;
+import com.hansal.verrechnungsprogramm.repository.IdempotencyRecordRepository;
+import com.hansal.verrechnungsprogramm.repository.InvoiceRepository;
+import com.hansal.verrechnungsprogramm.repository.OrderRepository;
+import com.hansal.verrechnungsprogramm.repository.ProductRepository;
+import com.hansal.verrechnungsprogramm.service.IdempotencyService;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for deduplicating retried create requests by Idempotency-Key.
+ */
+class IdempotencyIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    private Product testProduct;
+
+    @BeforeEach
+    void setUp() {
+        super.setUpRestAssured();
+
+        testProduct = new Product();
+        testProduct.setName("Idempotenz Test Wurst");
+        testProduct.setPrice(new BigDecimal("12.00"));
+        testProduct = productRepository.save(testProduct);
+    }
+
+    @AfterEach
+    void tearDown() {
+        idempotencyRecordRepository.deleteAll();
+        invoiceRepository.deleteAll();
+        orderRepository.deleteAll();
+        productRepository.delete(testProduct);
+    }
+
+    @Test
+    @DisplayName("POST /api/orders - Retry with the same key should return the first order")
+    void createOrder_Retry_ShouldNotCreateDuplicate() {
+        Response first = createOrder("order-retry-1");
+        first.then().statusCode(201).header("Idempotent-Replayed", nullValue());
+
+        Response retry = createOrder("order-retry-1");
+        retry.then()
+            .statusCode(201)
+            .header("Idempotent-Replayed", "true")
+            .body("id", equalTo(first.jsonPath().getInt("id")))
+            .body("customerName", equalTo("Wlan Kunde"));
+
+        assertEquals(1, orderRepository.count());
+    }
+
+    @Test
+    @DisplayName("POST /api/orders - Requests without a key should not be deduplicated")
+    void createOrder_WithoutKey_ShouldCreateEachTime() {
+        createOrder(null).then().statusCode(201);
+        createOrder(null).then().statusCode(201);
+
+        assertEquals(2, orderRepository.count());
+    }
+
+    @Test
+    @DisplayName("POST /api/orders - Concurrent duplicates should create a single order")
+    void createOrder_ConcurrentDuplicates_ShouldCreateOnce() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Response>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(executor.submit(() -> createOrder("order-concurrent-1")));
+            }
+            Set<Integer> ids = new HashSet<>();
+            for (Future<Response> future : futures) {
+                Response response = future.get();
+                assertEquals(201, response.statusCode());
+                ids.add(response.jsonPath().getInt("id"));
+            }
+            assertEquals(1, ids.size());
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(1, orderRepository.count());
+    }
+
+    @Test
+    @DisplayName("POST /api/invoices/from-order/{id} - Retry should return the same invoice")
+    void createInvoice_Retry_ShouldReturnSameInvoice() {
+        int orderId = createOrder(null).then().statusCode(201).extract().jsonPath().getInt("id");
+
+        String invoiceNumber = createInvoice(orderId, "invoice-retry-1")
+            .then()
+            .statusCode(201)
+            .extract().jsonPath().getString("invoiceNumber");
+
+        createInvoice(orderId, "invoice-retry-1")
+            .then()
+            .statusCode(201)
+            .header("Idempotent-Replayed", "true")
+            .body("invoiceNumber", equalTo(invoiceNumber));
+
+        assertEquals(1, invoiceRepository.count());
+    }
+
+    @Test
+    @DisplayName("POST - Reusing a key for another request should return 422")
+    void reuseKeyForOtherRequest_ShouldReturn422() {
+        int orderId = createOrder("shared-key-1").then().statusCode(201).extract().jsonPath().getInt("id");
+
+        createInvoice(orderId, "shared-key-1")
+            .then()
+            .statusCode(422)
+            .body("message", containsString("Idempotency-Key"));
+
+        assertEquals(0, invoiceRepository.count());
+    }
+
+    @Test
+    @DisplayName("POST /api/orders - Reusing a key with another body should return 422")
+    void reuseKeyWithOtherBody_ShouldReturn422() {
+        createOrder("body-key-1").then().statusCode(201);
+
+        given()
+            .auth().basic("testuser", "testpass")
+            .contentType(ContentType.JSON)
+            .header("Idempotency-Key", "body-key-1")
+            .body("""
+                { "customerName": "Anderer Kunde", "items": [ { "product": { "id": %d }, "weight": 3.0 } ] }
+                """.formatted(testProduct.getId()))
+        .when()
+            .post("/api/orders")
+        .then()
+            .statusCode(422)
+            .body("message", containsString("Idempotency-Key"));
+
+        assertEquals(1, orderRepository.count());
+    }
+
+    @Test
+    @DisplayName("Storing a response for a key that is already stored should keep the first one")
+    void store_WithExistingKey_ShouldKeepFirstResponse() {
+        idempotencyService.store("store-key-1", "POST", "/api/orders", "a", 201, "application/json", "{\"id\":1}");
+        idempotencyService.store("store-key-1", "POST", "/api/orders", "b", 201, "application/json", "{\"id\":2}");
+        idempotencyService.clear();
+
+        IdempotencyService.StoredResponse stored = idempotencyService.find("store-key-1").orElseThrow();
+        assertEquals("{\"id\":1}", stored.body());
+        assertEquals("a", stored.requestHash());
+    }
+
+    private Response createOrder(String idempotencyKey) {
+        var request = given()
+            .auth().basic("testuser", "testpass")
+            .contentType(ContentType.JSON)
+            .body("""
+                {
+                    "customerName": "Wlan Kunde",
+                    "items": [
+                        { "product": { "id": %d }, "weight": 1.5 }
+                    ]
+                }
+                """.formatted(testProduct.getId()));
+        if (idempotencyKey != null) {
+            request.header("Idempotency-Key", idempotencyKey);
+        }
+        return request.when().post("/api/orders");
+    }
+
+    private Response createInvoice(int orderId, String idempotencyKey) {
+        return given()
+            .auth().basic("testuser", "testpass")
+            .header("Idempotency-Key", idempotencyKey)
+        .when()
+            .post("/api/invoices/from-order/" + orderId);
+    }
+}
@@ -0,0 +1,205 @@
+package com.hansal.verrechnungsprogramm.integration;
+
+import com.hansal.verrechnungsprogramm.model.Invoice;
+import com.hansal.verrechnungsprogramm.model.InvoiceStatus;
+import com.hansal.verrechnungsprogramm.model.Product;
+import com.hansal.verrechnungsprogramm.repository.InvoiceRepository;
+import com.hansal.verrechnungsprogramm.repository.OrderRepository;
+import com.hansal.verrechnungsprogramm.repository.ProductRepository;
+import com.hansal.verrechnungsprogramm.service.InvoiceExportService;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import javax.sql.DataSource;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.time.LocalDate;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the accounting export of invoices.
+ */
+class InvoiceExportIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private Product testProduct;
+    private String invoiceNumber;
+
+    @BeforeEach
+    void setUp() {
+        super.setUpRestAssured();
+
+        testProduct = new Product();
+        testProduct.setName("Export Test Schnitzel");
+        testProduct.setPrice(new BigDecimal("25.00"));
+        testProduct = productRepository.save(testProduct);
+
+        String orderJson = """
+            {
+                "customerName": "Export Kunde; \\"Müller\\"",
+                "items": [
+                    { "product": { "id": %d }, "weight": 2.0, "unitPrice": 25.00 },
+                    { "product": { "id": %d }, "weight": 0.5, "unitPrice": 25.00 }
+                ]
+            }
+            """.formatted(testProduct.getId(), testProduct.getId());
+        long orderId = given()
+            .auth().basic("testuser", "testpass")
+            .contentType(ContentType.JSON)
+            .body(orderJson)
+        .when()
+            .post("/api/orders")
+        .then()
+            .statusCode(201)
+            .extract().jsonPath().getLong("id");
+
+        invoiceNumber = given()
+            .auth().basic("testuser", "testpass")
+        .when()
+            .post("/api/invoices/from-order/" + orderId)
+        .then()
+            .statusCode(201)
+            .extract().jsonPath().getString("invoiceNumber");
+    }
+
+    @AfterEach
+    void tearDown() {
+        invoiceRepository.deleteAll();
+        orderRepository.deleteAll();
+        productRepository.delete(testProduct);
+    }
+
+    @Test
+    @DisplayName("GET /api/export/invoices - CSV should contain one line per order line")
+    void exportCsv_ShouldContainOrderLines() {
+        String csv = given()
+            .auth().basic("testuser", "testpass")
+        .when()
+            .get("/api/export/invoices?format=CSV")
+        .then()
+            .statusCode(200)
+            .extract().asString();
+
+        String[] lines = csv.split("\r\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("Rechnungsnummer;"));
+        assertTrue(lines[1].startsWith("\"" + invoiceNumber + "\";"));
+        assertTrue(lines[1].contains("\"Export Kunde; \"\"Müller\"\"\""));
+        assertTrue(lines[1].contains(";\"Export Test Schnitzel\";2,000;25,00;50,00;10,00;62,50;6,25;68,75"));
+        assertTrue(lines[2].contains(";0,500;25,00;12,50;"));
+    }
+
+    @Test
+    @DisplayName("GET /api/export/invoices - Date range should exclude other days")
+    void exportCsv_OutsideDateRange_ShouldOnlyContainHeader() {
+        String csv = given()
+            .auth().basic("testuser", "testpass")
+        .when()
+            .get("/api/export/invoices?from=2000-01-01&to=2000-12-31")
+        .then()
+            .statusCode(200)
+            .extract().asString();
+
+        assertEquals(1, csv.split("\r\n").length);
+    }
+
+    @Test
+    @DisplayName("GET /api/export/invoices?format=DATEV - Should write EXTF header and book net and tax of an invoice")
+    void exportDatev_ShouldBookNetAndTax() {
+        byte[] body = given()
+            .auth().basic("testuser", "testpass")
+        .when()
+            .get("/api/export/invoices?format=DATEV&from=" + LocalDate.now())
+        .then()
+            .statusCode(200)
+            .extract().asByteArray();
+
+        String[] lines = new String(body, Charset.forName("windows-1252")).split("\r\n");
+        assertEquals(4, lines.length);
+        assertTrue(lines[0].startsWith("\"EXTF\";700;21;\"Buchungsstapel\""));
+        assertTrue(lines[1].startsWith("Umsatz (ohne Soll/Haben-Kz);"));
+        assertTrue(lines[2].startsWith("62,50;\"S\";\"EUR\";1200;4000;;"));
+        assertTrue(lines[2].contains("\"" + invoiceNumber + "\""));
+        assertTrue(lines[2].endsWith("\"Export Kunde; \"\"Müller\"\"\""));
+        assertTrue(lines[3].startsWith("6,25;\"S\";\"EUR\";1200;3800;;"));
+    }
+
+    @Test
+    @DisplayName("DATEV export - A tax rate with a BU-Schlüssel should be booked gross with the key")
+    void exportDatev_WithTaxKey_ShouldBookGross() {
+        InvoiceExportService service = new InvoiceExportService(dataSource, 500, "1200", "4000", "3800", "20:3, 10.00:9", "0", "0");
+        StringWriter out = new StringWriter();
+
+        int rows = service.exportInvoices(InvoiceExportService.Format.DATEV, LocalDate.now(), null, out);
+
+        String[] lines = out.toString().split("\r\n");
+        assertEquals(1, rows);
+        assertEquals(3, lines.length);
+        assertTrue(lines[2].startsWith("68,75;\"S\";\"EUR\";1200;4000;9;"));
+    }
+
+    @Test
+    @DisplayName("GET /api/export/invoices?format=DATEV - Should cover the current fiscal year without a range")
+    void exportDatev_WithoutRange_ShouldCoverCurrentYear() {
+        int year = LocalDate.now().getYear();
+        byte[] body = given()
+            .auth().basic("testuser", "testpass")
+        .when()
+            .get("/api/export/invoices?format=DATEV")
+        .then()
+            .statusCode(200)
+            .extract().asByteArray();
+
+        String header = new String(body, Charset.forName("windows-1252")).split("\r\n")[0];
+        assertTrue(header.contains(";" + year + "0101;4;" + year + "0101;" + year + "1231;"), header);
+    }
+
+    @Test
+    @DisplayName("GET /api/export/invoices?format=DATEV - Should not book cancelled invoices")
+    void exportDatev_ShouldSkipCancelledInvoices() {
+        Invoice invoice = invoiceRepository.findByInvoiceNumber(invoiceNumber).orElseThrow();
+        invoice.setStatus(InvoiceStatus.CANCELLED);
+        invoiceRepository.save(invoice);
+
+        byte[] body = given()
+            .auth().basic("testuser", "testpass")
+        .when()
+            .get("/api/export/invoices?format=DATEV&from=" + LocalDate.now())
+        .then()
+            .statusCode(200)
+            .extract().asByteArray();
+
+        assertEquals(2, new String(body, Charset.forName("windows-1252")).split("\r\n").length);
+    }
+
+    @Test
+    @DisplayName("GET /api/export/invoices?format=DATEV - Should reject a range across fiscal years")
+    void exportDatev_AcrossYears_ShouldReturnBadRequest() {
+        given()
+            .auth().basic("testuser", "testpass")
+        .when()
+            .get("/api/export/invoices?format=DATEV&from=2023-12-01&to=2024-01-31")
+        .then()
+            .statusCode(400)
+            .body("message", containsString("Wirtschaftsjahr"));
+    }
+}
@@ -0,0 +1,135 @@
+package com.hansal.verrechnungsprogramm.integration;
+
+import com.hansal.verrechnungsprogramm.model.Invoice;
+import com.hansal.verrechnungsprogramm.model.Order;
+import com.hansal.verrechnungsprogramm.repository.InvoiceRepository;
+import com.hansal.verrechnungsprogramm.repository.OrderRepository;
+import com.hansal.verrechnungsprogramm.service.InvoiceNumberAllocator;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the per-year invoice number allocator.
+ * Each test uses its own year so the counters do not interfere.
+ */
+class InvoiceNumberAllocatorIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private InvoiceNumberAllocator allocator;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        invoiceRepository.deleteAll();
+        orderRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Concurrent allocations should never hand out the same number")
+    void next_WhenCalledConcurrently_ShouldBeUnique() throws Exception {
+        int threads = 8;
+        int perThread = 50;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<List<String>>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    List<String> numbers = new ArrayList<>();
+                    for (int i = 0; i < perThread; i++) {
+                        numbers.add(allocator.next(2091));
+                    }
+                    return numbers;
+                }));
+            }
+
+            Set<String> all = new HashSet<>();
+            for (Future<List<String>> future : futures) {
+                all.addAll(future.get(30, TimeUnit.SECONDS));
+            }
+            assertEquals(threads * perThread, all.size());
+            all.forEach(number -> assertTrue(number.matches("INV-2091-\\d{6}"), number));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Refills should not need a connection of the main pool")
+    void next_WhenCallersHoldAllConnections_ShouldNotWaitForThePool() throws Exception {
+        int connections = dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+        CyclicBarrier allConnectionsTaken = new CyclicBarrier(connections);
+        ExecutorService executor = Executors.newFixedThreadPool(connections);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int t = 0; t < connections; t++) {
+                futures.add(executor.submit(() -> new TransactionTemplate(transactionManager).execute(status -> {
+                    new JdbcTemplate(dataSource).queryForObject("SELECT 1", Integer.class);
+                    try {
+                        allConnectionsTaken.await(10, TimeUnit.SECONDS);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                    return allocator.next(2094);
+                })));
+            }
+
+            Set<String> all = new HashSet<>();
+            for (Future<String> future : futures) {
+                all.add(future.get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(connections, all.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Bulk allocation should return the requested count of distinct numbers")
+    void next_WithCount_ShouldReturnDistinctNumbers() {
+        List<String> numbers = allocator.next(2093, 75);
+
+        assertEquals(75, numbers.size());
+        assertEquals(75, new HashSet<>(numbers).size());
+        assertEquals("INV-2093-000001", numbers.get(0));
+    }
+
+    @Test
+    @DisplayName("A new year's counter should continue after numbers already issued")
+    void next_ShouldContinueAfterExistingInvoices() {
+        Order order = new Order();
+        order.setCustomerName("Nummernkreis Kunde");
+        order = orderRepository.save(order);
+
+        Invoice invoice = new Invoice();
+        invoice.setOrder(order);
+        invoice.setInvoiceNumber("INV-2092-000417");
+        invoiceRepository.save(invoice);
+
+        assertEquals("INV-2092-000418", allocator.next(2092));
+        assertEquals("INV-2092-000419", allocator.next(2092));
+    }
+}
@@ -0,0 +1,291 @@
+package com.hansal.verrechnungsprogramm.integration;
+
+import com.hansal.verrechnungsprogramm.model.MeatCut;
+import com.hansal.verrechnungsprogramm.model.Product;
+import com.hansal.verrechnungsprogramm.model.Slaughter;
+import com.hansal.verrechnungsprogramm.repository.MeatCutRepository;
+import com.hansal.verrechnungsprogramm.repository.OrderRepository;
+import com.hansal.verrechnungsprogramm.repository.ProductRepository;
+import com.hansal.verrechnungsprogramm.repository.SlaughterRepository;
+import com.hansal.verrechnungsprogramm.service.MeatCutAvailabilityCache;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Integration tests for the FIFO allocation of product-based order items to meat cuts
+ * and the availability snapshot that follows it.
+ */
+class MeatCutAllocationIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private SlaughterRepository slaughterRepository;
+
+    @Autowired
+    private MeatCutRepository meatCutRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeatCutAvailabilityCache meatCutAvailabilityCache;
+
+    private Product testProduct;
+    private MeatCut olderCut;
+    private MeatCut newerCut;
+
+    @BeforeEach
+    void setUp() {
+        super.setUpRestAssured();
+
+        testProduct = new Product();
+        testProduct.setName("Allocation Test Gulasch");
+        testProduct.setPrice(new BigDecimal("22.00"));
+        testProduct = productRepository.save(testProduct);
+
+        // Saved out of order to make sure allocation follows the slaughter date, not the id
+        newerCut = saveSlaughterWithCut("AT-ALLOC-NEW", LocalDate.of(2024, 3, 1), new BigDecimal("10.00"));
+        olderCut = saveSlaughterWithCut("AT-ALLOC-OLD", LocalDate.of(2024, 1, 10), new BigDecimal("5.00"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        slaughterRepository.deleteAll();
+        productRepository.delete(testProduct);
+    }
+
+    @Test
+    @DisplayName("POST /api/orders - Product items should be allocated oldest slaughter first")
+    void createOrder_ShouldAllocateOldestSlaughterFirst() {
+        long orderId = createOrder(new BigDecimal("7.000"));
+
+        given()
+            .auth().basic("testuser", "testpass")
+        .when()
+            .get("/api/orders/" + orderId + "/allocations")
+        .then()
+            .statusCode(200)
+            .body("$", hasSize(2))
+            .body("[0].cowTag", equalTo("AT-ALLOC-OLD"))
+            .body("[0].weight", equalTo(5.0f))
+            .body("[1].cowTag", equalTo("AT-ALLOC-NEW"))
+            .body("[1].weight", equalTo(2.0f));
+
+        assertAvailableWeight(olderCut, 0.0f);
+        assertAvailableWeight(newerCut, 8.0f);
+    }
+
+    @Test
+    @DisplayName("DELETE /api/orders/{id} - Should release allocated weight")
+    void deleteOrder_ShouldReleaseAllocatedWeight() {
+        long orderId = createOrder(new BigDecimal("7.000"));
+
+        given()
+            .auth().basic("testuser", "testpass")
+        .when()
+            .delete("/api/orders/" + orderId)
+        .then()
+            .statusCode(204);
+
+        assertAvailableWeight(olderCut, 5.0f);
+        assertAvailableWeight(newerCut, 10.0f);
+    }
+
+    @Test
+    @DisplayName("PATCH /api/orders/{id}/status - Cancelling should release and reopening should allocate again")
+    void cancelOrder_ShouldReleaseAllocatedWeight() {
+        long orderId = createOrder(new BigDecimal("7.000"));
+
+        updateStatus(orderId, "CANCELLED");
+        assertAvailableWeight(olderCut, 5.0f);
+        assertAvailableWeight(newerCut, 10.0f);
+
+        updateStatus(orderId, "PENDING");
+        assertAvailableWeight(olderCut, 0.0f);
+        assertAvailableWeight(newerCut, 8.0f);
+    }
+
+    @Test
+    @DisplayName("POST /api/orders - A cancelled order should not allocate until it is reopened")
+    void createCancelledOrder_ShouldNotAllocate() {
+        long orderId = given()
+            .auth().basic("testuser", "testpass")
+            .contentType(ContentType.JSON)
+            .body("""
+                { "customerName": "Allocation Test Kunde", "status": "CANCELLED",
+                  "items": [ { "product": { "id": %d }, "weight": 7.0 } ] }
+                """.formatted(testProduct.getId()))
+        .when()
+            .post("/api/orders")
+        .then()
+            .statusCode(201)
+            .extract().jsonPath().getLong("id");
+
+        assertAvailableWeight(olderCut, 5.0f);
+        assertAvailableWeight(newerCut, 10.0f);
+
+        updateStatus(orderId, "PENDING");
+        assertAvailableWeight(olderCut, 0.0f);
+        assertAvailableWeight(newerCut, 8.0f);
+    }
+
+    @Test
+    @DisplayName("POST /api/orders - Stale candidates should be reloaded from the database")
+    void createOrder_WithStaleCandidates_ShouldAllocateAvailableWeight() {
+        createOrder(new BigDecimal("1.000"));
+        // Reserved behind the allocation service's back
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                meatCutRepository.reserveWeight(olderCut.getId(), testProduct.getId(), new BigDecimal("3.000")));
+
+        long orderId = createOrder(new BigDecimal("3.000"));
+
+        given()
+            .auth().basic("testuser", "testpass")
+        .when()
+            .get("/api/orders/" + orderId + "/allocations")
+        .then()
+            .statusCode(200)
+            .body("weight", contains(1.0f, 2.0f));
+        assertAvailableWeight(olderCut, 0.0f);
+        assertAvailableWeight(newerCut, 8.0f);
+    }
+
+    @Test
+    @DisplayName("POST /api/bulk/orders/status - Cancelling should release allocated weight")
+    void bulkCancelOrders_ShouldReleaseAllocatedWeight() {
+        long first = createOrder(new BigDecimal("3.000"));
+        long second = createOrder(new BigDecimal("4.000"));
+
+        given()
+            .auth().basic("testuser", "testpass")
+            .contentType(ContentType.JSON)
+            .body("""
+                { "orderIds": [%d, %d], "status": "CANCELLED" }
+                """.formatted(first, second))
+        .when()
+            .post("/api/bulk/orders/status")
+        .then()
+            .statusCode(200)
+            .body("items.status", contains("UPDATED", "UPDATED"));
+
+        assertAvailableWeight(olderCut, 5.0f);
+        assertAvailableWeight(newerCut, 10.0f);
+    }
+
+    @Test
+    @DisplayName("GET /api/meat-cuts/availability/product/{id} - Snapshot should follow committed allocations")
+    void availability_ShouldReflectAllocationsAfterCommit() {
+        given()
+            .auth().basic("testuser", "testpass")
+        .when()
+            .get("/api/meat-cuts/availability/product/" + testProduct.getId())
+        .then()
+            .statusCode(200)
+            .body("$", hasSize(2))
+            .body("[0].cowTag", equalTo("AT-ALLOC-NEW"));
+
+        createOrder(new BigDecimal("7.000"));
+
+        given()
+            .auth().basic("testuser", "testpass")
+        .when()
+            .get("/api/meat-cuts/availability/product/" + testProduct.getId())
+        .then()
+            .statusCode(200)
+            .body("$", hasSize(1))
+            .body("[0].cowTag", equalTo("AT-ALLOC-NEW"))
+            .body("[0].availableWeight", equalTo(8.0f))
+            .body("[0].productId", equalTo(testProduct.getId().intValue()));
+    }
+
+    @Test
+    @DisplayName("Reconciling should keep the availability refreshed after a commit")
+    void reconcile_ShouldKeepRefreshedAvailability() {
+        createOrder(new BigDecimal("7.000"));
+
+        meatCutAvailabilityCache.reconcile();
+
+        given()
+            .auth().basic("testuser", "testpass")
+        .when()
+            .get("/api/meat-cuts/availability/product/" + testProduct.getId())
+        .then()
+            .statusCode(200)
+            .body("$", hasSize(1))
+            .body("[0].availableWeight", equalTo(8.0f));
+    }
+
+    private long createOrder(BigDecimal weight) {
+        String orderJson = """
+            {
+                "customerName": "Allocation Test Kunde",
+                "items": [
+                    { "product": { "id": %d }, "weight": %s, "unitPrice": 22.00 }
+                ]
+            }
+            """.formatted(testProduct.getId(), weight.toPlainString());
+
+        return given()
+            .auth().basic("testuser", "testpass")
+            .contentType(ContentType.JSON)
+            .body(orderJson)
+        .when()
+            .post("/api/orders")
+        .then()
+            .statusCode(201)
+            .extract().jsonPath().getLong("id");
+    }
+
+    private void updateStatus(long orderId, String status) {
+        given()
+            .auth().basic("testuser", "testpass")
+            .queryParam("status", status)
+        .when()
+            .patch("/api/orders/" + orderId + "/status")
+        .then()
+            .statusCode(200)
+            .body("status", equalTo(status));
+    }
+
+    private void assertAvailableWeight(MeatCut meatCut, float expected) {
+        given()
+            .auth().basic("testuser", "testpass")
+        .when()
+            .get("/api/meat-cuts/" + meatCut.getId())
+        .then()
+            .statusCode(200)
+            .body("availableWeight", equalTo(expected));
+    }
+
+    private MeatCut saveSlaughterWithCut(String cowTag, LocalDate slaughterDate, BigDecimal weight) {
+        Slaughter slaughter = new Slaughter();
+        slaughter.setCowTag(cowTag);
+        slaughter.setSlaughterDate(slaughterDate);
+
+        MeatCut meatCut = new MeatCut();
+        meatCut.setProduct(testProduct);
+        meatCut.setTotalWeight(weight);
+        meatCut.setPricePerKg(new BigDecimal("22.00"));
+        slaughter.addMeatCut(meatCut);
+
+        return slaughterRepository.save(slaughter).getMeatCuts().get(0);
+    }
+}
@@ -0,0 +1,196 @@
+package com.hansal.verrechnungsprogramm.integration;
+
+import com.hansal.verrechnungsprogramm.model.Product;
+import com.hansal.verrechnungsprogramm.repository.InvoiceRepository;
+import com.hansal.verrechnungsprogramm.repository.OrderRepository;
+import com.hansal.verrechnungsprogramm.repository.ProductRepository;
+import com.hansal.verrechnungsprogramm.service.PdfJobService;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Integration tests for the background combined PDF jobs.
+ */
+class PdfJobIntegrationTest extends BaseIntegrationTest {
+
+    private static final long TIMEOUT_MILLIS = 30_000;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private PdfJobService pdfJobService;
+
+    @Value("${app.pdf-jobs.directory:${java.io.tmpdir}/hansal-pdf-jobs}")
+    private Path jobDirectory;
+
+    private Product testProduct;
+
+    @BeforeEach
+    void setUp() {
+        super.setUpRestAssured();
+
+        testProduct = new Product();
+        testProduct.setName("PDF Job Test Honig");
+        testProduct.setPrice(new BigDecimal("12.00"));
+        testProduct = productRepository.save(testProduct);
+    }
+
+    @AfterEach
+    void tearDown() {
+        invoiceRepository.deleteAll();
+        orderRepository.deleteAll();
+        productRepository.delete(testProduct);
+    }
+
+    @Test
+    @DisplayName("POST /api/invoices/batch/pdf/jobs - Job should render in the background and be downloadable")
+    void pdfJob_ShouldCompleteAndServeFile() throws InterruptedException {
+        List<Long> invoiceIds = List.of(createInvoice("PDF Job Kunde A"), createInvoice("PDF Job Kunde B"));
+
+        String location = given()
+            .auth().basic("testuser", "testpass")
+            .contentType(ContentType.JSON)
+            .body(invoiceIds)
+        .when()
+            .post("/api/invoices/batch/pdf/jobs")
+        .then()
+            .statusCode(202)
+            .body("total", equalTo(2))
+            .extract().header("Location");
+
+        awaitState(location, "DONE");
+
+        given()
+            .auth().basic("testuser", "testpass")
+        .when()
+            .get(location)
+        .then()
+            .statusCode(200)
+            .body("completed", equalTo(2))
+            .body("estimatedSecondsRemaining", equalTo(0));
+
+        byte[] pdf = given()
+            .auth().basic("testuser", "testpass")
+        .when()
+            .get(location + "/download")
+        .then()
+            .statusCode(200)
+            .contentType("application/pdf")
+            .extract().asByteArray();
+
+        assertTrue(pdf.length > 0);
+        assertEquals("%PDF", new String(pdf, 0, 4));
+    }
+
+    @Test
+    @DisplayName("Cleanup should delete job files left behind without a job once they are past the TTL")
+    void removeExpiredJobs_ShouldDeleteOrphanedFiles() throws IOException {
+        Path orphaned = Files.createTempFile(jobDirectory, "belege-orphaned-", ".pdf");
+        Files.setLastModifiedTime(orphaned, FileTime.from(Instant.now().minus(Duration.ofDays(1))));
+        Path recent = Files.createTempFile(jobDirectory, "belege-recent-", ".pdf");
+        try {
+            pdfJobService.removeExpiredJobs();
+
+            assertFalse(Files.exists(orphaned));
+            assertTrue(Files.exists(recent));
+        } finally {
+            Files.deleteIfExists(orphaned);
+            Files.deleteIfExists(recent);
+        }
+    }
+
+    @Test
+    @DisplayName("POST /api/invoices/batch/pdf/jobs - Job with unknown invoice should fail")
+    void pdfJob_WithUnknownInvoice_ShouldFail() throws InterruptedException {
+        String location = given()
+            .auth().basic("testuser", "testpass")
+            .contentType(ContentType.JSON)
+            .body(List.of(999999L))
+        .when()
+            .post("/api/invoices/batch/pdf/jobs")
+        .then()
+            .statusCode(202)
+            .extract().header("Location");
+
+        awaitState(location, "FAILED");
+
+        given()
+            .auth().basic("testuser", "testpass")
+        .when()
+            .get(location + "/download")
+        .then()
+            .statusCode(409);
+    }
+
+    private void awaitState(String location, String expectedState) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        String state;
+        do {
+            Thread.sleep(100);
+            state = given()
+                .auth().basic("testuser", "testpass")
+            .when()
+                .get(location)
+            .then()
+                .statusCode(200)
+                .extract().jsonPath().getString("state");
+        } while (!state.equals(expectedState) && System.currentTimeMillis() < deadline);
+        assertEquals(expectedState, state);
+    }
+
+    private long createInvoice(String customerName) {
+        String orderJson = """
+            {
+                "customerName": "%s",
+                "items": [
+                    { "product": { "id": %d }, "weight": 1.5, "unitPrice": 12.00 }
+                ]
+            }
+            """.formatted(customerName, testProduct.getId());
+
+        long orderId = given()
+            .auth().basic("testuser", "testpass")
+            .contentType(ContentType.JSON)
+            .body(orderJson)
+        .when()
+            .post("/api/orders")
+        .then()
+            .statusCode(201)
+            .extract().jsonPath().getLong("id");
+
+        return given()
+            .auth().basic("testuser", "testpass")
+        .when()
+            .post("/api/invoices/from-order/" + orderId)
+        .then()
+            .statusCode(201)
+            .extract().jsonPath().getLong("id");
+    }
+}
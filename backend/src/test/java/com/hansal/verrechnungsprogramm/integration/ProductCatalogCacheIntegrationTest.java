@@ -0,0 +1,122 @@
+package com.hansal.verrechnungsprogramm.integration;
+
+import com.hansal.verrechnungsprogramm.model.Product;
+import com.hansal.verrechnungsprogramm.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the product catalog cache and its invalidation.
+ */
+class ProductCatalogCacheIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Product testProduct;
+
+    @BeforeEach
+    void setUp() {
+        super.setUpRestAssured();
+
+        testProduct = new Product();
+        testProduct.setName("Cache Test Filet");
+        testProduct.setPrice(new BigDecimal("45.00"));
+        testProduct = productRepository.save(testProduct);
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll(productRepository.findByNameContainingIgnoreCase("Cache Test"));
+    }
+
+    @Test
+    @DisplayName("GET /api/products/{id} - Should serve repeated reads from the cache")
+    void getProductById_Repeated_ShouldHitCache() {
+        double hitsBefore = hits("products.byId");
+
+        getProduct(testProduct.getId()).then().statusCode(200);
+        getProduct(testProduct.getId()).then().statusCode(200);
+
+        assertTrue(hits("products.byId") >= hitsBefore + 1);
+    }
+
+    @Test
+    @DisplayName("PUT /api/products/{id} - Should evict the cached product and list")
+    void updateProduct_ShouldEvictCache() {
+        getProduct(testProduct.getId()).then().body("price", equalTo(45.00f));
+        getProducts().then().body("find { it.id == %d }.price".formatted(testProduct.getId()), equalTo(45.00f));
+
+        given()
+            .auth().basic("testuser", "testpass")
+            .contentType(ContentType.JSON)
+            .body("{ \"name\": \"Cache Test Filet\", \"price\": 47.50 }")
+        .when()
+            .put("/api/products/" + testProduct.getId())
+        .then()
+            .statusCode(200);
+
+        getProduct(testProduct.getId()).then().body("price", equalTo(47.50f));
+        getProducts().then().body("find { it.id == %d }.price".formatted(testProduct.getId()), equalTo(47.50f));
+    }
+
+    @Test
+    @DisplayName("DELETE /api/products/{id} - Should remove the product from the cached list")
+    void deleteProduct_ShouldEvictCache() {
+        getProducts().then().body("id", hasItem(testProduct.getId().intValue()));
+
+        given()
+            .auth().basic("testuser", "testpass")
+        .when()
+            .delete("/api/products/" + testProduct.getId())
+        .then()
+            .statusCode(204);
+
+        getProducts().then().body("id", not(hasItem(testProduct.getId().intValue())));
+    }
+
+    @Test
+    @DisplayName("POST /api/bulk/products - Should evict the cached list")
+    void bulkCreateProducts_ShouldEvictList() {
+        getProducts().then().body("name", not(hasItem("Cache Test Bulk")));
+
+        given()
+            .auth().basic("testuser", "testpass")
+            .contentType(ContentType.JSON)
+            .body("[ { \"name\": \"Cache Test Bulk\", \"price\": 12.00 } ]")
+        .when()
+            .post("/api/bulk/products")
+        .then()
+            .statusCode(200);
+
+        getProducts().then().body("name", hasItem("Cache Test Bulk"));
+    }
+
+    private Response getProduct(Long id) {
+        return given().auth().basic("testuser", "testpass").when().get("/api/products/" + id);
+    }
+
+    private Response getProducts() {
+        return given().auth().basic("testuser", "testpass").when().get("/api/products");
+    }
+
+    private double hits(String cache) {
+        var counter = meterRegistry.find("cache.gets").tag("cache", cache).tag("result", "hit").functionCounter();
+        return counter != null ? counter.count() : 0;
+    }
+}
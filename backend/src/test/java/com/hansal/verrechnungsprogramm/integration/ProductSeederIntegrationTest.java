@@ -0,0 +1,139 @@
+package com.hansal.verrechnungsprogramm.integration;
+
+import com.hansal.verrechnungsprogramm.model.Product;
+import com.hansal.verrechnungsprogramm.repository.ProductRepository;
+import com.hansal.verrechnungsprogramm.service.ProductSeeder;
+import com.hansal.verrechnungsprogramm.service.SeedCatalog;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for seeding the catalog products through /api/init.
+ */
+class ProductSeederIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private SeedCatalog seedCatalog;
+
+    @Autowired
+    private ProductSeeder productSeeder;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @BeforeEach
+    void setUp() {
+        super.setUpRestAssured();
+        productSeeder.seed(true);
+    }
+
+    @Test
+    @DisplayName("GET /api/init/products/default - Should return the catalog")
+    void getDefaultProducts_ShouldReturnCatalog() {
+        given()
+            .auth().basic("testuser", "testpass")
+        .when()
+            .get("/api/init/products/default")
+        .then()
+            .statusCode(200)
+            .body("$", hasSize(seedCatalog.products().size()))
+            .body("name", hasItem("Bio-Honig"));
+    }
+
+    @Test
+    @DisplayName("POST /api/init/products - Should change nothing when the products match the catalog")
+    void initializeProducts_WhenUpToDate_ShouldChangeNothing() {
+        long count = productRepository.count();
+
+        given()
+            .auth().basic("testuser", "testpass")
+            .queryParam("overwrite", true)
+        .when()
+            .post("/api/init/products")
+        .then()
+            .statusCode(200)
+            .body("count", equalTo(0));
+
+        assertEquals(count, productRepository.count());
+    }
+
+    @Test
+    @DisplayName("POST /api/init/products - Should insert missing catalog products")
+    void initializeProducts_ShouldInsertMissingProducts() {
+        Product honey = honey();
+        productRepository.delete(honey);
+
+        given()
+            .auth().basic("testuser", "testpass")
+        .when()
+            .post("/api/init/products")
+        .then()
+            .statusCode(200)
+            .body("count", equalTo(1))
+            .body("products[0].name", equalTo("Bio-Honig"))
+            .body("products[0].price", equalTo(15.0f));
+
+        assertNotEquals(honey.getId(), honey().getId());
+    }
+
+    @Test
+    @DisplayName("POST /api/init/products?overwrite=true - Should restore changed products and evict the caches")
+    void initializeProducts_WithOverwrite_ShouldRestoreChangedProducts() {
+        Long id = honey().getId();
+        given()
+            .auth().basic("testuser", "testpass")
+            .contentType(ContentType.JSON)
+            .body("""
+                { "name": "Bio-Honig", "description": "Waldhonig", "price": 19.00, "meatCutType": "Honig" }
+                """)
+        .when()
+            .put("/api/products/" + id)
+        .then()
+            .statusCode(200);
+        given()
+            .auth().basic("testuser", "testpass")
+        .when()
+            .get("/api/products/" + id)
+        .then()
+            .body("price", equalTo(19.0f));
+
+        // Without overwrite existing names are left alone
+        given()
+            .auth().basic("testuser", "testpass")
+        .when()
+            .post("/api/init/products")
+        .then()
+            .statusCode(200)
+            .body("count", equalTo(0));
+
+        given()
+            .auth().basic("testuser", "testpass")
+            .queryParam("overwrite", true)
+        .when()
+            .post("/api/init/products")
+        .then()
+            .statusCode(200)
+            .body("count", equalTo(1))
+            .body("products[0].id", equalTo(id.intValue()));
+
+        given()
+            .auth().basic("testuser", "testpass")
+        .when()
+            .get("/api/products/" + id)
+        .then()
+            .statusCode(200)
+            .body("price", equalTo(15.0f))
+            .body("description", equalTo("Blütenhonig aus eigener Imkerei"));
+    }
+
+    private Product honey() {
+        return productRepository.findByNameContainingIgnoreCase("Bio-Honig").get(0);
+    }
+}
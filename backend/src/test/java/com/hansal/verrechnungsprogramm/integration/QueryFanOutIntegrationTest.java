@@ -0,0 +1,162 @@
+package com.hansal.verrechnungsprogramm.integration;
+
+import com.hansal.verrechnungsprogramm.model.MeatCut;
+import com.hansal.verrechnungsprogramm.model.Product;
+import com.hansal.verrechnungsprogramm.model.Slaughter;
+import com.hansal.verrechnungsprogramm.repository.InvoiceRepository;
+import com.hansal.verrechnungsprogramm.repository.OrderRepository;
+import com.hansal.verrechnungsprogramm.repository.ProductRepository;
+import com.hansal.verrechnungsprogramm.repository.SlaughterRepository;
+import com.hansal.verrechnungsprogramm.service.QueryFanOut;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the parallel queries of the dashboard and the products
+ * with stock, and for the structured semantics of {@link QueryFanOut}.
+ */
+class QueryFanOutIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private QueryFanOut queryFanOut;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private SlaughterRepository slaughterRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    private Product testProduct;
+
+    @BeforeEach
+    void setUp() {
+        super.setUpRestAssured();
+
+        testProduct = new Product();
+        testProduct.setName("FanOut Test Schulter");
+        testProduct.setPrice(new BigDecimal("16.00"));
+        testProduct = productRepository.save(testProduct);
+
+        Slaughter slaughter = new Slaughter();
+        slaughter.setCowTag("AT-FANOUT-1");
+        slaughter.setSlaughterDate(LocalDate.of(2024, 5, 1));
+        for (String weight : List.of("4.50", "2.25")) {
+            MeatCut meatCut = new MeatCut();
+            meatCut.setProduct(testProduct);
+            meatCut.setTotalWeight(new BigDecimal(weight));
+            meatCut.setPricePerKg(new BigDecimal("16.00"));
+            slaughter.addMeatCut(meatCut);
+        }
+        slaughterRepository.save(slaughter);
+    }
+
+    @AfterEach
+    void tearDown() {
+        slaughterRepository.deleteAll();
+        productRepository.deleteAll(productRepository.findByNameContainingIgnoreCase("FanOut Test"));
+    }
+
+    @Test
+    @DisplayName("GET /api/dashboard/counts - Should count products, orders and invoices")
+    void getDashboardCounts_ShouldReturnCounts() {
+        given()
+            .auth().basic("testuser", "testpass")
+        .when()
+            .get("/api/dashboard/counts")
+        .then()
+            .statusCode(200)
+            .body("products", equalTo((int) productRepository.count()))
+            .body("orders", equalTo((int) orderRepository.count()))
+            .body("invoices", equalTo((int) invoiceRepository.count()));
+    }
+
+    @Test
+    @DisplayName("GET /api/products/with-stock - Should sum the available weight of all meat cuts")
+    void getProductsWithStock_ShouldSumMeatCuts() {
+        given()
+            .auth().basic("testuser", "testpass")
+        .when()
+            .get("/api/products/with-stock")
+        .then()
+            .statusCode(200)
+            .body("size()", equalTo((int) productRepository.count()))
+            .body("find { it.id == %d }.availableStock".formatted(testProduct.getId()), equalTo(6.75f));
+    }
+
+    @Test
+    @DisplayName("QueryFanOut - A failing subtask should interrupt the others and be rethrown")
+    void fanOut_WhenSubtaskFails_ShouldCancelOthers() {
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+
+        try (QueryFanOut.Scope scope = queryFanOut.open()) {
+            scope.fork(() -> {
+                started.countDown();
+                try {
+                    Thread.sleep(TimeUnit.SECONDS.toMillis(30));
+                } catch (InterruptedException e) {
+                    interrupted.set(true);
+                }
+                return null;
+            });
+            scope.fork(() -> {
+                started.await();
+                throw new IllegalStateException("query failed");
+            });
+
+            IllegalStateException e = assertThrows(IllegalStateException.class, scope::join);
+            assertEquals("query failed", e.getMessage());
+        }
+        assertTrue(interrupted.get());
+    }
+
+    @Test
+    @DisplayName("QueryFanOut - Should never run more subtasks at once than the connection limit")
+    void fanOut_ShouldRespectConcurrencyLimit() {
+        // The test pool has 10 connections, so at most 5 subtasks may run at once
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<Supplier<Long>> counts = new ArrayList<>();
+
+        try (QueryFanOut.Scope scope = queryFanOut.open()) {
+            for (int i = 0; i < 12; i++) {
+                counts.add(scope.fork(() -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    try {
+                        Thread.sleep(50);
+                        return productRepository.count();
+                    } finally {
+                        running.decrementAndGet();
+                    }
+                }));
+            }
+            scope.join();
+        }
+
+        assertEquals(5, maxRunning.get());
+        assertTrue(counts.stream().allMatch(count -> count.get() >= 1));
+    }
+}
@@ -0,0 +1,254 @@
+package com.hansal.verrechnungsprogramm.integration;
+
+import com.hansal.verrechnungsprogramm.model.Invoice;
+import com.hansal.verrechnungsprogramm.model.InvoiceStatus;
+import com.hansal.verrechnungsprogramm.model.Product;
+import com.hansal.verrechnungsprogramm.repository.InvoiceRepository;
+import com.hansal.verrechnungsprogramm.repository.OrderRepository;
+import com.hansal.verrechnungsprogramm.repository.OverdueInvoiceRepository;
+import com.hansal.verrechnungsprogramm.repository.ProductRepository;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.canvas.parser.PdfTextExtractor;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the aging report, the dunning list and customer statements.
+ */
+class ReceivablesIntegrationTest extends BaseIntegrationTest {
+
+    private static final LocalDate AS_OF = LocalDate.of(2024, 6, 30);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private OverdueInvoiceRepository overdueInvoiceRepository;
+
+    private Product testProduct;
+
+    @BeforeEach
+    void setUp() {
+        super.setUpRestAssured();
+
+        testProduct = new Product();
+        testProduct.setName("Aging Test Speck");
+        testProduct.setPrice(new BigDecimal("10.00"));
+        testProduct = productRepository.save(testProduct);
+    }
+
+    @AfterEach
+    void tearDown() {
+        overdueInvoiceRepository.deleteAll();
+        invoiceRepository.deleteAll();
+        orderRepository.deleteAll();
+        productRepository.delete(testProduct);
+    }
+
+    @Test
+    @DisplayName("GET /api/receivables/aging - Should bucket open invoices per customer")
+    void getAgingReport_ShouldBucketByDaysOverdue() {
+        // 2 kg at 10.00 plus 10% USt = 22.00 per invoice
+        createInvoice("Aging Kunde A", AS_OF.plusDays(5), InvoiceStatus.UNPAID);
+        createInvoice("Aging Kunde A", AS_OF.minusDays(10), InvoiceStatus.UNPAID);
+        createInvoice("aging kunde a", AS_OF.minusDays(45), InvoiceStatus.OVERDUE);
+        createInvoice("Aging Kunde B", AS_OF.minusDays(90), InvoiceStatus.UNPAID);
+        createInvoice("Aging Kunde B", AS_OF.minusDays(90), InvoiceStatus.PAID);
+
+        given()
+            .auth().basic("testuser", "testpass")
+            .param("asOf", AS_OF.toString())
+        .when()
+            .get("/api/receivables/aging")
+        .then()
+            .statusCode(200)
+            .body("asOf", equalTo(AS_OF.toString()))
+            .body("customers", hasSize(2))
+            .body("customers[0].customer", equalToIgnoringCase("Aging Kunde A"))
+            .body("customers[0].invoiceCount", equalTo(3))
+            .body("customers[0].current", equalTo(22.0f))
+            .body("customers[0].overdue1To30", equalTo(22.0f))
+            .body("customers[0].overdue31To60", equalTo(22.0f))
+            .body("customers[0].overdueOver60", equalTo(0.0f))
+            .body("customers[0].total", equalTo(66.0f))
+            .body("customers[1].customer", equalTo("Aging Kunde B"))
+            .body("customers[1].overdueOver60", equalTo(22.0f))
+            .body("customers[1].oldestDueDate", equalTo(AS_OF.minusDays(90).toString()))
+            .body("total.total", equalTo(88.0f));
+    }
+
+    @Test
+    @DisplayName("GET /api/receivables/overdue - Should list overdue invoices until they are paid")
+    void overdueInvoices_ShouldDropPaidInvoices() {
+        LocalDate today = LocalDate.now();
+        Invoice lateInvoice = createInvoice("Mahnung Kunde", today.minusDays(40), InvoiceStatus.UNPAID);
+        createInvoice("Mahnung Kunde", today.minusDays(3), InvoiceStatus.UNPAID);
+        createInvoice("Mahnung Kunde", today.plusDays(3), InvoiceStatus.UNPAID);
+
+        given()
+            .auth().basic("testuser", "testpass")
+        .when()
+            .post("/api/receivables/overdue/refresh")
+        .then()
+            .statusCode(200)
+            .body("count", equalTo(2));
+
+        given()
+            .auth().basic("testuser", "testpass")
+        .when()
+            .get("/api/receivables/overdue")
+        .then()
+            .statusCode(200)
+            .body("daysOverdue", contains(40, 3))
+            .body("[0].invoiceNumber", equalTo(lateInvoice.getInvoiceNumber()))
+            .body("[0].customerName", equalTo("Mahnung Kunde"));
+
+        lateInvoice.setStatus(InvoiceStatus.PAID);
+        invoiceRepository.save(lateInvoice);
+
+        given()
+            .auth().basic("testuser", "testpass")
+            .param("minDaysOverdue", 1)
+        .when()
+            .get("/api/receivables/overdue")
+        .then()
+            .statusCode(200)
+            .body("daysOverdue", contains(3));
+    }
+
+    @Test
+    @DisplayName("POST /api/invoices - New invoices should be due after the payment term, not overdue at once")
+    void newInvoices_ShouldBeDueAfterPaymentTerm() {
+        LocalDate dueDate = LocalDate.now().plusDays(14);
+        given()
+            .auth().basic("testuser", "testpass")
+        .when()
+            .post("/api/invoices/from-order/" + createOrder("Zahlungsziel Kunde"))
+        .then()
+            .statusCode(201)
+            .body("dueDate", equalTo(dueDate.toString()));
+
+        long bulkInvoiceId = given()
+            .auth().basic("testuser", "testpass")
+            .contentType(ContentType.JSON)
+            .body("{ \"orderIds\": [%d] }".formatted(createOrder("Zahlungsziel Kunde")))
+        .when()
+            .post("/api/invoices/bulk")
+        .then()
+            .statusCode(200)
+            .extract().jsonPath().getLong("invoiceIds[0]");
+        assertEquals(dueDate, invoiceRepository.findById(bulkInvoiceId).orElseThrow().getDueDate());
+
+        given()
+            .auth().basic("testuser", "testpass")
+        .when()
+            .post("/api/receivables/overdue/refresh")
+        .then()
+            .statusCode(200)
+            .body("count", equalTo(0));
+    }
+
+    @Test
+    @DisplayName("GET /api/receivables/statement - Should list every invoice across several pages")
+    void getStatement_ShouldSpanPages() throws IOException {
+        LocalDate today = LocalDate.now();
+        Invoice first = createInvoice("Auszug Kunde", today.plusDays(14), InvoiceStatus.PAID);
+        for (int i = 0; i < 78; i++) {
+            createInvoice("Auszug Kunde", today.plusDays(14), InvoiceStatus.UNPAID);
+        }
+        Invoice last = createInvoice("Auszug Kunde", today.minusDays(5), InvoiceStatus.UNPAID);
+        createInvoice("Anderer Kunde", today.plusDays(14), InvoiceStatus.UNPAID);
+
+        byte[] body = given()
+            .auth().basic("testuser", "testpass")
+            .param("customer", "  auszug kunde ")
+        .when()
+            .get("/api/receivables/statement")
+        .then()
+            .statusCode(200)
+            .contentType("application/pdf")
+            .extract().asByteArray();
+
+        try (PdfDocument pdf = new PdfDocument(new PdfReader(new ByteArrayInputStream(body)))) {
+            assertTrue(pdf.getNumberOfPages() > 1);
+            String firstPage = PdfTextExtractor.getTextFromPage(pdf.getFirstPage());
+            assertTrue(firstPage.contains("Kontoauszug"));
+            assertTrue(firstPage.contains(first.getInvoiceNumber()));
+            assertTrue(firstPage.contains("Seite 1"));
+            String lastPage = PdfTextExtractor.getTextFromPage(pdf.getLastPage());
+            assertTrue(lastPage.contains(last.getInvoiceNumber()));
+            assertTrue(lastPage.contains("überfällig"));
+            // 79 open invoices of 22.00
+            assertTrue(lastPage.contains("1738,00 €"));
+            assertTrue(lastPage.contains("Seite " + pdf.getNumberOfPages()));
+        }
+    }
+
+    @Test
+    @DisplayName("GET /api/receivables/statement - Should return 404 for customers without invoices")
+    void getStatement_UnknownCustomer_ShouldReturn404() {
+        given()
+            .auth().basic("testuser", "testpass")
+            .param("customer", "Niemand")
+        .when()
+            .get("/api/receivables/statement")
+        .then()
+            .statusCode(404);
+    }
+
+    private Invoice createInvoice(String customerName, LocalDate dueDate, InvoiceStatus status) {
+        long orderId = createOrder(customerName);
+
+        long invoiceId = given()
+            .auth().basic("testuser", "testpass")
+        .when()
+            .post("/api/invoices/from-order/" + orderId)
+        .then()
+            .statusCode(201)
+            .extract().jsonPath().getLong("id");
+
+        Invoice invoice = invoiceRepository.findById(invoiceId).orElseThrow();
+        invoice.setDueDate(dueDate);
+        invoice.setStatus(status);
+        return invoiceRepository.save(invoice);
+    }
+
+    private long createOrder(String customerName) {
+        return given()
+            .auth().basic("testuser", "testpass")
+            .contentType(ContentType.JSON)
+            .body("""
+                {
+                    "customerName": "%s",
+                    "items": [
+                        { "product": { "id": %d }, "weight": 2.0 }
+                    ]
+                }
+                """.formatted(customerName, testProduct.getId()))
+        .when()
+            .post("/api/orders")
+        .then()
+            .statusCode(201)
+            .extract().jsonPath().getLong("id");
+    }
+}
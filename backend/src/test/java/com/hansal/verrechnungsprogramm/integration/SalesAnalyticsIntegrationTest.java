@@ -0,0 +1,172 @@
+package com.hansal.verrechnungsprogramm.integration;
+
+import com.hansal.verrechnungsprogramm.model.Product;
+import com.hansal.verrechnungsprogramm.repository.InvoiceRepository;
+import com.hansal.verrechnungsprogramm.repository.OrderRepository;
+import com.hansal.verrechnungsprogramm.repository.ProductRepository;
+import com.hansal.verrechnungsprogramm.service.SalesAnalyticsService;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Integration tests for the daily sales rollups and the analytics API.
+ */
+class SalesAnalyticsIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private SalesAnalyticsService salesAnalyticsService;
+
+    private Product beef;
+    private Product pork;
+
+    @BeforeEach
+    void setUp() {
+        super.setUpRestAssured();
+
+        beef = new Product();
+        beef.setName("Analytics Test Rindfleisch");
+        beef.setPrice(new BigDecimal("20.00"));
+        beef.setMeatCutType("Rind");
+        beef = productRepository.save(beef);
+
+        pork = new Product();
+        pork.setName("Analytics Test Schweinefleisch");
+        pork.setPrice(new BigDecimal("10.00"));
+        pork.setMeatCutType("Schwein");
+        pork = productRepository.save(pork);
+    }
+
+    @AfterEach
+    void tearDown() {
+        invoiceRepository.deleteAll();
+        orderRepository.deleteAll();
+        salesAnalyticsService.rebuildAll();
+        productRepository.delete(beef);
+        productRepository.delete(pork);
+    }
+
+    @Test
+    @DisplayName("Rollups should follow order and invoice changes after commit")
+    void rollups_ShouldFollowOrderAndInvoiceChanges() {
+        long first = createOrder("Analytics Kunde", beef, "2.0");
+        createOrder("analytics kunde ", pork, "1.5");
+        createOrder("Andere Kundin", beef, "1.0");
+
+        given()
+            .auth().basic("testuser", "testpass")
+        .when()
+            .post("/api/invoices/from-order/" + first)
+        .then()
+            .statusCode(201);
+
+        given()
+            .auth().basic("testuser", "testpass")
+            .param("from", LocalDate.now().toString())
+            .param("groupBy", "CUSTOMER")
+            .param("customer", "ANALYTICS KUNDE")
+        .when()
+            .get("/api/analytics/sales")
+        .then()
+            .statusCode(200)
+            .body("", hasSize(1))
+            .body("[0].group.customer", equalToIgnoringCase("analytics kunde"))
+            .body("[0].itemCount", equalTo(2))
+            .body("[0].revenue", equalTo(55.0f))
+            .body("[0].invoicedRevenue", equalTo(40.0f));
+
+        given()
+            .auth().basic("testuser", "testpass")
+            .param("from", LocalDate.now().toString())
+            .param("groupBy", "MEAT_CUT_TYPE")
+        .when()
+            .get("/api/analytics/sales")
+        .then()
+            .statusCode(200)
+            .body("group.meatCutType", contains("Rind", "Schwein"))
+            .body("revenue", contains(60.0f, 15.0f));
+
+        given()
+            .auth().basic("testuser", "testpass")
+            .param("status", "CANCELLED")
+        .when()
+            .patch("/api/orders/" + first + "/status")
+        .then()
+            .statusCode(200);
+
+        given()
+            .auth().basic("testuser", "testpass")
+            .param("from", LocalDate.now().toString())
+            .param("productId", beef.getId())
+        .when()
+            .get("/api/analytics/sales")
+        .then()
+            .statusCode(200)
+            .body("[0].revenue", equalTo(20.0f))
+            .body("[0].invoicedRevenue", equalTo(0.0f));
+    }
+
+    @Test
+    @DisplayName("Nightly rebuild should produce the same figures as the incremental updates")
+    void rebuildAll_ShouldMatchIncrementalRollups() {
+        createOrder("Rebuild Kunde", beef, "3.0");
+        createOrder("Rebuild Kunde", pork, "2.0");
+
+        String incremental = sales("MONTH,PRODUCT");
+        salesAnalyticsService.rebuildAll();
+
+        assertEquals(incremental, sales("MONTH,PRODUCT"));
+    }
+
+    private String sales(String groupBy) {
+        return given()
+            .auth().basic("testuser", "testpass")
+            .param("groupBy", groupBy)
+        .when()
+            .get("/api/analytics/sales")
+        .then()
+            .statusCode(200)
+            .body("", not(empty()))
+            .extract().asString();
+    }
+
+    private long createOrder(String customerName, Product product, String weight) {
+        String orderJson = """
+            {
+                "customerName": "%s",
+                "items": [
+                    { "product": { "id": %d }, "weight": %s }
+                ]
+            }
+            """.formatted(customerName, product.getId(), weight);
+
+        return given()
+            .auth().basic("testuser", "testpass")
+            .contentType(ContentType.JSON)
+            .body(orderJson)
+        .when()
+            .post("/api/orders")
+        .then()
+            .statusCode(201)
+            .extract().jsonPath().getLong("id");
+    }
+}
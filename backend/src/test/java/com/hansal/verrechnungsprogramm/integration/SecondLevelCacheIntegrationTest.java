@@ -0,0 +1,180 @@
+package com.hansal.verrechnungsprogramm.integration;
+
+import com.hansal.verrechnungsprogramm.model.*;
+import com.hansal.verrechnungsprogramm.repository.*;
+import io.restassured.http.ContentType;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the Hibernate second-level cache: cached reads must be
+ * served without SQL and must never outlive a write.
+ */
+class SecondLevelCacheIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private SlaughterRepository slaughterRepository;
+
+    @Autowired
+    private MeatCutRepository meatCutRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Statistics statistics;
+    private Product testProduct;
+    private Slaughter testSlaughter;
+
+    @BeforeEach
+    void setUp() {
+        super.setUpRestAssured();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        testProduct = new Product();
+        testProduct.setName("L2 Test Tafelspitz");
+        testProduct.setPrice(new BigDecimal("28.00"));
+        testProduct = productRepository.save(testProduct);
+
+        testSlaughter = new Slaughter();
+        testSlaughter.setCowTag("AT-L2-1");
+        testSlaughter.setSlaughterDate(LocalDate.of(2024, 4, 1));
+        MeatCut meatCut = new MeatCut();
+        meatCut.setProduct(testProduct);
+        meatCut.setTotalWeight(new BigDecimal("5.00"));
+        meatCut.setPricePerKg(new BigDecimal("28.00"));
+        testSlaughter.addMeatCut(meatCut);
+        testSlaughter = slaughterRepository.save(testSlaughter);
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        slaughterRepository.deleteAll();
+        productRepository.deleteAll(productRepository.findByNameContainingIgnoreCase("L2 Test"));
+        userRepository.findByUsername("l2-test").ifPresent(userRepository::delete);
+    }
+
+    @Test
+    @DisplayName("Product - Repeated reads should be served from the cache")
+    void product_RepeatedRead_ShouldHitCache() {
+        productRepository.findById(testProduct.getId());
+        long hits = statistics.getDomainDataRegionStatistics("product").getHitCount();
+        long statements = statistics.getPrepareStatementCount();
+
+        productRepository.findById(testProduct.getId());
+
+        assertEquals(hits + 1, statistics.getDomainDataRegionStatistics("product").getHitCount());
+        assertEquals(statements, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Product - A cached product should be replaced after an update")
+    void product_AfterUpdate_ShouldReturnNewValues() {
+        assertEquals(0, new BigDecimal("28.00").compareTo(productRepository.findById(testProduct.getId()).orElseThrow().getPrice()));
+
+        Product product = productRepository.findById(testProduct.getId()).orElseThrow();
+        product.setPrice(new BigDecimal("29.50"));
+        productRepository.save(product);
+
+        assertEquals(0, new BigDecimal("29.50").compareTo(productRepository.findById(testProduct.getId()).orElseThrow().getPrice()));
+    }
+
+    @Test
+    @DisplayName("Product - A cached product should be gone after a delete")
+    void product_AfterDelete_ShouldNotBeFound() {
+        Product product = new Product();
+        product.setName("L2 Test Deleted");
+        product.setPrice(new BigDecimal("10.00"));
+        Long id = productRepository.save(product).getId();
+        assertTrue(productRepository.findById(id).isPresent());
+
+        productRepository.deleteById(id);
+
+        assertTrue(productRepository.findById(id).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Slaughter - A reservation should keep the slaughter cached and show the new available weight")
+    void slaughter_AfterReservation_ShouldStayCached() {
+        Long meatCutId = testSlaughter.getMeatCuts().get(0).getId();
+        assertTrue(slaughterRepository.findById(testSlaughter.getId()).isPresent());
+        assertTrue(entityManagerFactory.getCache().contains(Slaughter.class, testSlaughter.getId()));
+        assertFalse(entityManagerFactory.getCache().contains(MeatCut.class, meatCutId));
+
+        createOrder(2.0);
+
+        // The bulk update of meat_cuts must not evict regions of other tables
+        assertTrue(entityManagerFactory.getCache().contains(Slaughter.class, testSlaughter.getId()));
+        assertEquals(0, new BigDecimal("3.00").compareTo(meatCutRepository.findById(meatCutId).orElseThrow().getAvailableWeight()));
+        Slaughter slaughter = slaughterRepository.findByIdIn(List.of(testSlaughter.getId())).get(0);
+        assertEquals(0, new BigDecimal("3.00").compareTo(slaughter.getMeatCuts().get(0).getAvailableWeight()));
+    }
+
+    @Test
+    @DisplayName("MeatCutRepository.findAllAvailable - Should leave out a cut once it is fully reserved")
+    void findAllAvailable_AfterReservation_ShouldLeaveOutCut() {
+        Long meatCutId = testSlaughter.getMeatCuts().get(0).getId();
+        assertTrue(ids(meatCutRepository.findAllAvailable()).contains(meatCutId));
+
+        createOrder(5.0);
+
+        assertFalse(ids(meatCutRepository.findAllAvailable()).contains(meatCutId));
+    }
+
+    @Test
+    @DisplayName("User - A cached user should be replaced after an update")
+    void user_AfterUpdate_ShouldReturnNewValues() {
+        User user = new User();
+        user.setUsername("l2-test");
+        user.setPassword("secret");
+        user.setFullName("Vorher");
+        Long id = userRepository.save(user).getId();
+        assertEquals("Vorher", userRepository.findById(id).orElseThrow().getFullName());
+        assertTrue(entityManagerFactory.getCache().contains(User.class, id));
+
+        User loaded = userRepository.findById(id).orElseThrow();
+        loaded.setFullName("Nachher");
+        userRepository.save(loaded);
+
+        assertEquals("Nachher", userRepository.findById(id).orElseThrow().getFullName());
+    }
+
+    private void createOrder(double weight) {
+        given()
+            .auth().basic("testuser", "testpass")
+            .contentType(ContentType.JSON)
+            .body("""
+                { "customerName": "L2 Kunde", "items": [ { "product": { "id": %d }, "weight": %s } ] }
+                """.formatted(testProduct.getId(), weight))
+        .when()
+            .post("/api/orders")
+        .then()
+            .statusCode(201);
+    }
+
+    private static List<Long> ids(List<MeatCut> meatCuts) {
+        return meatCuts.stream().map(MeatCut::getId).toList();
+    }
+}
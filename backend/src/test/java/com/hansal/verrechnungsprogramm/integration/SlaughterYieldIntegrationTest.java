@@ -0,0 +1,180 @@
+package com.hansal.verrechnungsprogramm.integration;
+
+import com.hansal.verrechnungsprogramm.model.MeatCut;
+import com.hansal.verrechnungsprogramm.model.Product;
+import com.hansal.verrechnungsprogramm.model.Slaughter;
+import com.hansal.verrechnungsprogramm.repository.OrderRepository;
+import com.hansal.verrechnungsprogramm.repository.ProductRepository;
+import com.hansal.verrechnungsprogramm.repository.SlaughterRepository;
+import com.hansal.verrechnungsprogramm.repository.SlaughterYieldRepository;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Integration tests for the per-slaughter yield summaries.
+ */
+class SlaughterYieldIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private SlaughterRepository slaughterRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private SlaughterYieldRepository slaughterYieldRepository;
+
+    private Product testProduct;
+    private Slaughter slaughter;
+    private MeatCut meatCut;
+
+    @BeforeEach
+    void setUp() {
+        super.setUpRestAssured();
+
+        testProduct = new Product();
+        testProduct.setName("Yield Test Beiried");
+        testProduct.setPrice(new BigDecimal("25.00"));
+        testProduct = productRepository.save(testProduct);
+
+        slaughter = new Slaughter();
+        slaughter.setCowTag("AT-YIELD-1");
+        slaughter.setSlaughterDate(LocalDate.now().minusDays(3));
+        meatCut = new MeatCut();
+        meatCut.setProduct(testProduct);
+        meatCut.setTotalWeight(new BigDecimal("10.00"));
+        meatCut.setPricePerKg(new BigDecimal("20.00"));
+        slaughter.addMeatCut(meatCut);
+        slaughter = slaughterRepository.save(slaughter);
+        meatCut = slaughter.getMeatCuts().get(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        slaughterRepository.deleteAll();
+        slaughterYieldRepository.deleteAll();
+        productRepository.delete(testProduct);
+    }
+
+    @Test
+    @DisplayName("GET /api/slaughters/{id}/yield - Should count direct and allocated sales")
+    void getYield_ShouldFollowOrders() {
+        given()
+            .auth().basic("testuser", "testpass")
+        .when()
+            .get("/api/slaughters/" + slaughter.getId() + "/yield")
+        .then()
+            .statusCode(200)
+            .body("soldWeight", equalTo(0.0f))
+            .body("sellThrough", equalTo(0.0f))
+            .body("listValue", equalTo(200.0f))
+            .body("daysToSellOut", nullValue());
+
+        createOrder("{ \"meatCut\": { \"id\": %d }, \"weight\": 4.0 }".formatted(meatCut.getId()));
+        long productOrder = createOrder("{ \"product\": { \"id\": %d }, \"weight\": 6.0 }".formatted(testProduct.getId()));
+
+        given()
+            .auth().basic("testuser", "testpass")
+        .when()
+            .get("/api/slaughters/" + slaughter.getId() + "/yield")
+        .then()
+            .statusCode(200)
+            .body("carcassWeight", equalTo(10.0f))
+            .body("soldWeight", equalTo(10.0f))
+            .body("remainingWeight", equalTo(0.0f))
+            .body("sellThrough", equalTo(1.0f))
+            .body("revenue", equalTo(230.0f))
+            .body("realizedPricePerKg", equalTo(23.0f))
+            .body("soldOutDate", equalTo(LocalDate.now().toString()))
+            .body("daysToSellOut", equalTo(3));
+
+        given()
+            .auth().basic("testuser", "testpass")
+            .param("status", "CANCELLED")
+        .when()
+            .patch("/api/orders/" + productOrder + "/status")
+        .then()
+            .statusCode(200);
+
+        given()
+            .auth().basic("testuser", "testpass")
+        .when()
+            .get("/api/slaughters/" + slaughter.getId() + "/yield")
+        .then()
+            .statusCode(200)
+            .body("soldWeight", equalTo(4.0f))
+            .body("sellThrough", equalTo(0.4f))
+            .body("revenue", equalTo(80.0f))
+            .body("daysToSellOut", nullValue());
+    }
+
+    @Test
+    @DisplayName("GET /api/slaughters/yields - Should rank slaughters by sell-through")
+    void getYieldRanking_ShouldRankBySellThrough() {
+        Slaughter unsold = new Slaughter();
+        unsold.setCowTag("AT-YIELD-2");
+        unsold.setSlaughterDate(LocalDate.now().minusDays(2));
+        MeatCut unsoldCut = new MeatCut();
+        unsoldCut.setProduct(testProduct);
+        unsoldCut.setTotalWeight(new BigDecimal("5.00"));
+        unsoldCut.setPricePerKg(new BigDecimal("20.00"));
+        unsold.addMeatCut(unsoldCut);
+        unsold = slaughterRepository.save(unsold);
+
+        createOrder("{ \"meatCut\": { \"id\": %d }, \"weight\": 5.0 }".formatted(meatCut.getId()));
+        given()
+            .auth().basic("testuser", "testpass")
+        .when()
+            .get("/api/slaughters/" + unsold.getId() + "/yield")
+        .then()
+            .statusCode(200);
+
+        given()
+            .auth().basic("testuser", "testpass")
+            .param("rankBy", "SELL_THROUGH")
+            .param("from", LocalDate.now().minusDays(3).toString())
+        .when()
+            .get("/api/slaughters/yields")
+        .then()
+            .statusCode(200)
+            .body("cowTag", contains("AT-YIELD-1", "AT-YIELD-2"))
+            .body("[0].sellThrough", equalTo(0.5f));
+    }
+
+    @Test
+    @DisplayName("GET /api/slaughters/{id}/yield - Should return 404 for unknown slaughter")
+    void getYield_UnknownSlaughter_ShouldReturnNotFound() {
+        given()
+            .auth().basic("testuser", "testpass")
+        .when()
+            .get("/api/slaughters/999999/yield")
+        .then()
+            .statusCode(404);
+    }
+
+    private long createOrder(String itemJson) {
+        return given()
+            .auth().basic("testuser", "testpass")
+            .contentType(ContentType.JSON)
+            .body("{ \"customerName\": \"Yield Kunde\", \"items\": [ " + itemJson + " ] }")
+        .when()
+            .post("/api/orders")
+        .then()
+            .statusCode(201)
+            .extract().jsonPath().getLong("id");
+    }
+}
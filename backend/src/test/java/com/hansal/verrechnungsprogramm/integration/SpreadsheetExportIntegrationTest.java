@@ -0,0 +1,181 @@
+package com.hansal.verrechnungsprogramm.integration;
+
+import com.hansal.verrechnungsprogramm.model.MeatCut;
+import com.hansal.verrechnungsprogramm.model.Product;
+import com.hansal.verrechnungsprogramm.model.Slaughter;
+import com.hansal.verrechnungsprogramm.repository.OrderRepository;
+import com.hansal.verrechnungsprogramm.repository.ProductRepository;
+import com.hansal.verrechnungsprogramm.repository.SlaughterRepository;
+import com.hansal.verrechnungsprogramm.service.SpreadsheetExportService;
+import io.restassured.http.ContentType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the streaming Excel exports.
+ */
+class SpreadsheetExportIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private SlaughterRepository slaughterRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private Product testProduct;
+
+    @BeforeEach
+    void setUp() {
+        super.setUpRestAssured();
+
+        testProduct = new Product();
+        testProduct.setName("Excel Test Tafelspitz");
+        testProduct.setPrice(new BigDecimal("30.00"));
+        testProduct = productRepository.save(testProduct);
+
+        Slaughter slaughter = new Slaughter();
+        slaughter.setCowTag("AT-XLSX-1");
+        slaughter.setSlaughterDate(LocalDate.of(2024, 5, 2));
+        MeatCut meatCut = new MeatCut();
+        meatCut.setProduct(testProduct);
+        meatCut.setTotalWeight(new BigDecimal("8.00"));
+        meatCut.setPricePerKg(new BigDecimal("30.00"));
+        slaughter.addMeatCut(meatCut);
+        slaughterRepository.save(slaughter);
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        slaughterRepository.deleteAll();
+        productRepository.delete(testProduct);
+    }
+
+    @Test
+    @DisplayName("GET /api/export/orders - Should contain one row per order line")
+    void exportOrders_ShouldWriteOrderLines() throws IOException {
+        given()
+            .auth().basic("testuser", "testpass")
+            .contentType(ContentType.JSON)
+            .body("""
+                {
+                    "customerName": "Excel Kunde",
+                    "items": [
+                        { "product": { "id": %d }, "weight": 3.0, "unitPrice": 30.00 }
+                    ]
+                }
+                """.formatted(testProduct.getId()))
+        .when()
+            .post("/api/orders")
+        .then()
+            .statusCode(201);
+
+        Sheet sheet = download("/api/export/orders?from=" + LocalDate.now());
+
+        assertEquals("Bestellungen", sheet.getSheetName());
+        assertEquals(1, sheet.getLastRowNum());
+        Row row = sheet.getRow(1);
+        assertEquals("Excel Kunde", row.getCell(2).getStringCellValue());
+        assertEquals("Excel Test Tafelspitz", row.getCell(5).getStringCellValue());
+        assertEquals(3.0, row.getCell(6).getNumericCellValue(), 0.0001);
+        assertEquals(90.0, row.getCell(8).getNumericCellValue(), 0.0001);
+    }
+
+    @Test
+    @DisplayName("GET /api/export/slaughters - Should contain yield per cut")
+    void exportSlaughters_ShouldWriteYieldPerCut() throws IOException {
+        Sheet sheet = download("/api/export/slaughters?from=2024-05-01&to=2024-05-31");
+
+        assertEquals(1, sheet.getLastRowNum());
+        Row row = sheet.getRow(1);
+        assertEquals("AT-XLSX-1", row.getCell(0).getStringCellValue());
+        assertEquals("Excel Test Tafelspitz", row.getCell(4).getStringCellValue());
+        assertEquals(8.0, row.getCell(5).getNumericCellValue(), 0.0001);
+        assertEquals(1.0, row.getCell(6).getNumericCellValue(), 0.0001);
+        assertEquals(0.0, row.getCell(8).getNumericCellValue(), 0.0001);
+    }
+
+    @Test
+    @DisplayName("GET /api/export/stock - Should contain available weight per product")
+    void exportStock_ShouldWriteAvailableWeight() throws IOException {
+        Sheet sheet = download("/api/export/stock");
+
+        Row row = null;
+        for (int i = 1; i <= sheet.getLastRowNum(); i++) {
+            if ("Excel Test Tafelspitz".equals(sheet.getRow(i).getCell(1).getStringCellValue())) {
+                row = sheet.getRow(i);
+            }
+        }
+        assertNotNull(row);
+        assertEquals(1.0, row.getCell(4).getNumericCellValue(), 0.0001);
+        assertEquals(8.0, row.getCell(5).getNumericCellValue(), 0.0001);
+    }
+
+    @Test
+    @DisplayName("Spreadsheet export - Rows beyond a full sheet should continue on a new sheet")
+    void export_BeyondSheetLimit_ShouldAddSheet() throws IOException {
+        Slaughter slaughter = new Slaughter();
+        slaughter.setCowTag("AT-XLSX-2");
+        slaughter.setSlaughterDate(LocalDate.of(2024, 5, 3));
+        for (String weight : new String[]{"4.00", "6.00"}) {
+            MeatCut meatCut = new MeatCut();
+            meatCut.setProduct(testProduct);
+            meatCut.setTotalWeight(new BigDecimal(weight));
+            meatCut.setPricePerKg(new BigDecimal("30.00"));
+            slaughter.addMeatCut(meatCut);
+        }
+        slaughterRepository.save(slaughter);
+        SpreadsheetExportService service = new SpreadsheetExportService(dataSource, 500, 100, 2);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        int rows = service.exportSlaughterYields(LocalDate.of(2024, 5, 1), LocalDate.of(2024, 5, 31), out);
+
+        assertEquals(3, rows);
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            assertEquals(2, workbook.getNumberOfSheets());
+            assertEquals(2, workbook.getSheetAt(0).getLastRowNum());
+            Sheet second = workbook.getSheetAt(1);
+            assertEquals("Schlachtungen 2", second.getSheetName());
+            assertEquals("Ohrmarke", second.getRow(0).getCell(0).getStringCellValue());
+            assertEquals(1, second.getLastRowNum());
+            assertEquals(6.0, second.getRow(1).getCell(5).getNumericCellValue(), 0.0001);
+        }
+    }
+
+    private Sheet download(String path) throws IOException {
+        byte[] body = given()
+            .auth().basic("testuser", "testpass")
+        .when()
+            .get(path)
+        .then()
+            .statusCode(200)
+            .contentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
+            .extract().asByteArray();
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(body))) {
+            return workbook.getSheetAt(0);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.hansal.verrechnungsprogramm.integration;
+
+import com.hansal.verrechnungsprogramm.model.*;
+import com.hansal.verrechnungsprogramm.repository.InvoiceRepository;
+import com.hansal.verrechnungsprogramm.repository.OrderRepository;
+import com.hansal.verrechnungsprogramm.repository.ProductRepository;
+import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the streamed order and invoice lists and response compression.
+ */
+class StreamingListIntegrationTest extends BaseIntegrationTest {
+
+    // More than two chunks of app.lists.stream.chunk-size
+    private static final int ORDERS = 120;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    private Product testProduct;
+
+    @BeforeEach
+    void setUp() {
+        super.setUpRestAssured();
+
+        testProduct = new Product();
+        testProduct.setName("Stream Test Beiried");
+        testProduct.setPrice(new BigDecimal("32.00"));
+        testProduct = productRepository.save(testProduct);
+
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            Order order = new Order();
+            order.setCustomerName("Stream Kunde " + i);
+            for (int j = 1; j <= 2; j++) {
+                OrderItem item = new OrderItem();
+                item.setProduct(testProduct);
+                item.setWeight(new BigDecimal(j));
+                item.setUnitPrice(testProduct.getPrice());
+                order.addItem(item);
+            }
+            orders.add(order);
+        }
+        orders = orderRepository.saveAll(orders);
+
+        List<Invoice> invoices = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i += 2) {
+            Invoice invoice = new Invoice();
+            invoice.setInvoiceNumber("STREAM-" + i);
+            invoice.setOrder(orders.get(i));
+            invoices.add(invoice);
+        }
+        invoiceRepository.saveAll(invoices);
+    }
+
+    @AfterEach
+    void tearDown() {
+        invoiceRepository.deleteAll();
+        orderRepository.deleteAll();
+        productRepository.deleteAll(productRepository.findByNameContainingIgnoreCase("Stream Test"));
+    }
+
+    @Test
+    @DisplayName("GET /api/orders?stream=true - Should return the same orders and items as the list")
+    void streamOrders_ShouldMatchList() {
+        JsonPath listed = get("/api/orders");
+        JsonPath streamed = get("/api/orders?stream=true");
+
+        assertEquals(ORDERS, streamed.getList("$").size());
+        assertEquals(sorted(listed.getList("id", Integer.class)), streamed.getList("id", Integer.class));
+        assertEquals(2, streamed.getList("[%d].items".formatted(ORDERS - 1)).size());
+        assertEquals("Stream Test Beiried", streamed.getString("[0].items[0].product.name"));
+        assertEquals(96.0f, streamed.getFloat("[0].totalAmount"));
+    }
+
+    @Test
+    @DisplayName("GET /api/invoices?stream=true - Should return the invoices with their orders")
+    void streamInvoices_ShouldMatchList() {
+        JsonPath listed = get("/api/invoices");
+        JsonPath streamed = get("/api/invoices?stream=true");
+
+        assertEquals(ORDERS / 2, streamed.getList("$").size());
+        assertEquals(sorted(listed.getList("id", Integer.class)), streamed.getList("id", Integer.class));
+        assertEquals(2, streamed.getList("[0].order.items").size());
+        assertEquals("Stream Kunde 0", streamed.getString("[0].order.customerName"));
+    }
+
+    @Test
+    @DisplayName("GET /api/orders?stream=true - Should be gzip compressed when the client accepts it")
+    void streamOrders_ShouldBeCompressed() {
+        given()
+            .auth().basic("testuser", "testpass")
+            .header("Accept-Encoding", "gzip")
+        .when()
+            .get("/api/orders?stream=true")
+        .then()
+            .statusCode(200)
+            .contentType(ContentType.JSON)
+            .header("Content-Encoding", "gzip")
+            .body("$", hasSize(ORDERS));
+    }
+
+    @Test
+    @DisplayName("GET /api/orders - Should be gzip compressed when the client accepts it")
+    void listOrders_ShouldBeCompressed() {
+        given()
+            .auth().basic("testuser", "testpass")
+            .header("Accept-Encoding", "gzip")
+        .when()
+            .get("/api/orders")
+        .then()
+            .statusCode(200)
+            .header("Content-Encoding", "gzip")
+            .body("$", hasSize(ORDERS));
+    }
+
+    private JsonPath get(String path) {
+        return given()
+            .auth().basic("testuser", "testpass")
+        .when()
+            .get(path)
+        .then()
+            .statusCode(200)
+            .contentType(ContentType.JSON)
+            .extract().jsonPath();
+    }
+
+    private static List<Integer> sorted(List<Integer> ids) {
+        return ids.stream().sorted().toList();
+    }
+}
@@ -0,0 +1,316 @@
+package com.hansal.verrechnungsprogramm.integration;
+
+import com.hansal.verrechnungsprogramm.model.MeatCut;
+import com.hansal.verrechnungsprogramm.model.Product;
+import com.hansal.verrechnungsprogramm.model.Slaughter;
+import com.hansal.verrechnungsprogramm.model.SyncEntityType;
+import com.hansal.verrechnungsprogramm.repository.OrderRepository;
+import com.hansal.verrechnungsprogramm.repository.ProductRepository;
+import com.hansal.verrechnungsprogramm.repository.SlaughterRepository;
+import com.hansal.verrechnungsprogramm.service.SyncService;
+import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the change feed at /api/sync.
+ */
+class SyncIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private SlaughterRepository slaughterRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private SyncService syncService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Product testProduct;
+    private Slaughter testSlaughter;
+
+    @BeforeEach
+    void setUp() {
+        super.setUpRestAssured();
+
+        testProduct = new Product();
+        testProduct.setName("Sync Test Karree");
+        testProduct.setPrice(new BigDecimal("18.00"));
+        testProduct = productRepository.save(testProduct);
+
+        testSlaughter = new Slaughter();
+        testSlaughter.setCowTag("AT-SYNC-1");
+        testSlaughter.setSlaughterDate(LocalDate.of(2024, 3, 1));
+        MeatCut meatCut = new MeatCut();
+        meatCut.setProduct(testProduct);
+        meatCut.setTotalWeight(new BigDecimal("10.00"));
+        meatCut.setPricePerKg(new BigDecimal("18.00"));
+        testSlaughter.addMeatCut(meatCut);
+        testSlaughter = slaughterRepository.save(testSlaughter);
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        slaughterRepository.deleteAll();
+        productRepository.deleteAll(productRepository.findByNameContainingIgnoreCase("Sync Test"));
+    }
+
+    @Test
+    @DisplayName("GET /api/sync - Should return a full snapshot without a version")
+    void sync_WithoutVersion_ShouldReturnSnapshot() {
+        given()
+            .auth().basic("testuser", "testpass")
+        .when()
+            .get("/api/sync")
+        .then()
+            .statusCode(200)
+            .body("full", equalTo(true))
+            .body("version", greaterThan(0))
+            .body("products.id", hasItem(testProduct.getId().intValue()))
+            .body("slaughters.id", hasItem(testSlaughter.getId().intValue()))
+            .body("deleted.products", empty());
+    }
+
+    @Test
+    @DisplayName("GET /api/sync - Should return nothing when nothing changed")
+    void sync_AtCurrentVersion_ShouldReturnNoChanges() {
+        long version = sync(0).getLong("version");
+
+        JsonPath changes = sync(version);
+        assertFalse(changes.getBoolean("full"));
+        assertEquals(version, changes.getLong("version"));
+        assertTrue(changes.getList("products").isEmpty());
+        assertTrue(changes.getList("slaughters").isEmpty());
+        assertTrue(changes.getList("orders").isEmpty());
+        assertTrue(changes.getList("invoices").isEmpty());
+    }
+
+    @Test
+    @DisplayName("GET /api/sync - Should return only the entities changed since the version")
+    void sync_AfterUpdate_ShouldReturnChangedEntity() {
+        long version = sync(0).getLong("version");
+
+        testProduct.setPrice(new BigDecimal("19.00"));
+        productRepository.save(testProduct);
+
+        JsonPath changes = sync(version);
+        assertFalse(changes.getBoolean("full"));
+        assertTrue(changes.getLong("version") > version);
+        assertEquals(List.of(testProduct.getId().intValue()), changes.getList("products.id"));
+        assertEquals(19.0f, changes.getFloat("products[0].price"));
+        assertTrue(changes.getList("slaughters").isEmpty());
+    }
+
+    @Test
+    @DisplayName("GET /api/sync - Should report deleted entities as tombstones")
+    void sync_AfterDelete_ShouldReturnTombstone() {
+        long version = sync(0).getLong("version");
+
+        slaughterRepository.delete(testSlaughter);
+
+        JsonPath changes = sync(version);
+        assertTrue(changes.getList("slaughters").isEmpty());
+        assertEquals(List.of(testSlaughter.getId().intValue()), changes.getList("deleted.slaughters"));
+    }
+
+    @Test
+    @DisplayName("GET /api/sync - Should report the slaughter an order reserves stock from")
+    void sync_AfterOrder_ShouldReturnOrderAndSlaughter() {
+        long version = sync(0).getLong("version");
+
+        long orderId = given()
+            .auth().basic("testuser", "testpass")
+            .contentType(ContentType.JSON)
+            .body("""
+                { "customerName": "Sync Kunde", "items": [ { "product": { "id": %d }, "weight": 2.0 } ] }
+                """.formatted(testProduct.getId()))
+        .when()
+            .post("/api/orders")
+        .then()
+            .statusCode(201)
+            .extract().jsonPath().getLong("id");
+
+        JsonPath changes = sync(version);
+        assertEquals(List.of((int) orderId), changes.getList("orders.id"));
+        assertEquals(1, changes.getList("orders[0].items").size());
+        assertEquals(List.of(testSlaughter.getId().intValue()), changes.getList("slaughters.id"));
+        assertEquals(8.0f, changes.getFloat("slaughters[0].meatCuts[0].availableWeight"));
+    }
+
+    @Test
+    @DisplayName("GET /api/sync - Should report orders changed by a bulk status update")
+    void sync_AfterBulkStatusUpdate_ShouldReturnOrder() {
+        long orderId = given()
+            .auth().basic("testuser", "testpass")
+            .contentType(ContentType.JSON)
+            .body("""
+                { "customerName": "Sync Kunde", "items": [ { "product": { "id": %d }, "weight": 1.0 } ] }
+                """.formatted(testProduct.getId()))
+        .when()
+            .post("/api/orders")
+        .then()
+            .statusCode(201)
+            .extract().jsonPath().getLong("id");
+        long version = sync(0).getLong("version");
+
+        given()
+            .auth().basic("testuser", "testpass")
+            .contentType(ContentType.JSON)
+            .body("{ \"orderIds\": [%d], \"status\": \"COMPLETED\" }".formatted(orderId))
+        .when()
+            .post("/api/bulk/orders/status")
+        .then()
+            .statusCode(200);
+
+        JsonPath changes = sync(version);
+        assertEquals(List.of((int) orderId), changes.getList("orders.id"));
+        assertEquals("COMPLETED", changes.getString("orders[0].status"));
+    }
+
+    @Test
+    @DisplayName("GET /api/sync - Should not skip a transaction that commits after a later one")
+    void sync_WithLateCommit_ShouldReturnItsChangesLater() throws Exception {
+        long version = sync(0).getLong("version");
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Long> late = executor.submit(() -> new TransactionTemplate(transactionManager).execute(status -> {
+                Product product = new Product();
+                product.setName("Sync Test Spät");
+                product.setPrice(new BigDecimal("5.00"));
+                Long id = productRepository.saveAndFlush(product).getId();
+                written.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return id;
+            }));
+            assertTrue(written.await(10, TimeUnit.SECONDS));
+
+            // Commits with a higher version while the first transaction is still open, and does not wait for it
+            testProduct.setPrice(new BigDecimal("19.00"));
+            productRepository.save(testProduct);
+
+            // The feed stops below the open transaction, so the later change waits for it
+            JsonPath early = sync(version);
+            assertTrue(early.getList("products").isEmpty());
+
+            release.countDown();
+            Long lateId = late.get(10, TimeUnit.SECONDS);
+
+            JsonPath rest = sync(early.getLong("version"));
+            assertTrue(rest.getList("products.id").containsAll(List.of(testProduct.getId().intValue(), lateId.intValue())));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Concurrent first changes of an entity without a change row should both commit")
+    void markChanged_ConcurrentlyWithoutRow_ShouldNotFail() throws Exception {
+        // Entities that existed before the change feed have no row yet
+        jdbcTemplate.update("DELETE FROM sync_changes WHERE entity_type = 'SLAUGHTER' AND entity_id = ?", testSlaughter.getId());
+        long version = sync(0).getLong("version");
+        CyclicBarrier start = new CyclicBarrier(2);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                futures.add(executor.submit(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    try {
+                        start.await(10, TimeUnit.SECONDS);
+                        syncService.markChanged(SyncEntityType.SLAUGHTER, testSlaughter.getId());
+                        // Keeps the row locked while the other transaction writes it
+                        Thread.sleep(200);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                })));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(List.of(testSlaughter.getId().intValue()), sync(version).getList("slaughters.id"));
+    }
+
+    @Test
+    @DisplayName("GET /api/sync - Should return every change of concurrent writers")
+    void sync_WithConcurrentWriters_ShouldReturnAllChanges() throws Exception {
+        long version = sync(0).getLong("version");
+        int writers = 8;
+        int productsPerWriter = 25;
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        List<Future<List<Integer>>> futures = new ArrayList<>();
+        try {
+            for (int w = 0; w < writers; w++) {
+                int writer = w;
+                futures.add(executor.submit(() -> {
+                    List<Integer> ids = new ArrayList<>();
+                    for (int i = 0; i < productsPerWriter; i++) {
+                        Product product = new Product();
+                        product.setName("Sync Test Last " + writer + "-" + i);
+                        product.setPrice(new BigDecimal("1.00"));
+                        ids.add(productRepository.save(product).getId().intValue());
+                    }
+                    return ids;
+                }));
+            }
+            List<Integer> expected = new ArrayList<>();
+            for (Future<List<Integer>> future : futures) {
+                expected.addAll(future.get(60, TimeUnit.SECONDS));
+            }
+
+            List<Integer> synced = sync(version).getList("products.id");
+            assertEquals(writers * productsPerWriter, expected.size());
+            assertTrue(synced.containsAll(expected));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private JsonPath sync(long since) {
+        return given()
+            .auth().basic("testuser", "testpass")
+            .queryParam("since", since)
+        .when()
+            .get("/api/sync")
+        .then()
+            .statusCode(200)
+            .extract().jsonPath();
+    }
+}
@@ -0,0 +1,164 @@
+package com.hansal.verrechnungsprogramm.nativeimage;
+
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.nio.charset.StandardCharsets;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Smoke test of a running native binary, covering the parts that depend on
+ * reachability metadata: Liquibase (the schema exists), Hibernate without
+ * runtime proxies (lazy associations of the order), Jackson, the second-level
+ * cache, the query fan-out and iText (fonts and logo of the PDF).
+ * <p>
+ * Skipped by default. Start the binary against a database and run
+ * {@code mvn test -Dtest=NativeImageSmokeTest -Dnative.url=http://localhost:8080},
+ * or use {@code scripts/native-smoke-test.sh}. Works against the JVM build just
+ * the same. Everything it creates is deleted again.
+ */
+@Tag("native")
+@EnabledIfSystemProperty(named = "native.url", matches = ".+")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class NativeImageSmokeTest {
+
+    private static Long productId;
+    private static Long orderId;
+    private static Long invoiceId;
+
+    @BeforeAll
+    static void setUpRestAssured() {
+        RestAssured.baseURI = System.getProperty("native.url");
+        RestAssured.port = RestAssured.UNDEFINED_PORT;
+    }
+
+    @AfterAll
+    static void cleanup() {
+        if (invoiceId != null) {
+            given().delete("/api/invoices/" + invoiceId);
+        }
+        if (orderId != null) {
+            given().delete("/api/orders/" + orderId);
+        }
+        if (productId != null) {
+            given().delete("/api/products/" + productId);
+        }
+        RestAssured.reset();
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("GET /actuator/health - Should be up with the database migrated")
+    void health_ShouldBeUp() {
+        given()
+        .when()
+            .get("/actuator/health")
+        .then()
+            .statusCode(200)
+            .body("status", equalTo("UP"))
+            .body("components.db.status", equalTo("UP"));
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("POST /api/products - Should create a product")
+    void createProduct_ShouldReturnCreated() {
+        productId = given()
+            .contentType(ContentType.JSON)
+            .body("""
+                { "name": "Native Test Hüferscherzel", "price": 24.50, "meatCutType": "Rind" }
+                """)
+        .when()
+            .post("/api/products")
+        .then()
+            .statusCode(201)
+            .body("name", equalTo("Native Test Hüferscherzel"))
+            .extract().jsonPath().getLong("id");
+
+        given()
+        .when()
+            .get("/api/products/" + productId)
+        .then()
+            .statusCode(200)
+            .body("price", equalTo(24.50f));
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("POST /api/orders - Should load the lazy product of each item")
+    void createOrder_ShouldLoadLazyProduct() {
+        orderId = given()
+            .contentType(ContentType.JSON)
+            .body("""
+                {
+                    "customerName": "Native Kunde",
+                    "items": [ { "product": { "id": %d }, "weight": 2.0, "unitPrice": 24.50 } ]
+                }
+                """.formatted(productId))
+        .when()
+            .post("/api/orders")
+        .then()
+            .statusCode(201)
+            .extract().jsonPath().getLong("id");
+
+        given()
+        .when()
+            .get("/api/orders/" + orderId)
+        .then()
+            .statusCode(200)
+            .body("items", hasSize(1))
+            .body("items[0].product.name", equalTo("Native Test Hüferscherzel"))
+            .body("totalAmount", equalTo(49.0f));
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("GET /api/invoices/{id}/pdf - Should render the Beleg with iText")
+    void invoicePdf_ShouldRender() {
+        invoiceId = given()
+        .when()
+            .post("/api/invoices/from-order/" + orderId)
+        .then()
+            .statusCode(201)
+            .extract().jsonPath().getLong("id");
+
+        byte[] pdf = given()
+        .when()
+            .get("/api/invoices/" + invoiceId + "/pdf")
+        .then()
+            .statusCode(200)
+            .contentType("application/pdf")
+            .extract().asByteArray();
+
+        assertTrue(pdf.length > 1000);
+        assertEquals("%PDF", new String(pdf, 0, 4, StandardCharsets.US_ASCII));
+        // The letterhead logo is embedded as a JPEG image
+        assertTrue(new String(pdf, StandardCharsets.ISO_8859_1).contains("/DCTDecode"));
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("GET /api/dashboard/counts - Should run the parallel counts")
+    void dashboardCounts_ShouldCountCreatedRows() {
+        given()
+        .when()
+            .get("/api/dashboard/counts")
+        .then()
+            .statusCode(200)
+            .body("products", greaterThanOrEqualTo(1))
+            .body("orders", greaterThanOrEqualTo(1))
+            .body("invoices", greaterThanOrEqualTo(1));
+    }
+}
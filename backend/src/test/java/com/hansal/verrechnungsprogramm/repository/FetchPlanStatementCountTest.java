@@ -0,0 +1,208 @@
+package com.hansal.verrechnungsprogramm.repository;
+
+import com.hansal.verrechnungsprogramm.model.*;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Guards the fetch plans of the repositories: every method must load the data
+ * its use case renders (JSON list/detail views, invoice PDFs) with a fixed
+ * number of SQL statements, independent of the number of rows.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class FetchPlanStatementCountTest {
+
+    private static final int ROWS = 3;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private SlaughterRepository slaughterRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private MeatCutRepository meatCutRepository;
+
+    private Statistics statistics;
+    private Long slaughterId;
+    private Long orderId;
+    private String invoiceNumber;
+    private final List<Long> invoiceIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < ROWS; i++) {
+            Product product = new Product();
+            product.setName("Fetch Plan Produkt " + i);
+            product.setPrice(new BigDecimal("20.00"));
+            entityManager.persist(product);
+
+            Slaughter slaughter = new Slaughter();
+            slaughter.setCowTag("AT-FETCH-" + i);
+            slaughter.setSlaughterDate(LocalDate.of(2024, 1, 10 + i));
+            MeatCut meatCut = new MeatCut();
+            meatCut.setProduct(product);
+            meatCut.setTotalWeight(new BigDecimal("10.00"));
+            slaughter.addMeatCut(meatCut);
+            entityManager.persist(slaughter);
+            slaughterId = slaughter.getId();
+
+            Order order = new Order();
+            order.setCustomerName("Fetch Plan Kunde " + i);
+            OrderItem productItem = new OrderItem();
+            productItem.setProduct(product);
+            productItem.setWeight(new BigDecimal("1.000"));
+            productItem.setUnitPrice(new BigDecimal("20.00"));
+            order.addItem(productItem);
+            OrderItem meatCutItem = new OrderItem();
+            meatCutItem.setMeatCut(meatCut);
+            meatCutItem.setWeight(new BigDecimal("2.000"));
+            meatCutItem.setUnitPrice(new BigDecimal("20.00"));
+            order.addItem(meatCutItem);
+            entityManager.persist(order);
+            orderId = order.getId();
+
+            Invoice invoice = new Invoice();
+            invoice.setInvoiceNumber("INV-FETCH-" + i);
+            invoice.setOrder(order);
+            entityManager.persist(invoice);
+            invoiceNumber = invoice.getInvoiceNumber();
+            invoiceIds.add(invoice.getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("SlaughterRepository.findAll - Slaughters, meat cuts and products in one statement")
+    void slaughterFindAll_ShouldUseOneStatement() {
+        List<Slaughter> slaughters = slaughterRepository.findAll();
+        slaughters.forEach(this::render);
+
+        assertEquals(ROWS, slaughters.size());
+        assertStatementCount(1);
+    }
+
+    @Test
+    @DisplayName("SlaughterRepository.findById - Detail view in one statement")
+    void slaughterFindById_ShouldUseOneStatement() {
+        Optional<Slaughter> slaughter = slaughterRepository.findById(slaughterId);
+        slaughter.ifPresent(this::render);
+
+        assertTrue(slaughter.isPresent());
+        assertStatementCount(1);
+    }
+
+    @Test
+    @DisplayName("OrderRepository.findAllWithItems - Orders, items and products in one statement")
+    void orderFindAllWithItems_ShouldUseOneStatement() {
+        List<Order> orders = orderRepository.findAllWithItems();
+        orders.forEach(this::render);
+
+        assertEquals(ROWS, orders.size());
+        assertStatementCount(1);
+    }
+
+    @Test
+    @DisplayName("OrderRepository.findById - Detail view in one statement")
+    void orderFindById_ShouldUseOneStatement() {
+        Optional<Order> order = orderRepository.findById(orderId);
+        order.ifPresent(this::render);
+
+        assertTrue(order.isPresent());
+        assertStatementCount(1);
+    }
+
+    @Test
+    @DisplayName("OrderRepository.findAll - Lazy items are batch fetched instead of one select per order")
+    void orderFindAll_ShouldBatchFetchLazyAssociations() {
+        List<Order> orders = orderRepository.findAll();
+        orders.forEach(this::render);
+
+        // orders, items, products, meat cuts
+        assertEquals(ROWS, orders.size());
+        assertStatementCount(4);
+    }
+
+    @Test
+    @DisplayName("InvoiceRepository.findAll - Invoices with everything the PDF needs in one statement")
+    void invoiceFindAll_ShouldUseOneStatement() {
+        List<Invoice> invoices = invoiceRepository.findAll();
+        invoices.forEach(invoice -> render(invoice.getOrder()));
+
+        assertEquals(ROWS, invoices.size());
+        assertStatementCount(1);
+    }
+
+    @Test
+    @DisplayName("InvoiceRepository.findByInvoiceNumber - PDF rendering in one statement")
+    void invoiceFindByNumber_ShouldUseOneStatement() {
+        Optional<Invoice> invoice = invoiceRepository.findByInvoiceNumber(invoiceNumber);
+        invoice.ifPresent(i -> render(i.getOrder()));
+
+        assertTrue(invoice.isPresent());
+        assertStatementCount(1);
+    }
+
+    @Test
+    @DisplayName("InvoiceRepository.findAllForPdfByIdIn - Combined PDF hydration in one statement")
+    void invoiceFindAllForPdf_ShouldUseOneStatement() {
+        List<Invoice> invoices = invoiceRepository.findAllForPdfByIdIn(invoiceIds);
+        invoices.forEach(invoice -> render(invoice.getOrder()));
+
+        assertEquals(ROWS, invoices.size());
+        invoices.forEach(invoice -> assertEquals(2, invoice.getOrder().getItems().size()));
+        assertStatementCount(1);
+    }
+
+    @Test
+    @DisplayName("MeatCutRepository.findAllAvailable - Meat cuts with products in one statement")
+    void meatCutFindAllAvailable_ShouldUseOneStatement() {
+        List<MeatCut> meatCuts = meatCutRepository.findAllAvailable();
+        meatCuts.forEach(meatCut -> meatCut.getProduct().getName());
+
+        assertEquals(ROWS, meatCuts.size());
+        assertStatementCount(1);
+    }
+
+    private void render(Slaughter slaughter) {
+        slaughter.getMeatCuts().forEach(meatCut -> meatCut.getProduct().getName());
+    }
+
+    private void render(Order order) {
+        order.getItems().forEach(OrderItem::getItemName);
+    }
+
+    private void assertStatementCount(long expected) {
+        assertEquals(expected, statistics.getPrepareStatementCount(), "prepared SQL statements");
+    }
+}
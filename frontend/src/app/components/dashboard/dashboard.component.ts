@@ -6,11 +6,9 @@ import { MatIconModule } from '@angular/material/icon';
 import { MatButtonModule } from '@angular/material/button';
 import { MatSnackBar, MatSnackBarModule } from '@angular/material/snack-bar';
 import { MatDialog, MatDialogModule } from '@angular/material/dialog';
-import { Subject, takeUntil, forkJoin } from 'rxjs';
+import { Subject, takeUntil } from 'rxjs';
 
-import { ProductService } from '../../services/product.service';
-import { OrderService } from '../../services/order.service';
-import { InvoiceService } from '../../services/invoice.service';
+import { DashboardService } from '../../services/dashboard.service';
 import { AdminService } from '../../services/admin.service';
 import { ConfirmDialogComponent } from '../confirm-dialog/confirm-dialog.component';
 
@@ -40,9 +38,7 @@ export class DashboardComponent implements OnInit, OnDestroy {
   };
 
   constructor(
-    private productService: ProductService,
-    private orderService: OrderService,
-    private invoiceService: InvoiceService,
+    private dashboardService: DashboardService,
     private adminService: AdminService,
     private snackBar: MatSnackBar,
     private dialog: MatDialog
@@ -58,19 +54,11 @@ export class DashboardComponent implements OnInit, OnDestroy {
   }
 
   private loadCounts(): void {
-    forkJoin({
-      products: this.productService.getAll(),
-      orders: this.orderService.getAll(),
-      invoices: this.invoiceService.getAll()
-    })
+    this.dashboardService.getCounts()
     .pipe(takeUntil(this.destroy$))
     .subscribe({
-      next: (data) => {
-        this.counts = {
-          products: data.products.length,
-          orders: data.orders.length,
-          invoices: data.invoices.length
-        };
+      next: (counts) => {
+        this.counts = counts;
       },
       error: (error) => console.error('Failed to load dashboard data:', error)
     });
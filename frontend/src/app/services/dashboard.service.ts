@@ -0,0 +1,23 @@
+import { Injectable } from '@angular/core';
+import { HttpClient } from '@angular/common/http';
+import { Observable } from 'rxjs';
+import { environment } from '../../environments/environment';
+
+export interface DashboardCounts {
+  products: number;
+  orders: number;
+  invoices: number;
+}
+
+@Injectable({
+  providedIn: 'root'
+})
+export class DashboardService {
+  private apiUrl = `${environment.apiUrl}/dashboard`;
+
+  constructor(private http: HttpClient) {}
+
+  getCounts(): Observable<DashboardCounts> {
+    return this.http.get<DashboardCounts>(`${this.apiUrl}/counts`);
+  }
+}